@@ -52,8 +52,12 @@ public class AgentHolder {
 
     private static final Logger log = Logger.getLogger(AgentHolder.class);
     private static String configPath;
-    private static AgentHolder instance;
-    private Map<String, DataEndpointAgent> dataEndpointAgents;
+    private static volatile AgentHolder instance;
+    /**
+     * Agents by their lower case names, which is populated only while the holder is constructed, hence it is read
+     * without a lock.
+     */
+    private final Map<String, DataEndpointAgent> dataEndpointAgents = new HashMap<String, DataEndpointAgent>();
     /**
      * If there is no data publisher type is passed from,then the default Agent/Publisher will be used.
      * The first element in the data.agent.config.yaml is taken as default data publisher type.
@@ -62,7 +66,6 @@ public class AgentHolder {
 
     private AgentHolder() throws DataEndpointAgentConfigurationException {
         try {
-            dataEndpointAgents = new HashMap<String, DataEndpointAgent>();
             DataAgentsConfiguration dataAgentsConfiguration = loadConfiguration();
             boolean isDefault = true;
             for (Agent agent : dataAgentsConfiguration.getAgents()) {
@@ -77,11 +80,18 @@ public class AgentHolder {
         }
     }
 
-    public static synchronized AgentHolder getInstance() throws DataEndpointAgentConfigurationException {
-        if (instance == null) {
-            instance = new AgentHolder();
+    public static AgentHolder getInstance() throws DataEndpointAgentConfigurationException {
+        AgentHolder holder = instance;
+        if (holder == null) {
+            synchronized (AgentHolder.class) {
+                holder = instance;
+                if (holder == null) {
+                    holder = new AgentHolder();
+                    instance = holder;
+                }
+            }
         }
-        return instance;
+        return holder;
     }
 
     /**
@@ -104,9 +114,20 @@ public class AgentHolder {
         }
     }
 
-    public synchronized DataEndpointAgent getDataEndpointAgent(String type)
+    /**
+     * Returns the agent of the endpoint type. This does not lock, since the agents are not changed once the holder
+     * is constructed, and the agents create their transport pools only when they are used.
+     *
+     * @param type Name of the agent, which is matched ignoring the case.
+     * @return The agent.
+     * @throws DataEndpointAgentConfigurationException If there is no agent configured for the type.
+     */
+    public DataEndpointAgent getDataEndpointAgent(String type)
             throws DataEndpointAgentConfigurationException {
-        DataEndpointAgent agent = this.dataEndpointAgents.get(type.toLowerCase());
+        DataEndpointAgent agent = this.dataEndpointAgents.get(type);
+        if (agent == null) {
+            agent = this.dataEndpointAgents.get(type.toLowerCase());
+        }
         if (agent == null) {
             throw new DataEndpointAgentConfigurationException("No data agent configured for the type: " +
                     type.toLowerCase());
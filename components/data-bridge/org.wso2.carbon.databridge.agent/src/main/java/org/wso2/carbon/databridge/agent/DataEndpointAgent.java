@@ -24,11 +24,19 @@ import org.wso2.carbon.databridge.agent.client.AbstractSecureClientPoolFactory;
 import org.wso2.carbon.databridge.agent.client.ClientPool;
 import org.wso2.carbon.databridge.agent.conf.AgentConfiguration;
 import org.wso2.carbon.databridge.agent.endpoint.DataEndpoint;
+import org.wso2.carbon.databridge.agent.endpoint.DataEndpointGroup;
 import org.wso2.carbon.databridge.agent.exception.DataEndpointAgentConfigurationException;
+import org.wso2.carbon.databridge.agent.exception.DataEndpointConfigurationException;
 import org.wso2.carbon.databridge.agent.exception.DataEndpointException;
+import org.wso2.carbon.databridge.commons.utils.DataBridgeThreadFactory;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * One agent is created for a specific data endpoint type,and this has the resources such as transport pool, etc
@@ -39,12 +47,36 @@ public class DataEndpointAgent {
 
     private ArrayList<DataPublisher> dataPublishers = new ArrayList<>();
 
-    private GenericKeyedObjectPool transportPool;
+    /**
+     * Holds the transport pools, which are created when an endpoint of the agent uses them for the first time.
+     */
+    private final ClientPool clientPool = new ClientPool();
 
-    private GenericKeyedObjectPool securedTransportPool;
+    private AbstractClientPoolFactory clientPoolFactory;
+
+    private AbstractSecureClientPoolFactory secureClientPoolFactory;
 
     private AgentConfiguration agentConfiguration;
 
+    /**
+     * Workers which encode the batches of all the endpoints of the agent ahead of sending them, which are started
+     * when they are requested for the first time. This is null if the batches are encoded by the publisher threads.
+     */
+    private volatile ExecutorService serializationService;
+    private final Object serializationServiceLock = new Object();
+
+    /**
+     * Endpoint groups shared by the data publishers, by the receiver URLs, auth URLs and credentials of the group.
+     */
+    private final Map<List<Object>, SharedDataEndpointGroup> sharedEndpointGroups = new HashMap<>();
+
+    /**
+     * Locks held by the data publishers while they create the shared endpoint group of a key, hence the endpoints
+     * of a group connect without locking the agent. A lock is kept while its key has a shared endpoint group or a
+     * data publisher using the lock.
+     */
+    private final Map<List<Object>, SharedDataEndpointGroupLock> sharedEndpointGroupLocks = new HashMap<>();
+
     public DataEndpointAgent(AgentConfiguration agentConfiguration)
             throws DataEndpointAgentConfigurationException {
         this.agentConfiguration = agentConfiguration;
@@ -55,32 +87,15 @@ public class DataEndpointAgent {
         try {
             DataEndpoint dataEndpoint = (DataEndpoint) (DataEndpointAgent.class.getClassLoader().
                     loadClass(agentConfiguration.getDataEndpointClass()).newInstance());
-            AbstractClientPoolFactory clientPoolFactory = (AbstractClientPoolFactory)
+            clientPoolFactory = (AbstractClientPoolFactory)
                     (DataEndpointAgent.class.getClassLoader().
                             loadClass(dataEndpoint.getClientPoolFactoryClass()).newInstance());
-            AbstractSecureClientPoolFactory secureClientPoolFactory = (AbstractSecureClientPoolFactory)
+            secureClientPoolFactory = (AbstractSecureClientPoolFactory)
                     (DataEndpointAgent.class.getClassLoader().
                             loadClass(dataEndpoint.getSecureClientPoolFactoryClass()).
                             getConstructor(String.class, String.class).newInstance(
                             agentConfiguration.getTrustStorePath(),
                             agentConfiguration.getTrustStorePassword()));
-            ClientPool clientPool = new ClientPool();
-            this.transportPool = clientPool.getClientPool(
-                    clientPoolFactory,
-                    agentConfiguration.getMaxTransportPoolSize(),
-                    agentConfiguration.getMaxIdleConnections(),
-                    true,
-                    agentConfiguration.getEvictionTimePeriod(),
-                    agentConfiguration.getMinIdleTimeInPool());
-
-            this.securedTransportPool = clientPool.getClientPool(
-                    secureClientPoolFactory,
-                    agentConfiguration.getSecureMaxTransportPoolSize(),
-                    agentConfiguration.getSecureMaxIdleConnections(),
-                    true,
-                    agentConfiguration.getSecureEvictionTimePeriod(),
-                    agentConfiguration.getSecureMinIdleTimeInPool());
-
         } catch (InstantiationException | IllegalAccessException | ClassNotFoundException | NoSuchMethodException
                 | InvocationTargetException e) {
             throw new DataEndpointAgentConfigurationException("Error while creating the client pool "
@@ -96,18 +111,155 @@ public class DataEndpointAgent {
         return agentConfiguration;
     }
 
+    /**
+     * Returns the pool of the clients which publish the events, which is created on the first call.
+     */
     public GenericKeyedObjectPool getTransportPool() {
-        return transportPool;
+        return clientPool.getClientPool(
+                clientPoolFactory,
+                agentConfiguration.getMaxTransportPoolSize(),
+                agentConfiguration.getMaxIdleConnections(),
+                true,
+                agentConfiguration.getEvictionTimePeriod(),
+                agentConfiguration.getMinIdleTimeInPool());
     }
 
+    /**
+     * Returns the pool of the clients which login and logout, which is created on the first call.
+     */
     public GenericKeyedObjectPool getSecuredTransportPool() {
-        return securedTransportPool;
+        return clientPool.getClientPool(
+                secureClientPoolFactory,
+                agentConfiguration.getSecureMaxTransportPoolSize(),
+                agentConfiguration.getSecureMaxIdleConnections(),
+                true,
+                agentConfiguration.getSecureEvictionTimePeriod(),
+                agentConfiguration.getSecureMinIdleTimeInPool());
+    }
+
+    public ExecutorService getSerializationService() {
+        if (agentConfiguration.getSerializationThreads() <= 0) {
+            return null;
+        }
+        ExecutorService service = serializationService;
+        if (service == null) {
+            synchronized (serializationServiceLock) {
+                service = serializationService;
+                if (service == null) {
+                    service = Executors.newFixedThreadPool(agentConfiguration.getSerializationThreads(),
+                            new DataBridgeThreadFactory("EventSerializer"));
+                    serializationService = service;
+                }
+            }
+        }
+        return service;
     }
 
     public synchronized void shutDown(DataPublisher dataPublisher) {
         dataPublishers.remove(dataPublisher);
     }
 
+    /**
+     * Returns the shared endpoint group for the key and increments its reference count.
+     *
+     * @param key Receiver URLs, auth URLs and credentials of the endpoint group.
+     * @return The shared endpoint group, or null if there is no endpoint group for the key.
+     */
+    public synchronized DataEndpointGroup acquireSharedDataEndpointGroup(List<Object> key) {
+        SharedDataEndpointGroup sharedEndpointGroup = sharedEndpointGroups.get(key);
+        if (sharedEndpointGroup == null) {
+            return null;
+        }
+        sharedEndpointGroup.references++;
+        return sharedEndpointGroup.endpointGroup;
+    }
+
+    /**
+     * Returns the lock to be held while finding or creating the shared endpoint group of the key, so that only a
+     * single endpoint group is created for the key. The lock should be released by
+     * {@link #releaseSharedDataEndpointGroupLock(List)} once it is no longer held.
+     */
+    public synchronized Object acquireSharedDataEndpointGroupLock(List<Object> key) {
+        SharedDataEndpointGroupLock lock = sharedEndpointGroupLocks.get(key);
+        if (lock == null) {
+            lock = new SharedDataEndpointGroupLock();
+            sharedEndpointGroupLocks.put(key, lock);
+        }
+        lock.users++;
+        return lock;
+    }
+
+    /**
+     * Release the lock of the key acquired by {@link #acquireSharedDataEndpointGroupLock(List)}, which is removed
+     * if the key has no shared endpoint group and no other data publisher uses the lock.
+     */
+    public synchronized void releaseSharedDataEndpointGroupLock(List<Object> key) {
+        SharedDataEndpointGroupLock lock = sharedEndpointGroupLocks.get(key);
+        if (lock != null) {
+            lock.users--;
+            removeUnusedSharedDataEndpointGroupLock(key);
+        }
+    }
+
+    private void removeUnusedSharedDataEndpointGroupLock(List<Object> key) {
+        SharedDataEndpointGroupLock lock = sharedEndpointGroupLocks.get(key);
+        if (lock != null && lock.users == 0 && !sharedEndpointGroups.containsKey(key)) {
+            sharedEndpointGroupLocks.remove(key);
+        }
+    }
+
+    /**
+     * Register an endpoint group to be shared by the data publishers, with a single reference of the data
+     * publisher which created it.
+     */
+    public synchronized void addSharedDataEndpointGroup(List<Object> key, DataEndpointGroup endpointGroup) {
+        sharedEndpointGroups.put(key, new SharedDataEndpointGroup(endpointGroup));
+    }
+
+    /**
+     * Release a reference of a data publisher to the endpoint group.
+     *
+     * @return true if the endpoint group is not shared, or no other data publisher uses it, hence it should be
+     * shut down.
+     */
+    public synchronized boolean releaseDataEndpointGroup(DataEndpointGroup endpointGroup) {
+        for (Map.Entry<List<Object>, SharedDataEndpointGroup> entry : sharedEndpointGroups.entrySet()) {
+            SharedDataEndpointGroup sharedEndpointGroup = entry.getValue();
+            if (sharedEndpointGroup.endpointGroup == endpointGroup) {
+                if (--sharedEndpointGroup.references > 0) {
+                    return false;
+                }
+                sharedEndpointGroups.remove(entry.getKey());
+                removeUnusedSharedDataEndpointGroupLock(entry.getKey());
+                return true;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Detach the endpoint group of a data publisher from the shared endpoint groups before its receivers are
+     * changed, so that the data publishers created later for the original receivers do not share the changed group.
+     *
+     * @throws DataEndpointConfigurationException If other data publishers also use the endpoint group.
+     */
+    public synchronized void detachSharedDataEndpointGroup(DataEndpointGroup endpointGroup)
+            throws DataEndpointConfigurationException {
+        for (Map.Entry<List<Object>, SharedDataEndpointGroup> entry : sharedEndpointGroups.entrySet()) {
+            SharedDataEndpointGroup sharedEndpointGroup = entry.getValue();
+            if (sharedEndpointGroup.endpointGroup == endpointGroup) {
+                if (sharedEndpointGroup.references > 1) {
+                    throw new DataEndpointConfigurationException("Receivers of the endpoint group : " +
+                            endpointGroup + " cannot be changed, as it is shared by " +
+                            sharedEndpointGroup.references + " data publishers.");
+                }
+                sharedEndpointGroups.remove(entry.getKey());
+                removeUnusedSharedDataEndpointGroupLock(entry.getKey());
+                return;
+            }
+        }
+    }
+
     public DataEndpoint getNewDataEndpoint() throws DataEndpointException {
         try {
             return (DataEndpoint) (DataEndpointAgent.class.getClassLoader().
@@ -126,12 +278,35 @@ public class DataEndpointAgent {
         for (DataPublisher dataPublisher : dataPublishers) {
             dataPublisher.shutdown();
         }
+        synchronized (serializationServiceLock) {
+            if (serializationService != null) {
+                serializationService.shutdown();
+            }
+        }
         try {
-            transportPool.close();
-            securedTransportPool.close();
+            clientPool.close();
+            clientPoolFactory.shutdown();
         } catch (Exception e) {
             throw new DataEndpointException("Error while closing the transport pool", e);
         }
     }
-}
 
+    /**
+     * Endpoint group with the number of data publishers using it.
+     */
+    private static class SharedDataEndpointGroup {
+        private final DataEndpointGroup endpointGroup;
+        private int references = 1;
+
+        SharedDataEndpointGroup(DataEndpointGroup endpointGroup) {
+            this.endpointGroup = endpointGroup;
+        }
+    }
+
+    /**
+     * Lock of a shared endpoint group key with the number of data publishers using it.
+     */
+    private static class SharedDataEndpointGroupLock {
+        private int users;
+    }
+}
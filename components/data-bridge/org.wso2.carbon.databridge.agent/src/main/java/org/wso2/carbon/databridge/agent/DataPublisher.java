@@ -18,20 +18,33 @@
 package org.wso2.carbon.databridge.agent;
 
 import org.apache.log4j.Logger;
+import org.wso2.carbon.databridge.agent.aggregation.AggregatedEventCallback;
+import org.wso2.carbon.databridge.agent.aggregation.EventAggregator;
+import org.wso2.carbon.databridge.agent.aggregation.StreamAggregation;
 import org.wso2.carbon.databridge.agent.conf.DataEndpointConfiguration;
+import org.wso2.carbon.databridge.agent.endpoint.BatchSizeController;
+import org.wso2.carbon.databridge.agent.endpoint.CircuitBreaker;
 import org.wso2.carbon.databridge.agent.endpoint.DataEndpoint;
 import org.wso2.carbon.databridge.agent.endpoint.DataEndpointGroup;
+import org.wso2.carbon.databridge.agent.endpoint.DropReason;
 import org.wso2.carbon.databridge.agent.exception.DataEndpointAgentConfigurationException;
 import org.wso2.carbon.databridge.agent.exception.DataEndpointAuthenticationException;
 import org.wso2.carbon.databridge.agent.exception.DataEndpointConfigurationException;
 import org.wso2.carbon.databridge.agent.exception.DataEndpointException;
 import org.wso2.carbon.databridge.agent.exception.EventQueueFullException;
+import org.wso2.carbon.databridge.agent.ratelimit.EventRateLimiter;
+import org.wso2.carbon.databridge.agent.util.DataEndpointConstants;
 import org.wso2.carbon.databridge.agent.util.DataPublisherUtil;
 import org.wso2.carbon.databridge.commons.Event;
 import org.wso2.carbon.databridge.commons.exception.TransportException;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * API Used to communicate with Data Receivers WSO2 BAM/CEP. It can be used to send events to
@@ -52,6 +65,13 @@ public class DataPublisher {
      */
     private DataEndpointAgent dataEndpointAgent;
 
+    /**
+     * Credentials of the data publisher, which are used for the receivers added while publishing.
+     */
+    private String username;
+
+    private String password;
+
     private static final int FAILED_EVENT_LOG_INTERVAL = 10000;
 
     /**
@@ -66,6 +86,18 @@ public class DataPublisher {
      */
     private long failedEventCount;
 
+    /**
+     * Rate limiter of the events published through this data publisher, which is null
+     * if there are no rate limits configured for the agent.
+     */
+    private EventRateLimiter eventRateLimiter;
+
+    /**
+     * Pre-aggregator of the events of the streams, which is null if there are no stream
+     * aggregations configured for the agent.
+     */
+    private EventAggregator eventAggregator;
+
     /**
      * Creates the DataPublisher instance for a specific user, and the it creates
      * connection asynchronously to receiver endpoint.
@@ -86,10 +118,8 @@ public class DataPublisher {
             throws DataEndpointAgentConfigurationException,
             DataEndpointException, DataEndpointConfigurationException,
             DataEndpointAuthenticationException, TransportException {
-        dataEndpointAgent = AgentHolder.getInstance().getDefaultDataEndpointAgent();
-        processEndpoints(dataEndpointAgent, receiverURLSet, DataPublisherUtil.
-                getDefaultAuthURLSet(receiverURLSet), username, password);
-        dataEndpointAgent.addDataPublisher(this);
+        dataEndpointAgent = getDefaultDataEndpointAgent(receiverURLSet);
+        initialize(receiverURLSet, DataPublisherUtil.getDefaultAuthURLSet(receiverURLSet), username, password);
     }
 
     /**
@@ -99,7 +129,7 @@ public class DataPublisher {
      * @param type           The Agent name from which the DataPublisher that needs to be created. By default Thrift,
      *                       and Binary is supported. The type should match with the parameter name.
      *                       element in the data.agent.config.yaml, if null is passed one of the default type will be
-     *                       picked
+     *                       picked, which is the Local type if all the receivers are local:// receivers
      * @param receiverURLSet The receiving endpoint URL Set. This can be either load balancing URL set,
      *                       or Failover URL set.
      * @param authURLSet     The authenticating URL Set for the endpoints given in receiverURLSet parameter.
@@ -120,21 +150,48 @@ public class DataPublisher {
             DataEndpointException, DataEndpointConfigurationException,
             DataEndpointAuthenticationException, TransportException {
         if (type == null) {
-            dataEndpointAgent = AgentHolder.getInstance().getDefaultDataEndpointAgent();
+            dataEndpointAgent = getDefaultDataEndpointAgent(receiverURLSet);
         } else {
             dataEndpointAgent = AgentHolder.getInstance().getDataEndpointAgent(type);
         }
         if (authURLSet == null) {
             authURLSet = DataPublisherUtil.getDefaultAuthURLSet(receiverURLSet);
         }
-        processEndpoints(dataEndpointAgent, receiverURLSet, authURLSet, username, password);
+        initialize(receiverURLSet, authURLSet, username, password);
+    }
+
+    /**
+     * Creates the rate limiter and the aggregator of the data publisher before its endpoint groups, so that
+     * an invalid configuration fails the data publisher before any endpoint is connected.
+     */
+    private void initialize(String receiverURLSet, String authURLSet, String username, String password)
+            throws DataEndpointAgentConfigurationException, DataEndpointException,
+            DataEndpointConfigurationException, DataEndpointAuthenticationException, TransportException {
+        eventRateLimiter = EventRateLimiter.create(dataEndpointAgent.getAgentConfiguration());
+        initEventAggregator();
+        boolean isInitialized = false;
+        try {
+            processEndpoints(dataEndpointAgent, receiverURLSet, authURLSet, username, password);
+            isInitialized = true;
+        } finally {
+            if (!isInitialized) {
+                if (eventAggregator != null) {
+                    eventAggregator.shutdown();
+                }
+                // Release the endpoint groups created or shared before the failed one.
+                releaseEndpointGroups();
+                endpointGroups.clear();
+            }
+        }
         dataEndpointAgent.addDataPublisher(this);
     }
 
 
     /**
      * This validates the input that are passed in the DataPublisher creation,
-     * and initiates the endpoints connection.
+     * and initiates the endpoints connection. When the agent shares the endpoint groups, an endpoint group
+     * of an existing data publisher with same receiver URLs, auth URLs and credentials is used, hence the
+     * events of both data publishers are sent in same batches over same connections.
      *
      * @param dataEndpointAgent Agent of the DataPublisher.
      * @param receiverURLSet    The receiving endpoint URL Set. This can be either load balancing URL set,
@@ -156,6 +213,8 @@ public class DataPublisher {
                                   String receiverURLSet, String authURLSet, String username, String password)
             throws DataEndpointConfigurationException, DataEndpointAgentConfigurationException,
             DataEndpointException, DataEndpointAuthenticationException, TransportException {
+        this.username = username;
+        this.password = password;
         ArrayList<Object[]> receiverURLGroups = DataPublisherUtil.getEndpointGroups(receiverURLSet);
         ArrayList<Object[]> authURLGroups = DataPublisherUtil.getEndpointGroups(authURLSet);
         DataPublisherUtil.validateURLs(receiverURLGroups, authURLGroups);
@@ -166,30 +225,119 @@ public class DataPublisher {
             boolean failOver = (Boolean) receiverGroup[0];
 
             DataEndpointGroup endpointGroup;
-            if (failOver) {
-                endpointGroup = new DataEndpointGroup(DataEndpointGroup.HAType.FAILOVER, dataEndpointAgent);
+            if (dataEndpointAgent.getAgentConfiguration().isShareEndpointGroups()) {
+                List<Object> key = Arrays.asList(failOver, Arrays.asList(receiverGroup), Arrays.asList(authGroup),
+                        username, password);
+                Object lock = dataEndpointAgent.acquireSharedDataEndpointGroupLock(key);
+                try {
+                    synchronized (lock) {
+                        endpointGroup = dataEndpointAgent.acquireSharedDataEndpointGroup(key);
+                        if (endpointGroup == null) {
+                            endpointGroup = createEndpointGroup(dataEndpointAgent, receiverGroup, authGroup,
+                                    username, password);
+                            dataEndpointAgent.addSharedDataEndpointGroup(key, endpointGroup);
+                        }
+                    }
+                } finally {
+                    dataEndpointAgent.releaseSharedDataEndpointGroupLock(key);
+                }
             } else {
-                endpointGroup = new DataEndpointGroup(DataEndpointGroup.HAType.LOADBALANCE,
-                        dataEndpointAgent);
+                endpointGroup = createEndpointGroup(dataEndpointAgent, receiverGroup, authGroup, username, password);
             }
-            /*
-             * Since the first element holds the failover/LB settings
-             * we need to start iterating from 2nd element.
-             */
+            endpointGroups.add(endpointGroup);
+        }
+    }
+
+    /**
+     * Returns the agent to be used when the type is not specified, which is the local agent for receivers in the
+     * same JVM and the default agent otherwise.
+     */
+    private static DataEndpointAgent getDefaultDataEndpointAgent(String receiverURLSet)
+            throws DataEndpointAgentConfigurationException, DataEndpointConfigurationException {
+        if (DataPublisherUtil.isLocalURLSet(receiverURLSet)) {
+            return AgentHolder.getInstance().getDataEndpointAgent(DataEndpointConstants.LOCAL_DATA_AGENT_TYPE);
+        }
+        return AgentHolder.getInstance().getDefaultDataEndpointAgent();
+    }
+
+    /**
+     * Creates the endpoint group and initiates the connections of its endpoints.
+     */
+    private DataEndpointGroup createEndpointGroup(DataEndpointAgent dataEndpointAgent, Object[] receiverGroup,
+                                                  Object[] authGroup, String username, String password)
+            throws DataEndpointConfigurationException, DataEndpointException, DataEndpointAuthenticationException,
+            TransportException {
+        boolean failOver = (Boolean) receiverGroup[0];
+        DataEndpointGroup endpointGroup;
+        if (failOver) {
+            endpointGroup = new DataEndpointGroup(DataEndpointGroup.HAType.FAILOVER, dataEndpointAgent);
+        } else {
+            endpointGroup = new DataEndpointGroup(DataEndpointGroup.HAType.LOADBALANCE,
+                    dataEndpointAgent);
+        }
+        /*
+         * Since the first element holds the failover/LB settings
+         * we need to start iterating from 2nd element.
+         */
+        try {
             for (int j = 1; j < receiverGroup.length; j++) {
-                DataEndpointConfiguration endpointConfiguration =
-                        new DataEndpointConfiguration((String) receiverGroup[j],
-                                (String) authGroup[j], username, password, dataEndpointAgent.getTransportPool(),
-                                dataEndpointAgent.getSecuredTransportPool(), dataEndpointAgent.
-                                getAgentConfiguration().getBatchSize(),
-                                dataEndpointAgent.getAgentConfiguration().getCorePoolSize(),
-                                dataEndpointAgent.getAgentConfiguration().getMaxPoolSize(),
-                                dataEndpointAgent.getAgentConfiguration().getKeepAliveTimeInPool());
-                DataEndpoint dataEndpoint = dataEndpointAgent.getNewDataEndpoint();
-                dataEndpoint.initialize(endpointConfiguration);
-                endpointGroup.addDataEndpoint(dataEndpoint);
+                endpointGroup.addDataEndpoint(createDataEndpoint(dataEndpointAgent, (String) receiverGroup[j],
+                        (String) authGroup[j], username, password));
             }
-            endpointGroups.add(endpointGroup);
+        } catch (DataEndpointConfigurationException | DataEndpointException | DataEndpointAuthenticationException
+                | TransportException | RuntimeException e) {
+            endpointGroup.shutdown();
+            throw e;
+        }
+        return endpointGroup;
+    }
+
+    /**
+     * Creates the endpoint of the receiver and initiates its connection, unless the agent connects the endpoints
+     * when the first event is published.
+     */
+    private static DataEndpoint createDataEndpoint(DataEndpointAgent dataEndpointAgent, String receiverURL,
+                                                   String authURL, String username, String password)
+            throws DataEndpointConfigurationException, DataEndpointException, DataEndpointAuthenticationException,
+            TransportException {
+        DataEndpointConfiguration endpointConfiguration = new DataEndpointConfiguration(receiverURL, authURL,
+                username, password, null, null, dataEndpointAgent.getAgentConfiguration().getBatchSize(),
+                dataEndpointAgent.getAgentConfiguration().getCorePoolSize(),
+                dataEndpointAgent.getAgentConfiguration().getMaxPoolSize(),
+                dataEndpointAgent.getAgentConfiguration().getKeepAliveTimeInPool());
+        endpointConfiguration.setCircuitBreaker(CircuitBreaker.create(dataEndpointAgent.
+                getAgentConfiguration()));
+        endpointConfiguration.setBatchSizeController(BatchSizeController.create(dataEndpointAgent.
+                getAgentConfiguration()));
+        endpointConfiguration.setSessionRenewalIntervalMS(TimeUnit.SECONDS.toMillis(dataEndpointAgent.
+                getAgentConfiguration().getSessionRenewalIntervalSeconds()));
+        endpointConfiguration.setSyncGroupCommitConcurrency(dataEndpointAgent.getAgentConfiguration().
+                getSyncGroupCommitConcurrency());
+        endpointConfiguration.setDataEndpointAgent(dataEndpointAgent);
+        endpointConfiguration.setLazyConnect(dataEndpointAgent.getAgentConfiguration().isLazyConnect());
+        endpointConfiguration.setCompactBinaryEncoding(dataEndpointAgent.getAgentConfiguration().
+                isCompactBinaryEncoding());
+        endpointConfiguration.setColumnarBinaryEncoding(dataEndpointAgent.getAgentConfiguration().
+                isColumnarBinaryEncoding());
+        endpointConfiguration.setReceiverLoadThreshold(dataEndpointAgent.getAgentConfiguration().
+                getReceiverLoadThreshold());
+        endpointConfiguration.setReceiverLoadMaxBackoffMS(dataEndpointAgent.getAgentConfiguration().
+                getReceiverLoadMaxBackoffMS());
+        DataEndpoint dataEndpoint = dataEndpointAgent.getNewDataEndpoint();
+        dataEndpoint.initialize(endpointConfiguration);
+        return dataEndpoint;
+    }
+
+    private void initEventAggregator() throws DataEndpointConfigurationException {
+        List<StreamAggregation> streamAggregations = DataPublisherUtil.getStreamAggregations(
+                dataEndpointAgent.getAgentConfiguration().getStreamAggregations());
+        if (!streamAggregations.isEmpty()) {
+            eventAggregator = new EventAggregator(streamAggregations, new AggregatedEventCallback() {
+                @Override
+                public void publishAggregatedEvent(Event event) {
+                    publishToEndpointGroups(event, null);
+                }
+            });
         }
     }
 
@@ -205,8 +353,32 @@ public class DataPublisher {
      * @param event The Event that needs to sent for the receiver groups
      */
     public void publish(Event event) {
+        publish(event, null);
+    }
+
+    /**
+     * Publish an event with a partition key for all receiver groups which has been specified in the
+     * DataPublisher. When the agent is configured with keyAffinity load balancing strategy, the events with
+     * the same partition key are sent to the same receiver of a load balancing group, as long as that
+     * receiver is available. This is a blocking invocation same as {@link #publish(Event)}.
+     *
+     * @param event        The Event that needs to sent for the receiver groups
+     * @param partitionKey The partition key of the event, if null the configured partition key attribute of
+     *                     the event will be used.
+     */
+    public void publish(Event event, String partitionKey) {
+        if (eventAggregator != null && eventAggregator.aggregate(event)) {
+            return;
+        }
+        publishToEndpointGroups(event, partitionKey);
+    }
+
+    private void publishToEndpointGroups(Event event, String partitionKey) {
+        if (eventRateLimiter != null && !eventRateLimiter.acquire(event, -1)) {
+            return;
+        }
         for (DataEndpointGroup endpointGroup : endpointGroups) {
-            endpointGroup.publish(event);
+            endpointGroup.publish(event, partitionKey);
         }
     }
 
@@ -320,10 +492,32 @@ public class DataPublisher {
      * @return the success/failure of the event that has been published/dropped.
      */
     public boolean tryPublish(Event event) {
+        return tryPublish(event, (String) null);
+    }
+
+    /**
+     * Publish an event with a partition key for all receiver groups which has been specified in the
+     * DataPublisher. When the agent is configured with keyAffinity load balancing strategy, the events with
+     * the same partition key are sent to the same receiver of a load balancing group, as long as that
+     * receiver is available. This is a non-blocking invocation and if the queue if full
+     * then it will simply drop the event.
+     *
+     * @param event        The event which needs to be published to the receiver groups
+     * @param partitionKey The partition key of the event, if null the configured partition key attribute of
+     *                     the event will be used.
+     * @return the success/failure of the event that has been published/dropped.
+     */
+    public boolean tryPublish(Event event, String partitionKey) {
+        if (eventAggregator != null && eventAggregator.aggregate(event)) {
+            return true;
+        }
+        if (eventRateLimiter != null && !eventRateLimiter.acquire(event, 0)) {
+            return false;
+        }
         boolean sent = true;
         for (DataEndpointGroup endpointGroup : endpointGroups) {
             try {
-                endpointGroup.tryPublish(event);
+                endpointGroup.tryPublish(event, partitionKey);
                 sent = true;
             } catch (EventQueueFullException e) {
                 this.onEventQueueFull(endpointGroup, event);
@@ -346,10 +540,31 @@ public class DataPublisher {
      * @return the success/failure of the event that has been published/dropped.
      */
     public boolean tryPublish(Event event, long timeoutMS) {
+        return tryPublish(event, null, timeoutMS);
+    }
+
+    /**
+     * Publish an event with a partition key for all receiver groups which has been specified in the
+     * DataPublisher. This is a non-blocking invocation and if the queue if full
+     * then it will wait until timeoutMS value, and try to insert into the queue.
+     *
+     * @param event        The event which needs to be published to the receiver groups
+     * @param partitionKey The partition key of the event, if null the configured partition key attribute of
+     *                     the event will be used.
+     * @param timeoutMS    The timeout value to insert publish the event
+     * @return the success/failure of the event that has been published/dropped.
+     */
+    public boolean tryPublish(Event event, String partitionKey, long timeoutMS) {
+        if (eventAggregator != null && eventAggregator.aggregate(event)) {
+            return true;
+        }
+        if (eventRateLimiter != null && !eventRateLimiter.acquire(event, timeoutMS)) {
+            return false;
+        }
         boolean sent = true;
         for (DataEndpointGroup endpointGroup : endpointGroups) {
             try {
-                endpointGroup.tryPublish(event, timeoutMS);
+                endpointGroup.tryPublish(event, partitionKey, timeoutMS);
             } catch (EventQueueFullException e) {
                 this.onEventQueueFull(endpointGroup, event);
                 sent = false;
@@ -527,21 +742,210 @@ public class DataPublisher {
                 payloadDataArray, arbitraryDataMap));
     }
 
+    /**
+     * Returns the number of events which exceeded the rate limits of the agent at the first attempt.
+     *
+     * @return the number of rate limited events, which is 0 if there are no rate limits configured.
+     */
+    public long getRateLimitedEventCount() {
+        return eventRateLimiter != null ? eventRateLimiter.getRateLimitedEventCount() : 0;
+    }
+
+    /**
+     * Returns the number of events dropped as they exceeded the rate limits of the agent.
+     *
+     * @return the number of dropped events, which is 0 if there are no rate limits configured.
+     */
+    public long getRateLimitDroppedEventCount() {
+        return eventRateLimiter != null ? eventRateLimiter.getDroppedEventCount() : 0;
+    }
+
+    /**
+     * Returns the batch size controller of each endpoint of the data publisher by the receiver URL, which shows
+     * the current batch size and the decision taken for it.
+     *
+     * @return the batch size controllers, which is empty if the adaptive batch size is not configured.
+     */
+    public Map<String, BatchSizeController> getBatchSizeControllers() {
+        Map<String, BatchSizeController> batchSizeControllers = new LinkedHashMap<>();
+        for (DataEndpointGroup endpointGroup : endpointGroups) {
+            batchSizeControllers.putAll(endpointGroup.getBatchSizeControllers());
+        }
+        return batchSizeControllers;
+    }
+
+    /**
+     * Returns the state of the circuit of each endpoint of the data publisher by the receiver URL.
+     *
+     * @return the circuit states, which is empty if the circuit breaker is not configured.
+     */
+    public Map<String, CircuitBreaker.State> getCircuitBreakerStates() {
+        Map<String, CircuitBreaker.State> circuitBreakerStates = new LinkedHashMap<>();
+        for (DataEndpointGroup endpointGroup : endpointGroups) {
+            circuitBreakerStates.putAll(endpointGroup.getCircuitBreakerStates());
+        }
+        return circuitBreakerStates;
+    }
+
+    /**
+     * Returns the number of events dropped by the endpoint groups of the data publisher for each reason. When the
+     * agent shares the endpoint groups, the counts of a shared endpoint group include the events dropped for all
+     * the data publishers using it, as they share its event queue.
+     *
+     * @return the dropped event counts by the reason.
+     */
+    public Map<DropReason, Long> getDroppedEventCounts() {
+        Map<DropReason, Long> droppedEventCounts = new EnumMap<>(DropReason.class);
+        for (DropReason reason : DropReason.values()) {
+            long droppedEventCount = 0;
+            for (DataEndpointGroup endpointGroup : endpointGroups) {
+                droppedEventCount += endpointGroup.getDroppedEventCount(reason);
+            }
+            droppedEventCounts.put(reason, droppedEventCount);
+        }
+        return droppedEventCounts;
+    }
+
+    /**
+     * Returns the bytes of the events held in the event queues of the endpoint groups of the data publisher.
+     *
+     * @return the queued bytes, which is 0 if the byte budget of the queue is not configured.
+     */
+    public long getQueuedBytes() {
+        long queuedBytes = 0;
+        for (DataEndpointGroup endpointGroup : endpointGroups) {
+            queuedBytes += endpointGroup.getQueuedBytes();
+        }
+        return queuedBytes;
+    }
+
+    /**
+     * Add a receiver to an endpoint group of the data publisher while publishing, so that the receiver gets its
+     * share of the events once it is connected. The receivers of an endpoint group shared with other data publishers
+     * cannot be changed.
+     *
+     * @param groupIndex  Index of the endpoint group in the receiver URL set, starting from 0.
+     * @param receiverURL The receiver URL.
+     * @param authURL     The authentication URL, if null the default authentication URL of the receiver is used.
+     * @param weight      Weight of the receiver, which determines its share of the load balanced events.
+     * @throws DataEndpointConfigurationException  If the group index, the URLs or the weight are invalid, the
+     *                                             group already has the receiver, or the group is shared.
+     * @throws DataEndpointException               Exception to be thrown when communicating with DataEndpoint.
+     * @throws DataEndpointAuthenticationException Exception to be thrown when connecting the Data Endpoint
+     * @throws TransportException                  Transport level exception
+     */
+    public void addReceiver(int groupIndex, String receiverURL, String authURL, int weight)
+            throws DataEndpointConfigurationException, DataEndpointException, DataEndpointAuthenticationException,
+            TransportException {
+        if (groupIndex < 0 || groupIndex >= endpointGroups.size()) {
+            throw new DataEndpointConfigurationException("Invalid endpoint group index : " + groupIndex +
+                    ", the data publisher has " + endpointGroups.size() + " endpoint groups.");
+        }
+        DataEndpointGroup endpointGroup = endpointGroups.get(groupIndex);
+        if (endpointGroup.hasDataEndpoint(receiverURL)) {
+            throw new DataEndpointConfigurationException("Endpoint group : " + endpointGroup + " already has " +
+                    "the receiver : " + receiverURL);
+        }
+        dataEndpointAgent.detachSharedDataEndpointGroup(endpointGroup);
+        if (authURL == null) {
+            authURL = DataPublisherUtil.getDefaultAuthUrl(receiverURL);
+        }
+        DataEndpoint dataEndpoint = createDataEndpoint(dataEndpointAgent, receiverURL, authURL, username, password);
+        try {
+            endpointGroup.addDataEndpoint(dataEndpoint, weight);
+        } catch (DataEndpointConfigurationException e) {
+            dataEndpoint.shutdown();
+            throw e;
+        }
+    }
+
+    /**
+     * Stop sending new events to the receiver, while the events already given to it are sent. The events of
+     * the other receivers are not affected.
+     *
+     * @param receiverURL The receiver URL.
+     * @throws DataEndpointConfigurationException If none of the endpoint groups has the receiver.
+     */
+    public void drainReceiver(String receiverURL) throws DataEndpointConfigurationException {
+        for (DataEndpointGroup endpointGroup : getEndpointGroups(receiverURL)) {
+            endpointGroup.drainDataEndpoint(receiverURL);
+        }
+    }
+
+    /**
+     * Drain the receiver and remove it once the events given to it are sent. The receiver is disconnected in
+     * the background, hence this does not wait for the removal.
+     *
+     * @param receiverURL The receiver URL.
+     * @throws DataEndpointConfigurationException If none of the endpoint groups has the receiver, or an endpoint
+     *                                            group having it is shared with other data publishers.
+     */
+    public void removeReceiver(String receiverURL) throws DataEndpointConfigurationException {
+        List<DataEndpointGroup> receiverEndpointGroups = getEndpointGroups(receiverURL);
+        for (DataEndpointGroup endpointGroup : receiverEndpointGroups) {
+            dataEndpointAgent.detachSharedDataEndpointGroup(endpointGroup);
+        }
+        for (DataEndpointGroup endpointGroup : receiverEndpointGroups) {
+            endpointGroup.removeDataEndpoint(receiverURL);
+        }
+    }
+
+    /**
+     * Change the weight of the receiver, which determines its share of the load balanced events.
+     *
+     * @param receiverURL The receiver URL.
+     * @param weight      New weight of the receiver.
+     * @throws DataEndpointConfigurationException If the weight is invalid, or none of the endpoint groups has
+     *                                            the receiver.
+     */
+    public void setReceiverWeight(String receiverURL, int weight) throws DataEndpointConfigurationException {
+        for (DataEndpointGroup endpointGroup : getEndpointGroups(receiverURL)) {
+            endpointGroup.setDataEndpointWeight(receiverURL, weight);
+        }
+    }
+
+    private List<DataEndpointGroup> getEndpointGroups(String receiverURL) throws DataEndpointConfigurationException {
+        List<DataEndpointGroup> receiverEndpointGroups = new ArrayList<>();
+        for (DataEndpointGroup endpointGroup : endpointGroups) {
+            if (endpointGroup.hasDataEndpoint(receiverURL)) {
+                receiverEndpointGroups.add(endpointGroup);
+            }
+        }
+        if (receiverEndpointGroups.isEmpty()) {
+            throw new DataEndpointConfigurationException("Receiver : " + receiverURL + " is not in any of the " +
+                    "endpoint groups of the data publisher.");
+        }
+        return receiverEndpointGroups;
+    }
+
     /**
      * Graceful shutdown of all the operations of the data publisher.
      * It will flush all the events to the relevant endpoint, and closes all the
      * resources and thread pools used for its operation. Once the shutdown operation
-     * is called you can't publish events using the data publisher.
+     * is called you can't publish events using the data publisher. An endpoint group shared with other
+     * data publishers is shut down only when the last of them is shut down.
      *
      * @throws DataEndpointException Exception to be thrown when communicating with DataEndpoint.
      */
     public void shutdown() throws DataEndpointException {
-        for (DataEndpointGroup dataEndpointGroup : endpointGroups) {
-            dataEndpointGroup.shutdown();
+        if (eventAggregator != null) {
+            eventAggregator.shutdown();
         }
+        releaseEndpointGroups();
         dataEndpointAgent.shutDown(this);
     }
 
+    /**
+     * Release the endpoint groups of the data publisher, shutting down the ones no other data publisher uses.
+     */
+    private void releaseEndpointGroups() {
+        for (DataEndpointGroup dataEndpointGroup : endpointGroups) {
+            if (dataEndpointAgent.releaseDataEndpointGroup(dataEndpointGroup)) {
+                dataEndpointGroup.shutdown();
+            }
+        }
+    }
+
     /**
      * Graceful shutdown of all the operations of the data publisher, and also
      * if there is no other data publishers registered with the associated then
@@ -0,0 +1,70 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.aggregation;
+
+import org.wso2.carbon.databridge.agent.exception.DataEndpointConfigurationException;
+
+/**
+ * The function used to aggregate the values of an attribute within a window.
+ */
+public enum AggregationFunction {
+
+    SUM("sum"),
+
+    MIN("min"),
+
+    MAX("max"),
+
+    /**
+     * Number of events received for the key within the window.
+     */
+    COUNT("count"),
+
+    /**
+     * Value of the last event received for the key within the window.
+     */
+    LAST("last");
+
+    private final String name;
+
+    AggregationFunction(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the aggregation function for the name given in the configuration.
+     *
+     * @param name Name of the function, which is one of sum, min, max, count or last.
+     * @return AggregationFunction for the name.
+     * @throws DataEndpointConfigurationException If there is no function for the name.
+     */
+    public static AggregationFunction fromName(String name) throws DataEndpointConfigurationException {
+        for (AggregationFunction function : values()) {
+            if (function.name.equalsIgnoreCase(name.trim())) {
+                return function;
+            }
+        }
+        throw new DataEndpointConfigurationException("Invalid aggregation function: " + name + ", supported " +
+                "functions are " + SUM + ", " + MIN + ", " + MAX + ", " + COUNT + " and " + LAST);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.aggregation;
+
+import org.wso2.carbon.databridge.agent.exception.DataEndpointConfigurationException;
+import org.wso2.carbon.databridge.commons.Event;
+
+/**
+ * Aggregation of an attribute of the stream, which is given in the format of
+ * {@code <meta|correlation|payload>:<index>=<sum|min|max|count|last>}.
+ */
+public class AttributeAggregation {
+
+    private final String attribute;
+
+    private final AttributeSection section;
+
+    private final int index;
+
+    private final AggregationFunction function;
+
+    /**
+     * Section of the event, where the aggregated attribute resides.
+     */
+    enum AttributeSection {
+        META, CORRELATION, PAYLOAD
+    }
+
+    public AttributeAggregation(String attributeAggregation) throws DataEndpointConfigurationException {
+        this.attribute = attributeAggregation.trim();
+        String[] elements = attribute.split("[:=]");
+        if (elements.length != 3) {
+            throw new DataEndpointConfigurationException("Invalid attribute aggregation: " + attributeAggregation +
+                    ", expected format is <meta|correlation|payload>:<index>=<sum|min|max|count|last>");
+        }
+        try {
+            this.section = AttributeSection.valueOf(elements[0].trim().toUpperCase());
+            this.index = Integer.parseInt(elements[1].trim());
+        } catch (IllegalArgumentException e) {
+            throw new DataEndpointConfigurationException("Invalid attribute: " + elements[0] + ":" + elements[1] +
+                    " in attribute aggregation: " + attributeAggregation, e);
+        }
+        if (index < 0) {
+            throw new DataEndpointConfigurationException("Attribute index cannot be negative in attribute " +
+                    "aggregation: " + attributeAggregation);
+        }
+        this.function = AggregationFunction.fromName(elements[2]);
+    }
+
+    Object[] getData(Event event) {
+        switch (section) {
+            case META:
+                return event.getMetaData();
+            case CORRELATION:
+                return event.getCorrelationData();
+            default:
+                return event.getPayloadData();
+        }
+    }
+
+    Object getValue(Event event) {
+        Object[] data = getData(event);
+        if (data != null && index < data.length) {
+            return data[index];
+        }
+        return null;
+    }
+
+    int getIndex() {
+        return index;
+    }
+
+    public AggregationFunction getFunction() {
+        return function;
+    }
+
+    @Override
+    public String toString() {
+        return attribute;
+    }
+}
@@ -0,0 +1,273 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.aggregation;
+
+import org.apache.log4j.Logger;
+import org.wso2.carbon.databridge.commons.Event;
+import org.wso2.carbon.databridge.commons.utils.DataBridgeThreadFactory;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Pre-aggregates the events of the configured streams on the client side. The events of such a stream are
+ * rolled in to tumbling windows by the key attributes, and only one event per key is published at the end
+ * of the window. The aggregated event has the same attributes as the raw events, where the aggregated
+ * attributes carry the result of the aggregation function, and the rest of the attributes carry the values
+ * of the last event of the key.
+ */
+public class EventAggregator {
+
+    private static final Logger log = Logger.getLogger(EventAggregator.class);
+
+    private static final int SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private final Map<String, StreamAggregator> streamAggregators = new HashMap<>();
+
+    private final AggregatedEventCallback callback;
+
+    private final ScheduledExecutorService windowService;
+
+    public EventAggregator(Collection<StreamAggregation> streamAggregations, AggregatedEventCallback callback) {
+        this.callback = callback;
+        this.windowService = Executors.newScheduledThreadPool(1, new DataBridgeThreadFactory("EventAggregator"));
+        long currentTime = System.currentTimeMillis();
+        for (StreamAggregation streamAggregation : streamAggregations) {
+            StreamAggregator streamAggregator = new StreamAggregator(streamAggregation, currentTime);
+            streamAggregators.put(streamAggregation.getStreamId(), streamAggregator);
+            long windowMS = streamAggregation.getWindowMS();
+            windowService.scheduleAtFixedRate(streamAggregator, windowMS - currentTime % windowMS, windowMS,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Add the event to the current window of its stream.
+     *
+     * @param event The event.
+     * @return true if the event is aggregated, false if there is no aggregation for the stream of the event
+     * and it should be published as it is.
+     */
+    public boolean aggregate(Event event) {
+        StreamAggregator streamAggregator = streamAggregators.get(event.getStreamId());
+        if (streamAggregator == null) {
+            return false;
+        }
+        streamAggregator.add(event);
+        return true;
+    }
+
+    /**
+     * Stop the windows, and publish the events aggregated so far.
+     */
+    public void shutdown() {
+        windowService.shutdown();
+        try {
+            if (!windowService.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("Event aggregator windows did not stop within " + SHUTDOWN_TIMEOUT_SECONDS + " seconds.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (StreamAggregator streamAggregator : streamAggregators.values()) {
+            streamAggregator.run();
+        }
+    }
+
+    /**
+     * Aggregates the events of a stream, and publishes the aggregated events when the window is closed.
+     */
+    private class StreamAggregator implements Runnable {
+
+        private final StreamAggregation streamAggregation;
+
+        private final ReadWriteLock windowLock = new ReentrantReadWriteLock();
+
+        private volatile Window currentWindow;
+
+        StreamAggregator(StreamAggregation streamAggregation, long currentTime) {
+            this.streamAggregation = streamAggregation;
+            this.currentWindow = new Window(currentTime - currentTime % streamAggregation.getWindowMS());
+        }
+
+        void add(Event event) {
+            String key = streamAggregation.getKey(event);
+            windowLock.readLock().lock();
+            try {
+                Map<String, Aggregate> aggregates = currentWindow.aggregates;
+                Aggregate aggregate = aggregates.get(key);
+                if (aggregate == null) {
+                    Aggregate newAggregate = new Aggregate(streamAggregation.getAttributeAggregations());
+                    aggregate = aggregates.putIfAbsent(key, newAggregate);
+                    if (aggregate == null) {
+                        aggregate = newAggregate;
+                    }
+                }
+                aggregate.add(event);
+            } finally {
+                windowLock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public void run() {
+            Window window;
+            windowLock.writeLock().lock();
+            try {
+                window = currentWindow;
+                long currentTime = System.currentTimeMillis();
+                currentWindow = new Window(currentTime - currentTime % streamAggregation.getWindowMS());
+            } finally {
+                windowLock.writeLock().unlock();
+            }
+            for (Aggregate aggregate : window.aggregates.values()) {
+                try {
+                    callback.publishAggregatedEvent(aggregate.getAggregatedEvent(window.startTime));
+                } catch (Throwable t) {
+                    log.error("Error while publishing the aggregated event of the stream " +
+                            streamAggregation.getStreamId() + ", " + t.getMessage(), t);
+                }
+            }
+        }
+    }
+
+    /**
+     * Tumbling window, which holds the aggregate of each key.
+     */
+    private static class Window {
+
+        private final long startTime;
+
+        private final Map<String, Aggregate> aggregates = new ConcurrentHashMap<>();
+
+        Window(long startTime) {
+            this.startTime = startTime;
+        }
+    }
+
+    /**
+     * Aggregate of the events of a key within a window.
+     */
+    static class Aggregate {
+
+        private final List<AttributeAggregation> attributeAggregations;
+
+        private final Object[] values;
+
+        private Event lastEvent;
+
+        private long count;
+
+        Aggregate(List<AttributeAggregation> attributeAggregations) {
+            this.attributeAggregations = attributeAggregations;
+            this.values = new Object[attributeAggregations.size()];
+        }
+
+        synchronized void add(Event event) {
+            lastEvent = event;
+            count++;
+            for (int i = 0; i < values.length; i++) {
+                AttributeAggregation attributeAggregation = attributeAggregations.get(i);
+                Object value = attributeAggregation.getValue(event);
+                switch (attributeAggregation.getFunction()) {
+                    case COUNT:
+                        break;
+                    case LAST:
+                        values[i] = value;
+                        break;
+                    default:
+                        if (value instanceof Number) {
+                            values[i] = accumulate(attributeAggregation.getFunction(), (Number) values[i],
+                                    (Number) value);
+                        }
+                }
+            }
+        }
+
+        /**
+         * Returns the aggregated event, which takes the attributes of the last event, and the aggregated
+         * values are converted to the type of the respective attribute.
+         */
+        synchronized Event getAggregatedEvent(long windowStartTime) {
+            Event event = new Event(lastEvent.getStreamId(), windowStartTime, copy(lastEvent.getMetaData()),
+                    copy(lastEvent.getCorrelationData()), copy(lastEvent.getPayloadData()),
+                    lastEvent.getArbitraryDataMap());
+            for (int i = 0; i < values.length; i++) {
+                AttributeAggregation attributeAggregation = attributeAggregations.get(i);
+                Object[] data = attributeAggregation.getData(event);
+                int index = attributeAggregation.getIndex();
+                if (data == null || index >= data.length) {
+                    continue;
+                }
+                if (attributeAggregation.getFunction() == AggregationFunction.COUNT) {
+                    data[index] = convert(count, data[index]);
+                } else if (values[i] != null || attributeAggregation.getFunction() == AggregationFunction.LAST) {
+                    data[index] = values[i] instanceof Number ? convert((Number) values[i], data[index]) : values[i];
+                }
+            }
+            return event;
+        }
+
+        private static Number accumulate(AggregationFunction function, Number current, Number value) {
+            if (current == null) {
+                return isIntegral(value) ? (Number) value.longValue() : (Number) value.doubleValue();
+            }
+            switch (function) {
+                case SUM:
+                    if (current instanceof Long && isIntegral(value)) {
+                        return current.longValue() + value.longValue();
+                    }
+                    return current.doubleValue() + value.doubleValue();
+                case MIN:
+                    return value.doubleValue() < current.doubleValue() ? value : current;
+                default:
+                    return value.doubleValue() > current.doubleValue() ? value : current;
+            }
+        }
+
+        private static boolean isIntegral(Number value) {
+            return value instanceof Long || value instanceof Integer || value instanceof Short ||
+                    value instanceof Byte;
+        }
+
+        private static Object convert(Number value, Object template) {
+            if (template instanceof Integer) {
+                return value.intValue();
+            } else if (template instanceof Long) {
+                return value.longValue();
+            } else if (template instanceof Double) {
+                return value.doubleValue();
+            } else if (template instanceof Float) {
+                return value.floatValue();
+            }
+            return value;
+        }
+
+        private static Object[] copy(Object[] data) {
+            return data != null ? data.clone() : null;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.aggregation;
+
+import org.wso2.carbon.databridge.agent.endpoint.PartitionKeyExtractor;
+import org.wso2.carbon.databridge.commons.Event;
+
+import java.util.List;
+
+/**
+ * Pre-aggregation configured for a stream. The events of the stream are grouped by the key attributes into
+ * tumbling windows, and a single event is published per key at the end of each window.
+ */
+public class StreamAggregation {
+
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    private final String streamId;
+
+    private final long windowMS;
+
+    private final List<PartitionKeyExtractor> keyAttributes;
+
+    private final List<AttributeAggregation> attributeAggregations;
+
+    public StreamAggregation(String streamId, long windowMS, List<PartitionKeyExtractor> keyAttributes,
+                             List<AttributeAggregation> attributeAggregations) {
+        this.streamId = streamId;
+        this.windowMS = windowMS;
+        this.keyAttributes = keyAttributes;
+        this.attributeAggregations = attributeAggregations;
+    }
+
+    /**
+     * Returns the group of the event within a window, which is made out of the values of the key attributes.
+     */
+    String getKey(Event event) {
+        if (keyAttributes.isEmpty()) {
+            return "";
+        }
+        if (keyAttributes.size() == 1) {
+            return String.valueOf(keyAttributes.get(0).extract(event));
+        }
+        StringBuilder key = new StringBuilder();
+        for (PartitionKeyExtractor keyAttribute : keyAttributes) {
+            key.append(keyAttribute.extract(event)).append(KEY_SEPARATOR);
+        }
+        return key.toString();
+    }
+
+    public String getStreamId() {
+        return streamId;
+    }
+
+    public long getWindowMS() {
+        return windowMS;
+    }
+
+    public List<PartitionKeyExtractor> getKeyAttributes() {
+        return keyAttributes;
+    }
+
+    public List<AttributeAggregation> getAttributeAggregations() {
+        return attributeAggregations;
+    }
+
+    @Override
+    public String toString() {
+        return "StreamAggregation{" +
+                "streamId=" + streamId +
+                ", windowMS=" + windowMS +
+                ", keyAttributes=" + keyAttributes +
+                ", attributeAggregations=" + attributeAggregations +
+                "}";
+    }
+}
@@ -79,4 +79,10 @@ public abstract class AbstractClientPoolFactory extends BaseKeyedPoolableObjectF
      */
     public abstract void terminateClient(Object client);
 
+    /**
+     * Release the resources shared by the clients of the factory, when the agent is shutting down.
+     */
+    public void shutdown() {
+    }
+
 }
@@ -17,6 +17,18 @@
 */
 package org.wso2.carbon.databridge.agent.client;
 
+import org.wso2.carbon.databridge.agent.conf.AgentConfiguration;
+import org.wso2.carbon.databridge.agent.exception.DataEndpointSecurityException;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.TrustManagerFactory;
+
 /**
  * This abstract class needs to be implemented to handling secure communication with the endpoint.
  */
@@ -26,6 +38,8 @@ public abstract class AbstractSecureClientPoolFactory extends AbstractClientPool
 
     private String trustStore;
 
+    private volatile SSLContext sslContext;
+
     public AbstractSecureClientPoolFactory(String trustStore, String trustStorePassword) {
         this.trustStore = trustStore;
         this.trustStorePassword = trustStorePassword;
@@ -38,4 +52,48 @@ public abstract class AbstractSecureClientPoolFactory extends AbstractClientPool
     public String getTrustStore() {
         return trustStore;
     }
+
+    /**
+     * Returns the SSL context of the factory, which is built from the trust store when it is requested for the
+     * first time. All the secure clients of the agent are created from this context, hence they share the client
+     * session cache and the receivers which were connected before can resume the session without a full handshake.
+     *
+     * @param agentConfiguration Configuration of the agent, which provides the session cache settings.
+     * @return The SSL context.
+     * @throws DataEndpointSecurityException If the trust store cannot be loaded.
+     */
+    protected SSLContext getSSLContext(AgentConfiguration agentConfiguration) throws DataEndpointSecurityException {
+        SSLContext context = sslContext;
+        if (context == null) {
+            synchronized (this) {
+                context = sslContext;
+                if (context == null) {
+                    context = createSSLContext(agentConfiguration);
+                    sslContext = context;
+                }
+            }
+        }
+        return context;
+    }
+
+    private SSLContext createSSLContext(AgentConfiguration agentConfiguration) throws DataEndpointSecurityException {
+        try (InputStream trustStoreStream = new FileInputStream(trustStore)) {
+            KeyStore keyStore = KeyStore.getInstance("JKS");
+            keyStore.load(trustStoreStream, trustStorePassword != null ? trustStorePassword.toCharArray() : null);
+            TrustManagerFactory trustManagerFactory =
+                    TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+            trustManagerFactory.init(keyStore);
+            SSLContext context = SSLContext.getInstance("TLS");
+            context.init(null, trustManagerFactory.getTrustManagers(), null);
+            SSLSessionContext sessionContext = context.getClientSessionContext();
+            if (sessionContext != null) {
+                sessionContext.setSessionCacheSize(agentConfiguration.getSslSessionCacheSize());
+                sessionContext.setSessionTimeout(agentConfiguration.getSslSessionTimeoutSeconds());
+            }
+            return context;
+        } catch (IOException | GeneralSecurityException e) {
+            throw new DataEndpointSecurityException("Error while initializing the SSL context from the trust store: "
+                    + trustStore, e);
+        }
+    }
 }
@@ -21,12 +21,13 @@ package org.wso2.carbon.databridge.agent.client;
 import org.apache.commons.pool.impl.GenericKeyedObjectPool;
 
 /**
- * This class is used hold the secure/non-secure connections for an Agent.
+ * This class is used hold the secure/non-secure connections for an Agent. Each pool is created when it is
+ * requested for the first time.
  */
 
 public class ClientPool {
-    private GenericKeyedObjectPool socketPool;
-    private GenericKeyedObjectPool secureSocketPool;
+    private volatile GenericKeyedObjectPool socketPool;
+    private volatile GenericKeyedObjectPool secureSocketPool;
 
     public GenericKeyedObjectPool getClientPool(AbstractClientPoolFactory factory,
                                                 int maxActive,
@@ -37,14 +38,16 @@ public class ClientPool {
         if (socketPool == null) {
             synchronized (this) {
                 if (socketPool == null) {
-                    socketPool = new GenericKeyedObjectPool();
-                    socketPool.setFactory(factory);
-                    socketPool.setMaxActive(maxActive);
-                    socketPool.setTestOnBorrow(testOnBorrow);
-                    socketPool.setTimeBetweenEvictionRunsMillis(timeBetweenEvictionRunsMillis);
-                    socketPool.setMinEvictableIdleTimeMillis(minEvictableIdleTimeMillis);
-                    socketPool.setMaxIdle(maxIdle);
-                    socketPool.setWhenExhaustedAction(GenericKeyedObjectPool.WHEN_EXHAUSTED_GROW);
+                    // The pool is published only once it is configured, as the other threads read it unlocked.
+                    GenericKeyedObjectPool pool = new GenericKeyedObjectPool();
+                    pool.setFactory(factory);
+                    pool.setMaxActive(maxActive);
+                    pool.setTestOnBorrow(testOnBorrow);
+                    pool.setTimeBetweenEvictionRunsMillis(timeBetweenEvictionRunsMillis);
+                    pool.setMinEvictableIdleTimeMillis(minEvictableIdleTimeMillis);
+                    pool.setMaxIdle(maxIdle);
+                    pool.setWhenExhaustedAction(GenericKeyedObjectPool.WHEN_EXHAUSTED_GROW);
+                    socketPool = pool;
                 }
             }
         }
@@ -60,17 +63,32 @@ public class ClientPool {
         if (secureSocketPool == null) {
             synchronized (this) {
                 if (secureSocketPool == null) {
-                    secureSocketPool = new GenericKeyedObjectPool();
-                    secureSocketPool.setFactory(factory);
-                    secureSocketPool.setMaxActive(maxActive);
-                    secureSocketPool.setTestOnBorrow(testOnBorrow);
-                    secureSocketPool.setTimeBetweenEvictionRunsMillis(timeBetweenEvictionRunsMillis);
-                    secureSocketPool.setMinEvictableIdleTimeMillis(minEvictableIdleTimeMillis);
-                    secureSocketPool.setMaxIdle(maxIdle);
-                    secureSocketPool.setWhenExhaustedAction(GenericKeyedObjectPool.WHEN_EXHAUSTED_BLOCK);
+                    GenericKeyedObjectPool pool = new GenericKeyedObjectPool();
+                    pool.setFactory(factory);
+                    pool.setMaxActive(maxActive);
+                    pool.setTestOnBorrow(testOnBorrow);
+                    pool.setTimeBetweenEvictionRunsMillis(timeBetweenEvictionRunsMillis);
+                    pool.setMinEvictableIdleTimeMillis(minEvictableIdleTimeMillis);
+                    pool.setMaxIdle(maxIdle);
+                    pool.setWhenExhaustedAction(GenericKeyedObjectPool.WHEN_EXHAUSTED_BLOCK);
+                    secureSocketPool = pool;
                 }
             }
         }
         return secureSocketPool;
     }
+
+    /**
+     * Close the pools which have been created.
+     *
+     * @throws Exception If a pool cannot be closed.
+     */
+    public synchronized void close() throws Exception {
+        if (socketPool != null) {
+            socketPool.close();
+        }
+        if (secureSocketPool != null) {
+            secureSocketPool.close();
+        }
+    }
 }
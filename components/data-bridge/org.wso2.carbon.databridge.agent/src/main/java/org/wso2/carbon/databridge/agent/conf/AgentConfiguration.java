@@ -98,6 +98,146 @@ public class AgentConfiguration {
             "TLS_ECDHE_ECDSA_WITH_AES_128_GCM_SHA256,TLS_ECDHE_RSA_WITH_AES_128_GCM_SHA256," +
             "TLS_DHE_RSA_WITH_AES_128_GCM_SHA256";
 
+    @Element(description = "Load balancing strategy", required = false)
+    private String loadBalancingStrategy = "roundRobin";
+
+    @Element(description = "Partition key attribute", required = false)
+    private String partitionKeyAttribute = "";
+
+    @Element(description = "Priority lanes of the event queue", required = false)
+    private String priorityLanes = "";
+
+    @Element(description = "Priority lanes of the streams", required = false)
+    private String streamPriorities = "";
+
+    @Element(description = "Maximum events per second of a data publisher", required = false)
+    private int maxEventsPerSecond = 0;
+
+    @Element(description = "Maximum bytes per second of a data publisher", required = false)
+    private long maxBytesPerSecond = 0;
+
+    @Element(description = "Rate limits of the streams", required = false)
+    private String streamRateLimits = "";
+
+    @Element(description = "Policy for the events exceeding the rate limits", required = false)
+    private String rateLimitPolicy = "block";
+
+    @Element(description = "Pre-aggregations of the streams", required = false)
+    private String streamAggregations = "";
+
+    @Element(description = "Number of selector threads of the non-blocking transports", required = false)
+    private int selectorThreads = 2;
+
+    @Element(description = "Maximum batches awaiting acknowledgement per connection", required = false)
+    private int maxInFlightBatches = 16;
+
+    @Element(description = "Maximum number of TLS sessions cached for resumption", required = false)
+    private int sslSessionCacheSize = 1000;
+
+    @Element(description = "Time in seconds a cached TLS session can be resumed", required = false)
+    private int sslSessionTimeoutSeconds = 86400;
+
+    @Element(description = "Failure rate percentage of the recent batches which opens the circuit of an endpoint, " +
+            "the circuit breaker is disabled if both this and the slow call threshold are 0", required = false)
+    private int circuitBreakerFailureRateThreshold = 0;
+
+    @Element(description = "Batches taking longer than this are counted as failures by the circuit breaker, " +
+            "0 disables it", required = false)
+    private int circuitBreakerSlowCallThresholdMS = 0;
+
+    @Element(description = "Number of recent batches used to calculate the failure rate of an " +
+            "endpoint", required = false)
+    private int circuitBreakerSlidingWindowSize = 20;
+
+    @Element(description = "Minimum number of batches in the window before the circuit can be opened", required = false)
+    private int circuitBreakerMinimumCalls = 10;
+
+    @Element(description = "Time in milliseconds the circuit stays open before the probe batches " +
+            "are let through", required = false)
+    private int circuitBreakerOpenDurationMS = 5000;
+
+    @Element(description = "Number of probe batches which should succeed to close the circuit", required = false)
+    private int circuitBreakerHalfOpenProbes = 3;
+
+    @Element(description = "Age in seconds of a session, after which the session is renewed in " +
+            "the background, 0 disables the renewal", required = false)
+    private int sessionRenewalIntervalSeconds = 1500;
+
+    @Element(description = "Events dispatched per unit share of a stream in each round of the per " +
+            "stream fair queue, 0 disables fair queuing", required = false)
+    private int fairQueueQuantum = 0;
+
+    @Element(description = "Shares of the batch slots of the streams in the fair queue, in the " +
+            "format streamId=share,...", required = false)
+    private String streamShares = "";
+
+    @Element(description = "Policy applied when the event queue is full, which is one of " +
+            "dropNewest, dropOldest or block", required = false)
+    private String overflowPolicy = "dropNewest";
+
+    @Element(description = "Maximum time to wait for space in the event queue when the overflow " +
+            "policy is block", required = false)
+    private int overflowBlockTimeoutMS = 1000;
+
+    @Element(description = "Events older than this are discarded instead of being sent, 0 to disable", required = false)
+    private int eventTTLMS = 0;
+
+    @Element(description = "Share the endpoint groups among the data publishers with same " +
+            "receivers and credentials", required = false)
+    private boolean shareEndpointGroups = false;
+
+    @Element(description = "Number of batches of coalesced synchronous publish calls an endpoint " +
+            "sends at a time, 0 to send each event separately", required = false)
+    private int syncGroupCommitConcurrency = 0;
+
+    @Element(description = "Number of threads encoding the batches ahead of the publisher " +
+            "threads, 0 to encode in the publisher threads", required = false)
+    private int serializationThreads = 0;
+
+    @Element(description = "Size of the shared memory ring of each connection in bytes", required = false)
+    private int sharedMemoryRingSize = 8388608;
+
+    @Element(description = "Maximum bytes of the events held in the event queue, the queue is " +
+            "bounded only by the queue size if 0", required = false)
+    private long queueByteBudget = 0;
+
+    @Element(description = "Size in bytes of the off-heap ring which holds the serialized events " +
+            "instead of the event queue, not used if 0", required = false)
+    private int offHeapQueueSize = 0;
+
+    @Element(description = "Percentage of the event queue of a receiver in use, reported with the " +
+            "publish acknowledgements, above which the load balanced events are steered to less loaded " +
+            "receivers and the batches to the receiver are slowed down, the load feedback is disabled if 0",
+            required = false)
+    private int receiverLoadThreshold = 0;
+
+    @Element(description = "Maximum time in milliseconds a batch is held back before it is sent " +
+            "to a loaded receiver", required = false)
+    private int receiverLoadMaxBackoffMS = 100;
+
+    @Element(description = "Upper bound of the batch size tuned per endpoint from the latency, " +
+            "throughput and failures of the batches, 0 disables the tuning", required = false)
+    private int adaptiveBatchMaxSize = 0;
+
+    @Element(description = "Lower bound of the batch size tuned per endpoint", required = false)
+    private int adaptiveBatchMinSize = 10;
+
+    @Element(description = "Batch latency in milliseconds above which the tuned batch size is reduced",
+            required = false)
+    private int adaptiveBatchLatencyTargetMS = 100;
+
+    @Element(description = "Connect the endpoints of a data publisher when the first event is " +
+            "published rather than when the data publisher is created", required = false)
+    private boolean lazyConnect = false;
+
+    @Element(description = "Request the compact encoding of the binary protocol at login, which " +
+            "is used if the receiver accepts it", required = false)
+    private boolean compactBinaryEncoding = false;
+
+    @Element(description = "Request the columnar encoding of the binary protocol at login, which " +
+            "is used over the compact encoding if the receiver accepts it", required = false)
+    private boolean columnarBinaryEncoding = false;
+
     public String getName() {
         return name;
     }
@@ -186,6 +326,162 @@ public class AgentConfiguration {
         return publishingStrategy;
     }
 
+    public String getLoadBalancingStrategy() {
+        return loadBalancingStrategy;
+    }
+
+    public String getPartitionKeyAttribute() {
+        return partitionKeyAttribute;
+    }
+
+    public String getPriorityLanes() {
+        return priorityLanes;
+    }
+
+    public String getStreamPriorities() {
+        return streamPriorities;
+    }
+
+    public int getMaxEventsPerSecond() {
+        return maxEventsPerSecond;
+    }
+
+    public long getMaxBytesPerSecond() {
+        return maxBytesPerSecond;
+    }
+
+    public String getStreamRateLimits() {
+        return streamRateLimits;
+    }
+
+    public String getRateLimitPolicy() {
+        return rateLimitPolicy;
+    }
+
+    public String getStreamAggregations() {
+        return streamAggregations;
+    }
+
+    public int getSelectorThreads() {
+        return selectorThreads;
+    }
+
+    public int getMaxInFlightBatches() {
+        return maxInFlightBatches;
+    }
+
+    public int getSslSessionCacheSize() {
+        return sslSessionCacheSize;
+    }
+
+    public int getSslSessionTimeoutSeconds() {
+        return sslSessionTimeoutSeconds;
+    }
+
+    public int getCircuitBreakerFailureRateThreshold() {
+        return circuitBreakerFailureRateThreshold;
+    }
+
+    public int getCircuitBreakerSlowCallThresholdMS() {
+        return circuitBreakerSlowCallThresholdMS;
+    }
+
+    public int getCircuitBreakerSlidingWindowSize() {
+        return circuitBreakerSlidingWindowSize;
+    }
+
+    public int getCircuitBreakerMinimumCalls() {
+        return circuitBreakerMinimumCalls;
+    }
+
+    public int getCircuitBreakerOpenDurationMS() {
+        return circuitBreakerOpenDurationMS;
+    }
+
+    public int getCircuitBreakerHalfOpenProbes() {
+        return circuitBreakerHalfOpenProbes;
+    }
+
+    public int getSessionRenewalIntervalSeconds() {
+        return sessionRenewalIntervalSeconds;
+    }
+
+    public int getFairQueueQuantum() {
+        return fairQueueQuantum;
+    }
+
+    public String getStreamShares() {
+        return streamShares;
+    }
+
+    public String getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public int getOverflowBlockTimeoutMS() {
+        return overflowBlockTimeoutMS;
+    }
+
+    public int getEventTTLMS() {
+        return eventTTLMS;
+    }
+
+    public boolean isShareEndpointGroups() {
+        return shareEndpointGroups;
+    }
+
+    public int getSyncGroupCommitConcurrency() {
+        return syncGroupCommitConcurrency;
+    }
+
+    public int getSerializationThreads() {
+        return serializationThreads;
+    }
+
+    public int getSharedMemoryRingSize() {
+        return sharedMemoryRingSize;
+    }
+
+    public long getQueueByteBudget() {
+        return queueByteBudget;
+    }
+
+    public int getOffHeapQueueSize() {
+        return offHeapQueueSize;
+    }
+
+    public int getReceiverLoadThreshold() {
+        return receiverLoadThreshold;
+    }
+
+    public int getReceiverLoadMaxBackoffMS() {
+        return receiverLoadMaxBackoffMS;
+    }
+
+    public int getAdaptiveBatchMaxSize() {
+        return adaptiveBatchMaxSize;
+    }
+
+    public int getAdaptiveBatchMinSize() {
+        return adaptiveBatchMinSize;
+    }
+
+    public int getAdaptiveBatchLatencyTargetMS() {
+        return adaptiveBatchLatencyTargetMS;
+    }
+
+    public boolean isLazyConnect() {
+        return lazyConnect;
+    }
+
+    public boolean isCompactBinaryEncoding() {
+        return compactBinaryEncoding;
+    }
+
+    public boolean isColumnarBinaryEncoding() {
+        return columnarBinaryEncoding;
+    }
+
     public void setTrustStorePath(String trustStorePath) {
         this.trustStorePath = trustStorePath;
     }
@@ -274,6 +570,162 @@ public class AgentConfiguration {
         this.ciphers = ciphers;
     }
 
+    public void setLoadBalancingStrategy(String loadBalancingStrategy) {
+        this.loadBalancingStrategy = loadBalancingStrategy;
+    }
+
+    public void setPartitionKeyAttribute(String partitionKeyAttribute) {
+        this.partitionKeyAttribute = partitionKeyAttribute;
+    }
+
+    public void setPriorityLanes(String priorityLanes) {
+        this.priorityLanes = priorityLanes;
+    }
+
+    public void setStreamPriorities(String streamPriorities) {
+        this.streamPriorities = streamPriorities;
+    }
+
+    public void setMaxEventsPerSecond(int maxEventsPerSecond) {
+        this.maxEventsPerSecond = maxEventsPerSecond;
+    }
+
+    public void setMaxBytesPerSecond(long maxBytesPerSecond) {
+        this.maxBytesPerSecond = maxBytesPerSecond;
+    }
+
+    public void setStreamRateLimits(String streamRateLimits) {
+        this.streamRateLimits = streamRateLimits;
+    }
+
+    public void setRateLimitPolicy(String rateLimitPolicy) {
+        this.rateLimitPolicy = rateLimitPolicy;
+    }
+
+    public void setStreamAggregations(String streamAggregations) {
+        this.streamAggregations = streamAggregations;
+    }
+
+    public void setSelectorThreads(int selectorThreads) {
+        this.selectorThreads = selectorThreads;
+    }
+
+    public void setMaxInFlightBatches(int maxInFlightBatches) {
+        this.maxInFlightBatches = maxInFlightBatches;
+    }
+
+    public void setSslSessionCacheSize(int sslSessionCacheSize) {
+        this.sslSessionCacheSize = sslSessionCacheSize;
+    }
+
+    public void setSslSessionTimeoutSeconds(int sslSessionTimeoutSeconds) {
+        this.sslSessionTimeoutSeconds = sslSessionTimeoutSeconds;
+    }
+
+    public void setCircuitBreakerFailureRateThreshold(int circuitBreakerFailureRateThreshold) {
+        this.circuitBreakerFailureRateThreshold = circuitBreakerFailureRateThreshold;
+    }
+
+    public void setCircuitBreakerSlowCallThresholdMS(int circuitBreakerSlowCallThresholdMS) {
+        this.circuitBreakerSlowCallThresholdMS = circuitBreakerSlowCallThresholdMS;
+    }
+
+    public void setCircuitBreakerSlidingWindowSize(int circuitBreakerSlidingWindowSize) {
+        this.circuitBreakerSlidingWindowSize = circuitBreakerSlidingWindowSize;
+    }
+
+    public void setCircuitBreakerMinimumCalls(int circuitBreakerMinimumCalls) {
+        this.circuitBreakerMinimumCalls = circuitBreakerMinimumCalls;
+    }
+
+    public void setCircuitBreakerOpenDurationMS(int circuitBreakerOpenDurationMS) {
+        this.circuitBreakerOpenDurationMS = circuitBreakerOpenDurationMS;
+    }
+
+    public void setCircuitBreakerHalfOpenProbes(int circuitBreakerHalfOpenProbes) {
+        this.circuitBreakerHalfOpenProbes = circuitBreakerHalfOpenProbes;
+    }
+
+    public void setSessionRenewalIntervalSeconds(int sessionRenewalIntervalSeconds) {
+        this.sessionRenewalIntervalSeconds = sessionRenewalIntervalSeconds;
+    }
+
+    public void setFairQueueQuantum(int fairQueueQuantum) {
+        this.fairQueueQuantum = fairQueueQuantum;
+    }
+
+    public void setStreamShares(String streamShares) {
+        this.streamShares = streamShares;
+    }
+
+    public void setOverflowPolicy(String overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public void setOverflowBlockTimeoutMS(int overflowBlockTimeoutMS) {
+        this.overflowBlockTimeoutMS = overflowBlockTimeoutMS;
+    }
+
+    public void setEventTTLMS(int eventTTLMS) {
+        this.eventTTLMS = eventTTLMS;
+    }
+
+    public void setShareEndpointGroups(boolean shareEndpointGroups) {
+        this.shareEndpointGroups = shareEndpointGroups;
+    }
+
+    public void setSyncGroupCommitConcurrency(int syncGroupCommitConcurrency) {
+        this.syncGroupCommitConcurrency = syncGroupCommitConcurrency;
+    }
+
+    public void setSerializationThreads(int serializationThreads) {
+        this.serializationThreads = serializationThreads;
+    }
+
+    public void setSharedMemoryRingSize(int sharedMemoryRingSize) {
+        this.sharedMemoryRingSize = sharedMemoryRingSize;
+    }
+
+    public void setQueueByteBudget(long queueByteBudget) {
+        this.queueByteBudget = queueByteBudget;
+    }
+
+    public void setOffHeapQueueSize(int offHeapQueueSize) {
+        this.offHeapQueueSize = offHeapQueueSize;
+    }
+
+    public void setReceiverLoadThreshold(int receiverLoadThreshold) {
+        this.receiverLoadThreshold = receiverLoadThreshold;
+    }
+
+    public void setReceiverLoadMaxBackoffMS(int receiverLoadMaxBackoffMS) {
+        this.receiverLoadMaxBackoffMS = receiverLoadMaxBackoffMS;
+    }
+
+    public void setAdaptiveBatchMaxSize(int adaptiveBatchMaxSize) {
+        this.adaptiveBatchMaxSize = adaptiveBatchMaxSize;
+    }
+
+    public void setAdaptiveBatchMinSize(int adaptiveBatchMinSize) {
+        this.adaptiveBatchMinSize = adaptiveBatchMinSize;
+    }
+
+    public void setAdaptiveBatchLatencyTargetMS(int adaptiveBatchLatencyTargetMS) {
+        this.adaptiveBatchLatencyTargetMS = adaptiveBatchLatencyTargetMS;
+    }
+
+    public void setLazyConnect(boolean lazyConnect) {
+        this.lazyConnect = lazyConnect;
+    }
+
+    public void setCompactBinaryEncoding(boolean compactBinaryEncoding) {
+        this.compactBinaryEncoding = compactBinaryEncoding;
+    }
+
+    public void setColumnarBinaryEncoding(boolean columnarBinaryEncoding) {
+        this.columnarBinaryEncoding = columnarBinaryEncoding;
+    }
+
     @Override
     public String toString() {
         return ", Name : " + name +
@@ -297,7 +749,46 @@ public class AgentConfiguration {
                 "SecureEvictionTimePeriod" + secureEvictionTimePeriod +
                 "SecureMinIdleTimeInPool" + secureMinIdleTimeInPool +
                 "SSLEnabledProtocols" + sslEnabledProtocols +
-                "Ciphers" + ciphers;
+                "Ciphers" + ciphers +
+                "LoadBalancingStrategy" + loadBalancingStrategy +
+                "PartitionKeyAttribute" + partitionKeyAttribute +
+                "PriorityLanes" + priorityLanes +
+                "StreamPriorities" + streamPriorities +
+                "MaxEventsPerSecond" + maxEventsPerSecond +
+                "MaxBytesPerSecond" + maxBytesPerSecond +
+                "StreamRateLimits" + streamRateLimits +
+                "RateLimitPolicy" + rateLimitPolicy +
+                "StreamAggregations" + streamAggregations +
+                "SelectorThreads" + selectorThreads +
+                "MaxInFlightBatches" + maxInFlightBatches +
+                "SslSessionCacheSize" + sslSessionCacheSize +
+                "SslSessionTimeoutSeconds" + sslSessionTimeoutSeconds +
+                "CircuitBreakerFailureRateThreshold" + circuitBreakerFailureRateThreshold +
+                "CircuitBreakerSlowCallThresholdMS" + circuitBreakerSlowCallThresholdMS +
+                "CircuitBreakerSlidingWindowSize" + circuitBreakerSlidingWindowSize +
+                "CircuitBreakerMinimumCalls" + circuitBreakerMinimumCalls +
+                "CircuitBreakerOpenDurationMS" + circuitBreakerOpenDurationMS +
+                "CircuitBreakerHalfOpenProbes" + circuitBreakerHalfOpenProbes +
+                "SessionRenewalIntervalSeconds" + sessionRenewalIntervalSeconds +
+                "FairQueueQuantum" + fairQueueQuantum +
+                "StreamShares" + streamShares +
+                "OverflowPolicy" + overflowPolicy +
+                "OverflowBlockTimeoutMS" + overflowBlockTimeoutMS +
+                "EventTTLMS" + eventTTLMS +
+                "ShareEndpointGroups" + shareEndpointGroups +
+                "SyncGroupCommitConcurrency" + syncGroupCommitConcurrency +
+                "SerializationThreads" + serializationThreads +
+                "SharedMemoryRingSize" + sharedMemoryRingSize +
+                "QueueByteBudget" + queueByteBudget +
+                "OffHeapQueueSize" + offHeapQueueSize +
+                "ReceiverLoadThreshold" + receiverLoadThreshold +
+                "ReceiverLoadMaxBackoffMS" + receiverLoadMaxBackoffMS +
+                "AdaptiveBatchMaxSize" + adaptiveBatchMaxSize +
+                "AdaptiveBatchMinSize" + adaptiveBatchMinSize +
+                "AdaptiveBatchLatencyTargetMS" + adaptiveBatchLatencyTargetMS +
+                "LazyConnect" + lazyConnect +
+                "CompactBinaryEncoding" + compactBinaryEncoding +
+                "ColumnarBinaryEncoding" + columnarBinaryEncoding;
     }
 
     public AgentConfiguration(String name, String dataEndpointClass) {
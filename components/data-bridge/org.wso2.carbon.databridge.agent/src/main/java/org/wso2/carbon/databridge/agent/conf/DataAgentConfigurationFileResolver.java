@@ -170,6 +170,201 @@ public class DataAgentConfigurationFileResolver {
                     agentConfiguration.setCiphers(agentConfigurationHashMap.get(
                             DataAgentConstants.CIPHERS).toString().trim());
                 }
+
+                if (agentConfigurationHashMap.get(DataAgentConstants.LOAD_BALANCING_STRATEGY) != null) {
+                    agentConfiguration.setLoadBalancingStrategy(agentConfigurationHashMap.get(
+                            DataAgentConstants.LOAD_BALANCING_STRATEGY).toString().trim());
+                }
+
+                if (agentConfigurationHashMap.get(DataAgentConstants.PARTITION_KEY_ATTRIBUTE) != null) {
+                    agentConfiguration.setPartitionKeyAttribute(agentConfigurationHashMap.get(
+                            DataAgentConstants.PARTITION_KEY_ATTRIBUTE).toString().trim());
+                }
+
+                if (agentConfigurationHashMap.get(DataAgentConstants.PRIORITY_LANES) != null) {
+                    agentConfiguration.setPriorityLanes(agentConfigurationHashMap.get(
+                            DataAgentConstants.PRIORITY_LANES).toString().trim());
+                }
+
+                if (agentConfigurationHashMap.get(DataAgentConstants.STREAM_PRIORITIES) != null) {
+                    agentConfiguration.setStreamPriorities(agentConfigurationHashMap.get(
+                            DataAgentConstants.STREAM_PRIORITIES).toString().trim());
+                }
+
+                if (agentConfigurationHashMap.get(DataAgentConstants.MAX_EVENTS_PER_SECOND) != null) {
+                    agentConfiguration.setMaxEventsPerSecond(Integer.parseInt(agentConfigurationHashMap.get(
+                            DataAgentConstants.MAX_EVENTS_PER_SECOND).toString().trim()));
+                }
+
+                if (agentConfigurationHashMap.get(DataAgentConstants.MAX_BYTES_PER_SECOND) != null) {
+                    agentConfiguration.setMaxBytesPerSecond(Long.parseLong(agentConfigurationHashMap.get(
+                            DataAgentConstants.MAX_BYTES_PER_SECOND).toString().trim()));
+                }
+
+                if (agentConfigurationHashMap.get(DataAgentConstants.STREAM_RATE_LIMITS) != null) {
+                    agentConfiguration.setStreamRateLimits(agentConfigurationHashMap.get(
+                            DataAgentConstants.STREAM_RATE_LIMITS).toString().trim());
+                }
+
+                if (agentConfigurationHashMap.get(DataAgentConstants.RATE_LIMIT_POLICY) != null) {
+                    agentConfiguration.setRateLimitPolicy(agentConfigurationHashMap.get(
+                            DataAgentConstants.RATE_LIMIT_POLICY).toString().trim());
+                }
+
+                if (agentConfigurationHashMap.get(DataAgentConstants.STREAM_AGGREGATIONS) != null) {
+                    agentConfiguration.setStreamAggregations(agentConfigurationHashMap.get(
+                            DataAgentConstants.STREAM_AGGREGATIONS).toString().trim());
+                }
+
+                if (agentConfigurationHashMap.get(DataAgentConstants.SELECTOR_THREADS) != null) {
+                    agentConfiguration.setSelectorThreads(Integer.parseInt(agentConfigurationHashMap.get(
+                            DataAgentConstants.SELECTOR_THREADS).toString().trim()));
+                }
+
+                if (agentConfigurationHashMap.get(DataAgentConstants.MAX_IN_FLIGHT_BATCHES) != null) {
+                    agentConfiguration.setMaxInFlightBatches(Integer.parseInt(agentConfigurationHashMap.get(
+                            DataAgentConstants.MAX_IN_FLIGHT_BATCHES).toString().trim()));
+                }
+
+                if (agentConfigurationHashMap.get(DataAgentConstants.SSL_SESSION_CACHE_SIZE) != null) {
+                    agentConfiguration.setSslSessionCacheSize(Integer.parseInt(agentConfigurationHashMap.get(
+                            DataAgentConstants.SSL_SESSION_CACHE_SIZE).toString().trim()));
+                }
+
+                if (agentConfigurationHashMap.get(DataAgentConstants.SSL_SESSION_TIMEOUT_SECONDS) != null) {
+                    agentConfiguration.setSslSessionTimeoutSeconds(Integer.parseInt(agentConfigurationHashMap.get(
+                            DataAgentConstants.SSL_SESSION_TIMEOUT_SECONDS).toString().trim()));
+                }
+
+                if (agentConfigurationHashMap.get(DataAgentConstants.CIRCUIT_BREAKER_FAILURE_RATE_THRESHOLD) != null) {
+                    agentConfiguration.setCircuitBreakerFailureRateThreshold(Integer.parseInt(agentConfigurationHashMap.get(
+                            DataAgentConstants.CIRCUIT_BREAKER_FAILURE_RATE_THRESHOLD).toString().trim()));
+                }
+
+                if (agentConfigurationHashMap.get(DataAgentConstants.CIRCUIT_BREAKER_SLOW_CALL_THRESHOLD_MS) != null) {
+                    agentConfiguration.setCircuitBreakerSlowCallThresholdMS(Integer.parseInt(agentConfigurationHashMap.get(
+                            DataAgentConstants.CIRCUIT_BREAKER_SLOW_CALL_THRESHOLD_MS).toString().trim()));
+                }
+
+                if (agentConfigurationHashMap.get(DataAgentConstants.CIRCUIT_BREAKER_SLIDING_WINDOW_SIZE) != null) {
+                    agentConfiguration.setCircuitBreakerSlidingWindowSize(Integer.parseInt(agentConfigurationHashMap.get(
+                            DataAgentConstants.CIRCUIT_BREAKER_SLIDING_WINDOW_SIZE).toString().trim()));
+                }
+
+                if (agentConfigurationHashMap.get(DataAgentConstants.CIRCUIT_BREAKER_MINIMUM_CALLS) != null) {
+                    agentConfiguration.setCircuitBreakerMinimumCalls(Integer.parseInt(agentConfigurationHashMap.get(
+                            DataAgentConstants.CIRCUIT_BREAKER_MINIMUM_CALLS).toString().trim()));
+                }
+
+                if (agentConfigurationHashMap.get(DataAgentConstants.CIRCUIT_BREAKER_OPEN_DURATION_MS) != null) {
+                    agentConfiguration.setCircuitBreakerOpenDurationMS(Integer.parseInt(agentConfigurationHashMap.get(
+                            DataAgentConstants.CIRCUIT_BREAKER_OPEN_DURATION_MS).toString().trim()));
+                }
+
+                if (agentConfigurationHashMap.get(DataAgentConstants.CIRCUIT_BREAKER_HALF_OPEN_PROBES) != null) {
+                    agentConfiguration.setCircuitBreakerHalfOpenProbes(Integer.parseInt(agentConfigurationHashMap.get(
+                            DataAgentConstants.CIRCUIT_BREAKER_HALF_OPEN_PROBES).toString().trim()));
+                }
+
+                if (agentConfigurationHashMap.get(DataAgentConstants.SESSION_RENEWAL_INTERVAL_SECONDS) != null) {
+                    agentConfiguration.setSessionRenewalIntervalSeconds(Integer.parseInt(agentConfigurationHashMap.get(
+                            DataAgentConstants.SESSION_RENEWAL_INTERVAL_SECONDS).toString().trim()));
+                }
+
+                if (agentConfigurationHashMap.get(DataAgentConstants.FAIR_QUEUE_QUANTUM) != null) {
+                    agentConfiguration.setFairQueueQuantum(Integer.parseInt(agentConfigurationHashMap.get(
+                            DataAgentConstants.FAIR_QUEUE_QUANTUM).toString().trim()));
+                }
+
+                if (agentConfigurationHashMap.get(DataAgentConstants.STREAM_SHARES) != null) {
+                    agentConfiguration.setStreamShares(agentConfigurationHashMap.get(
+                            DataAgentConstants.STREAM_SHARES).toString().trim());
+                }
+
+                if (agentConfigurationHashMap.get(DataAgentConstants.OVERFLOW_POLICY) != null) {
+                    agentConfiguration.setOverflowPolicy(agentConfigurationHashMap.get(
+                            DataAgentConstants.OVERFLOW_POLICY).toString().trim());
+                }
+
+                if (agentConfigurationHashMap.get(DataAgentConstants.OVERFLOW_BLOCK_TIMEOUT_MS) != null) {
+                    agentConfiguration.setOverflowBlockTimeoutMS(Integer.parseInt(agentConfigurationHashMap.get(
+                            DataAgentConstants.OVERFLOW_BLOCK_TIMEOUT_MS).toString().trim()));
+                }
+
+                if (agentConfigurationHashMap.get(DataAgentConstants.EVENT_TTL_MS) != null) {
+                    agentConfiguration.setEventTTLMS(Integer.parseInt(agentConfigurationHashMap.get(
+                            DataAgentConstants.EVENT_TTL_MS).toString().trim()));
+                }
+
+                if (agentConfigurationHashMap.get(DataAgentConstants.SHARE_ENDPOINT_GROUPS) != null) {
+                    agentConfiguration.setShareEndpointGroups(Boolean.parseBoolean(agentConfigurationHashMap.get(
+                            DataAgentConstants.SHARE_ENDPOINT_GROUPS).toString().trim()));
+                }
+
+                if (agentConfigurationHashMap.get(DataAgentConstants.SYNC_GROUP_COMMIT_CONCURRENCY) != null) {
+                    agentConfiguration.setSyncGroupCommitConcurrency(Integer.parseInt(agentConfigurationHashMap.get(
+                            DataAgentConstants.SYNC_GROUP_COMMIT_CONCURRENCY).toString().trim()));
+                }
+
+                if (agentConfigurationHashMap.get(DataAgentConstants.SERIALIZATION_THREADS) != null) {
+                    agentConfiguration.setSerializationThreads(Integer.parseInt(agentConfigurationHashMap.get(
+                            DataAgentConstants.SERIALIZATION_THREADS).toString().trim()));
+                }
+
+                if (agentConfigurationHashMap.get(DataAgentConstants.SHARED_MEMORY_RING_SIZE) != null) {
+                    agentConfiguration.setSharedMemoryRingSize(Integer.parseInt(agentConfigurationHashMap.get(
+                            DataAgentConstants.SHARED_MEMORY_RING_SIZE).toString().trim()));
+                }
+
+                if (agentConfigurationHashMap.get(DataAgentConstants.QUEUE_BYTE_BUDGET) != null) {
+                    agentConfiguration.setQueueByteBudget(Long.parseLong(agentConfigurationHashMap.get(
+                            DataAgentConstants.QUEUE_BYTE_BUDGET).toString().trim()));
+                }
+
+                if (agentConfigurationHashMap.get(DataAgentConstants.OFF_HEAP_QUEUE_SIZE) != null) {
+                    agentConfiguration.setOffHeapQueueSize(Integer.parseInt(agentConfigurationHashMap.get(
+                            DataAgentConstants.OFF_HEAP_QUEUE_SIZE).toString().trim()));
+                }
+
+                if (agentConfigurationHashMap.get(DataAgentConstants.RECEIVER_LOAD_THRESHOLD) != null) {
+                    agentConfiguration.setReceiverLoadThreshold(Integer.parseInt(agentConfigurationHashMap.get(
+                            DataAgentConstants.RECEIVER_LOAD_THRESHOLD).toString().trim()));
+                }
+
+                if (agentConfigurationHashMap.get(DataAgentConstants.RECEIVER_LOAD_MAX_BACKOFF_MS) != null) {
+                    agentConfiguration.setReceiverLoadMaxBackoffMS(Integer.parseInt(agentConfigurationHashMap.get(
+                            DataAgentConstants.RECEIVER_LOAD_MAX_BACKOFF_MS).toString().trim()));
+                }
+
+                if (agentConfigurationHashMap.get(DataAgentConstants.ADAPTIVE_BATCH_MAX_SIZE) != null) {
+                    agentConfiguration.setAdaptiveBatchMaxSize(Integer.parseInt(agentConfigurationHashMap.get(
+                            DataAgentConstants.ADAPTIVE_BATCH_MAX_SIZE).toString().trim()));
+                }
+
+                if (agentConfigurationHashMap.get(DataAgentConstants.ADAPTIVE_BATCH_MIN_SIZE) != null) {
+                    agentConfiguration.setAdaptiveBatchMinSize(Integer.parseInt(agentConfigurationHashMap.get(
+                            DataAgentConstants.ADAPTIVE_BATCH_MIN_SIZE).toString().trim()));
+                }
+
+                if (agentConfigurationHashMap.get(DataAgentConstants.ADAPTIVE_BATCH_LATENCY_TARGET_MS) != null) {
+                    agentConfiguration.setAdaptiveBatchLatencyTargetMS(Integer.parseInt(agentConfigurationHashMap.get(
+                            DataAgentConstants.ADAPTIVE_BATCH_LATENCY_TARGET_MS).toString().trim()));
+                }
+
+                if (agentConfigurationHashMap.get(DataAgentConstants.LAZY_CONNECT) != null) {
+                    agentConfiguration.setLazyConnect(Boolean.parseBoolean(agentConfigurationHashMap.get(
+                            DataAgentConstants.LAZY_CONNECT).toString().trim()));
+                }
+
+                if (agentConfigurationHashMap.get(DataAgentConstants.COMPACT_BINARY_ENCODING) != null) {
+                    agentConfiguration.setCompactBinaryEncoding(Boolean.parseBoolean(agentConfigurationHashMap.get(
+                            DataAgentConstants.COMPACT_BINARY_ENCODING).toString().trim()));
+                }
+
+                if (agentConfigurationHashMap.get(DataAgentConstants.COLUMNAR_BINARY_ENCODING) != null) {
+                    agentConfiguration.setColumnarBinaryEncoding(Boolean.parseBoolean(agentConfigurationHashMap.get(
+                            DataAgentConstants.COLUMNAR_BINARY_ENCODING).toString().trim()));
+                }
                 agents.add(agent);
             }
         } else {
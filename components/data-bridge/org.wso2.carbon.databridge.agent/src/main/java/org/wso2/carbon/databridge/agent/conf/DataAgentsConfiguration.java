@@ -38,6 +38,14 @@ public class DataAgentsConfiguration {
                 "org.wso2.carbon.databridge.agent.endpoint.thrift.ThriftDataEndpoint"));
         agents.add(new Agent("Binary",
                 "org.wso2.carbon.databridge.agent.endpoint.binary.BinaryDataEndpoint"));
+        agents.add(new Agent("NioBinary",
+                "org.wso2.carbon.databridge.agent.endpoint.binary.NioBinaryDataEndpoint"));
+        agents.add(new Agent("Local",
+                "org.wso2.carbon.databridge.agent.endpoint.local.LocalDataEndpoint"));
+        agents.add(new Agent("SharedMemory",
+                "org.wso2.carbon.databridge.agent.endpoint.shm.SharedMemoryDataEndpoint"));
+        agents.add(new Agent("AsyncThrift",
+                "org.wso2.carbon.databridge.agent.endpoint.thrift.AsyncThriftDataEndpoint"));
     }
 
     @Override
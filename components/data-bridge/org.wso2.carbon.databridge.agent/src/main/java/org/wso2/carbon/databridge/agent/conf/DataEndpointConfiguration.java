@@ -18,8 +18,13 @@
 package org.wso2.carbon.databridge.agent.conf;
 
 import org.apache.commons.pool.impl.GenericKeyedObjectPool;
+import org.wso2.carbon.databridge.agent.DataEndpointAgent;
+import org.wso2.carbon.databridge.agent.endpoint.BatchSizeController;
+import org.wso2.carbon.databridge.agent.endpoint.CircuitBreaker;
 import org.wso2.carbon.databridge.agent.util.DataEndpointConstants;
 
+import java.util.concurrent.ExecutorService;
+
 /**
  * Data Endpoint Configuration.
  */
@@ -43,7 +48,7 @@ public class DataEndpointConfiguration {
 
     private String authKey;
 
-    private String sessionId;
+    private volatile String sessionId;
 
     private int corePoolSize;
 
@@ -51,11 +56,37 @@ public class DataEndpointConfiguration {
 
     private int keepAliveTimeInPool;
 
+    private CircuitBreaker circuitBreaker;
+
+    private BatchSizeController batchSizeController;
+
+    private long sessionRenewalIntervalMS;
+
+    private int syncGroupCommitConcurrency;
+
+    private ExecutorService serializationService;
+
+    private int receiverLoadThreshold;
+
+    private int receiverLoadMaxBackoffMS;
+
+    /**
+     * Agent which provides the transport pools and the serialization workers when they are not given, so that
+     * they are created only once the endpoint is connected.
+     */
+    private DataEndpointAgent dataEndpointAgent;
+
+    private boolean lazyConnect;
+
+    private boolean compactBinaryEncoding;
+
+    private boolean columnarBinaryEncoding;
+
     /**
      * Protocol Type.
      */
     public enum Protocol {
-        TCP, SSL;
+        TCP, SSL, LOCAL, UNIX, SHM;
 
         @Override
         public String toString() {
@@ -120,10 +151,16 @@ public class DataEndpointConfiguration {
     }
 
     public GenericKeyedObjectPool getTransportPool() {
+        if (transportPool == null && dataEndpointAgent != null) {
+            return dataEndpointAgent.getTransportPool();
+        }
         return transportPool;
     }
 
     public GenericKeyedObjectPool getSecuredTransportPool() {
+        if (securedTransportPool == null && dataEndpointAgent != null) {
+            return dataEndpointAgent.getSecuredTransportPool();
+        }
         return securedTransportPool;
     }
 
@@ -142,5 +179,91 @@ public class DataEndpointConfiguration {
     public int getBatchSize() {
         return batchSize;
     }
-}
 
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public void setCircuitBreaker(CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    public BatchSizeController getBatchSizeController() {
+        return batchSizeController;
+    }
+
+    public void setBatchSizeController(BatchSizeController batchSizeController) {
+        this.batchSizeController = batchSizeController;
+    }
+
+    public long getSessionRenewalIntervalMS() {
+        return sessionRenewalIntervalMS;
+    }
+
+    public void setSessionRenewalIntervalMS(long sessionRenewalIntervalMS) {
+        this.sessionRenewalIntervalMS = sessionRenewalIntervalMS;
+    }
+
+    public int getSyncGroupCommitConcurrency() {
+        return syncGroupCommitConcurrency;
+    }
+
+    public void setSyncGroupCommitConcurrency(int syncGroupCommitConcurrency) {
+        this.syncGroupCommitConcurrency = syncGroupCommitConcurrency;
+    }
+
+    public ExecutorService getSerializationService() {
+        if (serializationService == null && dataEndpointAgent != null) {
+            return dataEndpointAgent.getSerializationService();
+        }
+        return serializationService;
+    }
+
+    public void setSerializationService(ExecutorService serializationService) {
+        this.serializationService = serializationService;
+    }
+
+    public int getReceiverLoadThreshold() {
+        return receiverLoadThreshold;
+    }
+
+    public void setReceiverLoadThreshold(int receiverLoadThreshold) {
+        this.receiverLoadThreshold = receiverLoadThreshold;
+    }
+
+    public int getReceiverLoadMaxBackoffMS() {
+        return receiverLoadMaxBackoffMS;
+    }
+
+    public void setReceiverLoadMaxBackoffMS(int receiverLoadMaxBackoffMS) {
+        this.receiverLoadMaxBackoffMS = receiverLoadMaxBackoffMS;
+    }
+
+    public void setDataEndpointAgent(DataEndpointAgent dataEndpointAgent) {
+        this.dataEndpointAgent = dataEndpointAgent;
+    }
+
+    public boolean isLazyConnect() {
+        return lazyConnect;
+    }
+
+    public void setLazyConnect(boolean lazyConnect) {
+        this.lazyConnect = lazyConnect;
+    }
+
+    public boolean isCompactBinaryEncoding() {
+        return compactBinaryEncoding;
+    }
+
+    public void setCompactBinaryEncoding(boolean compactBinaryEncoding) {
+        this.compactBinaryEncoding = compactBinaryEncoding;
+    }
+
+    public boolean isColumnarBinaryEncoding() {
+        return columnarBinaryEncoding;
+    }
+
+    public void setColumnarBinaryEncoding(boolean columnarBinaryEncoding) {
+        this.columnarBinaryEncoding = columnarBinaryEncoding;
+    }
+}
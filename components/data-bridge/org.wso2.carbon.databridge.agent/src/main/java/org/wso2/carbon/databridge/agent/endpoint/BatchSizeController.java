@@ -0,0 +1,199 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.endpoint;
+
+import org.wso2.carbon.databridge.agent.conf.AgentConfiguration;
+import org.wso2.carbon.databridge.agent.exception.DataEndpointConfigurationException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Controller of the batch size of a data endpoint, which tunes the batch size within the configured bounds in
+ * additive increase, multiplicative decrease manner. The outcome of the batches is collected in windows, and at
+ * the end of each window the batch size is halved if a batch of the window has failed, reduced by a quarter if
+ * the average latency of the batches is above the latency target, increased by a step if the throughput is not
+ * lower than in the previous window, and kept otherwise. Hence the batch size grows as long as the larger batches
+ * deliver the events faster, and backs off quickly when the receiver or the link is overloaded.
+ */
+public class BatchSizeController {
+
+    private static final int WINDOW_BATCHES = 10;
+
+    /**
+     * Number of increases to grow the batch size from the lower bound to the upper bound.
+     */
+    private static final int INCREASE_STEPS = 32;
+
+    /**
+     * Ratio of the throughput of the previous window, which a window should reach for the batch size to grow.
+     */
+    private static final double THROUGHPUT_TOLERANCE = 0.95;
+
+    private final int minBatchSize;
+
+    private final int maxBatchSize;
+
+    private final long latencyTargetNanos;
+
+    private final int increaseStep;
+
+    private volatile int batchSize;
+
+    private int windowBatches;
+
+    private int windowFailures;
+
+    private long windowEvents;
+
+    private long windowLatencyNanos;
+
+    private long windowStartTime;
+
+    private double throughput;
+
+    private double averageLatencyMS;
+
+    private Decision lastDecision = Decision.NONE;
+
+    /**
+     * Decision taken at the end of a window.
+     */
+    public enum Decision {
+        NONE, INCREASE, HOLD, DECREASE_ON_LATENCY, DECREASE_ON_FAILURE
+    }
+
+    public BatchSizeController(int initialBatchSize, int minBatchSize, int maxBatchSize, long latencyTargetMS)
+            throws DataEndpointConfigurationException {
+        if (minBatchSize <= 0 || maxBatchSize < minBatchSize || latencyTargetMS <= 0) {
+            throw new DataEndpointConfigurationException("Invalid adaptive batch configuration, minimum batch " +
+                    "size : " + minBatchSize + " and latency target : " + latencyTargetMS + " should be positive " +
+                    "and maximum batch size : " + maxBatchSize + " should not be less than the minimum.");
+        }
+        this.minBatchSize = minBatchSize;
+        this.maxBatchSize = maxBatchSize;
+        this.latencyTargetNanos = TimeUnit.MILLISECONDS.toNanos(latencyTargetMS);
+        this.increaseStep = Math.max(1, (maxBatchSize - minBatchSize) / INCREASE_STEPS);
+        this.batchSize = Math.max(minBatchSize, Math.min(maxBatchSize, initialBatchSize));
+    }
+
+    /**
+     * Creates the batch size controller for an endpoint of the agent, starting from the configured batch size.
+     *
+     * @param agentConfiguration Configuration of the agent.
+     * @return BatchSizeController, or null if the adaptive batch size is not configured.
+     * @throws DataEndpointConfigurationException If the adaptive batch configuration is invalid.
+     */
+    public static BatchSizeController create(AgentConfiguration agentConfiguration)
+            throws DataEndpointConfigurationException {
+        if (agentConfiguration.getAdaptiveBatchMaxSize() <= 0) {
+            return null;
+        }
+        return new BatchSizeController(agentConfiguration.getBatchSize(), agentConfiguration.getAdaptiveBatchMinSize(),
+                agentConfiguration.getAdaptiveBatchMaxSize(), agentConfiguration.getAdaptiveBatchLatencyTargetMS());
+    }
+
+    /**
+     * Record the outcome of a batch, and adjust the batch size if the window is completed.
+     *
+     * @param eventCount   Number of events of the batch.
+     * @param latencyNanos Time from sending the batch until it is acknowledged or failed.
+     * @param isSuccess    Whether the batch is sent successfully.
+     */
+    public synchronized void onBatchCompleted(int eventCount, long latencyNanos, boolean isSuccess) {
+        long currentTime = System.nanoTime();
+        if (windowBatches == 0) {
+            windowStartTime = currentTime - latencyNanos;
+        }
+        windowBatches++;
+        windowLatencyNanos += latencyNanos;
+        if (isSuccess) {
+            windowEvents += eventCount;
+        } else {
+            windowFailures++;
+        }
+        if (windowBatches >= WINDOW_BATCHES) {
+            adjust(currentTime);
+        }
+    }
+
+    private void adjust(long currentTime) {
+        long windowNanos = Math.max(1, currentTime - windowStartTime);
+        double windowThroughput = (double) windowEvents * TimeUnit.SECONDS.toNanos(1) / windowNanos;
+        long windowAverageLatencyNanos = windowLatencyNanos / windowBatches;
+        if (windowFailures > 0) {
+            batchSize = Math.max(minBatchSize, batchSize / 2);
+            lastDecision = Decision.DECREASE_ON_FAILURE;
+        } else if (windowAverageLatencyNanos > latencyTargetNanos) {
+            batchSize = Math.max(minBatchSize, batchSize - batchSize / 4);
+            lastDecision = Decision.DECREASE_ON_LATENCY;
+        } else if (windowThroughput >= throughput * THROUGHPUT_TOLERANCE) {
+            batchSize = Math.min(maxBatchSize, batchSize + increaseStep);
+            lastDecision = Decision.INCREASE;
+        } else {
+            lastDecision = Decision.HOLD;
+        }
+        throughput = windowThroughput;
+        averageLatencyMS = (double) windowAverageLatencyNanos / TimeUnit.MILLISECONDS.toNanos(1);
+        windowBatches = 0;
+        windowFailures = 0;
+        windowEvents = 0;
+        windowLatencyNanos = 0;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getMinBatchSize() {
+        return minBatchSize;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * Returns the events sent per second in the last completed window.
+     */
+    public synchronized double getThroughput() {
+        return throughput;
+    }
+
+    /**
+     * Returns the average latency of the batches in the last completed window.
+     */
+    public synchronized double getAverageLatencyMS() {
+        return averageLatencyMS;
+    }
+
+    public synchronized Decision getLastDecision() {
+        return lastDecision;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "BatchSizeController{" +
+                "batchSize=" + batchSize +
+                ", minBatchSize=" + minBatchSize +
+                ", maxBatchSize=" + maxBatchSize +
+                ", throughput=" + throughput +
+                ", averageLatencyMS=" + averageLatencyMS +
+                ", lastDecision=" + lastDecision +
+                "}";
+    }
+}
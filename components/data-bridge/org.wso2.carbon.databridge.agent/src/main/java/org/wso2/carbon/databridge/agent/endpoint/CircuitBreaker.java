@@ -0,0 +1,243 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.endpoint;
+
+import org.wso2.carbon.databridge.agent.conf.AgentConfiguration;
+import org.wso2.carbon.databridge.agent.exception.DataEndpointConfigurationException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit breaker of a data endpoint, which keeps the outcome of the recent batches sent to the endpoint.
+ * The circuit is opened when the failure rate of the recent batches reaches the threshold, where the batches
+ * slower than the slow call threshold are also counted as failures. While the circuit is open no batches are
+ * sent to the endpoint, and once the open duration has elapsed the circuit is half open and only a limited
+ * number of probe batches are let through. The circuit is closed only if all the probe batches succeed, and it
+ * is opened again on the first failed probe.
+ */
+public class CircuitBreaker {
+
+    private static final int DEFAULT_FAILURE_RATE_THRESHOLD = 50;
+
+    private final int failureRateThreshold;
+
+    private final long slowCallThresholdNanos;
+
+    private final int minimumCalls;
+
+    private final long openDurationMS;
+
+    private final int halfOpenProbes;
+
+    /**
+     * Outcome of the recent batches in a ring, where true denotes a failed batch.
+     */
+    private final boolean[] outcomes;
+
+    private int outcomeCount;
+
+    private int nextOutcome;
+
+    private int failureCount;
+
+    private State state = State.CLOSED;
+
+    private long openedTime;
+
+    private int issuedProbes;
+
+    private int successfulProbes;
+
+    private long openedCount;
+
+    private long rejectedCount;
+
+    /**
+     * State of the circuit.
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    public CircuitBreaker(int failureRateThreshold, long slowCallThresholdMS, int slidingWindowSize,
+                          int minimumCalls, long openDurationMS, int halfOpenProbes)
+            throws DataEndpointConfigurationException {
+        if (failureRateThreshold < 0 || failureRateThreshold > 100) {
+            throw new DataEndpointConfigurationException("Circuit breaker failure rate threshold should be " +
+                    "between 0 and 100, but found: " + failureRateThreshold);
+        }
+        if (slidingWindowSize <= 0 || halfOpenProbes <= 0 || openDurationMS < 0) {
+            throw new DataEndpointConfigurationException("Invalid circuit breaker configuration, sliding window " +
+                    "size : " + slidingWindowSize + " and half open probes : " + halfOpenProbes +
+                    " should be positive and open duration : " + openDurationMS + " cannot be negative.");
+        }
+        this.failureRateThreshold = failureRateThreshold == 0 ? DEFAULT_FAILURE_RATE_THRESHOLD :
+                failureRateThreshold;
+        this.slowCallThresholdNanos = slowCallThresholdMS > 0 ? TimeUnit.MILLISECONDS.toNanos(slowCallThresholdMS) :
+                Long.MAX_VALUE;
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, slidingWindowSize));
+        this.openDurationMS = openDurationMS;
+        this.halfOpenProbes = halfOpenProbes;
+        this.outcomes = new boolean[slidingWindowSize];
+    }
+
+    /**
+     * Creates the circuit breaker for an endpoint of the agent.
+     *
+     * @param agentConfiguration Configuration of the agent.
+     * @return CircuitBreaker, or null if neither failure rate nor slow call threshold is configured.
+     * @throws DataEndpointConfigurationException If the circuit breaker configuration is invalid.
+     */
+    public static CircuitBreaker create(AgentConfiguration agentConfiguration)
+            throws DataEndpointConfigurationException {
+        if (agentConfiguration.getCircuitBreakerFailureRateThreshold() <= 0 &&
+                agentConfiguration.getCircuitBreakerSlowCallThresholdMS() <= 0) {
+            return null;
+        }
+        return new CircuitBreaker(agentConfiguration.getCircuitBreakerFailureRateThreshold(),
+                agentConfiguration.getCircuitBreakerSlowCallThresholdMS(),
+                agentConfiguration.getCircuitBreakerSlidingWindowSize(),
+                agentConfiguration.getCircuitBreakerMinimumCalls(),
+                agentConfiguration.getCircuitBreakerOpenDurationMS(),
+                agentConfiguration.getCircuitBreakerHalfOpenProbes());
+    }
+
+    /**
+     * Acquire the permission to send a batch to the endpoint. When the circuit is half open this takes one of
+     * the probe permits.
+     *
+     * @return true if the batch can be sent.
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (isCallPermitted()) {
+            if (state == State.HALF_OPEN) {
+                issuedProbes++;
+            }
+            return true;
+        }
+        rejectedCount++;
+        return false;
+    }
+
+    /**
+     * Returns whether the endpoint can accept batches, without acquiring the permission. The circuit is moved to
+     * half open state if it has been open for the open duration.
+     */
+    public synchronized boolean isCallPermitted() {
+        if (state == State.OPEN && System.currentTimeMillis() - openedTime >= openDurationMS) {
+            state = State.HALF_OPEN;
+            issuedProbes = 0;
+            successfulProbes = 0;
+        }
+        return state == State.CLOSED || (state == State.HALF_OPEN && issuedProbes < halfOpenProbes);
+    }
+
+    /**
+     * Record a batch which was sent successfully.
+     *
+     * @param durationNanos The time taken to send the batch.
+     * @return State of the circuit after recording the outcome.
+     */
+    public synchronized State onSuccess(long durationNanos) {
+        if (durationNanos >= slowCallThresholdNanos) {
+            return onFailure();
+        }
+        if (state == State.HALF_OPEN) {
+            successfulProbes++;
+            if (successfulProbes >= halfOpenProbes) {
+                close();
+            }
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+        return state;
+    }
+
+    /**
+     * Record a batch which could not be sent.
+     *
+     * @return State of the circuit after recording the outcome.
+     */
+    public synchronized State onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (outcomeCount >= minimumCalls && failureCount * 100 >= failureRateThreshold * outcomeCount) {
+                open();
+            }
+        }
+        return state;
+    }
+
+    private void record(boolean isFailure) {
+        if (outcomeCount == outcomes.length) {
+            if (outcomes[nextOutcome]) {
+                failureCount--;
+            }
+        } else {
+            outcomeCount++;
+        }
+        outcomes[nextOutcome] = isFailure;
+        if (isFailure) {
+            failureCount++;
+        }
+        nextOutcome = (nextOutcome + 1) % outcomes.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedTime = System.currentTimeMillis();
+        openedCount++;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        outcomeCount = 0;
+        nextOutcome = 0;
+        failureCount = 0;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public long getOpenDurationMS() {
+        return openDurationMS;
+    }
+
+    /**
+     * Returns the number of times the circuit has been opened.
+     */
+    public synchronized long getOpenedCount() {
+        return openedCount;
+    }
+
+    /**
+     * Returns the number of batches which were not sent to the endpoint as the circuit was not closed.
+     */
+    public synchronized long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "CircuitBreaker{state=" + state + ", failures=" + failureCount + "/" + outcomeCount +
+                ", openedCount=" + openedCount + ", rejectedCount=" + rejectedCount + "}";
+    }
+}
@@ -0,0 +1,191 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.endpoint;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Consistent hash ring which maps a partition key on to a node. Each node is placed on the ring
+ * multiple times as virtual nodes, so that when a node is skipped or removed only the keys owned
+ * by that node are moved on to the next node of the ring. The number of virtual nodes of a node is
+ * proportional to its weight, hence a node owns a share of the keys proportional to its weight.
+ * <p>
+ * For every position of the ring the ordered list of distinct nodes is pre-computed when the ring is
+ * built, hence the lookup does not create any objects per event.
+ *
+ * @param <T> Type of the node.
+ */
+public class ConsistentHashRing<T> {
+
+    private static final long FNV_64_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    private static final long FNV_64_PRIME = 0x100000001b3L;
+
+    private final int virtualNodes;
+
+    private final Map<T, String> nodes = new LinkedHashMap<>();
+
+    private final Map<T, Integer> weights = new HashMap<>();
+
+    private volatile TreeMap<Long, List<T>> ring = new TreeMap<>();
+
+    public ConsistentHashRing(int virtualNodes) {
+        if (virtualNodes <= 0) {
+            throw new IllegalArgumentException("Number of virtual nodes should be positive, but found: "
+                    + virtualNodes);
+        }
+        this.virtualNodes = virtualNodes;
+    }
+
+    /**
+     * Add the node on to the ring.
+     *
+     * @param node   The node.
+     * @param nodeId Stable identifier of the node, which determines the node's positions in the ring.
+     */
+    public synchronized void addNode(T node, String nodeId) {
+        addNode(node, nodeId, 1);
+    }
+
+    /**
+     * Add the node on to the ring with the given weight.
+     *
+     * @param node   The node.
+     * @param nodeId Stable identifier of the node, which determines the node's positions in the ring.
+     * @param weight Weight of the node, which should be positive.
+     */
+    public synchronized void addNode(T node, String nodeId, int weight) {
+        validateWeight(weight);
+        nodes.put(node, nodeId);
+        weights.put(node, weight);
+        rebuild();
+    }
+
+    /**
+     * Change the weight of a node of the ring. As the positions of the virtual nodes are derived from the node
+     * identifier, only the keys of the added or removed virtual nodes are remapped.
+     *
+     * @param node   The node.
+     * @param weight New weight of the node, which should be positive.
+     * @return false if the node is not in the ring.
+     */
+    public synchronized boolean setWeight(T node, int weight) {
+        validateWeight(weight);
+        if (!nodes.containsKey(node)) {
+            return false;
+        }
+        if (weights.put(node, weight) != weight) {
+            rebuild();
+        }
+        return true;
+    }
+
+    /**
+     * Remove the node from the ring, and only the keys owned by this node will be remapped.
+     *
+     * @param node The node.
+     */
+    public synchronized void removeNode(T node) {
+        if (nodes.remove(node) != null) {
+            weights.remove(node);
+            rebuild();
+        }
+    }
+
+    /**
+     * Returns the distinct nodes of the ring in the order they should be tried for the given key.
+     * The first element is the owner of the key, and following elements are the successors to be
+     * used when the preceding nodes are not available.
+     *
+     * @param key Partition key.
+     * @return Ordered list of nodes, or empty list if there are no nodes in the ring.
+     */
+    public List<T> getPreferenceList(String key) {
+        TreeMap<Long, List<T>> currentRing = this.ring;
+        if (currentRing.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map.Entry<Long, List<T>> entry = currentRing.ceilingEntry(hash(key));
+        if (entry == null) {
+            entry = currentRing.firstEntry();
+        }
+        return entry.getValue();
+    }
+
+    public synchronized int size() {
+        return nodes.size();
+    }
+
+    private static void validateWeight(int weight) {
+        if (weight <= 0) {
+            throw new IllegalArgumentException("Weight of a node should be positive, but found: " + weight);
+        }
+    }
+
+    private void rebuild() {
+        TreeMap<Long, T> positions = new TreeMap<>();
+        for (Map.Entry<T, String> node : nodes.entrySet()) {
+            int nodeVirtualNodes = virtualNodes * weights.get(node.getKey());
+            for (int i = 0; i < nodeVirtualNodes; i++) {
+                positions.put(hash(node.getValue() + "#" + i), node.getKey());
+            }
+        }
+        List<Long> points = new ArrayList<>(positions.keySet());
+        List<T> owners = new ArrayList<>(positions.values());
+        TreeMap<Long, List<T>> newRing = new TreeMap<>();
+        int distinctNodes = nodes.size();
+        for (int i = 0; i < points.size(); i++) {
+            List<T> preferenceList = new ArrayList<>(distinctNodes);
+            for (int j = 0; j < owners.size() && preferenceList.size() < distinctNodes; j++) {
+                T owner = owners.get((i + j) % owners.size());
+                if (!preferenceList.contains(owner)) {
+                    preferenceList.add(owner);
+                }
+            }
+            newRing.put(points.get(i), Collections.unmodifiableList(preferenceList));
+        }
+        this.ring = newRing;
+    }
+
+    /**
+     * 64 bit FNV-1a hash over the characters of the key, followed by the murmur3 finalizer to spread the bits of
+     * short keys.
+     */
+    static long hash(String key) {
+        long hash = FNV_64_OFFSET_BASIS;
+        for (int i = 0; i < key.length(); i++) {
+            char aChar = key.charAt(i);
+            hash ^= (aChar & 0xff);
+            hash *= FNV_64_PRIME;
+            hash ^= (aChar >>> 8);
+            hash *= FNV_64_PRIME;
+        }
+        hash ^= (hash >>> 33);
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= (hash >>> 33);
+        hash *= 0xc4ceb93fe51afe63L;
+        hash ^= (hash >>> 33);
+        return hash;
+    }
+}
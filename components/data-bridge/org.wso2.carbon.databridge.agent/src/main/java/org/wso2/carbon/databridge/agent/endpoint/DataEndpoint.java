@@ -22,18 +22,32 @@ import org.apache.commons.pool.impl.GenericKeyedObjectPool;
 import org.apache.log4j.Logger;
 import org.wso2.carbon.databridge.agent.conf.DataEndpointConfiguration;
 import org.wso2.carbon.databridge.agent.exception.DataEndpointAuthenticationException;
+import org.wso2.carbon.databridge.agent.exception.DataEndpointConfigurationException;
 import org.wso2.carbon.databridge.agent.exception.DataEndpointException;
 import org.wso2.carbon.databridge.agent.util.DataEndpointConstants;
+import org.wso2.carbon.databridge.agent.util.DataPublisherUtil;
 import org.wso2.carbon.databridge.commons.Event;
+import org.wso2.carbon.databridge.commons.ReceiverLoad;
 import org.wso2.carbon.databridge.commons.exception.SessionTimeoutException;
 import org.wso2.carbon.databridge.commons.exception.TransportException;
 import org.wso2.carbon.databridge.commons.exception.UndefinedEventTypeException;
 import org.wso2.carbon.databridge.commons.utils.DataBridgeThreadFactory;
 
+import java.io.File;
+import java.io.IOException;
+import java.net.Socket;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 
@@ -51,22 +65,69 @@ public abstract class DataEndpoint {
 
     private GenericKeyedObjectPool transportPool;
 
-    private int batchSize;
+    /**
+     * Size of the batches, which is changed while publishing if the batch size is tuned by the controller.
+     */
+    private volatile int batchSize;
 
-    private EventPublisherThreadPoolExecutor threadPoolExecutor;
+    private volatile EventPublisherThreadPoolExecutor threadPoolExecutor;
 
     private DataEndpointFailureCallback dataEndpointFailureCallback;
 
-    private ExecutorService connectionService;
+    private volatile ScheduledExecutorService connectionService;
 
     private int maxPoolSize;
 
-    private List<Event> events;
+    /**
+     * Events collected for the next batch, which is modified only by the event queue consumer and replaced once
+     * the batch is submitted.
+     */
+    private volatile EventBatch events;
 
     private State state;
 
     private Semaphore immediateDispatchSemaphore;
 
+    private CircuitBreaker circuitBreaker;
+
+    private BatchSizeController batchSizeController;
+
+    private ExecutorService serializationService;
+
+    /**
+     * Limits the coalesced batches of the synchronous publish calls being sent at a time, which is null if the
+     * synchronous publish calls are not coalesced.
+     */
+    private Semaphore groupCommitSemaphore;
+
+    private final Queue<SyncSendRequest> pendingSyncSendRequests = new ConcurrentLinkedQueue<>();
+
+    private final Object sessionRenewalLock = new Object();
+
+    /**
+     * Serializes the logins of the endpoint, which are done when it is connected, when a publisher finds the
+     * session expired and when the session is renewed in the background.
+     */
+    private final Object connectionLock = new Object();
+
+    /**
+     * Guards the start of the executors and the transport pool of the endpoint, which are created when the
+     * endpoint is connected for the first time.
+     */
+    private final Object startLock = new Object();
+
+    private volatile boolean isStarted = false;
+
+    private ScheduledFuture<?> sessionRenewalFuture;
+
+    private int receiverLoadThreshold;
+
+    private int receiverLoadMaxBackoffMS;
+
+    private volatile ReceiverLoad receiverLoad;
+
+    private volatile long receiverLoadUpdateTime;
+
     /**
      * Endpoint state.
      */
@@ -77,27 +138,125 @@ public abstract class DataEndpoint {
     public DataEndpoint() {
         this.batchSize = DataEndpointConstants.DEFAULT_DATA_AGENT_BATCH_SIZE;
         this.state = State.INITIALIZING;
-        events = new ArrayList<>();
+        events = new EventBatch();
     }
 
-    void collectAndSend(Event event) {
-        events.add(event);
+    /**
+     * Collect the event to the next batch, and submit the batch once it is full. The events resent from a failed
+     * batch are collected by the thread handling the failure while the event queue consumer collects the new
+     * events, hence the batch is built under the lock of the endpoint so that a batch is not submitted twice.
+     *
+     * @param event        The event.
+     * @param partitionKey The partition key the event is routed by, which is kept with the event so that the
+     *                     event is resent by the same key if the batch fails, or null if there is no key.
+     */
+    synchronized void collectAndSend(Event event, String partitionKey) {
+        events.add(event, partitionKey);
         if (events.size() >= batchSize) {
-            threadPoolExecutor.submitJobAndSetState(new EventPublisher(events), this);
-            events = new ArrayList<>();
+            submitEvents(events);
+            events = new EventBatch();
         }
     }
 
-    void flushEvents() {
+    synchronized void flushEvents() {
         if (events.size() != 0) {
-            threadPoolExecutor.submitJobAndSetState(new EventPublisher(events), this);
-            events = new ArrayList<>();
+            submitEvents(events);
+            events = new EventBatch();
+        }
+    }
+
+    /**
+     * Returns true if the endpoint has collected events which are not submitted as a batch yet.
+     */
+    boolean hasBufferedEvents() {
+        return !events.isEmpty();
+    }
+
+    private void submitEvents(List<Event> events) {
+        if (!tryAcquireCircuitPermission(events)) {
+            return;
+        }
+        EventPublisher eventPublisher = new EventPublisher(events);
+        if (serializationService != null) {
+            eventPublisher.setEncodedEvents(submitEncoding(events));
+        }
+        threadPoolExecutor.submitJobAndSetState(eventPublisher, this);
+    }
+
+    /**
+     * Submit the encoding of the batch to the serialization workers, so that the batch is encoded while the
+     * publisher threads are waiting for the receivers.
+     *
+     * @return Future of the encoded events, or null if the serialization workers are shut down.
+     */
+    private Future<Object> submitEncoding(final List<Event> events) {
+        try {
+            return serializationService.submit(new Callable<Object>() {
+                @Override
+                public Object call() throws Exception {
+                    return encode(events);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            return null;
         }
     }
 
-    void syncSend(Event event) {
-        List<Event> events = new ArrayList<>(1);
-        events.add(event);
+    /**
+     * Acquire the permission of the circuit breaker to send the batch. If the batch is not permitted it is handed
+     * back to the endpoint group, and the endpoint is made unavailable until the circuit permits batches again.
+     *
+     * @param events The events of the batch.
+     * @return true if the batch can be sent to the endpoint.
+     */
+    private boolean tryAcquireCircuitPermission(List<Event> events) {
+        if (!acquireCircuitPermission(events)) {
+            deactivate();
+            dataEndpointFailureCallback.tryResendEvents(events, this);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Acquire the permission of the circuit breaker to send the batch, without handling the batch if it is not
+     * permitted.
+     *
+     * @param events The events of the batch.
+     * @return true if the batch can be sent to the endpoint.
+     */
+    private boolean acquireCircuitPermission(List<Event> events) {
+        if (circuitBreaker == null) {
+            return true;
+        }
+        if (!circuitBreaker.tryAcquirePermission()) {
+            if (log.isDebugEnabled()) {
+                log.debug("Circuit of the endpoint " + getDataEndpointConfiguration().getReceiverURL() +
+                        " is not closed, hence resending " + events.size() + " events. " + circuitBreaker);
+            }
+            return false;
+        }
+        if (!circuitBreaker.isCallPermitted()) {
+            // All the probe batches of the half open circuit are taken.
+            deactivate();
+        }
+        return true;
+    }
+
+    void syncSend(Event event, String partitionKey) {
+        if (groupCommitSemaphore != null) {
+            groupCommitSend(event, partitionKey);
+            return;
+        }
+        EventBatch events = new EventBatch(1);
+        events.add(event, partitionKey);
+        syncSend(events);
+    }
+
+    private void syncSend(List<Event> events) {
+        if (!tryAcquireCircuitPermission(events)) {
+            return;
+        }
         EventPublisher eventPublisher = new EventPublisher(events);
         setStateBusy();
         acquireImmediateDispatchSemaphore();
@@ -108,6 +267,79 @@ public abstract class DataEndpoint {
         }
     }
 
+    /**
+     * Send the event in a batch with the events of the other callers which are waiting to be sent, and return
+     * once the batch holding the event is sent. The caller which gets a group commit permit sends the pending
+     * events as a single batch on behalf of the others, while the others wait for their batch to complete. Once
+     * the permit is released, the caller of the oldest pending event is signalled to send the next batch.
+     * <p>
+     * If the caller is interrupted before its event is taken into a batch, the event is not sent and the caller
+     * returns with the interrupt flag set.
+     */
+    private void groupCommitSend(Event event, String partitionKey) {
+        SyncSendRequest request = new SyncSendRequest(event, partitionKey);
+        pendingSyncSendRequests.offer(request);
+        while (!request.isCompleted()) {
+            if (groupCommitSemaphore.tryAcquire()) {
+                try {
+                    List<SyncSendRequest> requests = new ArrayList<>();
+                    SyncSendRequest pendingRequest;
+                    while (requests.size() < batchSize && (pendingRequest = pendingSyncSendRequests.poll()) != null) {
+                        requests.add(pendingRequest);
+                    }
+                    if (!requests.isEmpty()) {
+                        sendGroupCommitBatch(requests);
+                    }
+                } finally {
+                    groupCommitSemaphore.release();
+                    signalPendingSyncSendRequest();
+                }
+            } else {
+                try {
+                    request.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    if (pendingSyncSendRequests.remove(request)) {
+                        if (log.isDebugEnabled()) {
+                            log.debug("Interrupted while waiting to send, dropping event : " + event);
+                        }
+                        //The signal to send the next batch may have been given to this caller.
+                        signalPendingSyncSendRequest();
+                        return;
+                    }
+                    //The event is taken into a batch, which is completed without waiting for it.
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Signal the caller of the oldest pending event to send the next batch. A caller waiting for a permit is
+     * always signalled, as its event is queued before it tries to get a permit and the holder of the permit
+     * checks the pending events after releasing the permit.
+     */
+    private void signalPendingSyncSendRequest() {
+        SyncSendRequest pendingRequest = pendingSyncSendRequests.peek();
+        if (pendingRequest != null) {
+            pendingRequest.signal();
+        }
+    }
+
+    private void sendGroupCommitBatch(List<SyncSendRequest> requests) {
+        EventBatch events = new EventBatch(requests.size());
+        for (SyncSendRequest request : requests) {
+            events.add(request.event, request.partitionKey);
+        }
+        try {
+            syncSend(events);
+        } finally {
+            for (SyncSendRequest request : requests) {
+                request.complete();
+            }
+        }
+    }
+
     private void acquireImmediateDispatchSemaphore() {
         boolean acquired = false;
         do {
@@ -141,38 +373,143 @@ public abstract class DataEndpoint {
             throws TransportException,
             DataEndpointAuthenticationException, DataEndpointException {
         if (connectionWorker != null) {
-            connectionService.submit(connectionWorker);
+            start();
+            ScheduledExecutorService service = connectionService;
+            if (service == null) {
+                throw new DataEndpointException("Data Endpoint is shut down before it is connected");
+            }
+            service.submit(connectionWorker);
         } else {
             throw new DataEndpointException("Data Endpoint is not initialized");
         }
     }
 
-    synchronized void syncConnect(String oldSessionId) throws DataEndpointException {
-        if (oldSessionId == null || oldSessionId.equalsIgnoreCase(getDataEndpointConfiguration().getSessionId())) {
-            if (connectionWorker != null) {
-                connectionWorker.run();
-            } else {
-                throw new DataEndpointException("Data Endpoint is not initialized");
+    /**
+     * Check whether the receiver of the connected endpoint can still be reached, which is done by the reconnection
+     * task of the group to find the receivers which went away without failing a batch. By default a TCP connection
+     * is opened to the host and port of the receiver URL, or the socket file of a Unix domain socket receiver is
+     * checked. The transports which do not connect to the receiver over a socket override this.
+     *
+     * @return false if the receiver cannot be reached, hence the endpoint should be deactivated.
+     * @throws DataEndpointConfigurationException If the receiver URL is not valid.
+     */
+    protected boolean isReceiverReachable() throws DataEndpointConfigurationException {
+        String[] urlElements = DataPublisherUtil.getProtocolHostPort(getDataEndpointConfiguration().getReceiverURL());
+        if (urlElements[0].equalsIgnoreCase(DataEndpointConfiguration.Protocol.UNIX.toString())) {
+            return new File(urlElements[1]).exists();
+        }
+        try {
+            Socket socket = new Socket(urlElements[1], Integer.parseInt(urlElements[2]));
+            socket.close();
+            return true;
+        } catch (IOException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Initiate the connection of an endpoint which is connected lazily, if it has not been connected yet.
+     */
+    void connectIfNotStarted() throws TransportException, DataEndpointAuthenticationException,
+            DataEndpointException {
+        if (!isStarted) {
+            connect();
+        }
+    }
+
+    /**
+     * Returns true if the endpoint has been connected at least once, or is shut down.
+     */
+    boolean isStarted() {
+        return isStarted;
+    }
+
+    /**
+     * Create the executors of the endpoint and obtain the transport pool, which is done once before the endpoint
+     * is connected for the first time.
+     */
+    private void start() {
+        if (isStarted) {
+            return;
+        }
+        synchronized (startLock) {
+            if (isStarted) {
+                return;
             }
+            DataEndpointConfiguration dataEndpointConfiguration = getDataEndpointConfiguration();
+            this.transportPool = dataEndpointConfiguration.getTransportPool();
+            this.serializationService = dataEndpointConfiguration.getSerializationService();
+            this.threadPoolExecutor = new EventPublisherThreadPoolExecutor(
+                    dataEndpointConfiguration.getCorePoolSize(), dataEndpointConfiguration.getMaxPoolSize(),
+                    dataEndpointConfiguration.getKeepAliveTimeInPool(), dataEndpointConfiguration.getReceiverURL());
+            this.connectionService = Executors.newSingleThreadScheduledExecutor(new DataBridgeThreadFactory(
+                    "ConnectionService-" +
+                    dataEndpointConfiguration.getReceiverURL()));
+            isStarted = true;
         }
     }
 
+    void syncConnect(String oldSessionId) throws DataEndpointException {
+        synchronized (connectionLock) {
+            if (oldSessionId == null ||
+                    oldSessionId.equalsIgnoreCase(getDataEndpointConfiguration().getSessionId())) {
+                if (connectionWorker != null) {
+                    connectionWorker.run();
+                } else {
+                    throw new DataEndpointException("Data Endpoint is not initialized");
+                }
+            }
+        }
+    }
+
+    Object getConnectionLock() {
+        return connectionLock;
+    }
+
     public void initialize(DataEndpointConfiguration dataEndpointConfiguration)
             throws DataEndpointException, DataEndpointAuthenticationException,
             TransportException {
-        this.transportPool = dataEndpointConfiguration.getTransportPool();
         this.batchSize = dataEndpointConfiguration.getBatchSize();
         this.connectionWorker = new DataEndpointConnectionWorker();
         this.connectionWorker.initialize(this, dataEndpointConfiguration);
-        this.threadPoolExecutor = new EventPublisherThreadPoolExecutor(dataEndpointConfiguration.getCorePoolSize(),
-                dataEndpointConfiguration.getMaxPoolSize(), dataEndpointConfiguration.getKeepAliveTimeInPool(),
-                dataEndpointConfiguration.getReceiverURL());
-        this.connectionService = Executors.newSingleThreadExecutor(new DataBridgeThreadFactory(
-                "ConnectionService-" +
-                dataEndpointConfiguration.getReceiverURL()));
+        this.circuitBreaker = dataEndpointConfiguration.getCircuitBreaker();
+        this.batchSizeController = dataEndpointConfiguration.getBatchSizeController();
+        if (batchSizeController != null) {
+            this.batchSize = batchSizeController.getBatchSize();
+        }
         this.maxPoolSize = dataEndpointConfiguration.getMaxPoolSize();
         this.immediateDispatchSemaphore = new Semaphore(maxPoolSize);
-        connect();
+        this.receiverLoadThreshold = dataEndpointConfiguration.getReceiverLoadThreshold();
+        this.receiverLoadMaxBackoffMS = dataEndpointConfiguration.getReceiverLoadMaxBackoffMS();
+        if (dataEndpointConfiguration.getSyncGroupCommitConcurrency() > 0) {
+            this.groupCommitSemaphore = new Semaphore(dataEndpointConfiguration.getSyncGroupCommitConcurrency());
+        }
+        if (!dataEndpointConfiguration.isLazyConnect()) {
+            connect();
+        }
+    }
+
+    /**
+     * Schedule the renewal of the current session, replacing the renewal scheduled for the previous session.
+     *
+     * @param sessionId The session to be renewed.
+     * @param delayMS   Time until the renewal, where the renewal is not scheduled if this is not positive.
+     */
+    void scheduleSessionRenewal(String sessionId, long delayMS) {
+        if (delayMS <= 0) {
+            return;
+        }
+        synchronized (sessionRenewalLock) {
+            if (sessionRenewalFuture != null) {
+                sessionRenewalFuture.cancel(false);
+            }
+            try {
+                sessionRenewalFuture = connectionService.schedule(new SessionRenewalTask(sessionId), delayMS,
+                        TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                log.debug("Endpoint is shutting down, hence the session will not be renewed.");
+            }
+        }
     }
 
     /**
@@ -203,7 +540,9 @@ public abstract class DataEndpoint {
     }
 
     void activate() {
-        this.setState(State.ACTIVE);
+        if (circuitBreaker == null || circuitBreaker.isCallPermitted()) {
+            this.setState(State.ACTIVE);
+        }
     }
 
     void deactivate() {
@@ -222,6 +561,34 @@ public abstract class DataEndpoint {
     protected abstract void send(Object client, List<Event> events) throws
             DataEndpointException, SessionTimeoutException, UndefinedEventTypeException;
 
+    /**
+     * Encode the list of events ahead of sending them, which is invoked by the serialization workers of the
+     * agent. The encoded events should not depend on the session, as they are sent again with a new session
+     * if the session is expired.
+     *
+     * @param events List of events that needs to be sent.
+     * @return The encoded events, or null if the events are encoded when they are sent.
+     * @throws DataEndpointException If the events cannot be encoded.
+     */
+    protected Object encode(List<Event> events) throws DataEndpointException {
+        return null;
+    }
+
+    /**
+     * Send the list of events which are encoded by {@link #encode(List)} to the actual endpoint.
+     *
+     * @param client        The client that can be used to send the events.
+     * @param events        List of events that needs to be sent.
+     * @param encodedEvents The encoded events, or null if the events are not encoded ahead.
+     * @throws DataEndpointException
+     * @throws SessionTimeoutException
+     * @throws UndefinedEventTypeException
+     */
+    protected void send(Object client, List<Event> events, Object encodedEvents) throws
+            DataEndpointException, SessionTimeoutException, UndefinedEventTypeException {
+        send(client, events);
+    }
+
     protected DataEndpointConfiguration getDataEndpointConfiguration() {
         return this.connectionWorker.getDataEndpointConfiguration();
     }
@@ -264,16 +631,24 @@ public abstract class DataEndpoint {
     class EventPublisher implements Runnable {
         List<Event> events;
         private Semaphore semaphore;
+        private Future<Object> encodedEvents;
 
         public EventPublisher(List<Event> events) {
             this.events = events;
         }
 
+        void setEncodedEvents(Future<Object> encodedEvents) {
+            this.encodedEvents = encodedEvents;
+        }
+
         @Override
         public void run() {
             String sessionId = getDataEndpointConfiguration().getSessionId();
+            long startTime = System.nanoTime();
+            boolean isFailed = false;
             try {
                 publish();
+                recordSent(startTime);
             } catch (SessionTimeoutException e) {
                 try {
                     if (sessionId == null || sessionId.equalsIgnoreCase(getDataEndpointConfiguration().
@@ -281,30 +656,41 @@ public abstract class DataEndpoint {
                         syncConnect(sessionId);
                     }
                     publish();
+                    recordSent(startTime);
                 } catch (UndefinedEventTypeException ex) {
                     log.error("Unable to process this event.", ex);
+                    recordSuccess(System.nanoTime() - startTime);
                     semaphoreRelease();
                 } catch (Exception ex) {
                     log.error("Unexpected error occurred while sending the event. ", ex);
+                    isFailed = true;
                     handleFailedEvents(this.events);
                 }
             } catch (DataEndpointException e) {
                 log.error("Unable to send events to the endpoint. ", e);
+                isFailed = true;
                 handleFailedEvents(this.events);
             } catch (UndefinedEventTypeException e) {
                 log.error("Unable to process this event.", e);
+                recordSuccess(System.nanoTime() - startTime);
                 semaphoreRelease();
             } catch (Exception ex) {
                 log.error("Unexpected error occurred while sending the event. ", ex);
+                isFailed = true;
                 handleFailedEvents(this.events);
             } catch (Throwable t) {
                 //There can be situations where runtime exceptions/class not found exceptions occur,
                 // This block help to catch those exceptions.
                 //No need to retry send events. Deactivating the state would be enough.
                 log.error("Unexpected error occurred while sending events. ", t);
+                isFailed = true;
                 semaphoreRelease();
+                recordFailure();
                 deactivate();
             } finally {
+                if (isFailed || !isAcknowledgedAsynchronously()) {
+                    recordBatchOutcome(this.events.size(), System.nanoTime() - startTime, !isFailed);
+                }
                 //If any processing error occurred the state will be changed to unavailable,
                 // Hence the state switch should be happening only in busy state where the publishing was success.
                 if (state.equals(State.BUSY)) {
@@ -324,15 +710,46 @@ public abstract class DataEndpoint {
         }
 
         private void publish() throws DataEndpointException, SessionTimeoutException, UndefinedEventTypeException {
+            backOffFromLoadedReceiver();
+            Object encoded = getEncodedEvents();
             Object client = getClient();
             try {
-                send(client, this.events);
+                send(client, this.events, encoded);
                 semaphoreRelease();
             } finally {
                 returnClient(client);
             }
         }
 
+        /**
+         * Wait for the serialization workers to encode the events. If the encoding is failed, the events are
+         * encoded again when they are sent, so that the failure is handled the same as a failure of sending.
+         */
+        private Object getEncodedEvents() {
+            if (encodedEvents == null) {
+                return null;
+            }
+            try {
+                return encodedEvents.get();
+            } catch (ExecutionException e) {
+                return null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+
+        /**
+         * Record the batch written to the transport in the circuit breaker. The transports which acknowledge the
+         * batches asynchronously record the outcome once the batch is acknowledged or failed instead, since
+         * writing the batch does not mean that the receiver has accepted it.
+         */
+        private void recordSent(long startTime) {
+            if (!isAcknowledgedAsynchronously()) {
+                recordSuccess(System.nanoTime() - startTime);
+            }
+        }
+
         private void semaphoreRelease() {
             if (this.semaphore != null) {
                 this.semaphore.release();
@@ -340,11 +757,320 @@ public abstract class DataEndpoint {
         }
     }
 
+    /**
+     * Complete a batch of events which was accepted by {@link #send(Object, List)}, once it is acknowledged or
+     * failed. This is used by the transports which acknowledge the batches asynchronously, where the outcome of
+     * the batch is known only after the send call returns. The outcome is recorded in the batch size controller
+     * and the circuit breaker, and a failed batch is handled by {@link #onAsyncSendFailure(List, Exception)}. A
+     * batch failed as the session has expired is recorded in neither, as its outcome is recorded once it is
+     * republished.
+     *
+     * @param events       The events of the batch.
+     * @param latencyNanos Time from sending the batch until it is acknowledged or failed.
+     * @param e            The cause of the failure, or null if the batch is acknowledged successfully.
+     */
+    protected void onAsyncBatchCompleted(List<Event> events, long latencyNanos, Exception e) {
+        if (e instanceof SessionTimeoutException) {
+            // The batch is republished with a new session, which records its outcome, as done for the batches
+            // sent synchronously.
+            onAsyncSendFailure(events, e);
+            return;
+        }
+        recordBatchOutcome(events.size(), latencyNanos, e == null);
+        if (e == null || e instanceof UndefinedEventTypeException) {
+            // The receiver has responded, even if it does not know the stream of the events.
+            recordSuccess(latencyNanos);
+        }
+        if (e != null) {
+            onAsyncSendFailure(events, e);
+        }
+    }
+
+    /**
+     * Handle a batch of events which was accepted by {@link #send(Object, List)}, but failed afterwards. The batch
+     * is republished after renewing the session if the session has expired and the circuit breaker permits it,
+     * and otherwise it is handed back to the endpoint group and recorded as a failure in the circuit breaker.
+     *
+     * @param events The events of the failed batch.
+     * @param e      The cause of the failure.
+     */
+    private void onAsyncSendFailure(final List<Event> events, final Exception e) {
+        if (e instanceof UndefinedEventTypeException) {
+            log.error("Unable to process this event.", e);
+            return;
+        }
+        final String sessionId = getDataEndpointConfiguration().getSessionId();
+        try {
+            connectionService.submit(new Runnable() {
+                @Override
+                public void run() {
+                    if (e instanceof SessionTimeoutException) {
+                        try {
+                            syncConnect(sessionId);
+                            if (acquireCircuitPermission(events)) {
+                                threadPoolExecutor.submitJobAndSetState(new EventPublisher(events),
+                                        DataEndpoint.this);
+                            } else {
+                                // Record the failure, so that a half open circuit of which the probe is taken
+                                // by the expired batch is opened again rather than waiting for the probe.
+                                handleFailedEvents(events);
+                            }
+                        } catch (Exception ex) {
+                            log.error("Unexpected error occurred while sending the event. ", ex);
+                            handleFailedEvents(events);
+                        }
+                    } else {
+                        log.error("Unable to send events to the endpoint. ", e);
+                        handleFailedEvents(events);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            log.error("Dropping " + events.size() + " events failed after the shutdown of the endpoint "
+                    + getDataEndpointConfiguration().getReceiverURL(), e);
+        }
+    }
+
+    /**
+     * Event of a synchronous publish call, which is completed once the batch holding the event is sent.
+     */
+    private static class SyncSendRequest {
+        private final Event event;
+        private final String partitionKey;
+        /**
+         * Released when the request is completed, or when its caller should send the next batch.
+         */
+        private final Semaphore signal = new Semaphore(0);
+        private volatile boolean isCompleted = false;
+
+        SyncSendRequest(Event event, String partitionKey) {
+            this.event = event;
+            this.partitionKey = partitionKey;
+        }
+
+        void complete() {
+            isCompleted = true;
+            signal.release();
+        }
+
+        void signal() {
+            signal.release();
+        }
+
+        boolean isCompleted() {
+            return isCompleted;
+        }
+
+        /**
+         * Wait until the request is completed, or the caller is signalled to send the next batch.
+         */
+        void await() throws InterruptedException {
+            signal.acquire();
+        }
+    }
+
+    /**
+     * Renews the session of the endpoint in the background, so that the publisher threads don't have to wait
+     * for a login when the session is expired by the receiver.
+     */
+    private class SessionRenewalTask implements Runnable {
+
+        private final String sessionId;
+
+        private SessionRenewalTask(String sessionId) {
+            this.sessionId = sessionId;
+        }
+
+        @Override
+        public void run() {
+            synchronized (connectionLock) {
+                if (state == State.UNAVAILABLE || !sessionId.equals(getDataEndpointConfiguration().getSessionId())) {
+                    // The endpoint is reconnected with a new session, which schedules its own renewal.
+                    return;
+                }
+                try {
+                    connectionWorker.renewSession();
+                    if (log.isDebugEnabled()) {
+                        log.debug("Renewed the session of the endpoint " +
+                                getDataEndpointConfiguration().getReceiverURL());
+                    }
+                } catch (DataEndpointAuthenticationException e) {
+                    log.warn("Unable to renew the session of the endpoint " +
+                            getDataEndpointConfiguration().getReceiverURL() + ", will retry in " +
+                            DataEndpointConstants.SESSION_RENEWAL_RETRY_INTERVAL_MS + " ms.");
+                    scheduleSessionRenewal(sessionId, DataEndpointConstants.SESSION_RENEWAL_RETRY_INTERVAL_MS);
+                }
+            }
+        }
+    }
+
     private void handleFailedEvents(List<Event> events) {
-        deactivate();
+        if (circuitBreaker == null || recordFailure() != CircuitBreaker.State.CLOSED) {
+            deactivate();
+        }
         dataEndpointFailureCallback.tryResendEvents(events, this);
     }
 
+    /**
+     * Record a batch sent successfully in the circuit breaker, and make the endpoint active if the circuit has
+     * been closed by the batch.
+     */
+    private void recordSuccess(long latencyNanos) {
+        if (circuitBreaker != null) {
+            CircuitBreaker.State previousState = circuitBreaker.getState();
+            CircuitBreaker.State currentState = circuitBreaker.onSuccess(latencyNanos);
+            if (currentState == CircuitBreaker.State.CLOSED && previousState != CircuitBreaker.State.CLOSED) {
+                log.info("Circuit of the endpoint " + getDataEndpointConfiguration().getReceiverURL() +
+                        " is closed as the probe batches are sent successfully.");
+                activate();
+            } else if (currentState == CircuitBreaker.State.OPEN && previousState != CircuitBreaker.State.OPEN) {
+                onCircuitOpened();
+            }
+        }
+    }
+
+    /**
+     * Record a failed batch in the circuit breaker.
+     *
+     * @return State of the circuit after the failure, or null if there is no circuit breaker.
+     */
+    private CircuitBreaker.State recordFailure() {
+        if (circuitBreaker == null) {
+            return null;
+        }
+        CircuitBreaker.State previousState = circuitBreaker.getState();
+        CircuitBreaker.State currentState = circuitBreaker.onFailure();
+        if (currentState == CircuitBreaker.State.OPEN && previousState != CircuitBreaker.State.OPEN) {
+            onCircuitOpened();
+        }
+        return currentState;
+    }
+
+    /**
+     * Make the endpoint unavailable while the circuit is open, and let the probe batches through once the
+     * open duration has elapsed.
+     */
+    private void onCircuitOpened() {
+        log.warn("Circuit of the endpoint " + getDataEndpointConfiguration().getReceiverURL() + " is opened for " +
+                circuitBreaker.getOpenDurationMS() + " ms. " + circuitBreaker);
+        deactivate();
+        try {
+            connectionService.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    if (circuitBreaker.isCallPermitted()) {
+                        activate();
+                    }
+                }
+            }, circuitBreaker.getOpenDurationMS(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            log.debug("Endpoint is shutting down, hence the circuit will not be half opened.");
+        }
+    }
+
+    /**
+     * Returns the circuit breaker of the endpoint.
+     *
+     * @return CircuitBreaker, or null if the circuit breaker is not configured for the agent.
+     */
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * Returns the controller tuning the batch size of the endpoint, or null if the batch size is not tuned.
+     */
+    public BatchSizeController getBatchSizeController() {
+        return batchSizeController;
+    }
+
+    /**
+     * Returns whether the batches are acknowledged after the send call returns. Such transports complete the
+     * batches by {@link #onAsyncBatchCompleted(List, long, Exception)} once they are acknowledged, so that the
+     * batch size and the circuit breaker follow the acknowledgements rather than the writes of the batches.
+     */
+    protected boolean isAcknowledgedAsynchronously() {
+        return false;
+    }
+
+    /**
+     * Record the outcome of a batch in the batch size controller, and apply the batch size decided by it.
+     *
+     * @param eventCount   Number of events of the batch.
+     * @param latencyNanos Time from sending the batch until it is acknowledged or failed.
+     * @param isSuccess    Whether the batch is sent successfully.
+     */
+    protected void recordBatchOutcome(int eventCount, long latencyNanos, boolean isSuccess) {
+        if (batchSizeController != null) {
+            batchSizeController.onBatchCompleted(eventCount, latencyNanos, isSuccess);
+            batchSize = batchSizeController.getBatchSize();
+        }
+    }
+
+    /**
+     * Record the load the receiver has piggybacked on the acknowledgement of a batch.
+     *
+     * @param receiverLoad The load of the receiver, or null if the receiver did not report it.
+     */
+    protected void updateReceiverLoad(ReceiverLoad receiverLoad) {
+        if (receiverLoad != null) {
+            this.receiverLoadUpdateTime = System.currentTimeMillis();
+            this.receiverLoad = receiverLoad;
+        }
+    }
+
+    /**
+     * Returns the load recently reported by the receiver.
+     *
+     * @return ReceiverLoad, or null if the receiver has not reported its load recently.
+     */
+    public ReceiverLoad getReceiverLoad() {
+        ReceiverLoad currentLoad = receiverLoad;
+        if (currentLoad == null ||
+                System.currentTimeMillis() - receiverLoadUpdateTime > DataEndpointConstants.RECEIVER_LOAD_EXPIRY_MS) {
+            return null;
+        }
+        return currentLoad;
+    }
+
+    /**
+     * Returns true if the receivers should report their load, which is used only if a load threshold is set.
+     */
+    protected boolean isReceiverLoadFeedbackEnabled() {
+        return receiverLoadThreshold > 0;
+    }
+
+    int getQueueFillPercentage() {
+        ReceiverLoad currentLoad = getReceiverLoad();
+        return currentLoad == null ? 0 : currentLoad.getQueueFillPercentage();
+    }
+
+    boolean isOverloaded() {
+        return receiverLoadThreshold > 0 && getQueueFillPercentage() >= receiverLoadThreshold;
+    }
+
+    /**
+     * Hold back the batch if the receiver is loaded, in proportion to how far its queue is filled above the
+     * threshold and to the time the events wait in its queue, so that the publishing slows down before the
+     * receiver starts blocking.
+     */
+    private void backOffFromLoadedReceiver() {
+        ReceiverLoad currentLoad = getReceiverLoad();
+        if (receiverLoadThreshold <= 0 || receiverLoadThreshold >= 100 || currentLoad == null ||
+                currentLoad.getQueueFillPercentage() < receiverLoadThreshold) {
+            return;
+        }
+        long backOffMS = Math.min(receiverLoadMaxBackoffMS, Math.max(1, currentLoad.getDispatchLatencyMS())) *
+                (currentLoad.getQueueFillPercentage() - receiverLoadThreshold) / (100 - receiverLoadThreshold);
+        if (backOffMS > 0) {
+            try {
+                Thread.sleep(backOffMS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
     boolean isConnected() {
         return !state.equals(State.UNAVAILABLE);
     }
@@ -360,6 +1086,15 @@ public abstract class DataEndpoint {
     public void shutdown() {
         log.info("Shutdown triggered for data publisher endpoint URL - " +
                 getDataEndpointConfiguration().getReceiverURL());
+        synchronized (startLock) {
+            if (!isStarted) {
+                //The endpoint has never been connected, hence it has no executors or session to be closed.
+                isStarted = true;
+                log.info("Completed shutdown for data publisher endpoint URL - " +
+                        getDataEndpointConfiguration().getReceiverURL());
+                return;
+            }
+        }
         while (threadPoolExecutor.getActiveCount() != 0) {
             try {
                 Thread.sleep(100);
@@ -37,12 +37,14 @@ public class DataEndpointConnectionWorker implements Runnable {
     @Override
     public void run() {
         if (isInitialized()) {
-            try {
-                connect();
-                dataEndpoint.activate();
-            } catch (DataEndpointAuthenticationException e) {
-                log.error("Error while trying to connect to the endpoint. " + e.getErrorMessage(), e);
-                dataEndpoint.deactivate();
+            synchronized (dataEndpoint.getConnectionLock()) {
+                try {
+                    connect();
+                    dataEndpoint.activate();
+                } catch (DataEndpointAuthenticationException e) {
+                    log.error("Error while trying to connect to the endpoint. " + e.getErrorMessage(), e);
+                    dataEndpoint.deactivate();
+                }
             }
         } else {
             String errorMsg = "Data endpoint connection worker is not properly initialized ";
@@ -97,6 +99,7 @@ public class DataEndpointConnectionWorker implements Runnable {
                     login(client, dataEndpointConfiguration.getUsername(),
                             dataEndpointConfiguration.getPassword());
             dataEndpointConfiguration.setSessionId(sessionId);
+            dataEndpoint.scheduleSessionRenewal(sessionId, dataEndpointConfiguration.getSessionRenewalIntervalMS());
         } catch (Throwable e) {
             log.error(e.getMessage(), e);
             throw new DataEndpointAuthenticationException("Cannot borrow client for " +
@@ -113,6 +116,22 @@ public class DataEndpointConnectionWorker implements Runnable {
 
     }
 
+    /**
+     * Login to the endpoint with a new session while the current session is still valid, and switch the events
+     * being published to the new session. The current session is not logged out, since the batches in flight
+     * are still using it, and it will be expired by the receiver. The renewal holds the connection lock of the
+     * endpoint, so that it does not login concurrently with a reconnection.
+     *
+     * @throws DataEndpointAuthenticationException If the login is not successful.
+     */
+    void renewSession() throws DataEndpointAuthenticationException {
+        if (isInitialized()) {
+            synchronized (dataEndpoint.getConnectionLock()) {
+                connect();
+            }
+        }
+    }
+
     public void disconnect(DataEndpointConfiguration dataPublisherConfiguration) {
         Object client = null;
         try {
@@ -30,7 +30,8 @@ public interface DataEndpointFailureCallback {
      * Notifies the The failed events, and should try to send the events again successfully.
      * In case if this couldn't send the events, then the unsuccessful events list needs to be returned back.
      *
-     * @param events List failed events
+     * @param events List failed events, which keeps the partition keys of the events if it is the batch collected
+     *               by the endpoint, so that the events are resent by the same keys.
      *
      */
     public void tryResendEvents(List<Event> events, DataEndpoint failedEP);
@@ -18,14 +18,9 @@
 package org.wso2.carbon.databridge.agent.endpoint;
 
 
-import com.lmax.disruptor.BlockingWaitStrategy;
-import com.lmax.disruptor.EventHandler;
-import com.lmax.disruptor.InsufficientCapacityException;
-import com.lmax.disruptor.RingBuffer;
-import com.lmax.disruptor.dsl.Disruptor;
-import com.lmax.disruptor.dsl.ProducerType;
 import org.apache.log4j.Logger;
 import org.wso2.carbon.databridge.agent.DataEndpointAgent;
+import org.wso2.carbon.databridge.agent.endpoint.binary.BinaryEventSender;
 import org.wso2.carbon.databridge.agent.exception.DataEndpointConfigurationException;
 import org.wso2.carbon.databridge.agent.exception.EventQueueFullException;
 import org.wso2.carbon.databridge.agent.util.DataEndpointConstants;
@@ -33,16 +28,21 @@ import org.wso2.carbon.databridge.agent.util.DataPublisherUtil;
 import org.wso2.carbon.databridge.commons.Event;
 import org.wso2.carbon.databridge.commons.utils.DataBridgeThreadFactory;
 
-import java.io.IOException;
-import java.net.Socket;
-import java.net.UnknownHostException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * This class holds the endpoints associated within a group. Also it has a queue
@@ -52,7 +52,27 @@ import java.util.concurrent.atomic.AtomicInteger;
 public class DataEndpointGroup implements DataEndpointFailureCallback {
     private static final Logger log = Logger.getLogger(DataEndpointGroup.class);
 
-    private List<DataEndpoint> dataEndpoints;
+    /**
+     * All the endpoints of the group including the draining endpoints. The list is replaced rather than
+     * modified when an endpoint is added or removed, hence it can be iterated without a lock.
+     */
+    private volatile List<DataEndpoint> dataEndpoints = Collections.emptyList();
+
+    /**
+     * Endpoints to which the events are routed, which excludes the draining endpoints. The endpoints are in the
+     * failover order, or in the weighted round robin order when the events are load balanced.
+     */
+    private volatile List<DataEndpoint> routingEndpoints = Collections.emptyList();
+
+    /**
+     * Weights of the endpoints, guarded by the group.
+     */
+    private final Map<DataEndpoint, Integer> dataEndpointWeights = new HashMap<>();
+
+    /**
+     * Endpoints which don't get new events but are still sending the events given to them, guarded by the group.
+     */
+    private final Set<DataEndpoint> drainingDataEndpoints = new HashSet<>();
 
     private HAType haType;
 
@@ -64,14 +84,48 @@ public class DataEndpointGroup implements DataEndpointFailureCallback {
 
     private AtomicInteger currentDataPublisherIndex = new AtomicInteger(startIndex);
 
-    private AtomicInteger maximumDataPublisherIndex = new AtomicInteger();
-
     private ScheduledExecutorService reconnectionService;
 
     private final String publishingStrategy;
 
     private boolean isShutdown = false;
 
+    /**
+     * Whether the connections of the endpoints are initiated, which is done when the first event is routed if the
+     * endpoints are connected lazily.
+     */
+    private volatile boolean isConnectionInitiated = false;
+
+    /**
+     * Consistent hash ring of the endpoints, which is available only when the events are
+     * load balanced by the partition key.
+     */
+    private ConsistentHashRing<DataEndpoint> hashRing;
+
+    private PartitionKeyExtractor partitionKeyExtractor;
+
+    private List<PriorityLane> priorityLanes = Collections.emptyList();
+
+    private final OverflowPolicy overflowPolicy;
+
+    private final int overflowBlockTimeoutMS;
+
+    private final int eventTTLMS;
+
+    /**
+     * Maximum bytes of the events held in the event queue, which is not enforced if 0.
+     */
+    private final long queueByteBudget;
+
+    private final AtomicLong queuedBytes = new AtomicLong();
+
+    private final AtomicLongArray droppedEventCounts = new AtomicLongArray(DropReason.values().length);
+
+    /**
+     * Accessed only by the event queue consumer.
+     */
+    private boolean isLastEventDropped = false;
+
     /**
      * HA Type.
      */
@@ -79,56 +133,562 @@ public class DataEndpointGroup implements DataEndpointFailureCallback {
         FAILOVER, LOADBALANCE
     }
 
-    public DataEndpointGroup(HAType haType, DataEndpointAgent agent) {
-        this.dataEndpoints = new ArrayList<>();
+    public DataEndpointGroup(HAType haType, DataEndpointAgent agent) throws DataEndpointConfigurationException {
         this.haType = haType;
+        if (haType.equals(HAType.LOADBALANCE) && DataEndpointConstants.KEY_AFFINITY_LB_STRATEGY.
+                equalsIgnoreCase(agent.getAgentConfiguration().getLoadBalancingStrategy())) {
+            this.hashRing = new ConsistentHashRing<>(DataEndpointConstants.VIRTUAL_NODES_PER_ENDPOINT);
+            String partitionKeyAttribute = agent.getAgentConfiguration().getPartitionKeyAttribute();
+            if (partitionKeyAttribute != null && !partitionKeyAttribute.isEmpty()) {
+                this.partitionKeyExtractor = new PartitionKeyExtractor(partitionKeyAttribute);
+            }
+        }
+        this.publishingStrategy = agent.getAgentConfiguration().getPublishingStrategy();
+        boolean isAsync = !publishingStrategy.equalsIgnoreCase(DataEndpointConstants.SYNC_STRATEGY);
+        String priorityLanesConfig = agent.getAgentConfiguration().getPriorityLanes();
+        Map<String, PriorityLane> streamLanes = null;
+        if (isAsync && priorityLanesConfig != null && !priorityLanesConfig.trim().isEmpty()) {
+            this.priorityLanes = Collections.unmodifiableList(DataPublisherUtil.getPriorityLanes(priorityLanesConfig));
+            streamLanes = getStreamLanes(priorityLanes, DataPublisherUtil.getStreamPriorities(
+                    agent.getAgentConfiguration().getStreamPriorities()));
+        }
+        int fairQueueQuantum = agent.getAgentConfiguration().getFairQueueQuantum();
+        Map<String, Integer> streamShares = null;
+        if (isAsync && fairQueueQuantum > 0) {
+            if (streamLanes != null) {
+                throw new DataEndpointConfigurationException("Priority lanes and per stream fair queuing cannot " +
+                        "be used together, configure either priorityLanes or fairQueueQuantum.");
+            }
+            streamShares = DataPublisherUtil.getStreamShares(agent.getAgentConfiguration().getStreamShares());
+        }
+        int offHeapQueueSize = isAsync ? agent.getAgentConfiguration().getOffHeapQueueSize() : 0;
+        if (offHeapQueueSize > 0 && (streamLanes != null || streamShares != null)) {
+            throw new DataEndpointConfigurationException("Off-heap event queue cannot be used together with the " +
+                    "priority lanes or per stream fair queuing.");
+        }
+        this.overflowPolicy = OverflowPolicy.fromName(agent.getAgentConfiguration().getOverflowPolicy());
+        this.overflowBlockTimeoutMS = agent.getAgentConfiguration().getOverflowBlockTimeoutMS();
+        this.eventTTLMS = agent.getAgentConfiguration().getEventTTLMS();
+        if (offHeapQueueSize > 0) {
+            if (overflowPolicy == OverflowPolicy.DROP_OLDEST) {
+                throw new DataEndpointConfigurationException("Off-heap event queue cannot evict the oldest " +
+                        "events, configure the overflow policy as block or dropNewest.");
+            }
+            //The off-heap ring is bounded by its own size in bytes.
+            this.queueByteBudget = 0;
+        } else {
+            this.queueByteBudget = agent.getAgentConfiguration().getQueueByteBudget();
+        }
         this.reconnectionService = Executors.newScheduledThreadPool(1,
                 new DataBridgeThreadFactory("ReconnectionService"));
         this.reconnectionInterval = agent.getAgentConfiguration().getReconnectionInterval();
-        this.publishingStrategy = agent.getAgentConfiguration().getPublishingStrategy();
-        if (!publishingStrategy.equalsIgnoreCase(DataEndpointConstants.SYNC_STRATEGY)) {
-            this.eventQueue = new EventQueue(agent.getAgentConfiguration().getQueueSize());
+        if (isAsync) {
+            if (streamLanes != null) {
+                this.eventQueue = new PriorityLaneEventQueue(this, priorityLanes, streamLanes);
+            } else if (streamShares != null) {
+                this.eventQueue = new FairEventQueue(this, fairQueueQuantum,
+                        agent.getAgentConfiguration().getQueueSize(), streamShares);
+            } else if (offHeapQueueSize > 0) {
+                this.eventQueue = new OffHeapEventQueue(this, offHeapQueueSize,
+                        agent.getAgentConfiguration().getBatchSize());
+            } else if (overflowPolicy == OverflowPolicy.DROP_OLDEST) {
+                //The ring buffer cannot evict the published events, hence a single lane is used to drop the oldest.
+                PriorityLane lane = new PriorityLane(DataEndpointConstants.DEFAULT_PRIORITY_LANE,
+                        agent.getAgentConfiguration().getBatchSize(), agent.getAgentConfiguration().getQueueSize(),
+                        OverflowPolicy.DROP_OLDEST);
+                this.eventQueue = new PriorityLaneEventQueue(this, Collections.singletonList(lane),
+                        Collections.<String, PriorityLane>emptyMap());
+            } else {
+                this.eventQueue = new RingBufferEventQueue(this, agent.getAgentConfiguration().getQueueSize());
+            }
         }
         this.reconnectionService.scheduleAtFixedRate(new ReconnectionTask(), reconnectionInterval,
                 reconnectionInterval, TimeUnit.SECONDS);
         currentDataPublisherIndex.set(startIndex);
     }
 
-    public void addDataEndpoint(DataEndpoint dataEndpoint) {
-        dataEndpoints.add(dataEndpoint);
+    public void addDataEndpoint(DataEndpoint dataEndpoint) throws DataEndpointConfigurationException {
+        addDataEndpoint(dataEndpoint, 1);
+    }
+
+    /**
+     * Add the endpoint to the group. This can be done while the group is publishing, and the endpoint gets its
+     * share of the events once it is connected.
+     *
+     * @param dataEndpoint The initialized endpoint.
+     * @param weight       Weight of the endpoint, which determines its share of the load balanced events.
+     * @throws DataEndpointConfigurationException If the weight is invalid, or the group already has an endpoint
+     *                                            with the same receiver URL.
+     */
+    public synchronized void addDataEndpoint(DataEndpoint dataEndpoint, int weight)
+            throws DataEndpointConfigurationException {
+        validateWeight(weight);
+        String receiverURL = dataEndpoint.getDataEndpointConfiguration().getReceiverURL();
+        if (findDataEndpoint(receiverURL) != null) {
+            throw new DataEndpointConfigurationException("Endpoint group : " + this + " already has an endpoint " +
+                    "with the receiver URL : " + receiverURL);
+        }
         dataEndpoint.registerDataEndpointFailureCallback(this);
-        maximumDataPublisherIndex.incrementAndGet();
+        List<DataEndpoint> endpoints = new ArrayList<>(dataEndpoints);
+        endpoints.add(dataEndpoint);
+        dataEndpoints = Collections.unmodifiableList(endpoints);
+        dataEndpointWeights.put(dataEndpoint, weight);
+        if (hashRing != null) {
+            hashRing.addNode(dataEndpoint, receiverURL, weight);
+        }
+        updateRoutingEndpoints();
+        if (isConnectionInitiated) {
+            connectIfNotStarted(dataEndpoint);
+        }
+    }
+
+    /**
+     * Stop routing new events to the endpoint, while it keeps sending the events already given to it. The
+     * events of the partition keys owned by the endpoint are moved to the next endpoints of the hash ring, and
+     * the events of its failed batches are resent through the other endpoints.
+     *
+     * @param receiverURL Receiver URL of the endpoint.
+     * @throws DataEndpointConfigurationException If the group has no endpoint with the receiver URL.
+     */
+    public synchronized void drainDataEndpoint(String receiverURL) throws DataEndpointConfigurationException {
+        DataEndpoint dataEndpoint = getMemberDataEndpoint(receiverURL);
+        if (drainingDataEndpoints.add(dataEndpoint)) {
+            if (hashRing != null) {
+                hashRing.removeNode(dataEndpoint);
+            }
+            updateRoutingEndpoints();
+        }
+    }
+
+    /**
+     * Drain the endpoint, and remove it from the group once the events given to it are sent or the drain
+     * timeout elapses. The endpoint is shut down in the background, hence this does not wait for the removal.
+     *
+     * @param receiverURL Receiver URL of the endpoint.
+     * @throws DataEndpointConfigurationException If the group has no endpoint with the receiver URL.
+     */
+    public synchronized void removeDataEndpoint(String receiverURL) throws DataEndpointConfigurationException {
+        DataEndpoint dataEndpoint = getMemberDataEndpoint(receiverURL);
+        drainDataEndpoint(receiverURL);
+        reconnectionService.schedule(new DataEndpointRemovalTask(dataEndpoint),
+                DataEndpointConstants.DATA_ENDPOINT_DRAIN_CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Change the weight of the endpoint. Only the share of the partition keys gained or lost by the endpoint
+     * is remapped in the hash ring.
+     *
+     * @param receiverURL Receiver URL of the endpoint.
+     * @param weight      New weight of the endpoint.
+     * @throws DataEndpointConfigurationException If the weight is invalid, or the group has no endpoint with
+     *                                            the receiver URL.
+     */
+    public synchronized void setDataEndpointWeight(String receiverURL, int weight)
+            throws DataEndpointConfigurationException {
+        validateWeight(weight);
+        DataEndpoint dataEndpoint = getMemberDataEndpoint(receiverURL);
+        dataEndpointWeights.put(dataEndpoint, weight);
+        if (hashRing != null && !drainingDataEndpoints.contains(dataEndpoint)) {
+            hashRing.setWeight(dataEndpoint, weight);
+        }
+        updateRoutingEndpoints();
+    }
+
+    /**
+     * Returns the weight of each endpoint by the receiver URL, including the draining endpoints.
+     */
+    public synchronized Map<String, Integer> getDataEndpointWeights() {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (DataEndpoint dataEndpoint : dataEndpoints) {
+            weights.put(dataEndpoint.getDataEndpointConfiguration().getReceiverURL(),
+                    dataEndpointWeights.get(dataEndpoint));
+        }
+        return weights;
+    }
+
+    /**
+     * Returns the receiver URLs of the endpoints being drained.
+     */
+    public synchronized List<String> getDrainingReceiverURLs() {
+        List<String> receiverURLs = new ArrayList<>();
+        for (DataEndpoint dataEndpoint : dataEndpoints) {
+            if (drainingDataEndpoints.contains(dataEndpoint)) {
+                receiverURLs.add(dataEndpoint.getDataEndpointConfiguration().getReceiverURL());
+            }
+        }
+        return receiverURLs;
+    }
+
+    /**
+     * Returns true if the group has an endpoint with the receiver URL, including a draining endpoint.
+     */
+    public boolean hasDataEndpoint(String receiverURL) {
+        return findDataEndpoint(receiverURL) != null;
+    }
+
+    private DataEndpoint findDataEndpoint(String receiverURL) {
+        for (DataEndpoint dataEndpoint : dataEndpoints) {
+            if (dataEndpoint.getDataEndpointConfiguration().getReceiverURL().equals(receiverURL)) {
+                return dataEndpoint;
+            }
+        }
+        return null;
+    }
+
+    private DataEndpoint getMemberDataEndpoint(String receiverURL) throws DataEndpointConfigurationException {
+        DataEndpoint dataEndpoint = findDataEndpoint(receiverURL);
+        if (dataEndpoint == null) {
+            throw new DataEndpointConfigurationException("Endpoint group : " + this + " has no endpoint with " +
+                    "the receiver URL : " + receiverURL);
+        }
+        return dataEndpoint;
+    }
+
+    private static void validateWeight(int weight) throws DataEndpointConfigurationException {
+        if (weight <= 0 || weight > DataEndpointConstants.MAX_DATA_ENDPOINT_WEIGHT) {
+            throw new DataEndpointConfigurationException("Weight of an endpoint should be between 1 and " +
+                    DataEndpointConstants.MAX_DATA_ENDPOINT_WEIGHT + ", but found : " + weight);
+        }
+    }
+
+    /**
+     * Rebuild the endpoints to which the events are routed, after the endpoints, their weights or their
+     * draining state is changed.
+     */
+    private void updateRoutingEndpoints() {
+        List<DataEndpoint> endpoints = new ArrayList<>();
+        for (DataEndpoint dataEndpoint : dataEndpoints) {
+            if (!drainingDataEndpoints.contains(dataEndpoint)) {
+                endpoints.add(dataEndpoint);
+            }
+        }
+        if (haType.equals(HAType.LOADBALANCE)) {
+            endpoints = getWeightedRoundRobinOrder(endpoints);
+        }
+        routingEndpoints = Collections.unmodifiableList(endpoints);
+    }
+
+    /**
+     * Returns the round robin order in which an endpoint appears as many times as its weight. The order is
+     * built by smooth weighted round robin, where for each slot every endpoint earns its weight in credit, and
+     * the endpoint with the most credit takes the slot and pays the total weight, hence the slots of an
+     * endpoint are spread over the order rather than being consecutive.
+     */
+    private List<DataEndpoint> getWeightedRoundRobinOrder(List<DataEndpoint> endpoints) {
+        int[] weights = new int[endpoints.size()];
+        int totalWeight = 0;
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = dataEndpointWeights.get(endpoints.get(i));
+            totalWeight += weights[i];
+        }
+        if (totalWeight == endpoints.size()) {
+            return endpoints;
+        }
+        int[] credits = new int[weights.length];
+        List<DataEndpoint> order = new ArrayList<>(totalWeight);
+        for (int slot = 0; slot < totalWeight; slot++) {
+            int selected = 0;
+            for (int i = 0; i < weights.length; i++) {
+                credits[i] += weights[i];
+                if (credits[i] > credits[selected]) {
+                    selected = i;
+                }
+            }
+            credits[selected] -= totalWeight;
+            order.add(endpoints.get(selected));
+        }
+        return order;
+    }
+
+    /**
+     * Remove the endpoint from the group once the events buffered by it are submitted, and shut it down, which
+     * waits for the batches being sent. This is rescheduled until the endpoint is drained or the drain timeout
+     * elapses.
+     */
+    private class DataEndpointRemovalTask implements Runnable {
+
+        private final DataEndpoint dataEndpoint;
+
+        private final long stopTime;
+
+        DataEndpointRemovalTask(DataEndpoint dataEndpoint) {
+            this.dataEndpoint = dataEndpoint;
+            this.stopTime = System.currentTimeMillis() + DataEndpointConstants.DATA_ENDPOINT_DRAIN_TIMEOUT_MS;
+        }
+
+        @Override
+        public void run() {
+            if (dataEndpoint.hasBufferedEvents()) {
+                if (System.currentTimeMillis() < stopTime) {
+                    reconnectionService.schedule(this, DataEndpointConstants.DATA_ENDPOINT_DRAIN_CHECK_INTERVAL_MS,
+                            TimeUnit.MILLISECONDS);
+                    return;
+                }
+                log.warn("Endpoint " + dataEndpoint + " is not drained within " +
+                        DataEndpointConstants.DATA_ENDPOINT_DRAIN_TIMEOUT_MS + " ms, removing it from the group.");
+            }
+            synchronized (DataEndpointGroup.this) {
+                if (!dataEndpoints.contains(dataEndpoint)) {
+                    //Already removed by an earlier removal of the same endpoint.
+                    return;
+                }
+                List<DataEndpoint> endpoints = new ArrayList<>(dataEndpoints);
+                endpoints.remove(dataEndpoint);
+                dataEndpoints = Collections.unmodifiableList(endpoints);
+                drainingDataEndpoints.remove(dataEndpoint);
+                dataEndpointWeights.remove(dataEndpoint);
+                updateRoutingEndpoints();
+            }
+            dataEndpoint.shutdown();
+        }
+    }
+
+    private static Map<String, PriorityLane> getStreamLanes(List<PriorityLane> priorityLanes,
+                                                           Map<String, String> streamPriorities)
+            throws DataEndpointConfigurationException {
+        Map<String, PriorityLane> lanesByName = new HashMap<>();
+        for (PriorityLane lane : priorityLanes) {
+            lanesByName.put(lane.getName(), lane);
+        }
+        Map<String, PriorityLane> streamLanes = new HashMap<>();
+        for (Map.Entry<String, String> streamPriority : streamPriorities.entrySet()) {
+            PriorityLane lane = lanesByName.get(streamPriority.getValue());
+            if (lane == null) {
+                throw new DataEndpointConfigurationException("Priority lane : " + streamPriority.getValue() +
+                        " of the stream : " + streamPriority.getKey() + " is not defined in the priority lanes : " +
+                        priorityLanes);
+            }
+            streamLanes.put(streamPriority.getKey(), lane);
+        }
+        return streamLanes;
+    }
+
+    /**
+     * Returns the priority lanes of the event queue, which is empty if the priority lanes are not configured.
+     */
+    public List<PriorityLane> getPriorityLanes() {
+        return priorityLanes;
+    }
+
+    /**
+     * Returns the state of the circuit of each endpoint by the receiver URL, which is empty if the circuit
+     * breaker is not configured.
+     */
+    public Map<String, CircuitBreaker.State> getCircuitBreakerStates() {
+        Map<String, CircuitBreaker.State> circuitBreakerStates = new LinkedHashMap<>();
+        for (DataEndpoint dataEndpoint : dataEndpoints) {
+            if (dataEndpoint.getCircuitBreaker() != null) {
+                circuitBreakerStates.put(dataEndpoint.getDataEndpointConfiguration().getReceiverURL(),
+                        dataEndpoint.getCircuitBreaker().getState());
+            }
+        }
+        return circuitBreakerStates;
+    }
+
+    /**
+     * Returns the batch size controller of each endpoint by the receiver URL, which is empty if the adaptive
+     * batch size is not configured.
+     */
+    public Map<String, BatchSizeController> getBatchSizeControllers() {
+        Map<String, BatchSizeController> batchSizeControllers = new LinkedHashMap<>();
+        for (DataEndpoint dataEndpoint : dataEndpoints) {
+            if (dataEndpoint.getBatchSizeController() != null) {
+                batchSizeControllers.put(dataEndpoint.getDataEndpointConfiguration().getReceiverURL(),
+                        dataEndpoint.getBatchSizeController());
+            }
+        }
+        return batchSizeControllers;
+    }
+
+    /**
+     * Returns the stream queues of the fair event queue, which is empty if the fair queuing is not configured.
+     * The queue of a stream is removed once it is drained, hence only the streams with queued events are
+     * returned.
+     */
+    public List<StreamQueue> getStreamQueues() {
+        if (eventQueue instanceof FairEventQueue) {
+            return ((FairEventQueue) eventQueue).getStreamQueues();
+        }
+        return Collections.emptyList();
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Returns the number of events dropped by the group for the reason, including the events dropped by the
+     * priority lanes of the event queue. A group shared by data publishers counts the events of all of them.
+     */
+    public long getDroppedEventCount(DropReason reason) {
+        long droppedEventCount = droppedEventCounts.get(reason.ordinal());
+        if (eventQueue instanceof PriorityLaneEventQueue) {
+            for (PriorityLane lane : ((PriorityLaneEventQueue) eventQueue).getPriorityLanes()) {
+                if (reason == DropReason.QUEUE_FULL) {
+                    droppedEventCount += lane.getDroppedEventCount();
+                } else if (reason == DropReason.OLDEST_EVICTED) {
+                    droppedEventCount += lane.getEvictedEventCount();
+                }
+            }
+        }
+        return droppedEventCount;
+    }
+
+    /**
+     * Returns the number of events dropped by the group for each reason.
+     */
+    public Map<DropReason, Long> getDroppedEventCounts() {
+        Map<DropReason, Long> droppedEventCounts = new EnumMap<>(DropReason.class);
+        for (DropReason reason : DropReason.values()) {
+            droppedEventCounts.put(reason, getDroppedEventCount(reason));
+        }
+        return droppedEventCounts;
+    }
+
+    /**
+     * Returns the bytes of the events held in the event queue, which is measured only if the byte budget of
+     * the queue or the off-heap event queue is configured.
+     */
+    public long getQueuedBytes() {
+        if (eventQueue instanceof OffHeapEventQueue) {
+            return ((OffHeapEventQueue) eventQueue).getUsedBytes();
+        }
+        return queuedBytes.get();
+    }
+
+    public long getQueueByteBudget() {
+        return queueByteBudget;
+    }
+
+    /**
+     * Measure the event to be queued and cache the size on the event, so that the encoder does not measure it
+     * again. The size is 0 if the byte budget of the queue is not configured.
+     */
+    int getQueuedEventSize(Event event) {
+        return queueByteBudget > 0 ? BinaryEventSender.cacheEventSize(event) : 0;
+    }
+
+    /**
+     * Reserve the bytes of the event in the byte budget of the queue. An event is always admitted when the queue
+     * holds no bytes, hence an event larger than the budget cannot block the publishers forever.
+     *
+     * @return false if the queue cannot hold the event within the budget.
+     */
+    boolean reserveQueuedBytes(int eventSize) {
+        if (eventSize == 0) {
+            return true;
+        }
+        while (true) {
+            long bytes = queuedBytes.get();
+            if (bytes > 0 && bytes + eventSize > queueByteBudget) {
+                return false;
+            }
+            if (queuedBytes.compareAndSet(bytes, bytes + eventSize)) {
+                return true;
+            }
+        }
+    }
+
+    void releaseQueuedBytes(int eventSize) {
+        if (eventSize != 0) {
+            queuedBytes.addAndGet(-eventSize);
+        }
+    }
+
+    void markDropped(DropReason reason) {
+        droppedEventCounts.incrementAndGet(reason.ordinal());
     }
 
     public void tryPublish(Event event) throws EventQueueFullException {
+        tryPublish(event, (String) null);
+    }
+
+    /**
+     * Non-blocking publish of the event. When the group load balances the events by the partition key, the
+     * events with same partition key will be sent to the same endpoint as long as that endpoint is available.
+     * If the overflow policy of the group is block, this waits up to the block timeout for space in the queue.
+     *
+     * @param event        The event.
+     * @param partitionKey The partition key, if null the key is taken from the configured partition key
+     *                     attribute of the event.
+     * @throws EventQueueFullException If the event queue is full.
+     */
+    public void tryPublish(Event event, String partitionKey) throws EventQueueFullException {
         if (eventQueue != null) {
-            eventQueue.tryPut(event);
+            if (overflowPolicy == OverflowPolicy.BLOCK) {
+                tryPut(event, partitionKey, overflowBlockTimeoutMS);
+                return;
+            }
+            try {
+                eventQueue.tryPut(event, partitionKey);
+            } catch (EventQueueFullException e) {
+                markDropped(DropReason.QUEUE_FULL);
+                throw e;
+            }
         } else if (!isShutdown) {
-            trySyncPublish(event);
+            trySyncPublish(event, partitionKey);
         }
     }
 
     public void tryPublish(Event event, long timeoutMS) throws EventQueueFullException {
+        tryPublish(event, null, timeoutMS);
+    }
+
+    public void tryPublish(Event event, String partitionKey, long timeoutMS) throws EventQueueFullException {
         if (eventQueue != null) {
-            eventQueue.tryPut(event, timeoutMS);
+            tryPut(event, partitionKey, timeoutMS);
         } else if (!isShutdown) {
-            trySyncPublish(event, timeoutMS);
+            trySyncPublish(event, partitionKey, timeoutMS);
         }
     }
 
     public void publish(Event event) {
+        publish(event, null);
+    }
+
+    /**
+     * Blocking publish of the event, which waits until the event queue has space as long as an endpoint is
+     * available. If the overflow policy of the group is block, the event is dropped once the block timeout
+     * elapses, and if the policy is drop oldest, this never waits.
+     *
+     * @param event        The event.
+     * @param partitionKey The partition key, if null the key is taken from the configured partition key
+     *                     attribute of the event.
+     */
+    public void publish(Event event, String partitionKey) {
         if (eventQueue != null) {
-            eventQueue.put(event);
+            if (overflowPolicy == OverflowPolicy.BLOCK) {
+                try {
+                    tryPut(event, partitionKey, overflowBlockTimeoutMS);
+                } catch (EventQueueFullException e) {
+                    if (log.isDebugEnabled()) {
+                        log.debug("Event queue is full for last " + overflowBlockTimeoutMS + " ms, dropping " +
+                                "event : " + event);
+                    }
+                }
+            } else {
+                eventQueue.put(event, partitionKey);
+            }
         } else if (!isShutdown) {
-            syncPublish(event);
+            syncPublish(event, partitionKey);
+        }
+    }
+
+    private void tryPut(Event event, String partitionKey, long timeoutMS) throws EventQueueFullException {
+        try {
+            eventQueue.tryPut(event, partitionKey, timeoutMS);
+        } catch (EventQueueFullException e) {
+            markDropped(DropReason.BLOCK_TIMEOUT);
+            throw e;
         }
     }
 
-    private void trySyncPublish(Event event) {
+    private void trySyncPublish(Event event, String partitionKey) {
         try {
-            DataEndpoint endpoint = getDataEndpoint(false);
+            String resolvedPartitionKey = resolvePartitionKey(event, partitionKey);
+            DataEndpoint endpoint = getDataEndpoint(false, resolvedPartitionKey, null);
             if (endpoint != null) {
-                endpoint.syncSend(event);
+                endpoint.syncSend(event, resolvedPartitionKey);
             } else {
                 if (log.isDebugEnabled()) {
                     log.debug("DataEndpoint not available, dropping event : " + event);
@@ -139,12 +699,13 @@ public class DataEndpointGroup implements DataEndpointFailureCallback {
         }
     }
 
-    private void trySyncPublish(Event event, long timeoutMS) {
+    private void trySyncPublish(Event event, String partitionKey, long timeoutMS) {
         long stopTime = System.currentTimeMillis() + timeoutMS;
+        String resolvedPartitionKey = resolvePartitionKey(event, partitionKey);
         while (true) {
-            DataEndpoint endpoint = getDataEndpoint(false);
+            DataEndpoint endpoint = getDataEndpoint(false, resolvedPartitionKey, null);
             if (endpoint != null) {
-                endpoint.syncSend(event);
+                endpoint.syncSend(event, resolvedPartitionKey);
                 break;
             }
             if (stopTime <= System.currentTimeMillis()) {
@@ -161,11 +722,12 @@ public class DataEndpointGroup implements DataEndpointFailureCallback {
         }
     }
 
-    private void syncPublish(Event event) {
+    private void syncPublish(Event event, String partitionKey) {
         try {
-            DataEndpoint endpoint = getDataEndpoint(true);
+            String resolvedPartitionKey = resolvePartitionKey(event, partitionKey);
+            DataEndpoint endpoint = getDataEndpoint(true, resolvedPartitionKey, null);
             if (endpoint != null) {
-                endpoint.syncSend(event);
+                endpoint.syncSend(event, resolvedPartitionKey);
             } else {
                 log.error("Dropping event as DataPublisher is shutting down.");
                 if (log.isDebugEnabled()) {
@@ -178,111 +740,46 @@ public class DataEndpointGroup implements DataEndpointFailureCallback {
     }
 
     /**
-     * Event Queue Class.
+     * Hand over the event taken from the event queue to the endpoint which should send it.
      */
-    class EventQueue {
-        private RingBuffer<WrappedEventFactory.WrappedEvent> ringBuffer = null;
-        private Disruptor<WrappedEventFactory.WrappedEvent> eventQueueDisruptor = null;
-        private ExecutorService eventQueuePool = null;
-
-        EventQueue(int queueSize) {
-            eventQueuePool = Executors.newCachedThreadPool(
-                    new DataBridgeThreadFactory("EventQueue"));
-            eventQueueDisruptor = new Disruptor<>(new WrappedEventFactory(), queueSize, eventQueuePool,
-                    ProducerType.MULTI, new BlockingWaitStrategy());
-            eventQueueDisruptor.handleEventsWith(new EventQueueWorker());
-            this.ringBuffer = eventQueueDisruptor.start();
+    void dispatch(Event event, String partitionKey) {
+        if (isExpired(event)) {
+            return;
         }
-
-        private void tryPut(Event event) throws EventQueueFullException {
-
-            long sequence;
-            try {
-                sequence = this.ringBuffer.tryNext(1);
-                WrappedEventFactory.WrappedEvent bufferedEvent = this.ringBuffer.get(sequence);
-                bufferedEvent.setEvent(event);
-                this.ringBuffer.publish(sequence);
-            } catch (InsufficientCapacityException e) {
-                throw new EventQueueFullException("Cannot send events because the event queue is full", e);
+        String resolvedPartitionKey = resolvePartitionKey(event, partitionKey);
+        DataEndpoint endpoint = getDataEndpoint(true, resolvedPartitionKey, null);
+        if (endpoint != null) {
+            isLastEventDropped = false;
+            endpoint.collectAndSend(event, resolvedPartitionKey);
+        } else {
+            if (!isLastEventDropped) {
+                log.error("Dropping all events as DataPublisher is shutting down.");
             }
-        }
-
-        private void tryPut(Event event, long timeoutMS) throws EventQueueFullException {
-            long sequence;
-            long stopTime = System.currentTimeMillis() + timeoutMS;
-            while (true) {
-                try {
-                    sequence = this.ringBuffer.tryNext(1);
-                    WrappedEventFactory.WrappedEvent bufferedEvent = this.ringBuffer.get(sequence);
-                    bufferedEvent.setEvent(event);
-                    this.ringBuffer.publish(sequence);
-                    break;
-                } catch (InsufficientCapacityException ex) {
-                    if (stopTime <= System.currentTimeMillis()) {
-                        throw new EventQueueFullException("Cannot send events because the event queue is full", ex);
-                    }
-                    try {
-                        Thread.sleep(1);
-                    } catch (InterruptedException ignored) {
-                    }
-                }
+            if (log.isDebugEnabled()) {
+                log.debug("Data publisher is shutting down, dropping event : " + event);
             }
-        }
-
-        //Endless wait if at-least once endpoint is available.
-        private void put(Event event) {
-            do {
-                try {
-                    long sequence = this.ringBuffer.tryNext(1);
-                    WrappedEventFactory.WrappedEvent bufferedEvent = this.ringBuffer.get(sequence);
-                    bufferedEvent.setEvent(event);
-                    this.ringBuffer.publish(sequence);
-                    return;
-                } catch (InsufficientCapacityException ex) {
-                    try {
-                        Thread.sleep(2);
-                    } catch (InterruptedException ignored) {
-                    }
-                }
-            } while (isActiveDataEndpointExists());
-        }
-
-        private void shutdown() {
-            eventQueuePool.shutdown();
-            eventQueueDisruptor.shutdown();
+            markDropped(DropReason.SHUTDOWN);
+            isLastEventDropped = true;
         }
     }
 
     /**
-     * Event Queue Worker.
+     * Check whether the event is older than the event TTL, and count it as dropped if so. The age of the event
+     * is taken from its timestamp, hence the events which are held in the queue or resent after an outage are
+     * discarded rather than being sent late.
      */
-    class EventQueueWorker implements EventHandler<WrappedEventFactory.WrappedEvent> {
-
-        boolean isLastEventDropped = false;
-
-        @Override
-        public void onEvent(WrappedEventFactory.WrappedEvent wrappedEvent, long sequence, boolean endOfBatch) {
-            DataEndpoint endpoint = getDataEndpoint(true);
-            Event event = wrappedEvent.getEvent();
-            if (endpoint != null) {
-                isLastEventDropped = false;
-                endpoint.collectAndSend(event);
-                if (endOfBatch) {
-                    flushAllDataEndpoints();
-                }
-            } else {
-                if (!isLastEventDropped) {
-                    log.error("Dropping all events as DataPublisher is shutting down.");
-                }
-                if (log.isDebugEnabled()) {
-                    log.debug("Data publisher is shutting down, dropping event : " + event);
-                }
-                isLastEventDropped = true;
-            }
+    private boolean isExpired(Event event) {
+        if (eventTTLMS <= 0 || System.currentTimeMillis() - event.getTimeStamp() <= eventTTLMS) {
+            return false;
+        }
+        markDropped(DropReason.EXPIRED);
+        if (log.isDebugEnabled()) {
+            log.debug("Event is older than " + eventTTLMS + " ms, dropping event : " + event);
         }
+        return true;
     }
 
-    private void flushAllDataEndpoints() {
+    void flushAllDataEndpoints() {
         for (DataEndpoint dataEndpoint : dataEndpoints) {
             if (dataEndpoint.getState().equals(DataEndpoint.State.ACTIVE)) {
                 dataEndpoint.flushEvents();
@@ -290,10 +787,6 @@ public class DataEndpointGroup implements DataEndpointFailureCallback {
         }
     }
 
-    private DataEndpoint getDataEndpoint(boolean isBusyWait) {
-        return getDataEndpoint(isBusyWait, null);
-    }
-
     /**
      * Find the next event processable endpoint to the
      * data endpoint based on load balancing and failover logic, and wait
@@ -304,17 +797,27 @@ public class DataEndpointGroup implements DataEndpointFailureCallback {
      * @return DataEndpoint which can accept and send the events.
      */
     private DataEndpoint getDataEndpoint(boolean isBusyWait, DataEndpoint failedEP) {
-        int startIndex;
-        if (haType.equals(HAType.LOADBALANCE)) {
-            startIndex = getDataPublisherIndex();
-        } else {
-            startIndex = this.startIndex;
-        }
+        List<DataEndpoint> endpoints = routingEndpoints;
+        int startIndex = getStartIndex(endpoints);
         int index = startIndex;
 
         while (true) {
-            DataEndpoint dataEndpoint = dataEndpoints.get(index);
+            if (endpoints.isEmpty()) {
+                //All the endpoints are being drained or removed, hence wait for an endpoint to be added.
+                if (!isBusyWait || reconnectionService.isShutdown()) {
+                    return null;
+                }
+                busyWait(1);
+                endpoints = routingEndpoints;
+                startIndex = getStartIndex(endpoints);
+                index = startIndex;
+                continue;
+            }
+            DataEndpoint dataEndpoint = endpoints.get(index);
             if (dataEndpoint.getState().equals(DataEndpoint.State.ACTIVE) && dataEndpoint != failedEP) {
+                if (haType.equals(HAType.LOADBALANCE) && dataEndpoint.isOverloaded()) {
+                    return getLessLoadedDataEndpoint(dataEndpoint, failedEP);
+                }
                 return dataEndpoint;
             } else if (haType.equals(HAType.FAILOVER) && (dataEndpoint.getState().equals(DataEndpoint.State.BUSY) ||
                     dataEndpoint.getState().equals(DataEndpoint.State.INITIALIZING))) {
@@ -323,12 +826,23 @@ public class DataEndpointGroup implements DataEndpointFailureCallback {
                  *
                  */
                 busyWait(1);
+                if (endpoints != routingEndpoints) {
+                    endpoints = routingEndpoints;
+                    startIndex = getStartIndex(endpoints);
+                    index = startIndex;
+                }
             } else {
                 index++;
-                if (index > maximumDataPublisherIndex.get() - 1) {
+                if (index > endpoints.size() - 1) {
                     index = this.startIndex;
                 }
                 if (index == startIndex) {
+                    /*
+                     * Pick up the endpoints added or drained meanwhile, before the next iteration.
+                     */
+                    endpoints = routingEndpoints;
+                    startIndex = getStartIndex(endpoints);
+                    index = startIndex;
                     if (isBusyWait) {
                         if (!reconnectionService.isShutdown()) {
 
@@ -353,17 +867,114 @@ public class DataEndpointGroup implements DataEndpointFailureCallback {
         }
     }
 
-    private void busyWait(long timeInMilliSec) {
+    /**
+     * Steer the events away from an endpoint whose receiver reported its queue filled above the threshold, to
+     * the active endpoint whose receiver has the least filled queue.
+     *
+     * @param loadedEP endpoint selected in round robin manner, which is loaded
+     * @param failedEP endpoint which should not be selected
+     * @return The least loaded endpoint, or the given endpoint if no other endpoint is less loaded.
+     */
+    private DataEndpoint getLessLoadedDataEndpoint(DataEndpoint loadedEP, DataEndpoint failedEP) {
+        DataEndpoint leastLoadedEP = loadedEP;
+        int leastQueueFillPercentage = loadedEP.getQueueFillPercentage();
+        for (DataEndpoint dataEndpoint : routingEndpoints) {
+            if (dataEndpoint == failedEP || !dataEndpoint.getState().equals(DataEndpoint.State.ACTIVE)) {
+                continue;
+            }
+            int queueFillPercentage = dataEndpoint.getQueueFillPercentage();
+            if (queueFillPercentage < leastQueueFillPercentage) {
+                leastLoadedEP = dataEndpoint;
+                leastQueueFillPercentage = queueFillPercentage;
+            }
+        }
+        return leastLoadedEP;
+    }
+
+    /**
+     * Find the endpoint which owns the partition key in the consistent hash ring. If the owner is
+     * unavailable the key will be moved to the next endpoint of the ring, and it will be moved back
+     * once the owner becomes active again. The events are load balanced in round robin manner if
+     * there is no partition key for the event.
+     *
+     * @param isBusyWait   waitUntil the owner of the key becomes available
+     * @param partitionKey partition key of the event
+     * @param failedEP     endpoint which should not be selected
+     * @return DataEndpoint which can accept and send the events.
+     */
+    private DataEndpoint getDataEndpoint(boolean isBusyWait, String partitionKey, DataEndpoint failedEP) {
+        if (!isConnectionInitiated) {
+            initiateConnections();
+        }
+        if (partitionKey == null || hashRing == null) {
+            return getDataEndpoint(isBusyWait, failedEP);
+        }
+        while (true) {
+            for (DataEndpoint dataEndpoint : hashRing.getPreferenceList(partitionKey)) {
+                if (dataEndpoint == failedEP || dataEndpoint.getState().equals(DataEndpoint.State.UNAVAILABLE)) {
+                    continue;
+                }
+                if (dataEndpoint.getState().equals(DataEndpoint.State.ACTIVE)) {
+                    return dataEndpoint;
+                }
+                /*
+                 * The owner is busy or still connecting, hence wait for it rather than
+                 * moving the key to the next endpoint.
+                 */
+                break;
+            }
+            if (!isBusyWait || (reconnectionService.isShutdown() && !isActiveDataEndpointExists())) {
+                return null;
+            }
+            busyWait(1);
+        }
+    }
+
+    /**
+     * Returns the partition key to be used for the event, and this is available only when the group
+     * load balances the events by the partition key.
+     */
+    private String resolvePartitionKey(Event event, String partitionKey) {
+        if (hashRing == null) {
+            return null;
+        }
+        if (partitionKey == null && partitionKeyExtractor != null) {
+            return partitionKeyExtractor.extract(event);
+        }
+        return partitionKey;
+    }
+
+    /**
+     * Connect the endpoints which have not been connected yet, when the group routes its first event.
+     */
+    private synchronized void initiateConnections() {
+        if (isConnectionInitiated) {
+            return;
+        }
+        for (DataEndpoint dataEndpoint : dataEndpoints) {
+            connectIfNotStarted(dataEndpoint);
+        }
+        isConnectionInitiated = true;
+    }
+
+    private void connectIfNotStarted(DataEndpoint dataEndpoint) {
+        try {
+            dataEndpoint.connectIfNotStarted();
+        } catch (Exception e) {
+            log.error("Error while connecting the endpoint " + dataEndpoint + ". " + e.getMessage(), e);
+            dataEndpoint.deactivate();
+        }
+    }
+
+    void busyWait(long timeInMilliSec) {
         try {
             Thread.sleep(timeInMilliSec);
         } catch (InterruptedException ignored) {
         }
     }
 
-    private boolean isActiveDataEndpointExists() {
-        int index = startIndex;
-        while (index < maximumDataPublisherIndex.get()) {
-            DataEndpoint dataEndpoint = dataEndpoints.get(index);
+    boolean isActiveDataEndpointExists() {
+        for (DataEndpoint dataEndpoint : routingEndpoints) {
             if (dataEndpoint.getState() != DataEndpoint.State.UNAVAILABLE) {
                 if (log.isDebugEnabled()) {
                     log.debug("Available endpoint : " + dataEndpoint + " existing in state - " +
@@ -371,42 +982,61 @@ public class DataEndpointGroup implements DataEndpointFailureCallback {
                 }
                 return true;
             }
-            index++;
         }
         return false;
     }
 
-    private synchronized int getDataPublisherIndex() {
-        int index = currentDataPublisherIndex.getAndIncrement();
-        if (index == maximumDataPublisherIndex.get() - 1) {
-            currentDataPublisherIndex.set(startIndex);
+    /**
+     * Returns the index of the endpoints to start looking for an endpoint, which is the next index in round robin
+     * manner when the events are load balanced, and the first endpoint otherwise.
+     */
+    private int getStartIndex(List<DataEndpoint> endpoints) {
+        if (haType.equals(HAType.LOADBALANCE) && !endpoints.isEmpty()) {
+            return getDataPublisherIndex(endpoints.size());
         }
-        return index;
+        return this.startIndex;
+    }
+
+    private int getDataPublisherIndex(int endpointCount) {
+        return (currentDataPublisherIndex.getAndIncrement() & Integer.MAX_VALUE) % endpointCount;
     }
 
+    /**
+     * Resend the events of a failed batch through the other endpoints, by the partition keys the events were
+     * routed by when they are a batch collected by an endpoint. The events which cannot be sent right away are
+     * put back to the event queue.
+     */
     public void tryResendEvents(List<Event> events, DataEndpoint dataEndpoint) {
-        List<Event> unsuccessfulEvents = trySendActiveEndpoints(events, dataEndpoint);
-        for (Event event : unsuccessfulEvents) {
+        EventBatch unsuccessfulEvents = trySendActiveEndpoints(events, dataEndpoint);
+        for (int i = 0; i < unsuccessfulEvents.size(); i++) {
+            Event event = unsuccessfulEvents.get(i);
+            String partitionKey = EventBatch.getPartitionKey(unsuccessfulEvents, i);
             try {
                 if (eventQueue != null) {
-                    eventQueue.tryPut(event);
+                    eventQueue.tryPut(event, partitionKey);
                 } else {
-                    trySyncPublish(event);
+                    trySyncPublish(event, partitionKey);
                 }
             } catch (EventQueueFullException e) {
+                markDropped(DropReason.QUEUE_FULL);
                 log.error("Unable to put the event :" + event, e);
             }
         }
     }
 
-    private List<Event> trySendActiveEndpoints(List<Event> events, DataEndpoint failedEP) {
-        ArrayList<Event> unsuccessfulEvents = new ArrayList<>();
-        for (Event event : events) {
-            DataEndpoint endpoint = getDataEndpoint(false, failedEP);
+    private EventBatch trySendActiveEndpoints(List<Event> events, DataEndpoint failedEP) {
+        EventBatch unsuccessfulEvents = new EventBatch();
+        for (int i = 0; i < events.size(); i++) {
+            Event event = events.get(i);
+            if (isExpired(event)) {
+                continue;
+            }
+            String partitionKey = resolvePartitionKey(event, EventBatch.getPartitionKey(events, i));
+            DataEndpoint endpoint = getDataEndpoint(false, partitionKey, failedEP);
             if (endpoint != null) {
-                endpoint.collectAndSend(event);
+                endpoint.collectAndSend(event, partitionKey);
             } else {
-                unsuccessfulEvents.add(event);
+                unsuccessfulEvents.add(event, partitionKey);
             }
         }
         flushAllDataEndpoints();
@@ -416,8 +1046,12 @@ public class DataEndpointGroup implements DataEndpointFailureCallback {
     private class ReconnectionTask implements Runnable {
         public void run() {
             boolean isOneReceiverConnected = false;
-            for (int i = startIndex; i < maximumDataPublisherIndex.get(); i++) {
-                DataEndpoint dataEndpoint = dataEndpoints.get(i);
+            for (DataEndpoint dataEndpoint : dataEndpoints) {
+                if (!dataEndpoint.isStarted()) {
+                    //The endpoint is connected lazily and no event has been routed yet.
+                    isOneReceiverConnected = true;
+                    continue;
+                }
                 if (!dataEndpoint.isConnected()) {
                     try {
                         dataEndpoint.connect();
@@ -426,9 +1060,7 @@ public class DataEndpointGroup implements DataEndpointFailureCallback {
                     }
                 } else {
                     try {
-                        String[] urlElements = DataPublisherUtil.getProtocolHostPort(
-                                dataEndpoint.getDataEndpointConfiguration().getReceiverURL());
-                        if (!isServerExists(urlElements[1], Integer.parseInt(urlElements[2]))) {
+                        if (!dataEndpoint.isReceiverReachable()) {
                             dataEndpoint.deactivate();
                         }
                     } catch (DataEndpointConfigurationException exception) {
@@ -446,24 +1078,10 @@ public class DataEndpointGroup implements DataEndpointFailureCallback {
                         reconnectionInterval + " sec");
             }
         }
-
-        private boolean isServerExists(String ip, int port) {
-            try {
-                Socket socket = new Socket(ip, port);
-                socket.close();
-                return true;
-            } catch (UnknownHostException e) {
-                return false;
-            } catch (IOException e) {
-                return false;
-            } catch (Exception e) {
-                return false;
-            }
-        }
-
     }
 
     public String toString() {
+        List<DataEndpoint> dataEndpoints = this.dataEndpoints;
         StringBuilder group = new StringBuilder();
         group.append("[ ");
         for (int i = 0; i < dataEndpoints.size(); i++) {
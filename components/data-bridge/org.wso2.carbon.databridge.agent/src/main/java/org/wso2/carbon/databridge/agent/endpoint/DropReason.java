@@ -0,0 +1,54 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.endpoint;
+
+/**
+ * The reason for which an event published to a data endpoint group is dropped without being sent.
+ */
+public enum DropReason {
+
+    /**
+     * The event queue was full when the event was published.
+     */
+    QUEUE_FULL,
+
+    /**
+     * The event was evicted from the event queue to make space for a newer event.
+     */
+    OLDEST_EVICTED,
+
+    /**
+     * The event queue did not have space for the event within the block timeout.
+     */
+    BLOCK_TIMEOUT,
+
+    /**
+     * The event was older than the event TTL when it was taken to be sent.
+     */
+    EXPIRED,
+
+    /**
+     * The event was taken from the event queue after all the endpoints were shut down.
+     */
+    SHUTDOWN,
+
+    /**
+     * The event could not be serialized into the off-heap event queue, such as an event larger than the queue.
+     */
+    SERIALIZATION_FAILED
+}
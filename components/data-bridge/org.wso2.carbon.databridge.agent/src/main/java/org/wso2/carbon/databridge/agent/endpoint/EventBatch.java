@@ -0,0 +1,87 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.endpoint;
+
+import org.wso2.carbon.databridge.commons.Event;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Batch of events collected by an endpoint, which keeps the partition key each event was routed by. The batch is
+ * handed to the transports as a read-only list of events, and when it fails it is handed back to the endpoint group
+ * as is, hence the events are resent by the same partition keys. Events are added to the batch only with their
+ * partition keys, so that the events and the keys are always aligned.
+ */
+class EventBatch extends AbstractList<Event> implements RandomAccess {
+
+    private final List<Event> events;
+
+    /**
+     * Partition keys of the events, which is created only when an event with a partition key is added.
+     */
+    private List<String> partitionKeys;
+
+    EventBatch() {
+        events = new ArrayList<>();
+    }
+
+    EventBatch(int initialCapacity) {
+        events = new ArrayList<>(initialCapacity);
+    }
+
+    void add(Event event, String partitionKey) {
+        if (partitionKey != null && partitionKeys == null) {
+            partitionKeys = new ArrayList<>(Math.max(events.size() + 1, 16));
+            for (int i = 0; i < events.size(); i++) {
+                partitionKeys.add(null);
+            }
+        }
+        events.add(event);
+        if (partitionKeys != null) {
+            partitionKeys.add(partitionKey);
+        }
+    }
+
+    @Override
+    public Event get(int index) {
+        return events.get(index);
+    }
+
+    @Override
+    public int size() {
+        return events.size();
+    }
+
+    /**
+     * Returns the partition key of the event at the index of the events.
+     *
+     * @param events The events, which are a batch collected by an endpoint or any other list of events.
+     * @param index  Index of the event.
+     * @return The partition key, or null if the event has no partition key or the events are not a batch.
+     */
+    static String getPartitionKey(List<Event> events, int index) {
+        if (!(events instanceof EventBatch)) {
+            return null;
+        }
+        List<String> partitionKeys = ((EventBatch) events).partitionKeys;
+        return partitionKeys != null ? partitionKeys.get(index) : null;
+    }
+}
@@ -0,0 +1,36 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.endpoint;
+
+import org.wso2.carbon.databridge.agent.exception.EventQueueFullException;
+import org.wso2.carbon.databridge.commons.Event;
+
+/**
+ * Event queue of the data endpoint group, which holds the events until they are dispatched to the endpoints.
+ */
+abstract class EventQueue {
+
+    abstract void tryPut(Event event, String partitionKey) throws EventQueueFullException;
+
+    abstract void tryPut(Event event, String partitionKey, long timeoutMS) throws EventQueueFullException;
+
+    //Endless wait if at-least once endpoint is available.
+    abstract void put(Event event, String partitionKey);
+
+    abstract void shutdown();
+}
@@ -0,0 +1,44 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.endpoint;
+
+import com.lmax.disruptor.EventHandler;
+import org.wso2.carbon.databridge.commons.Event;
+
+/**
+ * Consumer of the ring buffer event queue, which dispatches the events to the endpoints of the group.
+ */
+class EventQueueWorker implements EventHandler<WrappedEventFactory.WrappedEvent> {
+    private final DataEndpointGroup group;
+
+    EventQueueWorker(DataEndpointGroup group) {
+        this.group = group;
+    }
+
+    @Override
+    public void onEvent(WrappedEventFactory.WrappedEvent wrappedEvent, long sequence, boolean endOfBatch) {
+        group.releaseQueuedBytes(wrappedEvent.getEventSize());
+        Event event = wrappedEvent.getEvent();
+        //Release the event held by the slot, otherwise the ring buffer keeps the events until they are replaced.
+        wrappedEvent.setEvent(null);
+        group.dispatch(event, wrappedEvent.getPartitionKey());
+        if (endOfBatch) {
+            group.flushAllDataEndpoints();
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.endpoint;
+
+import org.wso2.carbon.databridge.commons.Event;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Event queue which holds the events of each stream in a separate sub queue, and the sub queues are served
+ * by deficit round robin. In each round a stream can dispatch events up to the quantum times its share,
+ * hence a stream with a large backlog cannot delay the events of the other streams by more than a round.
+ * <p>
+ * The queue never holds more events than the queue size of the agent. When the queue is full, a stream having
+ * fewer events than its quantum times its share takes the slot of the oldest event of the stream which exceeds
+ * its own quantum the most, so that the low rate streams are not rejected when a noisy stream fills the queue.
+ * When the overflow policy is drop oldest, the oldest event of the same stream is evicted for a new event.
+ * The queue of a stream is removed once it is drained, hence the idle streams do not hold any state.
+ */
+class FairEventQueue extends MultiQueueEventQueue {
+    private final int quantum;
+    private final int capacity;
+    private final Map<String, Integer> streamShares;
+    private final ConcurrentHashMap<String, StreamQueue> streamQueues = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<StreamQueue> roundRobinQueues = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    FairEventQueue(DataEndpointGroup group, int quantum, int capacity, Map<String, Integer> streamShares) {
+        super(group);
+        this.quantum = quantum;
+        this.capacity = capacity;
+        this.streamShares = streamShares;
+        start();
+    }
+
+    boolean offer(Event event, String partitionKey, int eventSize) {
+        StreamQueue streamQueue = getStreamQueue(event.getStreamId());
+        while (!reserveSlot()) {
+            if (!evictForStream(streamQueue)) {
+                return false;
+            }
+        }
+        while (!group.reserveQueuedBytes(eventSize)) {
+            if (group.getOverflowPolicy() != OverflowPolicy.DROP_OLDEST || !evictOldest(streamQueue)) {
+                size.decrementAndGet();
+                return false;
+            }
+        }
+        WrappedEventFactory.WrappedEvent wrappedEvent = new WrappedEventFactory.WrappedEvent();
+        wrappedEvent.setEvent(event);
+        wrappedEvent.setPartitionKey(partitionKey);
+        wrappedEvent.setEventSize(eventSize);
+        while (!streamQueue.offer(wrappedEvent)) {
+            //The queue is removed by the consumer meanwhile, as it was drained.
+            streamQueue = getStreamQueue(event.getStreamId());
+        }
+        signalConsumer();
+        return true;
+    }
+
+    String getQueueFullMessage(Event event) {
+        return "Cannot send events of the stream : " + event.getStreamId() + " because the event queue is full";
+    }
+
+    /**
+     * Reserve a slot for an event, which is released by the consumer once the event is dispatched. The check
+     * and the reservation are done atomically so that the concurrent publishers cannot take the last slot
+     * together.
+     *
+     * @return false if the queue is full.
+     */
+    private boolean reserveSlot() {
+        while (true) {
+            int queueSize = size.get();
+            if (queueSize >= capacity) {
+                return false;
+            }
+            if (size.compareAndSet(queueSize, queueSize + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Free a slot of the full queue for an event of the stream. The oldest event of the stream itself is evicted
+     * if the overflow policy is drop oldest, otherwise a stream within its quantum evicts the oldest event of the
+     * stream exceeding its quantum the most.
+     *
+     * @return false if no slot can be freed for the stream.
+     */
+    private boolean evictForStream(StreamQueue streamQueue) {
+        if (group.getOverflowPolicy() == OverflowPolicy.DROP_OLDEST && evictOldest(streamQueue)) {
+            return true;
+        }
+        if (streamQueue.size() >= getQuota(streamQueue)) {
+            return false;
+        }
+        StreamQueue noisyStreamQueue = null;
+        int maxExcess = 0;
+        for (StreamQueue otherStreamQueue : roundRobinQueues) {
+            int excess = otherStreamQueue.size() - getQuota(otherStreamQueue);
+            if (excess > maxExcess) {
+                noisyStreamQueue = otherStreamQueue;
+                maxExcess = excess;
+            }
+        }
+        return noisyStreamQueue != null && evictOldest(noisyStreamQueue);
+    }
+
+    private int getQuota(StreamQueue streamQueue) {
+        return quantum * streamQueue.getShare();
+    }
+
+    private boolean evictOldest(StreamQueue streamQueue) {
+        WrappedEventFactory.WrappedEvent evictedEvent = streamQueue.evictOldest();
+        if (evictedEvent == null) {
+            return false;
+        }
+        size.decrementAndGet();
+        group.releaseQueuedBytes(evictedEvent.getEventSize());
+        group.markDropped(DropReason.OLDEST_EVICTED);
+        return true;
+    }
+
+    private StreamQueue getStreamQueue(String streamId) {
+        StreamQueue streamQueue = streamQueues.get(streamId);
+        if (streamQueue == null) {
+            Integer share = streamShares.get(streamId);
+            StreamQueue newStreamQueue = new StreamQueue(streamId, share != null ? share : 1);
+            streamQueue = streamQueues.putIfAbsent(streamId, newStreamQueue);
+            if (streamQueue == null) {
+                streamQueue = newStreamQueue;
+                roundRobinQueues.add(streamQueue);
+            }
+        }
+        return streamQueue;
+    }
+
+    int dispatchRound() {
+        int dispatchedEvents = 0;
+        for (Iterator<StreamQueue> iterator = roundRobinQueues.iterator(); iterator.hasNext(); ) {
+            StreamQueue streamQueue = iterator.next();
+            if (!streamQueue.addCredit(quantum)) {
+                if (streamQueue.remove()) {
+                    streamQueues.remove(streamQueue.getStreamId(), streamQueue);
+                    iterator.remove();
+                }
+                continue;
+            }
+            WrappedEventFactory.WrappedEvent wrappedEvent;
+            while ((wrappedEvent = streamQueue.poll()) != null) {
+                size.decrementAndGet();
+                dispatchSafely(wrappedEvent, "stream queue : " + streamQueue.getStreamId());
+                dispatchedEvents++;
+            }
+        }
+        return dispatchedEvents;
+    }
+
+    boolean isEmpty() {
+        return size.get() == 0;
+    }
+
+    List<StreamQueue> getStreamQueues() {
+        return new ArrayList<>(roundRobinQueues);
+    }
+
+    @Override
+    public String toString() {
+        return roundRobinQueues.toString();
+    }
+}
@@ -0,0 +1,177 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.endpoint;
+
+import org.apache.log4j.Logger;
+import org.wso2.carbon.databridge.agent.exception.EventQueueFullException;
+import org.wso2.carbon.databridge.agent.util.DataEndpointConstants;
+import org.wso2.carbon.databridge.commons.Event;
+import org.wso2.carbon.databridge.commons.utils.DataBridgeThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Event queue with a single consumer thread, which drains the events held in multiple sub queues in rounds.
+ */
+abstract class MultiQueueEventQueue extends EventQueue implements Runnable {
+    private static final Logger log = Logger.getLogger(MultiQueueEventQueue.class);
+    final DataEndpointGroup group;
+    private final ExecutorService eventQueuePool;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition eventsAvailable = lock.newCondition();
+    private volatile boolean isConsumerWaiting = false;
+    private volatile boolean isQueueShutdown = false;
+
+    MultiQueueEventQueue(DataEndpointGroup group) {
+        this.group = group;
+        this.eventQueuePool = Executors.newSingleThreadExecutor(new DataBridgeThreadFactory("EventQueue"));
+    }
+
+    /**
+     * Start the consumer, which should be called once the sub queues are created.
+     */
+    void start() {
+        this.eventQueuePool.submit(this);
+    }
+
+    void tryPut(Event event, String partitionKey) throws EventQueueFullException {
+        if (!offer(event, partitionKey, group.getQueuedEventSize(event))) {
+            throw new EventQueueFullException(getQueueFullMessage(event));
+        }
+    }
+
+    void tryPut(Event event, String partitionKey, long timeoutMS) throws EventQueueFullException {
+        int eventSize = group.getQueuedEventSize(event);
+        long stopTime = System.currentTimeMillis() + timeoutMS;
+        while (!offer(event, partitionKey, eventSize)) {
+            if (stopTime <= System.currentTimeMillis()) {
+                throw new EventQueueFullException(getQueueFullMessage(event));
+            }
+            group.busyWait(1);
+        }
+    }
+
+    void put(Event event, String partitionKey) {
+        int eventSize = group.getQueuedEventSize(event);
+        do {
+            if (offer(event, partitionKey, eventSize)) {
+                return;
+            }
+            group.busyWait(2);
+        } while (group.isActiveDataEndpointExists());
+    }
+
+    /**
+     * Insert the event to its sub queue.
+     *
+     * @param eventSize Bytes of the event to be reserved in the byte budget of the queue.
+     * @return false only if the sub queue is full and the publisher should wait.
+     */
+    abstract boolean offer(Event event, String partitionKey, int eventSize);
+
+    abstract String getQueueFullMessage(Event event);
+
+    /**
+     * Dispatch the events of a round from the sub queues.
+     *
+     * @return The number of events dispatched.
+     */
+    abstract int dispatchRound();
+
+    abstract boolean isEmpty();
+
+    /**
+     * Wake up the consumer, if it is waiting for the events.
+     */
+    void signalConsumer() {
+        if (isConsumerWaiting) {
+            lock.lock();
+            try {
+                eventsAvailable.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        boolean isFlushPending = false;
+        while (true) {
+            int dispatchedEvents = dispatchRound();
+            if (dispatchedEvents > 0) {
+                isFlushPending = true;
+            } else if (isFlushPending) {
+                group.flushAllDataEndpoints();
+                isFlushPending = false;
+            } else if (isQueueShutdown || Thread.currentThread().isInterrupted()) {
+                return;
+            } else {
+                awaitEvents();
+            }
+        }
+    }
+
+    private void awaitEvents() {
+        lock.lock();
+        try {
+            isConsumerWaiting = true;
+            if (isEmpty() && !isQueueShutdown) {
+                eventsAvailable.await(DataEndpointConstants.EVENT_QUEUE_IDLE_WAIT_MS, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            isConsumerWaiting = false;
+            lock.unlock();
+        }
+    }
+
+    void dispatchSafely(WrappedEventFactory.WrappedEvent wrappedEvent, String queueName) {
+        group.releaseQueuedBytes(wrappedEvent.getEventSize());
+        try {
+            group.dispatch(wrappedEvent.getEvent(), wrappedEvent.getPartitionKey());
+        } catch (Throwable t) {
+            log.error("Unexpected error while dispatching event from " + queueName + ", " + t.getMessage(), t);
+        }
+    }
+
+    void shutdown() {
+        isQueueShutdown = true;
+        lock.lock();
+        try {
+            eventsAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+        eventQueuePool.shutdown();
+        try {
+            while (!eventQueuePool.awaitTermination(1, TimeUnit.SECONDS)) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Waiting for the event queue to be drained : " + this);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
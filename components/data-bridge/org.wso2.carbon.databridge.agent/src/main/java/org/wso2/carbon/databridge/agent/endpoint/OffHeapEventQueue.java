@@ -0,0 +1,89 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.endpoint;
+
+import org.apache.log4j.Logger;
+import org.wso2.carbon.databridge.commons.Event;
+
+import java.io.IOException;
+
+/**
+ * Event queue which serializes the events into a ring in a direct byte buffer, hence a backlog of events does
+ * not build up a large long lived object graph in the heap. The single consumer deserializes the events in
+ * batches of the batch size when they are dispatched, and the binary endpoints reuse the serialized size of
+ * the events when encoding them.
+ */
+class OffHeapEventQueue extends MultiQueueEventQueue {
+    private static final Logger log = Logger.getLogger(OffHeapEventQueue.class);
+    private final SerializedEventRing ring;
+    private final int batchSize;
+
+    /**
+     * Accessed only by the consumer.
+     */
+    private final WrappedEventFactory.WrappedEvent wrappedEvent = new WrappedEventFactory.WrappedEvent();
+
+    OffHeapEventQueue(DataEndpointGroup group, int capacity, int batchSize) {
+        super(group);
+        this.ring = new SerializedEventRing(capacity);
+        this.batchSize = batchSize;
+        start();
+    }
+
+    boolean offer(Event event, String partitionKey, int eventSize) {
+        try {
+            if (!ring.offer(event, partitionKey)) {
+                return false;
+            }
+        } catch (IOException e) {
+            group.markDropped(DropReason.SERIALIZATION_FAILED);
+            log.error("Cannot serialize the event of the stream : " + event.getStreamId() + " into the off-heap " +
+                    "event queue, hence dropping it. " + e.getMessage(), e);
+            return true;
+        }
+        signalConsumer();
+        return true;
+    }
+
+    long getUsedBytes() {
+        return ring.getUsedBytes();
+    }
+
+    String getQueueFullMessage(Event event) {
+        return "Cannot send events because the off-heap event queue is full";
+    }
+
+    int dispatchRound() {
+        int dispatchedEvents = 0;
+        while (dispatchedEvents < batchSize && ring.poll(wrappedEvent)) {
+            dispatchSafely(wrappedEvent, "off-heap event queue");
+            dispatchedEvents++;
+        }
+        wrappedEvent.setEvent(null);
+        return dispatchedEvents;
+    }
+
+    boolean isEmpty() {
+        return ring.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return ring.toString();
+    }
+}
@@ -0,0 +1,69 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.endpoint;
+
+import org.wso2.carbon.databridge.agent.exception.DataEndpointConfigurationException;
+
+/**
+ * The policy to be applied when an event is published to a full queue.
+ */
+public enum OverflowPolicy {
+
+    /**
+     * Wait until the queue has space for the event.
+     */
+    BLOCK("block"),
+
+    /**
+     * Drop the event which is being published.
+     */
+    DROP_NEWEST("dropNewest"),
+
+    /**
+     * Drop the oldest event of the queue to make space for the event which is being published.
+     */
+    DROP_OLDEST("dropOldest");
+
+    private final String name;
+
+    OverflowPolicy(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the overflow policy for the name given in the configuration.
+     *
+     * @param name Name of the policy, which is one of block, dropNewest or dropOldest.
+     * @return OverflowPolicy for the name.
+     * @throws DataEndpointConfigurationException If there is no policy for the name.
+     */
+    public static OverflowPolicy fromName(String name) throws DataEndpointConfigurationException {
+        for (OverflowPolicy policy : values()) {
+            if (policy.name.equalsIgnoreCase(name.trim())) {
+                return policy;
+            }
+        }
+        throw new DataEndpointConfigurationException("Invalid overflow policy: " + name + ", supported policies " +
+                "are " + BLOCK + ", " + DROP_NEWEST + " and " + DROP_OLDEST);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
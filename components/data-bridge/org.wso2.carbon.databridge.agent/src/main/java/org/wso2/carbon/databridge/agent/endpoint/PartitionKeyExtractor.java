@@ -0,0 +1,116 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.endpoint;
+
+import org.wso2.carbon.databridge.agent.exception.DataEndpointConfigurationException;
+import org.wso2.carbon.databridge.commons.Event;
+
+import java.util.Map;
+
+/**
+ * Extracts the partition key of an event from the designated attribute. The attribute is given in the
+ * format of {@code <meta|correlation|payload>:<index>} for the stream attributes, or
+ * {@code arbitrary:<key>} for an entry in the arbitrary data map.
+ */
+public class PartitionKeyExtractor {
+
+    private static final String ATTRIBUTE_SEPARATOR = ":";
+
+    private final String attribute;
+
+    private final AttributeSection section;
+
+    private final int index;
+
+    private final String arbitraryDataKey;
+
+    /**
+     * Section of the event, where the partitioning attribute resides.
+     */
+    private enum AttributeSection {
+        META, CORRELATION, PAYLOAD, ARBITRARY
+    }
+
+    public PartitionKeyExtractor(String attribute) throws DataEndpointConfigurationException {
+        this.attribute = attribute;
+        String[] elements = attribute.split(ATTRIBUTE_SEPARATOR, 2);
+        if (elements.length != 2 || elements[1].trim().isEmpty()) {
+            throw new DataEndpointConfigurationException("Invalid partition key attribute: " + attribute +
+                    ", expected format is <meta|correlation|payload>:<index> or arbitrary:<key>");
+        }
+        try {
+            this.section = AttributeSection.valueOf(elements[0].trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new DataEndpointConfigurationException("Invalid section: " + elements[0] +
+                    " in partition key attribute: " + attribute, e);
+        }
+        if (section == AttributeSection.ARBITRARY) {
+            this.arbitraryDataKey = elements[1].trim();
+            this.index = -1;
+        } else {
+            this.arbitraryDataKey = null;
+            try {
+                this.index = Integer.parseInt(elements[1].trim());
+            } catch (NumberFormatException e) {
+                throw new DataEndpointConfigurationException("Invalid attribute index: " + elements[1] +
+                        " in partition key attribute: " + attribute, e);
+            }
+            if (index < 0) {
+                throw new DataEndpointConfigurationException("Attribute index cannot be negative in " +
+                        "partition key attribute: " + attribute);
+            }
+        }
+    }
+
+    /**
+     * Returns the partition key of the event.
+     *
+     * @param event The event.
+     * @return String value of the designated attribute, or null if the event doesn't have the attribute.
+     */
+    public String extract(Event event) {
+        Object value;
+        switch (section) {
+            case META:
+                value = getElement(event.getMetaData());
+                break;
+            case CORRELATION:
+                value = getElement(event.getCorrelationData());
+                break;
+            case PAYLOAD:
+                value = getElement(event.getPayloadData());
+                break;
+            default:
+                Map<String, String> arbitraryDataMap = event.getArbitraryDataMap();
+                value = arbitraryDataMap != null ? arbitraryDataMap.get(arbitraryDataKey) : null;
+        }
+        return value != null ? value.toString() : null;
+    }
+
+    private Object getElement(Object[] data) {
+        if (data != null && index < data.length) {
+            return data[index];
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return attribute;
+    }
+}
@@ -0,0 +1,138 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.endpoint;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded lane of the agent event queue, which holds the events of the streams assigned to a priority class.
+ * The lanes are drained by the queue consumer in weighted round robin manner, hence a lane with higher weight
+ * gets proportionally more share of the batches sent to the endpoints.
+ */
+public class PriorityLane {
+
+    private final String name;
+
+    private final int weight;
+
+    private final int capacity;
+
+    private final OverflowPolicy overflowPolicy;
+
+    private final ArrayBlockingQueue<WrappedEventFactory.WrappedEvent> queue;
+
+    private final AtomicLong droppedEventCount = new AtomicLong();
+
+    private final AtomicLong evictedEventCount = new AtomicLong();
+
+    public PriorityLane(String name, int weight, int capacity, OverflowPolicy overflowPolicy) {
+        this.name = name;
+        this.weight = weight;
+        this.capacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Insert the event to the lane if there is space.
+     *
+     * @param event The event to be inserted.
+     * @return true if the event is inserted to the lane, false if the lane is full.
+     */
+    boolean offer(WrappedEventFactory.WrappedEvent event) {
+        return queue.offer(event);
+    }
+
+    /**
+     * Remove the oldest event of the lane to make space for a newer event, and count it as evicted.
+     *
+     * @return The removed event, or null if the lane is empty.
+     */
+    WrappedEventFactory.WrappedEvent evictOldest() {
+        WrappedEventFactory.WrappedEvent event = queue.poll();
+        if (event != null) {
+            evictedEventCount.incrementAndGet();
+        }
+        return event;
+    }
+
+    int drainTo(List<WrappedEventFactory.WrappedEvent> events, int maxEvents) {
+        return queue.drainTo(events, maxEvents);
+    }
+
+    /**
+     * Count a new event which is dropped as there is no space for it in the lane or in the event queue.
+     */
+    void markDropped() {
+        droppedEventCount.incrementAndGet();
+    }
+
+    boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    /**
+     * Returns the number of new events dropped by the lane, which is the {@link DropReason#QUEUE_FULL} count.
+     */
+    public long getDroppedEventCount() {
+        return droppedEventCount.get();
+    }
+
+    /**
+     * Returns the number of queued events evicted by the lane, which is the {@link DropReason#OLDEST_EVICTED}
+     * count.
+     */
+    public long getEvictedEventCount() {
+        return evictedEventCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return "PriorityLane{" +
+                "name=" + name +
+                ", weight=" + weight +
+                ", capacity=" + capacity +
+                ", overflowPolicy=" + overflowPolicy +
+                ", size=" + queue.size() +
+                ", droppedEventCount=" + droppedEventCount.get() +
+                ", evictedEventCount=" + evictedEventCount.get() +
+                "}";
+    }
+}
@@ -0,0 +1,140 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.endpoint;
+
+import org.apache.log4j.Logger;
+import org.wso2.carbon.databridge.commons.Event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Event queue which holds the events in bounded priority lanes, and the lane of an event is decided by
+ * the stream of the event. A single consumer drains the lanes in weighted round robin manner, hence
+ * a burst of events in a low priority lane cannot starve the events of a high priority lane, and each
+ * lane applies its own overflow policy when it is full.
+ */
+class PriorityLaneEventQueue extends MultiQueueEventQueue {
+    private static final Logger log = Logger.getLogger(PriorityLaneEventQueue.class);
+    private final List<PriorityLane> priorityLanes;
+    private final Map<String, PriorityLane> streamLanes;
+    private final PriorityLane defaultLane;
+    private final List<WrappedEventFactory.WrappedEvent> events = new ArrayList<>();
+
+    PriorityLaneEventQueue(DataEndpointGroup group, List<PriorityLane> priorityLanes,
+                           Map<String, PriorityLane> streamLanes) {
+        super(group);
+        this.priorityLanes = priorityLanes;
+        this.streamLanes = streamLanes;
+        //Streams without a priority are assigned to the last lane.
+        this.defaultLane = priorityLanes.get(priorityLanes.size() - 1);
+        start();
+    }
+
+    /**
+     * Insert the event to the lane by applying the overflow policy of the lane, when either the lane is full
+     * or the event does not fit in the byte budget of the queue. A lane dropping the oldest events can evict
+     * only its own events, hence the new event is dropped if the lane has no events to evict.
+     *
+     * @return false only if the lane is full and the lane blocks the publisher.
+     */
+    boolean offer(Event event, String partitionKey, int eventSize) {
+        PriorityLane lane = getLane(event);
+        boolean isEvictable = lane.getOverflowPolicy() == OverflowPolicy.DROP_OLDEST;
+        while (!group.reserveQueuedBytes(eventSize)) {
+            if (!isEvictable || !evictOldest(lane)) {
+                return overflow(lane, event);
+            }
+        }
+        WrappedEventFactory.WrappedEvent wrappedEvent = new WrappedEventFactory.WrappedEvent();
+        wrappedEvent.setEvent(event);
+        wrappedEvent.setPartitionKey(partitionKey);
+        wrappedEvent.setEventSize(eventSize);
+        while (!lane.offer(wrappedEvent)) {
+            if (!isEvictable) {
+                group.releaseQueuedBytes(eventSize);
+                return overflow(lane, event);
+            }
+            evictOldest(lane);
+        }
+        signalConsumer();
+        return true;
+    }
+
+    private boolean evictOldest(PriorityLane lane) {
+        WrappedEventFactory.WrappedEvent evictedEvent = lane.evictOldest();
+        if (evictedEvent == null) {
+            return false;
+        }
+        group.releaseQueuedBytes(evictedEvent.getEventSize());
+        return true;
+    }
+
+    private boolean overflow(PriorityLane lane, Event event) {
+        if (lane.getOverflowPolicy() == OverflowPolicy.BLOCK) {
+            return false;
+        }
+        lane.markDropped();
+        if (log.isDebugEnabled()) {
+            log.debug("Priority lane : " + lane.getName() + " is full, dropping event : " + event);
+        }
+        signalConsumer();
+        return true;
+    }
+
+    String getQueueFullMessage(Event event) {
+        return "Cannot send events because the priority lane : " + getLane(event).getName() +
+                " of the event queue is full";
+    }
+
+    private PriorityLane getLane(Event event) {
+        PriorityLane lane = streamLanes.get(event.getStreamId());
+        return lane != null ? lane : defaultLane;
+    }
+
+    int dispatchRound() {
+        int drainedEvents = 0;
+        for (PriorityLane lane : priorityLanes) {
+            drainedEvents += lane.drainTo(events, lane.getWeight());
+            for (WrappedEventFactory.WrappedEvent wrappedEvent : events) {
+                dispatchSafely(wrappedEvent, "priority lane : " + lane.getName());
+            }
+            events.clear();
+        }
+        return drainedEvents;
+    }
+
+    boolean isEmpty() {
+        for (PriorityLane lane : priorityLanes) {
+            if (!lane.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    List<PriorityLane> getPriorityLanes() {
+        return priorityLanes;
+    }
+
+    @Override
+    public String toString() {
+        return priorityLanes.toString();
+    }
+}
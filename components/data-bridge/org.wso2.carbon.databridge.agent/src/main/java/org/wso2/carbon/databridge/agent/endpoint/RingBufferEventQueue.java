@@ -0,0 +1,113 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.endpoint;
+
+import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.InsufficientCapacityException;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.dsl.ProducerType;
+import org.wso2.carbon.databridge.agent.exception.EventQueueFullException;
+import org.wso2.carbon.databridge.commons.Event;
+import org.wso2.carbon.databridge.commons.utils.DataBridgeThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Event queue backed by a single disruptor ring buffer. The ring buffer bounds the number of events, and the
+ * byte budget of the group, if configured, bounds the bytes of them.
+ */
+class RingBufferEventQueue extends EventQueue {
+    private final DataEndpointGroup group;
+    private RingBuffer<WrappedEventFactory.WrappedEvent> ringBuffer = null;
+    private Disruptor<WrappedEventFactory.WrappedEvent> eventQueueDisruptor = null;
+    private ExecutorService eventQueuePool = null;
+
+    RingBufferEventQueue(DataEndpointGroup group, int queueSize) {
+        this.group = group;
+        eventQueuePool = Executors.newCachedThreadPool(
+                new DataBridgeThreadFactory("EventQueue"));
+        eventQueueDisruptor = new Disruptor<>(new WrappedEventFactory(), queueSize, eventQueuePool,
+                ProducerType.MULTI, new BlockingWaitStrategy());
+        eventQueueDisruptor.handleEventsWith(new EventQueueWorker(group));
+        this.ringBuffer = eventQueueDisruptor.start();
+    }
+
+    void tryPut(Event event, String partitionKey) throws EventQueueFullException {
+        if (!offer(event, partitionKey, group.getQueuedEventSize(event))) {
+            throw new EventQueueFullException("Cannot send events because the event queue is full");
+        }
+    }
+
+    void tryPut(Event event, String partitionKey, long timeoutMS) throws EventQueueFullException {
+        int eventSize = group.getQueuedEventSize(event);
+        long stopTime = System.currentTimeMillis() + timeoutMS;
+        while (!offer(event, partitionKey, eventSize)) {
+            if (stopTime <= System.currentTimeMillis()) {
+                throw new EventQueueFullException("Cannot send events because the event queue is full");
+            }
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException ignored) {
+            }
+        }
+    }
+
+    void put(Event event, String partitionKey) {
+        int eventSize = group.getQueuedEventSize(event);
+        do {
+            if (offer(event, partitionKey, eventSize)) {
+                return;
+            }
+            try {
+                Thread.sleep(2);
+            } catch (InterruptedException ignored) {
+            }
+        } while (group.isActiveDataEndpointExists());
+    }
+
+    /**
+     * Publish the event to the ring buffer if there is a free slot and the event fits in the byte budget.
+     *
+     * @return false if the event queue is full.
+     */
+    private boolean offer(Event event, String partitionKey, int eventSize) {
+        if (!group.reserveQueuedBytes(eventSize)) {
+            return false;
+        }
+        long sequence;
+        try {
+            sequence = this.ringBuffer.tryNext(1);
+        } catch (InsufficientCapacityException e) {
+            group.releaseQueuedBytes(eventSize);
+            return false;
+        }
+        WrappedEventFactory.WrappedEvent bufferedEvent = this.ringBuffer.get(sequence);
+        bufferedEvent.setEvent(event);
+        bufferedEvent.setPartitionKey(partitionKey);
+        bufferedEvent.setEventSize(eventSize);
+        this.ringBuffer.publish(sequence);
+        return true;
+    }
+
+    void shutdown() {
+        eventQueuePool.shutdown();
+        eventQueueDisruptor.shutdown();
+    }
+}
@@ -0,0 +1,403 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.endpoint;
+
+import org.wso2.carbon.databridge.commons.Event;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bounded ring of serialized events held in a direct byte buffer, hence the events waiting in the agent queue
+ * are kept out of the heap. The publisher threads serialize the events into the binary message format, followed
+ * by the types of the attributes which are not carried by the binary format, and a single consumer deserializes
+ * the events when they are taken from the ring.
+ * <p>
+ * A record is written contiguously, and a record which does not fit in the end of the buffer is written to the
+ * beginning after a padding marker.
+ */
+public class SerializedEventRing {
+
+    private static final int RECORD_HEADER_SIZE = 4;
+    private static final int RECORD_ALIGNMENT = 8;
+    private static final int PADDING = -1;
+    private static final int INITIAL_SERIALIZATION_BUFFER_SIZE = 1024;
+
+    private static final byte NULL_TYPE = 0;
+    private static final byte STRING_TYPE = 1;
+    private static final byte INT_TYPE = 2;
+    private static final byte LONG_TYPE = 3;
+    private static final byte FLOAT_TYPE = 4;
+    private static final byte DOUBLE_TYPE = 5;
+    private static final byte BOOL_TYPE = 6;
+
+    private final ByteBuffer buffer;
+
+    /**
+     * View of the buffer, which is accessed only by the consumer.
+     */
+    private final ByteBuffer readView;
+
+    private final int capacity;
+
+    private volatile long writeCursor;
+
+    private volatile long readCursor;
+
+    /**
+     * Heap buffer of each publisher thread, to serialize an event before it is copied to the ring.
+     */
+    private final ThreadLocal<ByteBuffer> serializationBuffer = new ThreadLocal<ByteBuffer>() {
+        @Override
+        protected ByteBuffer initialValue() {
+            return ByteBuffer.allocate(INITIAL_SERIALIZATION_BUFFER_SIZE);
+        }
+    };
+
+    public SerializedEventRing(int capacity) {
+        this.capacity = align(capacity);
+        this.buffer = ByteBuffer.allocateDirect(this.capacity);
+        this.readView = buffer.duplicate();
+    }
+
+    /**
+     * Serialize the event and copy it to the ring if there is space.
+     *
+     * @param event        The event.
+     * @param partitionKey The partition key of the event, which may be null.
+     * @return false if the ring does not have space for the event.
+     * @throws IOException If the event is larger than the ring.
+     */
+    public boolean offer(Event event, String partitionKey) throws IOException {
+        ByteBuffer record = serialize(event, partitionKey);
+        int recordSize = align(RECORD_HEADER_SIZE + record.remaining());
+        if (recordSize > capacity) {
+            throw new IOException("Event of " + record.remaining() + " bytes does not fit in the off-heap event " +
+                    "queue of " + capacity + " bytes");
+        }
+        synchronized (this) {
+            long currentWriteCursor = writeCursor;
+            int offset = (int) (currentWriteCursor % capacity);
+            int contiguousSize = capacity - offset;
+            long requiredSize = recordSize > contiguousSize ? contiguousSize + recordSize : recordSize;
+            if (currentWriteCursor + requiredSize - readCursor > capacity) {
+                return false;
+            }
+            if (recordSize > contiguousSize) {
+                buffer.putInt(offset, PADDING);
+                currentWriteCursor += contiguousSize;
+                offset = 0;
+            }
+            buffer.putInt(offset, record.remaining());
+            buffer.position(offset + RECORD_HEADER_SIZE);
+            buffer.put(record);
+            writeCursor = currentWriteCursor + recordSize;
+            return true;
+        }
+    }
+
+    /**
+     * Take the next event from the ring, which should be called only by the consumer.
+     *
+     * @param wrappedEvent The wrapper to hold the event and its partition key.
+     * @return false if the ring is empty.
+     */
+    public boolean poll(WrappedEventFactory.WrappedEvent wrappedEvent) {
+        long currentReadCursor = readCursor;
+        if (currentReadCursor == writeCursor) {
+            return false;
+        }
+        int offset = (int) (currentReadCursor % capacity);
+        int length = buffer.getInt(offset);
+        if (length == PADDING) {
+            currentReadCursor += capacity - offset;
+            offset = 0;
+            length = buffer.getInt(offset);
+        }
+        readView.limit(offset + RECORD_HEADER_SIZE + length);
+        readView.position(offset + RECORD_HEADER_SIZE);
+        deserialize(readView, wrappedEvent);
+        readCursor = currentReadCursor + align(RECORD_HEADER_SIZE + length);
+        return true;
+    }
+
+    public boolean isEmpty() {
+        return readCursor == writeCursor;
+    }
+
+    /**
+     * Returns the bytes of the ring held by the events, including the padding.
+     */
+    public long getUsedBytes() {
+        return writeCursor - readCursor;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    private ByteBuffer serialize(Event event, String partitionKey) {
+        int maxSize = getMaxSerializedSize(event, partitionKey);
+        ByteBuffer buf = serializationBuffer.get();
+        if (buf.capacity() < maxSize) {
+            buf = ByteBuffer.allocate(Math.max(maxSize, buf.capacity() * 2));
+            serializationBuffer.set(buf);
+        }
+        buf.clear();
+        putString(partitionKey, buf);
+        putTypes(event.getMetaData(), buf);
+        putTypes(event.getCorrelationData(), buf);
+        putTypes(event.getPayloadData(), buf);
+        Map<String, String> arbitraryDataMap = event.getArbitraryDataMap();
+        if (arbitraryDataMap == null) {
+            buf.putInt(-1);
+        } else {
+            buf.putInt(arbitraryDataMap.size());
+            for (Map.Entry<String, String> arbitraryData : arbitraryDataMap.entrySet()) {
+                buf.put(getType(arbitraryData.getKey()));
+                buf.put(getType(arbitraryData.getValue()));
+            }
+        }
+
+        //Rest of the record is the event in the binary message format.
+        byte[] streamId = event.getStreamId().getBytes(StandardCharsets.UTF_8);
+        buf.putLong(event.getTimeStamp());
+        buf.putInt(streamId.length);
+        buf.put(streamId);
+        putData(event.getMetaData(), buf);
+        putData(event.getCorrelationData(), buf);
+        putData(event.getPayloadData(), buf);
+        if (arbitraryDataMap != null) {
+            for (Map.Entry<String, String> arbitraryData : arbitraryDataMap.entrySet()) {
+                putData(arbitraryData.getKey(), buf);
+                putData(arbitraryData.getValue(), buf);
+            }
+        }
+        buf.flip();
+        return buf;
+    }
+
+    private static void deserialize(ByteBuffer buf, WrappedEventFactory.WrappedEvent wrappedEvent) {
+        String partitionKey = getString(buf);
+        byte[] metaTypes = getTypes(buf);
+        byte[] correlationTypes = getTypes(buf);
+        byte[] payloadTypes = getTypes(buf);
+        int arbitraryDataSize = buf.getInt();
+        byte[] arbitraryTypes = null;
+        if (arbitraryDataSize >= 0) {
+            arbitraryTypes = new byte[arbitraryDataSize * 2];
+            buf.get(arbitraryTypes);
+        }
+
+        int eventStart = buf.position();
+        Event event = new Event();
+        event.setTimeStamp(buf.getLong());
+        byte[] streamId = new byte[buf.getInt()];
+        buf.get(streamId);
+        event.setStreamId(new String(streamId, StandardCharsets.UTF_8));
+        event.setMetaData(getData(metaTypes, buf));
+        event.setCorrelationData(getData(correlationTypes, buf));
+        event.setPayloadData(getData(payloadTypes, buf));
+        if (arbitraryTypes != null) {
+            Map<String, String> arbitraryDataMap = new HashMap<>();
+            for (int i = 0; i < arbitraryTypes.length; i += 2) {
+                Object key = getData(arbitraryTypes[i], buf);
+                Object value = getData(arbitraryTypes[i + 1], buf);
+                arbitraryDataMap.put((String) key, (String) value);
+            }
+            event.setArbitraryDataMap(arbitraryDataMap);
+        }
+        //The binary encoder does not have to measure the event again.
+        event.setSerializedSize(buf.position() - eventStart);
+        wrappedEvent.setEvent(event);
+        wrappedEvent.setPartitionKey(partitionKey);
+    }
+
+    /**
+     * Upper bound of the serialized size of the event, taking three bytes for each character of the strings.
+     */
+    private static int getMaxSerializedSize(Event event, String partitionKey) {
+        int size = 4 + getMaxSize(partitionKey) + 16 + 8 + 4 + event.getStreamId().length() * 3;
+        size += getMaxSize(event.getMetaData());
+        size += getMaxSize(event.getCorrelationData());
+        size += getMaxSize(event.getPayloadData());
+        if (event.getArbitraryDataMap() != null) {
+            for (Map.Entry<String, String> arbitraryData : event.getArbitraryDataMap().entrySet()) {
+                size += 2 + getMaxSize(arbitraryData.getKey()) + getMaxSize(arbitraryData.getValue());
+            }
+        }
+        return size;
+    }
+
+    private static int getMaxSize(Object[] data) {
+        int size = 0;
+        if (data != null) {
+            for (Object aData : data) {
+                size += 1 + getMaxSize(aData);
+            }
+        }
+        return size;
+    }
+
+    private static int getMaxSize(Object data) {
+        return data instanceof String ? 4 + ((String) data).length() * 3 : 8;
+    }
+
+    private static byte getType(Object data) {
+        if (data instanceof String) {
+            return STRING_TYPE;
+        } else if (data instanceof Integer) {
+            return INT_TYPE;
+        } else if (data instanceof Long) {
+            return LONG_TYPE;
+        } else if (data instanceof Float) {
+            return FLOAT_TYPE;
+        } else if (data instanceof Double) {
+            return DOUBLE_TYPE;
+        } else if (data instanceof Boolean) {
+            return BOOL_TYPE;
+        } else {
+            //Same as the binary message format, the attributes of other types are sent as null.
+            return NULL_TYPE;
+        }
+    }
+
+    private static void putTypes(Object[] data, ByteBuffer buf) {
+        if (data == null) {
+            buf.putInt(-1);
+            return;
+        }
+        buf.putInt(data.length);
+        for (Object aData : data) {
+            buf.put(getType(aData));
+        }
+    }
+
+    private static byte[] getTypes(ByteBuffer buf) {
+        int size = buf.getInt();
+        if (size < 0) {
+            return null;
+        }
+        byte[] types = new byte[size];
+        buf.get(types);
+        return types;
+    }
+
+    private static void putData(Object[] data, ByteBuffer buf) {
+        if (data != null) {
+            for (Object aData : data) {
+                putData(aData, buf);
+            }
+        }
+    }
+
+    private static void putData(Object data, ByteBuffer buf) {
+        switch (getType(data)) {
+            case STRING_TYPE:
+                byte[] bytes = ((String) data).getBytes(StandardCharsets.UTF_8);
+                buf.putInt(bytes.length);
+                buf.put(bytes);
+                break;
+            case INT_TYPE:
+                buf.putInt((Integer) data);
+                break;
+            case LONG_TYPE:
+                buf.putLong((Long) data);
+                break;
+            case FLOAT_TYPE:
+                buf.putFloat((Float) data);
+                break;
+            case DOUBLE_TYPE:
+                buf.putDouble((Double) data);
+                break;
+            case BOOL_TYPE:
+                buf.put((byte) (((Boolean) data) ? 1 : 0));
+                break;
+            default:
+                buf.putInt(0);
+        }
+    }
+
+    private static Object[] getData(byte[] types, ByteBuffer buf) {
+        if (types == null) {
+            return null;
+        }
+        Object[] data = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            data[i] = getData(types[i], buf);
+        }
+        return data;
+    }
+
+    private static Object getData(byte type, ByteBuffer buf) {
+        switch (type) {
+            case STRING_TYPE:
+                byte[] bytes = new byte[buf.getInt()];
+                buf.get(bytes);
+                return new String(bytes, StandardCharsets.UTF_8);
+            case INT_TYPE:
+                return buf.getInt();
+            case LONG_TYPE:
+                return buf.getLong();
+            case FLOAT_TYPE:
+                return buf.getFloat();
+            case DOUBLE_TYPE:
+                return buf.getDouble();
+            case BOOL_TYPE:
+                return buf.get() == 1;
+            default:
+                buf.getInt();
+                return null;
+        }
+    }
+
+    private static void putString(String value, ByteBuffer buf) {
+        if (value == null) {
+            buf.putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buf.putInt(bytes.length);
+        buf.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buf) {
+        int size = buf.getInt();
+        if (size < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[size];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int align(int size) {
+        return (size + RECORD_ALIGNMENT - 1) & -RECORD_ALIGNMENT;
+    }
+
+    @Override
+    public String toString() {
+        return "SerializedEventRing{" +
+                "capacity=" + capacity +
+                ", usedBytes=" + getUsedBytes() +
+                "}";
+    }
+}
@@ -0,0 +1,191 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.endpoint;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sub queue of the fair event queue, which holds the events of a single stream. The stream queues are served
+ * by deficit round robin, where in each round a stream queue earns credit proportional to its share and
+ * dispatches events as long as it has credit, hence the streams get the batch slots in proportion to their
+ * shares regardless of their backlogs. The time events spend in the queue is measured per stream.
+ */
+public class StreamQueue {
+
+    private final String streamId;
+
+    private final int share;
+
+    private final ConcurrentLinkedQueue<WrappedEventFactory.WrappedEvent> queue = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Accessed only by the event queue consumer.
+     */
+    private long deficit;
+
+    private final AtomicLong dispatchedEventCount = new AtomicLong();
+
+    private final AtomicLong totalWaitTimeNanos = new AtomicLong();
+
+    private final AtomicLong maxWaitTimeNanos = new AtomicLong();
+
+    /**
+     * Whether the drained queue is removed from the fair event queue, which is guarded by the stream queue.
+     */
+    private boolean isRemoved = false;
+
+    public StreamQueue(String streamId, int share) {
+        this.streamId = streamId;
+        this.share = share;
+    }
+
+    /**
+     * Insert the event to the queue.
+     *
+     * @return false if the queue is removed, hence the event should be inserted to a new queue of the stream.
+     */
+    synchronized boolean offer(WrappedEventFactory.WrappedEvent event) {
+        if (isRemoved) {
+            return false;
+        }
+        event.setEnqueueTime(System.nanoTime());
+        size.incrementAndGet();
+        queue.offer(event);
+        return true;
+    }
+
+    /**
+     * Mark the queue as removed if it is empty, after which no events are inserted to the queue.
+     *
+     * @return true if the queue is removed.
+     */
+    synchronized boolean remove() {
+        if (!queue.isEmpty()) {
+            return false;
+        }
+        isRemoved = true;
+        return true;
+    }
+
+    /**
+     * Add the credit of a round to the queue, or reset the credit if the queue is empty so that an idle stream
+     * cannot accumulate credit.
+     *
+     * @param quantum Credit of a unit share.
+     * @return true if the queue has events to be dispatched.
+     */
+    boolean addCredit(int quantum) {
+        if (queue.isEmpty()) {
+            deficit = 0;
+            return false;
+        }
+        deficit += (long) quantum * share;
+        return true;
+    }
+
+    /**
+     * Poll the next event if the queue has credit for it.
+     *
+     * @return The event, or null if the queue is empty or out of credit.
+     */
+    WrappedEventFactory.WrappedEvent poll() {
+        if (deficit <= 0) {
+            return null;
+        }
+        WrappedEventFactory.WrappedEvent event = queue.poll();
+        if (event == null) {
+            deficit = 0;
+            return null;
+        }
+        deficit--;
+        size.decrementAndGet();
+        long waitTime = System.nanoTime() - event.getEnqueueTime();
+        dispatchedEventCount.incrementAndGet();
+        totalWaitTimeNanos.addAndGet(waitTime);
+        long maxWaitTime = maxWaitTimeNanos.get();
+        while (waitTime > maxWaitTime && !maxWaitTimeNanos.compareAndSet(maxWaitTime, waitTime)) {
+            maxWaitTime = maxWaitTimeNanos.get();
+        }
+        return event;
+    }
+
+    /**
+     * Remove the oldest event of the queue regardless of the credit, to make space for a newer event.
+     *
+     * @return The removed event, or null if the queue is empty.
+     */
+    WrappedEventFactory.WrappedEvent evictOldest() {
+        WrappedEventFactory.WrappedEvent event = queue.poll();
+        if (event != null) {
+            size.decrementAndGet();
+        }
+        return event;
+    }
+
+    boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    public String getStreamId() {
+        return streamId;
+    }
+
+    public int getShare() {
+        return share;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public long getDispatchedEventCount() {
+        return dispatchedEventCount.get();
+    }
+
+    /**
+     * Returns the average time the dispatched events of the stream have been waiting in the queue.
+     */
+    public double getAverageWaitTimeMS() {
+        long count = dispatchedEventCount.get();
+        return count == 0 ? 0 : (double) totalWaitTimeNanos.get() / count / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Returns the maximum time a dispatched event of the stream has been waiting in the queue.
+     */
+    public long getMaxWaitTimeMS() {
+        return TimeUnit.NANOSECONDS.toMillis(maxWaitTimeNanos.get());
+    }
+
+    @Override
+    public String toString() {
+        return "StreamQueue{" +
+                "streamId=" + streamId +
+                ", share=" + share +
+                ", size=" + size.get() +
+                ", dispatchedEventCount=" + dispatchedEventCount.get() +
+                ", averageWaitTimeMS=" + getAverageWaitTimeMS() +
+                ", maxWaitTimeMS=" + getMaxWaitTimeMS() +
+                "}";
+    }
+}
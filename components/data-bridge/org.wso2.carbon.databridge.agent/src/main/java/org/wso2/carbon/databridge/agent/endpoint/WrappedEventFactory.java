@@ -37,6 +37,15 @@ public class WrappedEventFactory implements EventFactory<WrappedEventFactory.Wra
 
         private Event event;
 
+        private String partitionKey;
+
+        private long enqueueTime;
+
+        /**
+         * Bytes reserved for the event in the byte budget of the event queue.
+         */
+        private int eventSize;
+
         public Event getEvent() {
             return event;
         }
@@ -45,10 +54,35 @@ public class WrappedEventFactory implements EventFactory<WrappedEventFactory.Wra
             this.event = event;
         }
 
+        public String getPartitionKey() {
+            return partitionKey;
+        }
+
+        public void setPartitionKey(String partitionKey) {
+            this.partitionKey = partitionKey;
+        }
+
+        public long getEnqueueTime() {
+            return enqueueTime;
+        }
+
+        public void setEnqueueTime(long enqueueTime) {
+            this.enqueueTime = enqueueTime;
+        }
+
+        public int getEventSize() {
+            return eventSize;
+        }
+
+        public void setEventSize(int eventSize) {
+            this.eventSize = eventSize;
+        }
+
         @Override
         public String toString() {
             return "WrappedEvent{" +
                     "event=" + event +
+                    ", partitionKey=" + partitionKey +
                     "}";
         }
     }
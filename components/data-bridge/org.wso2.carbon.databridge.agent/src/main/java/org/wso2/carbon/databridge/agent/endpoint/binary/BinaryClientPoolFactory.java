@@ -48,19 +48,29 @@ public class BinaryClientPoolFactory extends AbstractClientPoolFactory {
                 throw new DataEndpointException("Error while opening socket to " + hostName + ":" + port + ". " +
                         e.getMessage(), e);
             }
+        } else if (protocol.equalsIgnoreCase(DataEndpointConfiguration.Protocol.UNIX.toString())) {
+            return UnixDomainSocketConnection.connect(hostName);
         } else {
             throw new DataEndpointException("Unsupported protocol: " + protocol + ". Currently only " +
-                    DataEndpointConfiguration.Protocol.TCP.toString() + " supported.");
+                    DataEndpointConfiguration.Protocol.TCP.toString() + " and " +
+                    DataEndpointConfiguration.Protocol.UNIX.toString() + " supported.");
         }
     }
 
     @Override
     public boolean validateClient(Object client) {
+        if (client instanceof UnixDomainSocketConnection) {
+            return ((UnixDomainSocketConnection) client).isConnected();
+        }
         return ((Socket) client).isConnected();
     }
 
     @Override
     public void terminateClient(Object client) {
+        if (client instanceof UnixDomainSocketConnection) {
+            UnixDomainSocketConnection.terminate((UnixDomainSocketConnection) client);
+            return;
+        }
         Socket socket = null;
         try {
             socket = (Socket) client;
@@ -21,12 +21,22 @@ import org.wso2.carbon.databridge.agent.endpoint.DataEndpoint;
 import org.wso2.carbon.databridge.agent.exception.DataEndpointAuthenticationException;
 import org.wso2.carbon.databridge.agent.exception.DataEndpointException;
 import org.wso2.carbon.databridge.commons.Event;
+import org.wso2.carbon.databridge.commons.binary.BinaryMessageConstants;
 import org.wso2.carbon.databridge.commons.exception.SessionTimeoutException;
 import org.wso2.carbon.databridge.commons.exception.UndefinedEventTypeException;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.Socket;
+import java.nio.ByteBuffer;
 import java.util.List;
 
+import static org.wso2.carbon.databridge.agent.endpoint.binary.BinaryEventSender.encodeColumnarEvents;
+import static org.wso2.carbon.databridge.agent.endpoint.binary.BinaryEventSender.encodeCompactEvents;
+import static org.wso2.carbon.databridge.agent.endpoint.binary.BinaryEventSender.encodeEvents;
+import static org.wso2.carbon.databridge.agent.endpoint.binary.BinaryEventSender.processLoginResponse;
+import static org.wso2.carbon.databridge.agent.endpoint.binary.BinaryEventSender.processPublishResponse;
 import static org.wso2.carbon.databridge.agent.endpoint.binary.BinaryEventSender.processResponse;
 import static org.wso2.carbon.databridge.agent.endpoint.binary.BinaryEventSender.sendBinaryLoginMessage;
 import static org.wso2.carbon.databridge.agent.endpoint.binary.BinaryEventSender.sendBinaryLogoutMessage;
@@ -38,34 +48,63 @@ import static org.wso2.carbon.databridge.agent.endpoint.binary.BinaryEventSender
  */
 public class BinaryDataEndpoint extends DataEndpoint {
 
+    /**
+     * Type of the publish message of the encoding accepted by the receiver for the current session.
+     */
+    private volatile byte publishMessageType = BinaryEventSender.PUBLISH_MESSAGE;
+
     @Override
     protected String login(Object client, String userName, String password) throws DataEndpointAuthenticationException {
-        Socket socket = (Socket) client;
         try {
-            sendBinaryLoginMessage(socket, userName, password);
-            return processResponse(socket);
+            int protocolFeatures = 0;
+            if (isReceiverLoadFeedbackEnabled()) {
+                protocolFeatures |= BinaryMessageConstants.RECEIVER_LOAD_FEATURE;
+            }
+            if (getDataEndpointConfiguration().isCompactBinaryEncoding()) {
+                protocolFeatures |= BinaryMessageConstants.COMPACT_ENCODING_FEATURE;
+            }
+            if (getDataEndpointConfiguration().isColumnarBinaryEncoding()) {
+                protocolFeatures |= BinaryMessageConstants.COLUMNAR_ENCODING_FEATURE;
+            }
+            if (protocolFeatures != 0) {
+                sendBinaryLoginMessage(getOutputStream(client), userName, password, protocolFeatures);
+            } else {
+                sendBinaryLoginMessage(getOutputStream(client), userName, password);
+            }
+            BinaryLoginResponse loginResponse = processLoginResponse(getInputStream(client));
+            if (loginResponse == null) {
+                return null;
+            }
+            //The columnar encoding is preferred if both the encodings are accepted.
+            if (loginResponse.isFeatureAccepted(BinaryMessageConstants.COLUMNAR_ENCODING_FEATURE)) {
+                publishMessageType = BinaryMessageConstants.COLUMNAR_PUBLISH_MESSAGE;
+            } else if (loginResponse.isFeatureAccepted(BinaryMessageConstants.COMPACT_ENCODING_FEATURE)) {
+                publishMessageType = BinaryMessageConstants.COMPACT_PUBLISH_MESSAGE;
+            } else {
+                publishMessageType = BinaryEventSender.PUBLISH_MESSAGE;
+            }
+            return loginResponse.getSessionId();
         } catch (Exception e) {
             if (e instanceof DataEndpointAuthenticationException) {
                 throw (DataEndpointAuthenticationException) e;
             } else {
                 throw new DataEndpointAuthenticationException("Error while trying to login to data receiver :"
-                        + socket.getRemoteSocketAddress().toString(), e);
+                        + getRemoteAddress(client), e);
             }
         }
     }
 
     @Override
     protected void logout(Object client, String sessionId) throws DataEndpointAuthenticationException {
-        Socket socket = (Socket) client;
         try {
-            sendBinaryLogoutMessage(socket, sessionId);
-            processResponse(socket);
+            sendBinaryLogoutMessage(getOutputStream(client), sessionId);
+            processResponse(getInputStream(client));
         } catch (Exception e) {
             if (e instanceof DataEndpointAuthenticationException) {
                 throw (DataEndpointAuthenticationException) e;
             } else {
                 throw new DataEndpointAuthenticationException("Error while trying to logout to data receiver :"
-                        + socket.getRemoteSocketAddress().toString(), e);
+                        + getRemoteAddress(client), e);
             }
         }
     }
@@ -73,11 +112,56 @@ public class BinaryDataEndpoint extends DataEndpoint {
     @Override
     protected void send(Object client, List<Event> events) throws DataEndpointException,
             SessionTimeoutException, UndefinedEventTypeException {
-        Socket socket = (Socket) client;
+        send(client, events, null);
+    }
+
+    @Override
+    protected Object encode(List<Event> events) throws DataEndpointException {
+        try {
+            return encode(events, publishMessageType);
+        } catch (IOException e) {
+            throw new DataEndpointException("Error while encoding the events to be published to data receiver :"
+                    + getDataEndpointConfiguration().getReceiverURL(), e);
+        }
+    }
+
+    private static EncodedEvents encode(List<Event> events, byte messageType) throws IOException {
+        switch (messageType) {
+            case BinaryMessageConstants.COMPACT_PUBLISH_MESSAGE:
+                return new EncodedEvents(encodeCompactEvents(events), messageType);
+            case BinaryMessageConstants.COLUMNAR_PUBLISH_MESSAGE:
+                return new EncodedEvents(encodeColumnarEvents(events), messageType);
+            default:
+                return new EncodedEvents(encodeEvents(events), BinaryEventSender.PUBLISH_MESSAGE);
+        }
+    }
+
+    /**
+     * Returns the events in the encoding accepted for the current session. The events encoded ahead are used if
+     * they are in the same encoding, otherwise they are encoded again as the session is renewed meanwhile.
+     *
+     * @param events        The events to be published.
+     * @param encodedEvents The events encoded by {@link #encode(List)}, or null if they are not encoded ahead.
+     * @return The encoded events.
+     * @throws IOException If an attribute of an event cannot be written.
+     */
+    EncodedEvents getEncodedEvents(List<Event> events, Object encodedEvents) throws IOException {
+        byte messageType = publishMessageType;
+        if (encodedEvents != null && ((EncodedEvents) encodedEvents).getMessageType() == messageType) {
+            return (EncodedEvents) encodedEvents;
+        }
+        return encode(events, messageType);
+    }
+
+    @Override
+    protected void send(Object client, List<Event> events, Object encodedEvents) throws DataEndpointException,
+            SessionTimeoutException, UndefinedEventTypeException {
         String sessionId = getDataEndpointConfiguration().getSessionId();
         try {
-            sendBinaryPublishMessage(socket, events, sessionId);
-            processResponse(socket);
+            EncodedEvents message = getEncodedEvents(events, encodedEvents);
+            sendBinaryPublishMessage(getOutputStream(client), message.getEvents(), sessionId,
+                    message.getMessageType());
+            updateReceiverLoad(processPublishResponse(getInputStream(client)));
         } catch (Exception e) {
             if (e instanceof DataEndpointException) {
                 throw (DataEndpointException) e;
@@ -87,11 +171,35 @@ public class BinaryDataEndpoint extends DataEndpoint {
                 throw new SessionTimeoutException("Binary Session Expired Exception ", e);
             } else {
                 throw new DataEndpointException("Error while trying to publish events to data receiver :"
-                        + socket.getRemoteSocketAddress().toString(), e);
+                        + getRemoteAddress(client), e);
             }
         }
     }
 
+    /**
+     * The clients are TCP or SSL sockets, or Unix domain socket connections for the receivers on the same host.
+     */
+    private static OutputStream getOutputStream(Object client) throws IOException {
+        if (client instanceof UnixDomainSocketConnection) {
+            return ((UnixDomainSocketConnection) client).getOutputStream();
+        }
+        return ((Socket) client).getOutputStream();
+    }
+
+    private static InputStream getInputStream(Object client) throws IOException {
+        if (client instanceof UnixDomainSocketConnection) {
+            return ((UnixDomainSocketConnection) client).getInputStream();
+        }
+        return ((Socket) client).getInputStream();
+    }
+
+    private static String getRemoteAddress(Object client) {
+        if (client instanceof UnixDomainSocketConnection) {
+            return client.toString();
+        }
+        return ((Socket) client).getRemoteSocketAddress().toString();
+    }
+
     @Override
     public String getClientPoolFactoryClass() {
         return BinaryClientPoolFactory.class.getCanonicalName();
@@ -102,4 +210,27 @@ public class BinaryDataEndpoint extends DataEndpoint {
         return BinarySecureClientPoolFactory.class.getCanonicalName();
     }
 
+    /**
+     * Encoded events with the type of the publish message of their encoding.
+     */
+    static class EncodedEvents {
+
+        private final ByteBuffer events;
+
+        private final byte messageType;
+
+        EncodedEvents(ByteBuffer events, byte messageType) {
+            this.events = events;
+            this.messageType = messageType;
+        }
+
+        ByteBuffer getEvents() {
+            return events;
+        }
+
+        byte getMessageType() {
+            return messageType;
+        }
+    }
+
 }
@@ -18,6 +18,7 @@
 package org.wso2.carbon.databridge.agent.endpoint.binary;
 
 import org.wso2.carbon.databridge.commons.Event;
+import org.wso2.carbon.databridge.commons.ReceiverLoad;
 import org.wso2.carbon.databridge.commons.binary.BinaryMessageConstants;
 
 import java.io.BufferedInputStream;
@@ -27,7 +28,6 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.Socket;
 import java.nio.ByteBuffer;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -40,7 +40,15 @@ import static org.wso2.carbon.databridge.commons.binary.BinaryMessageConverterUt
  * This is a Util class which does the Binary message transformation for publish, login, logout operations.
  */
 public class BinaryEventSender {
+
+    static final byte PUBLISH_MESSAGE = 2;
+
     public static void sendBinaryLoginMessage(Socket socket, String userName, String password) throws IOException {
+        sendBinaryLoginMessage(socket.getOutputStream(), userName, password);
+    }
+
+    public static void sendBinaryLoginMessage(OutputStream connectionOutputStream, String userName, String password)
+            throws IOException {
         ByteBuffer buf = ByteBuffer.allocate(13 + userName.length() + password.length());
         buf.put((byte) 0);
         buf.putInt(8 + userName.length() + password.length());
@@ -49,75 +57,267 @@ public class BinaryEventSender {
         buf.put(userName.getBytes(BinaryMessageConstants.DEFAULT_CHARSET));
         buf.put(password.getBytes(BinaryMessageConstants.DEFAULT_CHARSET));
 
-        OutputStream outputStream = new BufferedOutputStream(socket.getOutputStream());
+        OutputStream outputStream = new BufferedOutputStream(connectionOutputStream);
+        outputStream.write(buf.array());
+        outputStream.flush();
+    }
+
+    /**
+     * Send the login message requesting the given protocol features, which are appended after the password so
+     * that the receivers not supporting them ignore them.
+     *
+     * @param protocolFeatures Bitmask of the features defined in {@link BinaryMessageConstants}.
+     */
+    public static void sendBinaryLoginMessage(OutputStream connectionOutputStream, String userName, String password,
+                                              int protocolFeatures) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(17 + userName.length() + password.length());
+        buf.put((byte) 0);
+        buf.putInt(12 + userName.length() + password.length());
+        buf.putInt(userName.length());
+        buf.putInt(password.length());
+        buf.put(userName.getBytes(BinaryMessageConstants.DEFAULT_CHARSET));
+        buf.put(password.getBytes(BinaryMessageConstants.DEFAULT_CHARSET));
+        buf.putInt(protocolFeatures);
+
+        OutputStream outputStream = new BufferedOutputStream(connectionOutputStream);
         outputStream.write(buf.array());
         outputStream.flush();
     }
 
     public static void sendBinaryLogoutMessage(Socket socket, String sessionId) throws IOException {
+        sendBinaryLogoutMessage(socket.getOutputStream(), sessionId);
+    }
+
+    public static void sendBinaryLogoutMessage(OutputStream connectionOutputStream, String sessionId)
+            throws IOException {
         ByteBuffer buf = ByteBuffer.allocate(9 + sessionId.length());
         buf.put((byte) 1);
         buf.putInt(4 + sessionId.length());
         buf.putInt(sessionId.length());
         buf.put(sessionId.getBytes(BinaryMessageConstants.DEFAULT_CHARSET));
 
-        OutputStream outputStream = new BufferedOutputStream(socket.getOutputStream());
+        OutputStream outputStream = new BufferedOutputStream(connectionOutputStream);
         outputStream.write(buf.array());
         outputStream.flush();
     }
 
     public static void sendBinaryPublishMessage(Socket socket, List<Event> events, String sessionId)
             throws IOException {
-        int messageSize = 8 + sessionId.length();
-        List<byte[]> bytes = new ArrayList<byte[]>();
+        sendBinaryPublishMessage(socket, encodeEvents(events), sessionId);
+    }
 
-        for (Event event : events) {
+    /**
+     * Sends the publish message of the events which are already encoded by {@link #encodeEvents(List)}.
+     *
+     * @param socket        The socket of the receiver.
+     * @param encodedEvents The encoded events, which is not modified hence can be sent again.
+     * @param sessionId     The session id of the publisher.
+     * @throws IOException If the message cannot be written to the socket.
+     */
+    public static void sendBinaryPublishMessage(Socket socket, ByteBuffer encodedEvents, String sessionId)
+            throws IOException {
+        sendBinaryPublishMessage(socket.getOutputStream(), encodedEvents, sessionId);
+    }
+
+    /**
+     * Sends the publish message of the events which are already encoded by {@link #encodeEvents(List)}.
+     *
+     * @param connectionOutputStream The output stream of the connection to the receiver.
+     * @param encodedEvents          The encoded events, which is not modified hence can be sent again.
+     * @param sessionId              The session id of the publisher.
+     * @throws IOException If the message cannot be written to the connection.
+     */
+    public static void sendBinaryPublishMessage(OutputStream connectionOutputStream, ByteBuffer encodedEvents,
+                                                String sessionId) throws IOException {
+        sendBinaryPublishMessage(connectionOutputStream, encodedEvents, sessionId, PUBLISH_MESSAGE);
+    }
 
-            int eventSize = getEventSize(event);
-            messageSize += eventSize + 4;
-            ByteBuffer eventDataBuffer = ByteBuffer.allocate(4 + eventSize);
-            eventDataBuffer.putInt(eventSize);
-            eventDataBuffer.putLong(event.getTimeStamp());
-            eventDataBuffer.putInt(event.getStreamId().length());
-            eventDataBuffer.put(event.getStreamId().getBytes(BinaryMessageConstants.DEFAULT_CHARSET));
+    /**
+     * Sends the publish message of the encoded events.
+     *
+     * @param connectionOutputStream The output stream of the connection to the receiver.
+     * @param encodedEvents          The encoded events, which is not modified hence can be sent again.
+     * @param sessionId              The session id of the publisher.
+     * @param messageType            The publish message type of the encoding of the events, which is
+     *                               {@link BinaryMessageConstants#COMPACT_PUBLISH_MESSAGE} for the events encoded by
+     *                               {@link #encodeCompactEvents(List)}, and
+     *                               {@link BinaryMessageConstants#COLUMNAR_PUBLISH_MESSAGE} for the events encoded by
+     *                               {@link #encodeColumnarEvents(List)}.
+     * @throws IOException If the message cannot be written to the connection.
+     */
+    public static void sendBinaryPublishMessage(OutputStream connectionOutputStream, ByteBuffer encodedEvents,
+                                                String sessionId, byte messageType) throws IOException {
+        OutputStream outputstream = new BufferedOutputStream(connectionOutputStream);
+        ByteBuffer header = createBinaryPublishMessageHeader(encodedEvents.remaining(), sessionId, messageType);
+        outputstream.write(header.array(), 0, header.limit());
+        outputstream.write(encodedEvents.array(), encodedEvents.arrayOffset() + encodedEvents.position(),
+                encodedEvents.remaining());
+        outputstream.flush();
+    }
+
+    /**
+     * Creates the publish message for the events, which is ready to be written to the receiver.
+     *
+     * @param events    The events to be published.
+     * @param sessionId The session id of the publisher.
+     * @return ByteBuffer of the message, which is positioned at the beginning of the message.
+     * @throws IOException If an attribute of an event cannot be written.
+     */
+    public static ByteBuffer createBinaryPublishMessage(List<Event> events, String sessionId) throws IOException {
+        return createBinaryPublishMessage(encodeEvents(events), sessionId);
+    }
+
+    /**
+     * Creates the publish message for the events which are already encoded by {@link #encodeEvents(List)}.
+     *
+     * @param encodedEvents The encoded events, which is not modified hence can be sent again.
+     * @param sessionId     The session id of the publisher.
+     * @return ByteBuffer of the message, which is positioned at the beginning of the message.
+     * @throws IOException If the session id cannot be written.
+     */
+    public static ByteBuffer createBinaryPublishMessage(ByteBuffer encodedEvents, String sessionId)
+            throws IOException {
+        return createBinaryPublishMessage(encodedEvents, sessionId, PUBLISH_MESSAGE);
+    }
+
+    /**
+     * Creates the publish message for the encoded events.
+     *
+     * @param encodedEvents The encoded events, which is not modified hence can be sent again.
+     * @param sessionId     The session id of the publisher.
+     * @param messageType   The publish message type of the encoding of the events.
+     * @return ByteBuffer of the message, which is positioned at the beginning of the message.
+     * @throws IOException If the session id cannot be written.
+     */
+    public static ByteBuffer createBinaryPublishMessage(ByteBuffer encodedEvents, String sessionId,
+                                                        byte messageType) throws IOException {
+        ByteBuffer header = createBinaryPublishMessageHeader(encodedEvents.remaining(), sessionId, messageType);
+        ByteBuffer buf = ByteBuffer.allocate(header.remaining() + encodedEvents.remaining());
+        buf.put(header);
+        buf.put(encodedEvents.duplicate());
+        buf.flip();
+        return buf;
+    }
+
+    private static ByteBuffer createBinaryPublishMessageHeader(int encodedEventsSize, String sessionId,
+                                                               byte messageType) throws IOException {
+        int messageSize = 4 + sessionId.length() + encodedEventsSize;
+        ByteBuffer buf = ByteBuffer.allocate(9 + sessionId.length());
+        buf.put(messageType);  //1
+        buf.putInt(messageSize); //4
+        buf.putInt(sessionId.length()); //4
+        buf.put(sessionId.getBytes(BinaryMessageConstants.DEFAULT_CHARSET));
+        buf.flip();
+        return buf;
+    }
+
+    /**
+     * Encodes the events of a publish message, which does not depend on the session, hence the events can be
+     * encoded ahead of sending them and sent again with a new session.
+     *
+     * @param events The events to be published.
+     * @return ByteBuffer of the encoded events, which is positioned at the beginning of the events.
+     * @throws IOException If an attribute of an event cannot be written.
+     */
+    public static ByteBuffer encodeEvents(List<Event> events) throws IOException {
+        int encodedEventsSize = 4;
+        int[] eventSizes = new int[events.size()];
+        for (int i = 0; i < events.size(); i++) {
+            eventSizes[i] = takeEventSize(events.get(i));
+            encodedEventsSize += eventSizes[i] + 4;
+        }
+
+        ByteBuffer buf = ByteBuffer.allocate(encodedEventsSize);
+        buf.putInt(events.size()); //4
+
+        for (int i = 0; i < events.size(); i++) {
+            Event event = events.get(i);
+            buf.putInt(eventSizes[i]);
+            buf.putLong(event.getTimeStamp());
+            buf.putInt(event.getStreamId().length());
+            buf.put(event.getStreamId().getBytes(BinaryMessageConstants.DEFAULT_CHARSET));
 
             if (event.getMetaData() != null && event.getMetaData().length != 0) {
                 for (Object aMetaData : event.getMetaData()) {
-                    assignData(aMetaData, eventDataBuffer);
+                    assignData(aMetaData, buf);
                 }
             }
             if (event.getCorrelationData() != null && event.getCorrelationData().length != 0) {
                 for (Object aCorrelationData : event.getCorrelationData()) {
-                    assignData(aCorrelationData, eventDataBuffer);
+                    assignData(aCorrelationData, buf);
                 }
             }
             if (event.getPayloadData() != null && event.getPayloadData().length != 0) {
                 for (Object aPayloadData : event.getPayloadData()) {
-                    assignData(aPayloadData, eventDataBuffer);
+                    assignData(aPayloadData, buf);
                 }
             }
             if (event.getArbitraryDataMap() != null && event.getArbitraryDataMap().size() != 0) {
                 for (Map.Entry<String, String> aArbitraryData : event.getArbitraryDataMap().entrySet()) {
-                    assignData(aArbitraryData.getKey(), eventDataBuffer);
-                    assignData(aArbitraryData.getValue(), eventDataBuffer);
+                    assignData(aArbitraryData.getKey(), buf);
+                    assignData(aArbitraryData.getValue(), buf);
                 }
             }
-            bytes.add(eventDataBuffer.array());
         }
+        buf.flip();
+        return buf;
+    }
 
-        ByteBuffer buf = ByteBuffer.allocate(sessionId.length() + 13);
-        buf.put((byte) 2);  //1
-        buf.putInt(messageSize); //4
-        buf.putInt(sessionId.length()); //4
-        buf.put(sessionId.getBytes(BinaryMessageConstants.DEFAULT_CHARSET));
-        buf.putInt(events.size()); //4
+    /**
+     * Encodes the events of a publish message in the compact encoding, which is described in
+     * {@link CompactEventEncoder}. Same as {@link #encodeEvents(List)}, the encoded events do not depend on the
+     * session.
+     *
+     * @param events The events to be published.
+     * @return ByteBuffer of the encoded events, which is positioned at the beginning of the events.
+     */
+    public static ByteBuffer encodeCompactEvents(List<Event> events) {
+        int estimatedSize = 0;
+        for (Event event : events) {
+            estimatedSize += takeEventSize(event);
+        }
+        return new CompactEventEncoder(estimatedSize).encode(events);
+    }
 
-        OutputStream outputstream = new BufferedOutputStream(socket.getOutputStream());
-        outputstream.write(buf.array());
-        for (byte[] byteArray : bytes) {
-            outputstream.write(byteArray);
+    /**
+     * Encodes the events of a publish message in the columnar encoding, which is described in
+     * {@link ColumnarEventEncoder}.
+     *
+     * @param events The events to be published.
+     * @return ByteBuffer of the encoded events, which is positioned at the beginning of the events.
+     */
+    public static ByteBuffer encodeColumnarEvents(List<Event> events) {
+        int estimatedSize = 0;
+        for (Event event : events) {
+            estimatedSize += takeEventSize(event);
         }
-        outputstream.flush();
+        return new ColumnarEventEncoder(estimatedSize).encode(events);
+    }
+
+    /**
+     * Measures the event and caches the size on the event, so that the event is not measured again when it is
+     * encoded.
+     *
+     * @param event The event to be measured.
+     * @return Size of the event in the binary message format.
+     */
+    public static int cacheEventSize(Event event) {
+        int eventSize = getEventSize(event);
+        event.setSerializedSize(eventSize);
+        return eventSize;
+    }
+
+    /**
+     * Returns the cached size of the event and clears it, as the event may be changed and published again
+     * after it is encoded.
+     */
+    private static int takeEventSize(Event event) {
+        int eventSize = event.getSerializedSize();
+        if (eventSize < 0) {
+            return getEventSize(event);
+        }
+        event.setSerializedSize(-1);
+        return eventSize;
     }
 
     private static int getEventSize(Event event) {
@@ -149,8 +349,22 @@ public class BinaryEventSender {
     }
 
     public static String processResponse(Socket socket) throws Exception {
+        return processResponse(socket.getInputStream());
+    }
+
+    public static String processResponse(InputStream inputStream) throws Exception {
+        BinaryLoginResponse loginResponse = processLoginResponse(inputStream);
+        return loginResponse != null ? loginResponse.getSessionId() : null;
+    }
+
+    /**
+     * Process the response to a login or logout message.
+     *
+     * @return The session id and the accepted protocol features if the response is to a login message, or null
+     * otherwise.
+     */
+    public static BinaryLoginResponse processLoginResponse(InputStream inputStream) throws Exception {
 
-        InputStream inputStream = socket.getInputStream();
         BufferedInputStream bufferedInputStream = new BufferedInputStream(inputStream);
         int messageType = bufferedInputStream.read();
         ByteBuffer bbuf;
@@ -160,24 +374,61 @@ public class BinaryEventSender {
                 break;
             case 1:
                 //Error Message
-                bbuf = ByteBuffer.wrap(loadData(bufferedInputStream, new byte[8]));
-                int errorClassNameLength = bbuf.getInt();
-                int errorMsgLength = bbuf.getInt();
-
-                String className = new String(ByteBuffer.wrap(loadData(bufferedInputStream,
-                        new byte[errorClassNameLength])).array());
-                String errorMsg = new String(ByteBuffer.wrap(loadData(bufferedInputStream,
-                        new byte[errorMsgLength])).array());
-
-                throw (Exception) (BinaryDataEndpoint.class.getClassLoader().
-                        loadClass(className).getConstructor(String.class).newInstance(errorMsg));
+                throw readError(bufferedInputStream);
             case 2:
                 //Logging OK response
+                return new BinaryLoginResponse(readSessionId(bufferedInputStream), 0);
+            case BinaryMessageConstants.LOGIN_FEATURES_RESPONSE:
+                //Logging OK response with the accepted protocol features
+                String sessionId = readSessionId(bufferedInputStream);
                 bbuf = ByteBuffer.wrap(loadData(bufferedInputStream, new byte[4]));
-                int sessionIdLength = bbuf.getInt();
-                return new String(ByteBuffer.wrap(loadData(bufferedInputStream, new byte[sessionIdLength])).array());
+                return new BinaryLoginResponse(sessionId, bbuf.getInt());
         }
         return null;
     }
 
+    /**
+     * Process the response to a publish message.
+     *
+     * @return The load of the receiver if it is piggybacked on the acknowledgement, or null otherwise.
+     */
+    public static ReceiverLoad processPublishResponse(InputStream inputStream) throws Exception {
+
+        BufferedInputStream bufferedInputStream = new BufferedInputStream(inputStream);
+        int messageType = bufferedInputStream.read();
+        switch (messageType) {
+            case 1:
+                //Error Message
+                throw readError(bufferedInputStream);
+            case BinaryMessageConstants.LOAD_ACK_RESPONSE:
+                //OK message with the load of the receiver
+                ByteBuffer bbuf = ByteBuffer.wrap(loadData(bufferedInputStream,
+                        new byte[BinaryMessageConstants.LOAD_ACK_RESPONSE_SIZE - 1]));
+                return new ReceiverLoad(bbuf.get(), bbuf.getInt());
+            default:
+                //OK message
+                return null;
+        }
+    }
+
+    private static String readSessionId(BufferedInputStream bufferedInputStream) throws IOException {
+        ByteBuffer bbuf = ByteBuffer.wrap(loadData(bufferedInputStream, new byte[4]));
+        int sessionIdLength = bbuf.getInt();
+        return new String(ByteBuffer.wrap(loadData(bufferedInputStream, new byte[sessionIdLength])).array());
+    }
+
+    private static Exception readError(BufferedInputStream bufferedInputStream) throws Exception {
+        ByteBuffer bbuf = ByteBuffer.wrap(loadData(bufferedInputStream, new byte[8]));
+        int errorClassNameLength = bbuf.getInt();
+        int errorMsgLength = bbuf.getInt();
+
+        String className = new String(ByteBuffer.wrap(loadData(bufferedInputStream,
+                new byte[errorClassNameLength])).array());
+        String errorMsg = new String(ByteBuffer.wrap(loadData(bufferedInputStream,
+                new byte[errorMsgLength])).array());
+
+        return (Exception) (BinaryDataEndpoint.class.getClassLoader().
+                loadClass(className).getConstructor(String.class).newInstance(errorMsg));
+    }
+
 }
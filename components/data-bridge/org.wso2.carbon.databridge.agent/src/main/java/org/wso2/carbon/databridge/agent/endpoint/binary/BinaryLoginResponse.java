@@ -0,0 +1,49 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.endpoint.binary;
+
+/**
+ * Response of the receiver to a login message, with the protocol features the receiver accepted.
+ */
+public class BinaryLoginResponse {
+
+    private final String sessionId;
+
+    private final int protocolFeatures;
+
+    public BinaryLoginResponse(String sessionId, int protocolFeatures) {
+        this.sessionId = sessionId;
+        this.protocolFeatures = protocolFeatures;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    /**
+     * Returns the bitmask of the accepted features, which is 0 if the receiver did not report the accepted
+     * features as the compact encoding was not requested or the receiver does not support it.
+     */
+    public int getProtocolFeatures() {
+        return protocolFeatures;
+    }
+
+    public boolean isFeatureAccepted(int protocolFeature) {
+        return (protocolFeatures & protocolFeature) != 0;
+    }
+}
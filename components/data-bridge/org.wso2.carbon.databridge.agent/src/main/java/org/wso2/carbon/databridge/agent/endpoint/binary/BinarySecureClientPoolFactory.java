@@ -20,6 +20,7 @@ package org.wso2.carbon.databridge.agent.endpoint.binary;
 import org.apache.log4j.Logger;
 import org.wso2.carbon.databridge.agent.AgentHolder;
 import org.wso2.carbon.databridge.agent.client.AbstractSecureClientPoolFactory;
+import org.wso2.carbon.databridge.agent.conf.AgentConfiguration;
 import org.wso2.carbon.databridge.agent.conf.DataEndpointConfiguration;
 import org.wso2.carbon.databridge.agent.exception.DataEndpointAgentConfigurationException;
 import org.wso2.carbon.databridge.agent.exception.DataEndpointException;
@@ -45,18 +46,14 @@ public class BinarySecureClientPoolFactory extends AbstractSecureClientPoolFacto
     public Object createClient(String protocol, String hostName, int port) throws DataEndpointException,
             DataEndpointSecurityException, DataEndpointAgentConfigurationException {
         if (protocol.equalsIgnoreCase(DataEndpointConfiguration.Protocol.SSL.toString())) {
-            int timeout = AgentHolder.getInstance().getDataEndpointAgent(DataEndpointConstants.
-                    BINARY_DATA_AGENT_TYPE)
-                    .getAgentConfiguration().getSocketTimeoutMS();
-            String sslProtocols = AgentHolder.getInstance().getDataEndpointAgent(DataEndpointConstants.
-                    BINARY_DATA_AGENT_TYPE).
-                    getAgentConfiguration().getSslEnabledProtocols();
-            String ciphers = AgentHolder.getInstance().getDataEndpointAgent(DataEndpointConstants.
-                    BINARY_DATA_AGENT_TYPE).
-                    getAgentConfiguration().getCiphers();
+            AgentConfiguration agentConfiguration = AgentHolder.getInstance().getDataEndpointAgent(getAgentType())
+                    .getAgentConfiguration();
+            int timeout = agentConfiguration.getSocketTimeoutMS();
+            String sslProtocols = agentConfiguration.getSslEnabledProtocols();
+            String ciphers = agentConfiguration.getCiphers();
 
             try {
-                SSLSocketFactory sslsocketfactory = (SSLSocketFactory) SSLSocketFactory.getDefault();
+                SSLSocketFactory sslsocketfactory = getSSLContext(agentConfiguration).getSocketFactory();
                 SSLSocket sslSocket = (SSLSocket) sslsocketfactory.createSocket(hostName, port);
                 sslSocket.setSoTimeout(timeout);
 
@@ -76,20 +73,37 @@ public class BinarySecureClientPoolFactory extends AbstractSecureClientPoolFacto
                 throw new DataEndpointException("Error while opening socket to " + hostName + ":" + port + ". " +
                         e.getMessage(), e);
             }
+        } else if (protocol.equalsIgnoreCase(DataEndpointConfiguration.Protocol.UNIX.toString())) {
+            return UnixDomainSocketConnection.connect(hostName);
         } else {
             throw new DataEndpointException("Unsupported protocol: " + protocol + ". Currently only " +
-                    DataEndpointConfiguration.Protocol.SSL.toString() + " supported.");
+                    DataEndpointConfiguration.Protocol.SSL.toString() + " and " +
+                    DataEndpointConfiguration.Protocol.UNIX.toString() + " supported.");
         }
     }
 
+    /**
+     * Returns the type of the agent, which provides the configuration of the secure connections.
+     */
+    protected String getAgentType() {
+        return DataEndpointConstants.BINARY_DATA_AGENT_TYPE;
+    }
+
     @Override
     public boolean validateClient(Object client) {
+        if (client instanceof UnixDomainSocketConnection) {
+            return ((UnixDomainSocketConnection) client).isConnected();
+        }
         Socket socket = (Socket) client;
         return socket.isConnected();
     }
 
     @Override
     public void terminateClient(Object client) {
+        if (client instanceof UnixDomainSocketConnection) {
+            UnixDomainSocketConnection.terminate((UnixDomainSocketConnection) client);
+            return;
+        }
         Socket socket = null;
         try {
             socket = (Socket) client;
@@ -0,0 +1,174 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.endpoint.binary;
+
+import org.wso2.carbon.databridge.commons.Event;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.wso2.carbon.databridge.commons.binary.BinaryMessageConverterUtil.putVarInt;
+import static org.wso2.carbon.databridge.commons.binary.BinaryMessageConverterUtil.putVarLong;
+import static org.wso2.carbon.databridge.commons.binary.BinaryMessageConverterUtil.zigZagEncode;
+
+/**
+ * Encodes a batch of events in the columnar encoding of the binary protocol, which is used once the receiver
+ * accepted the columnar encoding feature at login. The events are grouped by stream, in the order the streams
+ * first appear in the batch, and the events of a stream keep their order. The batch is the variable length number
+ * of the events and of the streams, followed by each stream as
+ * <ul>
+ * <li>the stream id and the variable length number of the events of the stream,</li>
+ * <li>the timestamps, each written as the difference from the timestamp of the previous event of the stream,</li>
+ * <li>the meta, correlation and payload data, each written as the variable length number of the attributes,
+ * followed by the column of each attribute,</li>
+ * <li>the column of the arbitrary data, where an event has the arbitrary data present if it is not empty, and
+ * the arbitrary data of an event is written as the number of the entries followed by the keys and values.</li>
+ * </ul>
+ * A column is the bitmap of the events having the value present, one bit per event starting from the lowest bit
+ * of the first byte, followed by the present values of the column. The strings, numbers and the string dictionary
+ * of the batch are the same as in {@link CompactEventEncoder}, and the null attributes are the values missing
+ * from the columns.
+ */
+class ColumnarEventEncoder extends CompactEventEncoder {
+
+    /**
+     * @param estimatedSize Expected size of the encoded events.
+     */
+    ColumnarEventEncoder(int estimatedSize) {
+        super(estimatedSize);
+    }
+
+    @Override
+    ByteBuffer encode(List<Event> events) {
+        Map<String, List<Event>> streams = new LinkedHashMap<>();
+        for (Event event : events) {
+            List<Event> streamEvents = streams.get(event.getStreamId());
+            if (streamEvents == null) {
+                streamEvents = new ArrayList<>();
+                streams.put(event.getStreamId(), streamEvents);
+            }
+            streamEvents.add(event);
+        }
+
+        ensureCapacity(10);
+        putVarInt(events.size(), buffer);
+        putVarInt(streams.size(), buffer);
+        for (Map.Entry<String, List<Event>> stream : streams.entrySet()) {
+            List<Event> streamEvents = stream.getValue();
+            putString(stream.getKey());
+            ensureCapacity(5);
+            putVarInt(streamEvents.size(), buffer);
+            long previousTimeStamp = 0;
+            for (Event event : streamEvents) {
+                ensureCapacity(10);
+                putVarLong(zigZagEncode(event.getTimeStamp() - previousTimeStamp), buffer);
+                previousTimeStamp = event.getTimeStamp();
+            }
+            putColumns(streamEvents, 0);
+            putColumns(streamEvents, 1);
+            putColumns(streamEvents, 2);
+            putArbitraryDataColumn(streamEvents);
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Write the columns of the meta, correlation or payload data of the events of a stream.
+     */
+    private void putColumns(List<Event> events, int section) {
+        int columns = 0;
+        for (Event event : events) {
+            Object[] attributes = getAttributes(event, section);
+            if (attributes != null && attributes.length > columns) {
+                columns = attributes.length;
+            }
+        }
+        ensureCapacity(5);
+        putVarInt(columns, buffer);
+        int bitmapSize = (events.size() + 7) >>> 3;
+        for (int column = 0; column < columns; column++) {
+            int bitmapPosition = skipBitmap(bitmapSize);
+            byte[] bitmap = new byte[bitmapSize];
+            for (int i = 0; i < events.size(); i++) {
+                Object[] attributes = getAttributes(events.get(i), section);
+                Object attribute = attributes != null && column < attributes.length ? attributes[column] : null;
+                if (attribute != null) {
+                    bitmap[i >>> 3] |= 1 << (i & 7);
+                    putAttribute(attribute);
+                }
+            }
+            putBitmap(bitmapPosition, bitmap);
+        }
+    }
+
+    private void putArbitraryDataColumn(List<Event> events) {
+        int bitmapSize = (events.size() + 7) >>> 3;
+        int bitmapPosition = skipBitmap(bitmapSize);
+        byte[] bitmap = new byte[bitmapSize];
+        for (int i = 0; i < events.size(); i++) {
+            Map<String, String> arbitraryDataMap = events.get(i).getArbitraryDataMap();
+            if (arbitraryDataMap != null && !arbitraryDataMap.isEmpty()) {
+                bitmap[i >>> 3] |= 1 << (i & 7);
+                ensureCapacity(5);
+                putVarInt(arbitraryDataMap.size(), buffer);
+                for (Map.Entry<String, String> arbitraryData : arbitraryDataMap.entrySet()) {
+                    putString(arbitraryData.getKey());
+                    putString(arbitraryData.getValue());
+                }
+            }
+        }
+        putBitmap(bitmapPosition, bitmap);
+    }
+
+    /**
+     * Reserve the space of a bitmap, which is known only after the values of the column are written.
+     *
+     * @return Position of the bitmap.
+     */
+    private int skipBitmap(int bitmapSize) {
+        ensureCapacity(bitmapSize);
+        int bitmapPosition = buffer.position();
+        buffer.position(bitmapPosition + bitmapSize);
+        return bitmapPosition;
+    }
+
+    /**
+     * Write the bitmap to the reserved space, at the same position in the buffer grown by the values if any.
+     */
+    private void putBitmap(int bitmapPosition, byte[] bitmap) {
+        int position = buffer.position();
+        buffer.position(bitmapPosition);
+        buffer.put(bitmap);
+        buffer.position(position);
+    }
+
+    private static Object[] getAttributes(Event event, int section) {
+        switch (section) {
+            case 0:
+                return event.getMetaData();
+            case 1:
+                return event.getCorrelationData();
+            default:
+                return event.getPayloadData();
+        }
+    }
+}
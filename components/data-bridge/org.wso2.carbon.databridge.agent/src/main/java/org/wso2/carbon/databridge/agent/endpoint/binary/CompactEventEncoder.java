@@ -0,0 +1,185 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.endpoint.binary;
+
+import org.wso2.carbon.databridge.commons.Event;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.wso2.carbon.databridge.commons.binary.BinaryMessageConverterUtil.putVarInt;
+import static org.wso2.carbon.databridge.commons.binary.BinaryMessageConverterUtil.putVarLong;
+import static org.wso2.carbon.databridge.commons.binary.BinaryMessageConverterUtil.zigZagEncode;
+
+/**
+ * Encodes a batch of events in the compact encoding of the binary protocol, which is used once the receiver
+ * accepted the compact encoding feature at login. Compared to the original encoding,
+ * <ul>
+ * <li>the event count, and the ints and longs are variable length numbers, where the ints and longs are zig-zag
+ * encoded so that the small negative numbers are short as well,</li>
+ * <li>the timestamp of an event is the difference from the timestamp of the previous event of the batch, which is
+ * shifted left by one with the lowest bit set if the event has null attributes,</li>
+ * <li>the meta, correlation and payload data of an event having null attributes are each prefixed by the bitmap of
+ * the null attributes, one bit per attribute starting from the lowest bit of the first byte, and the null
+ * attributes are not written,</li>
+ * <li>the events are not prefixed by their sizes, and the arbitrary data is prefixed by the number of entries,</li>
+ * <li>a string is either a literal, written as the variable length of its bytes shifted left by one followed by
+ * the bytes, or a reference to an earlier literal of the batch, written as the index of the literal shifted left
+ * by one with the lowest bit set. The non empty literals are indexed in the order they are written, hence a
+ * stream id or an attribute value repeated within the batch is sent only once.</li>
+ * </ul>
+ * The floats, doubles and booleans are written as in the original encoding.
+ */
+class CompactEventEncoder {
+
+    private final Map<String, Integer> dictionary = new HashMap<>();
+
+    ByteBuffer buffer;
+
+    /**
+     * @param estimatedSize Expected size of the encoded events, which is exceeded only if the events have few
+     *                      repeated strings and many large numbers.
+     */
+    CompactEventEncoder(int estimatedSize) {
+        this.buffer = ByteBuffer.allocate(Math.max(estimatedSize, 16));
+    }
+
+    /**
+     * Encodes the events, which should be done once per encoder as the strings are indexed per batch.
+     *
+     * @param events The events of the batch.
+     * @return ByteBuffer of the encoded events, which is positioned at the beginning of the events.
+     */
+    ByteBuffer encode(List<Event> events) {
+        ensureCapacity(5);
+        putVarInt(events.size(), buffer);
+        long previousTimeStamp = 0;
+        for (Event event : events) {
+            putString(event.getStreamId());
+            boolean hasNullAttributes = hasNullAttributes(event.getMetaData())
+                    || hasNullAttributes(event.getCorrelationData()) || hasNullAttributes(event.getPayloadData());
+            ensureCapacity(10);
+            putVarLong((zigZagEncode(event.getTimeStamp() - previousTimeStamp) << 1) | (hasNullAttributes ? 1 : 0),
+                    buffer);
+            previousTimeStamp = event.getTimeStamp();
+            putAttributes(event.getMetaData(), hasNullAttributes);
+            putAttributes(event.getCorrelationData(), hasNullAttributes);
+            putAttributes(event.getPayloadData(), hasNullAttributes);
+            Map<String, String> arbitraryDataMap = event.getArbitraryDataMap();
+            ensureCapacity(5);
+            if (arbitraryDataMap == null) {
+                putVarInt(0, buffer);
+            } else {
+                putVarInt(arbitraryDataMap.size(), buffer);
+                for (Map.Entry<String, String> arbitraryData : arbitraryDataMap.entrySet()) {
+                    putString(arbitraryData.getKey());
+                    putString(arbitraryData.getValue());
+                }
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static boolean hasNullAttributes(Object[] attributes) {
+        if (attributes != null) {
+            for (Object attribute : attributes) {
+                if (attribute == null) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void putAttributes(Object[] attributes, boolean hasNullAttributes) {
+        if (attributes == null) {
+            return;
+        }
+        if (hasNullAttributes) {
+            byte[] nullBitmap = new byte[(attributes.length + 7) >>> 3];
+            for (int i = 0; i < attributes.length; i++) {
+                if (attributes[i] == null) {
+                    nullBitmap[i >>> 3] |= 1 << (i & 7);
+                }
+            }
+            ensureCapacity(nullBitmap.length);
+            buffer.put(nullBitmap);
+        }
+        for (Object attribute : attributes) {
+            if (attribute != null) {
+                putAttribute(attribute);
+            }
+        }
+    }
+
+    void putAttribute(Object attribute) {
+        if (attribute instanceof String) {
+            putString((String) attribute);
+        } else if (attribute instanceof Integer) {
+            ensureCapacity(5);
+            putVarInt(zigZagEncode((Integer) attribute), buffer);
+        } else if (attribute instanceof Long) {
+            ensureCapacity(10);
+            putVarLong(zigZagEncode((Long) attribute), buffer);
+        } else if (attribute instanceof Float) {
+            ensureCapacity(4);
+            buffer.putFloat((Float) attribute);
+        } else if (attribute instanceof Double) {
+            ensureCapacity(8);
+            buffer.putDouble((Double) attribute);
+        } else if (attribute instanceof Boolean) {
+            ensureCapacity(1);
+            buffer.put((byte) (((Boolean) attribute) ? 1 : 0));
+        } else {
+            ensureCapacity(1);
+            buffer.put((byte) 0);
+        }
+    }
+
+    void putString(String value) {
+        if (value == null || value.isEmpty()) {
+            ensureCapacity(1);
+            buffer.put((byte) 0);
+            return;
+        }
+        Integer index = dictionary.get(value);
+        if (index != null) {
+            ensureCapacity(5);
+            putVarInt((index << 1) | 1, buffer);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ensureCapacity(5 + bytes.length);
+        putVarInt(bytes.length << 1, buffer);
+        buffer.put(bytes);
+        dictionary.put(value, dictionary.size());
+    }
+
+    void ensureCapacity(int size) {
+        if (buffer.remaining() < size) {
+            ByteBuffer newBuffer = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + size));
+            buffer.flip();
+            newBuffer.put(buffer);
+            buffer = newBuffer;
+        }
+    }
+}
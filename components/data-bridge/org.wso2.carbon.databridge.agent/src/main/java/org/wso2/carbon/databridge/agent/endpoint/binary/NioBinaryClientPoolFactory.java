@@ -0,0 +1,126 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.endpoint.binary;
+
+import org.apache.log4j.Logger;
+import org.wso2.carbon.databridge.agent.AgentHolder;
+import org.wso2.carbon.databridge.agent.client.AbstractClientPoolFactory;
+import org.wso2.carbon.databridge.agent.conf.AgentConfiguration;
+import org.wso2.carbon.databridge.agent.conf.DataEndpointConfiguration;
+import org.wso2.carbon.databridge.agent.exception.DataEndpointAgentConfigurationException;
+import org.wso2.carbon.databridge.agent.exception.DataEndpointException;
+import org.wso2.carbon.databridge.agent.util.DataEndpointConstants;
+import org.wso2.carbon.databridge.commons.binary.UnixDomainSocketUtil;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SocketChannel;
+
+/**
+ * This class implements AbstractClientPoolFactory to handle the non-blocking Binary transport related connections.
+ * All the connections created by the factory are served by the selector threads of the factory.
+ */
+public class NioBinaryClientPoolFactory extends AbstractClientPoolFactory {
+    private static final Logger log = Logger.getLogger(NioBinaryClientPoolFactory.class);
+
+    private NioSelectorGroup selectorGroup;
+
+    @Override
+    public Object createClient(String protocol, String hostName, int port) throws DataEndpointException,
+            DataEndpointAgentConfigurationException {
+        if (protocol.equalsIgnoreCase(DataEndpointConfiguration.Protocol.TCP.toString())) {
+            AgentConfiguration agentConfiguration = AgentHolder.getInstance().getDataEndpointAgent(
+                    DataEndpointConstants.NIO_BINARY_DATA_AGENT_TYPE).getAgentConfiguration();
+            SocketChannel channel = null;
+            try {
+                channel = SocketChannel.open();
+                channel.socket().connect(new InetSocketAddress(hostName, port),
+                        agentConfiguration.getSocketTimeoutMS());
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                return register(channel, hostName + ":" + port, agentConfiguration);
+            } catch (IOException e) {
+                if (channel != null) {
+                    try {
+                        channel.close();
+                    } catch (IOException ignored) {
+                    }
+                }
+                throw new DataEndpointException("Error while opening socket to " + hostName + ":" + port + ". " +
+                        e.getMessage(), e);
+            }
+        } else if (protocol.equalsIgnoreCase(DataEndpointConfiguration.Protocol.UNIX.toString())) {
+            AgentConfiguration agentConfiguration = AgentHolder.getInstance().getDataEndpointAgent(
+                    DataEndpointConstants.NIO_BINARY_DATA_AGENT_TYPE).getAgentConfiguration();
+            SocketChannel channel = null;
+            try {
+                channel = UnixDomainSocketUtil.openSocketChannel(hostName);
+                channel.configureBlocking(false);
+                return register(channel, "unix://" + hostName, agentConfiguration);
+            } catch (IOException e) {
+                if (channel != null) {
+                    try {
+                        channel.close();
+                    } catch (IOException ignored) {
+                    }
+                }
+                throw new DataEndpointException("Error while opening Unix domain socket to " + hostName + ". " +
+                        e.getMessage(), e);
+            }
+        } else {
+            throw new DataEndpointException("Unsupported protocol: " + protocol + ". Currently only " +
+                    DataEndpointConfiguration.Protocol.TCP.toString() + " and " +
+                    DataEndpointConfiguration.Protocol.UNIX.toString() + " supported.");
+        }
+    }
+
+    private NioBinaryConnection register(SocketChannel channel, String receiver,
+                                         AgentConfiguration agentConfiguration) throws IOException {
+        NioBinaryConnection connection = new NioBinaryConnection(channel, receiver,
+                agentConfiguration.getMaxInFlightBatches(), agentConfiguration.getSocketTimeoutMS());
+        getSelectorGroup(agentConfiguration).register(connection);
+        return connection;
+    }
+
+    private synchronized NioSelectorGroup getSelectorGroup(AgentConfiguration agentConfiguration)
+            throws IOException {
+        if (selectorGroup == null) {
+            selectorGroup = new NioSelectorGroup(agentConfiguration.getSelectorThreads(), "NioBinarySelector");
+        }
+        return selectorGroup;
+    }
+
+    @Override
+    public boolean validateClient(Object client) {
+        return ((NioBinaryConnection) client).isValid();
+    }
+
+    @Override
+    public void terminateClient(Object client) {
+        ((NioBinaryConnection) client).closeGracefully();
+    }
+
+    @Override
+    public synchronized void shutdown() {
+        if (selectorGroup != null) {
+            log.info("Shutting down the selector threads of the non-blocking binary transport.");
+            selectorGroup.shutdown();
+            selectorGroup = null;
+        }
+    }
+}
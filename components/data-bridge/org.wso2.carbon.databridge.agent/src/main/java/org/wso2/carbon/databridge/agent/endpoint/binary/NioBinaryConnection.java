@@ -0,0 +1,360 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.endpoint.binary;
+
+import org.apache.log4j.Logger;
+import org.wso2.carbon.databridge.agent.exception.DataEndpointException;
+import org.wso2.carbon.databridge.commons.Event;
+import org.wso2.carbon.databridge.commons.ReceiverLoad;
+import org.wso2.carbon.databridge.commons.binary.BinaryMessageConstants;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import static org.wso2.carbon.databridge.commons.binary.BinaryMessageConverterUtil.getString;
+
+/**
+ * Non-blocking binary connection to a receiver. The publish messages are written by the selector thread of the
+ * connection, and the receiver acknowledges the messages in the order they were written, hence multiple batches
+ * can be in flight on the same connection, and the publisher is notified when each batch is acknowledged.
+ */
+public class NioBinaryConnection {
+
+    private static final Logger log = Logger.getLogger(NioBinaryConnection.class);
+
+    private static final int READ_BUFFER_SIZE = 1024;
+
+    private final SocketChannel channel;
+
+    private final String receiver;
+
+    private final int maxInFlightBatches;
+
+    private final long timeoutMS;
+
+    private final Queue<ByteBuffer> messages = new ArrayDeque<>();
+
+    private final Queue<PendingBatch> pendingBatches = new ArrayDeque<>();
+
+    private ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+
+    private NioSelectorGroup.SelectorLoop selectorLoop;
+
+    private volatile SelectionKey selectionKey;
+
+    private volatile boolean isClosed = false;
+
+    private volatile boolean isClosing = false;
+
+    NioBinaryConnection(SocketChannel channel, String receiver, int maxInFlightBatches, long timeoutMS) {
+        this.channel = channel;
+        this.receiver = receiver;
+        this.maxInFlightBatches = maxInFlightBatches;
+        this.timeoutMS = timeoutMS;
+    }
+
+    void setSelectorLoop(NioSelectorGroup.SelectorLoop selectorLoop) {
+        this.selectorLoop = selectorLoop;
+    }
+
+    /**
+     * Queue the publish message to be written to the receiver. This waits only if the maximum number of
+     * batches are already in flight on the connection.
+     *
+     * @param message  The publish message.
+     * @param events   The events of the message.
+     * @param endpoint The endpoint to be notified, when the message is acknowledged or failed.
+     * @throws DataEndpointException If the connection is closed, or the in flight batches are not
+     *                               acknowledged within the timeout.
+     */
+    void send(ByteBuffer message, List<Event> events, NioBinaryDataEndpoint endpoint) throws DataEndpointException {
+        synchronized (this) {
+            long stopTime = System.currentTimeMillis() + timeoutMS;
+            while (!isClosed && pendingBatches.size() >= maxInFlightBatches) {
+                long waitTime = stopTime - System.currentTimeMillis();
+                if (waitTime <= 0) {
+                    throw new DataEndpointException("No acknowledgement received from " + receiver + " within " +
+                            timeoutMS + " ms, for " + pendingBatches.size() + " batches in flight.");
+                }
+                try {
+                    wait(waitTime);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new DataEndpointException("Interrupted while waiting to send events to " + receiver, e);
+                }
+            }
+            if (isClosed) {
+                throw new DataEndpointException("Connection to " + receiver + " is closed.");
+            }
+            messages.add(message);
+            pendingBatches.add(new PendingBatch(events, endpoint, System.currentTimeMillis(), System.nanoTime()));
+        }
+        selectorLoop.schedule(this);
+    }
+
+    /**
+     * Register the connection with the selector, if not registered already.
+     *
+     * @return true if the connection is registered by this call.
+     */
+    boolean register(Selector selector) {
+        if (selectionKey != null || isClosed) {
+            return false;
+        }
+        try {
+            selectionKey = channel.register(selector, SelectionKey.OP_READ, this);
+            return true;
+        } catch (ClosedChannelException e) {
+            close(e);
+            return false;
+        }
+    }
+
+    void onWritable() {
+        if (selectionKey == null || isClosed) {
+            return;
+        }
+        try {
+            synchronized (this) {
+                while (!messages.isEmpty()) {
+                    ByteBuffer message = messages.peek();
+                    channel.write(message);
+                    if (message.hasRemaining()) {
+                        selectionKey.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                        return;
+                    }
+                    messages.poll();
+                }
+            }
+            selectionKey.interestOps(SelectionKey.OP_READ);
+        } catch (IOException e) {
+            close(e);
+        }
+    }
+
+    void onReadable() {
+        try {
+            if (channel.read(readBuffer) < 0) {
+                close(new EOFException("Connection closed from " + receiver));
+                return;
+            }
+            readBuffer.flip();
+            while (readResponse()) {
+                // Complete all the batches acknowledged so far.
+            }
+            readBuffer.compact();
+            if (!readBuffer.hasRemaining()) {
+                ByteBuffer largerBuffer = ByteBuffer.allocate(readBuffer.capacity() * 2);
+                readBuffer.flip();
+                largerBuffer.put(readBuffer);
+                readBuffer = largerBuffer;
+            }
+        } catch (IOException e) {
+            close(e);
+        }
+    }
+
+    /**
+     * Read a response of the receiver from the read buffer, if the response is fully received.
+     *
+     * @return true if a response is read.
+     */
+    private boolean readResponse() throws IOException {
+        if (!readBuffer.hasRemaining()) {
+            return false;
+        }
+        readBuffer.mark();
+        int messageType = readBuffer.get();
+        switch (messageType) {
+            case 0:
+                //OK message
+                complete(null, null);
+                return true;
+            case 1:
+                //Error Message
+                if (readBuffer.remaining() >= 8) {
+                    int errorClassNameLength = readBuffer.getInt();
+                    int errorMsgLength = readBuffer.getInt();
+                    if (readBuffer.remaining() >= errorClassNameLength + errorMsgLength) {
+                        String className = getString(readBuffer, errorClassNameLength);
+                        String errorMsg = getString(readBuffer, errorMsgLength);
+                        complete(null, createException(className, errorMsg));
+                        return true;
+                    }
+                }
+                break;
+            case 2:
+                //Logging OK response
+                if (readBuffer.remaining() >= 4) {
+                    int sessionIdLength = readBuffer.getInt();
+                    if (readBuffer.remaining() >= sessionIdLength) {
+                        readBuffer.position(readBuffer.position() + sessionIdLength);
+                        complete(null, null);
+                        return true;
+                    }
+                }
+                break;
+            case BinaryMessageConstants.LOAD_ACK_RESPONSE:
+                //OK message with the load of the receiver
+                if (readBuffer.remaining() >= BinaryMessageConstants.LOAD_ACK_RESPONSE_SIZE - 1) {
+                    int queueFillPercentage = readBuffer.get();
+                    int dispatchLatencyMS = readBuffer.getInt();
+                    complete(new ReceiverLoad(queueFillPercentage, dispatchLatencyMS), null);
+                    return true;
+                }
+                break;
+            default:
+                throw new IOException("Invalid response type: " + messageType + " received from " + receiver);
+        }
+        readBuffer.reset();
+        return false;
+    }
+
+    private Exception createException(String className, String errorMsg) {
+        try {
+            return (Exception) (BinaryDataEndpoint.class.getClassLoader().
+                    loadClass(className).getConstructor(String.class).newInstance(errorMsg));
+        } catch (Exception e) {
+            return new DataEndpointException("Error response received from " + receiver + ", " + className +
+                    ": " + errorMsg);
+        }
+    }
+
+    private void complete(ReceiverLoad receiverLoad, Exception e) {
+        PendingBatch pendingBatch;
+        synchronized (this) {
+            pendingBatch = pendingBatches.poll();
+            notifyAll();
+        }
+        if (pendingBatch != null) {
+            pendingBatch.endpoint.onBatchCompleted(pendingBatch.events, System.nanoTime() - pendingBatch.sentNanoTime,
+                    receiverLoad, e);
+        }
+    }
+
+    /**
+     * Close the connection if the oldest batch is not acknowledged within the timeout, or if the connection
+     * is marked to be closed and there are no batches in flight.
+     *
+     * @return true if the connection is closed.
+     */
+    boolean sweep(long currentTime) {
+        if (isClosed) {
+            return true;
+        }
+        PendingBatch oldestBatch;
+        synchronized (this) {
+            oldestBatch = pendingBatches.peek();
+        }
+        if (oldestBatch != null && currentTime - oldestBatch.sentTime > timeoutMS) {
+            close(new DataEndpointException("No acknowledgement received from " + receiver + " within " +
+                    timeoutMS + " ms."));
+            return true;
+        }
+        if (isClosing && oldestBatch == null) {
+            close(null);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Close the connection once the batches in flight are acknowledged.
+     */
+    void closeGracefully() {
+        isClosing = true;
+        if (selectionKey == null) {
+            close(null);
+        }
+    }
+
+    /**
+     * Close the connection immediately, and fail the batches in flight.
+     *
+     * @param cause The cause to close the connection.
+     */
+    void close(Exception cause) {
+        List<PendingBatch> failedBatches;
+        synchronized (this) {
+            if (isClosed) {
+                return;
+            }
+            isClosed = true;
+            failedBatches = new ArrayList<>(pendingBatches);
+            pendingBatches.clear();
+            messages.clear();
+            notifyAll();
+        }
+        if (selectionKey != null) {
+            selectionKey.cancel();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Cannot close the connection to " + receiver + " successfully. " + e.getMessage());
+        }
+        for (PendingBatch failedBatch : failedBatches) {
+            failedBatch.endpoint.onBatchCompleted(failedBatch.events, System.nanoTime() - failedBatch.sentNanoTime,
+                    null, new DataEndpointException(
+                    "Connection to " + receiver + " is closed before the events are acknowledged.", cause));
+        }
+    }
+
+    boolean isValid() {
+        return !isClosed && !isClosing && channel.isConnected();
+    }
+
+    long getTimeoutMS() {
+        return timeoutMS;
+    }
+
+    @Override
+    public String toString() {
+        return receiver;
+    }
+
+    /**
+     * Batch of events, which is waiting for the acknowledgement of the receiver.
+     */
+    private static class PendingBatch {
+
+        private final List<Event> events;
+
+        private final NioBinaryDataEndpoint endpoint;
+
+        private final long sentTime;
+
+        private final long sentNanoTime;
+
+        PendingBatch(List<Event> events, NioBinaryDataEndpoint endpoint, long sentTime, long sentNanoTime) {
+            this.events = events;
+            this.endpoint = endpoint;
+            this.sentTime = sentTime;
+            this.sentNanoTime = sentNanoTime;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.endpoint.binary;
+
+import org.apache.log4j.Logger;
+import org.wso2.carbon.databridge.agent.exception.DataEndpointException;
+import org.wso2.carbon.databridge.commons.Event;
+import org.wso2.carbon.databridge.commons.ReceiverLoad;
+import org.wso2.carbon.databridge.commons.exception.SessionTimeoutException;
+import org.wso2.carbon.databridge.commons.exception.UndefinedEventTypeException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.wso2.carbon.databridge.agent.endpoint.binary.BinaryEventSender.createBinaryPublishMessage;
+
+/**
+ * This class is the non-blocking Binary transport implementation for the Data Endpoint. The events are written by
+ * the selector threads, and the publisher thread is released as soon as the batch is queued to the connection,
+ * hence multiple batches are in flight on a connection and acknowledged in the order they were sent.
+ * <p>
+ * Login and logout are done over the blocking SSL connections same as the Binary transport.
+ */
+public class NioBinaryDataEndpoint extends BinaryDataEndpoint {
+    private static final Logger log = Logger.getLogger(NioBinaryDataEndpoint.class);
+
+    private final AtomicInteger inFlightBatches = new AtomicInteger();
+
+    private volatile long acknowledgementTimeoutMS;
+
+    @Override
+    protected void send(Object client, List<Event> events, Object encodedEvents) throws DataEndpointException,
+            SessionTimeoutException, UndefinedEventTypeException {
+        NioBinaryConnection connection = (NioBinaryConnection) client;
+        acknowledgementTimeoutMS = connection.getTimeoutMS();
+        String sessionId = getDataEndpointConfiguration().getSessionId();
+        try {
+            inFlightBatches.incrementAndGet();
+            EncodedEvents encoded = getEncodedEvents(events, encodedEvents);
+            ByteBuffer message = createBinaryPublishMessage(encoded.getEvents(), sessionId, encoded.getMessageType());
+            connection.send(message, events, this);
+        } catch (IOException e) {
+            inFlightBatches.decrementAndGet();
+            throw new DataEndpointException("Error while trying to publish events to data receiver :"
+                    + getDataEndpointConfiguration().getReceiverURL(), e);
+        } catch (DataEndpointException e) {
+            inFlightBatches.decrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Invoked by the selector thread when the receiver acknowledged the batch, or the batch is failed.
+     *
+     * @param events       The events of the batch.
+     * @param latencyNanos Time from queuing the batch to the connection until it is completed.
+     * @param receiverLoad The load reported by the receiver with the acknowledgement, or null if not reported.
+     * @param e            The cause of the failure, or null if the batch is acknowledged successfully.
+     */
+    void onBatchCompleted(List<Event> events, long latencyNanos, ReceiverLoad receiverLoad, Exception e) {
+        updateReceiverLoad(receiverLoad);
+        synchronized (inFlightBatches) {
+            inFlightBatches.decrementAndGet();
+            inFlightBatches.notifyAll();
+        }
+        onAsyncBatchCompleted(events, latencyNanos, e);
+    }
+
+    @Override
+    protected boolean isAcknowledgedAsynchronously() {
+        return true;
+    }
+
+    /**
+     * Waits until the batches in flight are acknowledged, before shutting down the endpoint.
+     */
+    @Override
+    public void shutdown() {
+        super.shutdown();
+        long stopTime = System.currentTimeMillis() + acknowledgementTimeoutMS;
+        synchronized (inFlightBatches) {
+            while (inFlightBatches.get() > 0) {
+                long waitTime = stopTime - System.currentTimeMillis();
+                if (waitTime <= 0) {
+                    log.warn(inFlightBatches.get() + " batches are not acknowledged by " +
+                            getDataEndpointConfiguration().getReceiverURL() + " before the shutdown.");
+                    break;
+                }
+                try {
+                    inFlightBatches.wait(waitTime);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+    }
+
+    @Override
+    public String getClientPoolFactoryClass() {
+        return NioBinaryClientPoolFactory.class.getCanonicalName();
+    }
+
+    @Override
+    public String getSecureClientPoolFactoryClass() {
+        return NioBinarySecureClientPoolFactory.class.getCanonicalName();
+    }
+}
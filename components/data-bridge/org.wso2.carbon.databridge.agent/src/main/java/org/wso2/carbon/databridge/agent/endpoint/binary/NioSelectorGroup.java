@@ -0,0 +1,175 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.endpoint.binary;
+
+import org.apache.log4j.Logger;
+import org.wso2.carbon.databridge.agent.exception.DataEndpointException;
+import org.wso2.carbon.databridge.agent.util.DataEndpointConstants;
+import org.wso2.carbon.databridge.commons.utils.DataBridgeThreadFactory;
+
+import java.io.IOException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Small set of selector threads shared by all the non-blocking connections of an agent. Each connection is
+ * assigned to a selector thread, which writes the messages and reads the acknowledgements of the connection,
+ * hence the number of threads does not grow with the number of connections or the batches in flight.
+ */
+public class NioSelectorGroup {
+
+    private static final Logger log = Logger.getLogger(NioSelectorGroup.class);
+
+    private static final int SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private final SelectorLoop[] selectorLoops;
+
+    private final ExecutorService selectorPool;
+
+    private final AtomicInteger nextSelectorLoop = new AtomicInteger();
+
+    public NioSelectorGroup(int selectorThreads, String name) throws IOException {
+        if (selectorThreads <= 0) {
+            throw new IllegalArgumentException("Number of selector threads should be positive, but found: " +
+                    selectorThreads);
+        }
+        this.selectorLoops = new SelectorLoop[selectorThreads];
+        this.selectorPool = Executors.newFixedThreadPool(selectorThreads, new DataBridgeThreadFactory(name));
+        for (int i = 0; i < selectorThreads; i++) {
+            selectorLoops[i] = new SelectorLoop(Selector.open());
+            selectorPool.submit(selectorLoops[i]);
+        }
+    }
+
+    /**
+     * Assign the connection to one of the selector threads.
+     *
+     * @param connection Connection, which is already connected to the receiver.
+     */
+    void register(NioBinaryConnection connection) {
+        int index = (nextSelectorLoop.getAndIncrement() & Integer.MAX_VALUE) % selectorLoops.length;
+        connection.setSelectorLoop(selectorLoops[index]);
+        selectorLoops[index].schedule(connection);
+    }
+
+    /**
+     * Close all the connections, and stop the selector threads.
+     */
+    public void shutdown() {
+        for (SelectorLoop selectorLoop : selectorLoops) {
+            selectorLoop.shutdown();
+        }
+        selectorPool.shutdown();
+        try {
+            if (!selectorPool.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("Selector threads did not stop within " + SHUTDOWN_TIMEOUT_SECONDS + " seconds.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Selector thread, which serves the connections assigned to it.
+     */
+    class SelectorLoop implements Runnable {
+
+        private final Selector selector;
+
+        private final Queue<NioBinaryConnection> scheduledConnections = new ConcurrentLinkedQueue<>();
+
+        private final Set<NioBinaryConnection> connections = new HashSet<>();
+
+        private volatile boolean isShutdown = false;
+
+        SelectorLoop(Selector selector) {
+            this.selector = selector;
+        }
+
+        /**
+         * Schedule the connection to be registered with the selector, or to write the queued messages.
+         */
+        void schedule(NioBinaryConnection connection) {
+            scheduledConnections.add(connection);
+            selector.wakeup();
+        }
+
+        void shutdown() {
+            isShutdown = true;
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            while (!isShutdown) {
+                try {
+                    selector.select(DataEndpointConstants.SELECTOR_TIMEOUT_MS);
+                    NioBinaryConnection connection;
+                    while ((connection = scheduledConnections.poll()) != null) {
+                        if (connection.register(selector)) {
+                            connections.add(connection);
+                        }
+                        connection.onWritable();
+                    }
+                    Iterator<SelectionKey> selectedKeys = selector.selectedKeys().iterator();
+                    while (selectedKeys.hasNext()) {
+                        SelectionKey selectionKey = selectedKeys.next();
+                        selectedKeys.remove();
+                        connection = (NioBinaryConnection) selectionKey.attachment();
+                        if (selectionKey.isValid() && selectionKey.isReadable()) {
+                            connection.onReadable();
+                        }
+                        if (selectionKey.isValid() && selectionKey.isWritable()) {
+                            connection.onWritable();
+                        }
+                    }
+                    long currentTime = System.currentTimeMillis();
+                    Iterator<NioBinaryConnection> iterator = connections.iterator();
+                    while (iterator.hasNext()) {
+                        if (iterator.next().sweep(currentTime)) {
+                            iterator.remove();
+                        }
+                    }
+                } catch (Throwable t) {
+                    log.error("Unexpected error in the selector thread. " + t.getMessage(), t);
+                }
+            }
+            NioBinaryConnection connection;
+            while ((connection = scheduledConnections.poll()) != null) {
+                connections.add(connection);
+            }
+            for (NioBinaryConnection aConnection : connections) {
+                aConnection.close(new DataEndpointException("Selector thread is shutdown."));
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                log.warn("Error while closing the selector. " + e.getMessage(), e);
+            }
+        }
+    }
+}
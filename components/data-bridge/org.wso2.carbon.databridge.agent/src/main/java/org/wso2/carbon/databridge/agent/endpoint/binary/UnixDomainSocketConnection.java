@@ -0,0 +1,94 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.endpoint.binary;
+
+import org.apache.log4j.Logger;
+import org.wso2.carbon.databridge.agent.exception.DataEndpointException;
+import org.wso2.carbon.databridge.commons.binary.UnixDomainSocketUtil;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Blocking connection of the Binary transport to a receiver on the same host over a Unix domain socket, which is
+ * used as the client of the unix:// URLs in place of a TCP socket. Access to the receiver is controlled by the
+ * permissions of the socket file, hence the connection is used for authentication as well.
+ */
+public class UnixDomainSocketConnection {
+    private static final Logger log = Logger.getLogger(UnixDomainSocketConnection.class);
+
+    private final String path;
+
+    private final SocketChannel channel;
+
+    private final InputStream inputStream;
+
+    private final OutputStream outputStream;
+
+    public UnixDomainSocketConnection(String path) throws IOException {
+        this.path = path;
+        this.channel = UnixDomainSocketUtil.openSocketChannel(path);
+        this.inputStream = Channels.newInputStream(channel);
+        this.outputStream = Channels.newOutputStream(channel);
+    }
+
+    static UnixDomainSocketConnection connect(String path) throws DataEndpointException {
+        try {
+            return new UnixDomainSocketConnection(path);
+        } catch (IOException e) {
+            throw new DataEndpointException("Error while opening Unix domain socket to " + path + ". " +
+                    e.getMessage(), e);
+        }
+    }
+
+    static void terminate(UnixDomainSocketConnection connection) {
+        try {
+            connection.close();
+        } catch (IOException e) {
+            log.warn("Cannot close the Unix domain socket successfully to " + connection.getPath());
+        }
+    }
+
+    public InputStream getInputStream() {
+        return inputStream;
+    }
+
+    public OutputStream getOutputStream() {
+        return outputStream;
+    }
+
+    public boolean isConnected() {
+        return channel.isConnected();
+    }
+
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    @Override
+    public String toString() {
+        return "unix://" + path;
+    }
+}
@@ -0,0 +1,42 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.endpoint.local;
+
+import org.wso2.carbon.databridge.agent.client.AbstractClientPoolFactory;
+import org.wso2.carbon.databridge.agent.exception.DataEndpointException;
+
+/**
+ * Client pool factory of the local data endpoints. The clients are the local event receivers registered in the JVM,
+ * hence there is no connection to be opened or closed.
+ */
+public class LocalClientPoolFactory extends AbstractClientPoolFactory {
+
+    @Override
+    public Object createClient(String protocol, String hostName, int port) throws DataEndpointException {
+        return LocalEndpointUtil.getReceiver(protocol, hostName);
+    }
+
+    @Override
+    public boolean validateClient(Object client) {
+        return true;
+    }
+
+    @Override
+    public void terminateClient(Object client) {
+    }
+}
@@ -0,0 +1,94 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.endpoint.local;
+
+import org.wso2.carbon.databridge.agent.endpoint.DataEndpoint;
+import org.wso2.carbon.databridge.agent.exception.DataEndpointAuthenticationException;
+import org.wso2.carbon.databridge.agent.exception.DataEndpointConfigurationException;
+import org.wso2.carbon.databridge.agent.exception.DataEndpointException;
+import org.wso2.carbon.databridge.agent.util.DataPublisherUtil;
+import org.wso2.carbon.databridge.commons.Event;
+import org.wso2.carbon.databridge.commons.LocalEventReceiver;
+import org.wso2.carbon.databridge.commons.exception.SessionTimeoutException;
+import org.wso2.carbon.databridge.commons.exception.UndefinedEventTypeException;
+import org.wso2.carbon.databridge.commons.utils.LocalEventReceiverRegistry;
+
+import java.util.List;
+
+/**
+ * This class is the in-JVM transport implementation for the Data Endpoint, which hands the event batches over to a
+ * data bridge running in the same JVM without encoding them. The receivers are addressed with local://name:port
+ * URLs, where the name is the name the receiver is registered with and the port is ignored.
+ */
+public class LocalDataEndpoint extends DataEndpoint {
+
+    @Override
+    protected String login(Object client, String userName, String password) throws DataEndpointAuthenticationException {
+        try {
+            return ((LocalEventReceiver) client).login(userName, password);
+        } catch (Exception e) {
+            throw new DataEndpointAuthenticationException("Error while trying to login to local data receiver :"
+                    + getDataEndpointConfiguration().getAuthURL(), e);
+        }
+    }
+
+    @Override
+    protected void logout(Object client, String sessionId) throws DataEndpointAuthenticationException {
+        try {
+            ((LocalEventReceiver) client).logout(sessionId);
+        } catch (Exception e) {
+            throw new DataEndpointAuthenticationException("Error while trying to logout from local data receiver :"
+                    + getDataEndpointConfiguration().getAuthURL(), e);
+        }
+    }
+
+    @Override
+    protected void send(Object client, List<Event> events) throws DataEndpointException,
+            SessionTimeoutException, UndefinedEventTypeException {
+        try {
+            ((LocalEventReceiver) client).publish(events, getDataEndpointConfiguration().getSessionId());
+        } catch (UndefinedEventTypeException e) {
+            throw new UndefinedEventTypeException("Undefined Event Type Exception ", e);
+        } catch (SessionTimeoutException e) {
+            throw new SessionTimeoutException("Local Session Expired Exception ", e);
+        } catch (RuntimeException e) {
+            throw new DataEndpointException("Error while trying to publish events to local data receiver :"
+                    + getDataEndpointConfiguration().getReceiverURL(), e);
+        }
+    }
+
+    /**
+     * The receiver is reachable as long as it is registered in the JVM.
+     */
+    @Override
+    protected boolean isReceiverReachable() throws DataEndpointConfigurationException {
+        String[] urlElements = DataPublisherUtil.getProtocolHostPort(getDataEndpointConfiguration().getReceiverURL());
+        return LocalEventReceiverRegistry.getReceiver(urlElements[1]) != null;
+    }
+
+    @Override
+    public String getClientPoolFactoryClass() {
+        return LocalClientPoolFactory.class.getCanonicalName();
+    }
+
+    @Override
+    public String getSecureClientPoolFactoryClass() {
+        return LocalSecureClientPoolFactory.class.getCanonicalName();
+    }
+
+}
@@ -0,0 +1,44 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.endpoint.local;
+
+import org.wso2.carbon.databridge.agent.conf.DataEndpointConfiguration;
+import org.wso2.carbon.databridge.agent.exception.DataEndpointException;
+import org.wso2.carbon.databridge.commons.LocalEventReceiver;
+import org.wso2.carbon.databridge.commons.utils.LocalEventReceiverRegistry;
+
+/**
+ * Util class of the local data endpoints.
+ */
+class LocalEndpointUtil {
+
+    private LocalEndpointUtil() {
+    }
+
+    static LocalEventReceiver getReceiver(String protocol, String name) throws DataEndpointException {
+        if (!protocol.equalsIgnoreCase(DataEndpointConfiguration.Protocol.LOCAL.toString())) {
+            throw new DataEndpointException("Unsupported protocol: " + protocol + ". Currently only " +
+                    DataEndpointConfiguration.Protocol.LOCAL.toString() + " supported.");
+        }
+        LocalEventReceiver receiver = LocalEventReceiverRegistry.getReceiver(name);
+        if (receiver == null) {
+            throw new DataEndpointException("No local data receiver is registered with the name: " + name);
+        }
+        return receiver;
+    }
+}
@@ -0,0 +1,46 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.endpoint.shm;
+
+import org.wso2.carbon.databridge.commons.binary.SharedMemoryRingBuffer;
+
+/**
+ * Client of the shared memory transport, which owns a ring of the receiver directory.
+ */
+public class SharedMemoryClient {
+
+    private final SharedMemoryRingBuffer ring;
+
+    private final int timeoutMS;
+
+    SharedMemoryClient(SharedMemoryRingBuffer ring, int timeoutMS) {
+        this.ring = ring;
+        this.timeoutMS = timeoutMS;
+    }
+
+    public SharedMemoryRingBuffer getRing() {
+        return ring;
+    }
+
+    /**
+     * Returns the time to wait for space in the ring, before the receiver is considered unavailable.
+     */
+    public int getTimeoutMS() {
+        return timeoutMS;
+    }
+}
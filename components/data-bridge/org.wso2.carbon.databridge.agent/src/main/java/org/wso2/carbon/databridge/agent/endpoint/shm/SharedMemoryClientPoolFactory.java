@@ -0,0 +1,85 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.endpoint.shm;
+
+import org.apache.log4j.Logger;
+import org.wso2.carbon.databridge.agent.AgentHolder;
+import org.wso2.carbon.databridge.agent.client.AbstractClientPoolFactory;
+import org.wso2.carbon.databridge.agent.conf.AgentConfiguration;
+import org.wso2.carbon.databridge.agent.conf.DataEndpointConfiguration;
+import org.wso2.carbon.databridge.agent.exception.DataEndpointAgentConfigurationException;
+import org.wso2.carbon.databridge.agent.exception.DataEndpointException;
+import org.wso2.carbon.databridge.agent.util.DataEndpointConstants;
+import org.wso2.carbon.databridge.commons.binary.SharedMemoryHandshake;
+import org.wso2.carbon.databridge.commons.binary.SharedMemoryRingBuffer;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * This class implements AbstractClientPoolFactory to create the rings of the shared memory transport. Each client
+ * creates a new ring file in the receiver directory, which the receiver picks up and polls.
+ */
+public class SharedMemoryClientPoolFactory extends AbstractClientPoolFactory {
+    private static final Logger log = Logger.getLogger(SharedMemoryClientPoolFactory.class);
+
+    @Override
+    public Object createClient(String protocol, String hostName, int port) throws DataEndpointException,
+            DataEndpointAgentConfigurationException {
+        if (protocol.equalsIgnoreCase(DataEndpointConfiguration.Protocol.SHM.toString())) {
+            AgentConfiguration agentConfiguration = AgentHolder.getInstance().getDataEndpointAgent(
+                    DataEndpointConstants.SHARED_MEMORY_DATA_AGENT_TYPE).getAgentConfiguration();
+            File directory = new File(hostName);
+            if (!directory.isDirectory()) {
+                throw new DataEndpointException("Shared memory directory " + hostName + " of the receiver does not " +
+                        "exist");
+            }
+            File ringFile = new File(directory, UUID.randomUUID().toString() + SharedMemoryHandshake.RING_FILE_SUFFIX);
+            try {
+                return new SharedMemoryClient(SharedMemoryRingBuffer.create(ringFile,
+                        agentConfiguration.getSharedMemoryRingSize()), agentConfiguration.getSocketTimeoutMS());
+            } catch (IOException e) {
+                throw new DataEndpointException("Error while creating shared memory ring " + ringFile + ". " +
+                        e.getMessage(), e);
+            }
+        } else {
+            throw new DataEndpointException("Unsupported protocol: " + protocol + ". Currently only " +
+                    DataEndpointConfiguration.Protocol.SHM.toString() + " supported.");
+        }
+    }
+
+    @Override
+    public boolean validateClient(Object client) {
+        return !((SharedMemoryClient) client).getRing().isClosed();
+    }
+
+    /**
+     * Marks the ring as closed, so that the receiver removes it once the written batches are processed.
+     */
+    @Override
+    public void terminateClient(Object client) {
+        SharedMemoryRingBuffer ring = ((SharedMemoryClient) client).getRing();
+        ring.markClosed();
+        try {
+            ring.close();
+        } catch (IOException e) {
+            log.warn("Cannot close the shared memory ring " + ring.getFile() + " successfully");
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.endpoint.shm;
+
+import org.wso2.carbon.databridge.agent.endpoint.DataEndpoint;
+import org.wso2.carbon.databridge.agent.exception.DataEndpointAuthenticationException;
+import org.wso2.carbon.databridge.agent.exception.DataEndpointConfigurationException;
+import org.wso2.carbon.databridge.agent.exception.DataEndpointException;
+import org.wso2.carbon.databridge.agent.util.DataPublisherUtil;
+import org.wso2.carbon.databridge.commons.Event;
+import org.wso2.carbon.databridge.commons.binary.BinaryMessageConstants;
+import org.wso2.carbon.databridge.commons.binary.SharedMemoryRingBuffer;
+import org.wso2.carbon.databridge.commons.exception.SessionTimeoutException;
+import org.wso2.carbon.databridge.commons.exception.UndefinedEventTypeException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.wso2.carbon.databridge.agent.endpoint.binary.BinaryEventSender.encodeEvents;
+
+/**
+ * This class is the shared memory transport implementation for the Data Endpoint, which writes the binary publish
+ * messages into memory mapped rings polled by a receiver on the same host. The receivers are addressed with
+ * shm://directory:port URLs, where the directory is shared with the receiver and the port is ignored.
+ * <p>
+ * Each client of the transport pool owns a ring, hence a batch is written without any system call. The receiver
+ * does not acknowledge the batches, so the publishing errors such as undefined streams are reported only at the
+ * receiver, and the endpoint fails only if the ring stays full for the socket timeout.
+ */
+public class SharedMemoryDataEndpoint extends DataEndpoint {
+
+    private static final long RING_FULL_WAIT_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    @Override
+    protected String login(Object client, String userName, String password) throws DataEndpointAuthenticationException {
+        return ((SharedMemoryHandshakeClient) client).login(userName, password);
+    }
+
+    @Override
+    protected void logout(Object client, String sessionId) throws DataEndpointAuthenticationException {
+        ((SharedMemoryHandshakeClient) client).logout(sessionId);
+    }
+
+    @Override
+    protected Object encode(List<Event> events) throws DataEndpointException {
+        try {
+            return encodeEvents(events);
+        } catch (IOException e) {
+            throw new DataEndpointException("Error while encoding the events to be published to data receiver :"
+                    + getDataEndpointConfiguration().getReceiverURL(), e);
+        }
+    }
+
+    @Override
+    protected void send(Object client, List<Event> events) throws DataEndpointException,
+            SessionTimeoutException, UndefinedEventTypeException {
+        send(client, events, null);
+    }
+
+    @Override
+    protected void send(Object client, List<Event> events, Object encodedEvents) throws DataEndpointException,
+            SessionTimeoutException, UndefinedEventTypeException {
+        SharedMemoryClient sharedMemoryClient = (SharedMemoryClient) client;
+        SharedMemoryRingBuffer ring = sharedMemoryClient.getRing();
+        try {
+            ByteBuffer encoded = encodedEvents != null ? (ByteBuffer) encodedEvents : encodeEvents(events);
+            ByteBuffer session = createSessionHeader(getDataEndpointConfiguration().getSessionId());
+            long stopTime = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sharedMemoryClient.getTimeoutMS());
+            while (!ring.offer(session, encoded)) {
+                if (ring.isClosed()) {
+                    throw new DataEndpointException("Shared memory ring " + ring.getFile() + " is closed");
+                }
+                if (System.nanoTime() - stopTime > 0) {
+                    throw new DataEndpointException("Shared memory ring " + ring.getFile() + " of data receiver :"
+                            + getDataEndpointConfiguration().getReceiverURL() + " is full");
+                }
+                LockSupport.parkNanos(RING_FULL_WAIT_NANOS);
+            }
+        } catch (IOException e) {
+            throw new DataEndpointException("Error while trying to publish events to data receiver :"
+                    + getDataEndpointConfiguration().getReceiverURL(), e);
+        }
+    }
+
+    /**
+     * Creates the session part of the publish message, which is followed by the encoded events.
+     */
+    private static ByteBuffer createSessionHeader(String sessionId) throws IOException {
+        byte[] sessionIdBytes = sessionId.getBytes(BinaryMessageConstants.DEFAULT_CHARSET);
+        ByteBuffer buf = ByteBuffer.allocate(4 + sessionIdBytes.length);
+        buf.putInt(sessionIdBytes.length);
+        buf.put(sessionIdBytes);
+        buf.flip();
+        return buf;
+    }
+
+    /**
+     * The receiver is reachable as long as the directory shared with it exists, as the receiver picks up the rings
+     * created in the directory.
+     */
+    @Override
+    protected boolean isReceiverReachable() throws DataEndpointConfigurationException {
+        String[] urlElements = DataPublisherUtil.getProtocolHostPort(getDataEndpointConfiguration().getReceiverURL());
+        return new File(urlElements[1]).isDirectory();
+    }
+
+    @Override
+    public String getClientPoolFactoryClass() {
+        return SharedMemoryClientPoolFactory.class.getCanonicalName();
+    }
+
+    @Override
+    public String getSecureClientPoolFactoryClass() {
+        return SharedMemorySecureClientPoolFactory.class.getCanonicalName();
+    }
+
+}
@@ -0,0 +1,94 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.endpoint.shm;
+
+import org.wso2.carbon.databridge.agent.exception.DataEndpointAuthenticationException;
+import org.wso2.carbon.databridge.commons.binary.SharedMemoryHandshake;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client of the file based handshake of the shared memory transport, which logs in and out of the receiver that
+ * owns the directory.
+ */
+public class SharedMemoryHandshakeClient {
+
+    private static final long RESPONSE_POLL_INTERVAL_MS = 10;
+
+    private final File directory;
+
+    private final int timeoutMS;
+
+    public SharedMemoryHandshakeClient(File directory, int timeoutMS) {
+        this.directory = directory;
+        this.timeoutMS = timeoutMS;
+    }
+
+    public String login(String userName, String password) throws DataEndpointAuthenticationException {
+        return request(SharedMemoryHandshake.LOGIN_REQUEST_FILE_SUFFIX, userName, password);
+    }
+
+    public void logout(String sessionId) throws DataEndpointAuthenticationException {
+        request(SharedMemoryHandshake.LOGOUT_REQUEST_FILE_SUFFIX, sessionId);
+    }
+
+    /**
+     * Writes the request file and waits for the response file of the receiver.
+     *
+     * @return The value of the response, which is the session id for a login.
+     */
+    private String request(String requestType, String... values) throws DataEndpointAuthenticationException {
+        String id = UUID.randomUUID().toString();
+        File requestFile = new File(directory, id + requestType);
+        File responseFile = new File(directory, id + SharedMemoryHandshake.RESPONSE_FILE_SUFFIX);
+        try {
+            SharedMemoryHandshake.writeFile(requestFile, values);
+            long stopTime = System.currentTimeMillis() + timeoutMS;
+            while (!responseFile.exists()) {
+                if (System.currentTimeMillis() > stopTime) {
+                    throw new DataEndpointAuthenticationException("Shared memory receiver of " + directory +
+                            " did not respond in " + timeoutMS + " ms");
+                }
+                TimeUnit.MILLISECONDS.sleep(RESPONSE_POLL_INTERVAL_MS);
+            }
+            String[] response = SharedMemoryHandshake.readFile(responseFile);
+            if (SharedMemoryHandshake.OK_RESPONSE.equals(response[0])) {
+                return response.length > 1 ? response[1] : null;
+            }
+            throw new DataEndpointAuthenticationException(response.length > 2 ? response[1] + ": " + response[2]
+                    : "Shared memory receiver of " + directory + " rejected the request");
+        } catch (IOException e) {
+            throw new DataEndpointAuthenticationException("Error while trying to send the handshake request to " +
+                    "shared memory receiver of " + directory, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataEndpointAuthenticationException("Interrupted while waiting for the shared memory " +
+                    "receiver of " + directory, e);
+        } finally {
+            requestFile.delete();
+            responseFile.delete();
+        }
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+}
@@ -0,0 +1,60 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.endpoint.shm;
+
+import org.wso2.carbon.databridge.agent.AgentHolder;
+import org.wso2.carbon.databridge.agent.client.AbstractSecureClientPoolFactory;
+import org.wso2.carbon.databridge.agent.conf.DataEndpointConfiguration;
+import org.wso2.carbon.databridge.agent.exception.DataEndpointAgentConfigurationException;
+import org.wso2.carbon.databridge.agent.exception.DataEndpointException;
+import org.wso2.carbon.databridge.agent.util.DataEndpointConstants;
+
+import java.io.File;
+
+/**
+ * Client pool factory of the handshake clients of the shared memory transport. The credentials are exchanged
+ * through files readable only by the owner and group, hence the trust store is not used.
+ */
+public class SharedMemorySecureClientPoolFactory extends AbstractSecureClientPoolFactory {
+
+    public SharedMemorySecureClientPoolFactory(String trustStore, String trustStorePassword) {
+        super(trustStore, trustStorePassword);
+    }
+
+    @Override
+    public Object createClient(String protocol, String hostName, int port) throws DataEndpointException,
+            DataEndpointAgentConfigurationException {
+        if (protocol.equalsIgnoreCase(DataEndpointConfiguration.Protocol.SHM.toString())) {
+            int timeout = AgentHolder.getInstance().getDataEndpointAgent(
+                    DataEndpointConstants.SHARED_MEMORY_DATA_AGENT_TYPE).getAgentConfiguration().getSocketTimeoutMS();
+            return new SharedMemoryHandshakeClient(new File(hostName), timeout);
+        } else {
+            throw new DataEndpointException("Unsupported protocol: " + protocol + ". Currently only " +
+                    DataEndpointConfiguration.Protocol.SHM.toString() + " supported.");
+        }
+    }
+
+    @Override
+    public boolean validateClient(Object client) {
+        return ((SharedMemoryHandshakeClient) client).getDirectory().isDirectory();
+    }
+
+    @Override
+    public void terminateClient(Object client) {
+    }
+}
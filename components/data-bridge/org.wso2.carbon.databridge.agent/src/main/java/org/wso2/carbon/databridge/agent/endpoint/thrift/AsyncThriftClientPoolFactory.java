@@ -0,0 +1,105 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.endpoint.thrift;
+
+import org.apache.log4j.Logger;
+import org.apache.thrift.async.TAsyncClientManager;
+import org.wso2.carbon.databridge.agent.AgentHolder;
+import org.wso2.carbon.databridge.agent.client.AbstractClientPoolFactory;
+import org.wso2.carbon.databridge.agent.conf.AgentConfiguration;
+import org.wso2.carbon.databridge.agent.conf.DataEndpointConfiguration;
+import org.wso2.carbon.databridge.agent.exception.DataEndpointAgentConfigurationException;
+import org.wso2.carbon.databridge.agent.exception.DataEndpointException;
+import org.wso2.carbon.databridge.agent.util.DataEndpointConstants;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class implements AbstractClientPoolFactory to handle the asynchronous Thrift transport related connections.
+ * The connections are assigned to the client managers of the factory in round robin manner, and each client
+ * manager serves the calls of its connections with a single selector thread.
+ */
+public class AsyncThriftClientPoolFactory extends AbstractClientPoolFactory {
+    private static final Logger log = Logger.getLogger(AsyncThriftClientPoolFactory.class);
+
+    private List<TAsyncClientManager> clientManagers;
+
+    private int nextClientManager = 0;
+
+    @Override
+    public Object createClient(String protocol, String hostName, int port) throws DataEndpointException,
+            DataEndpointAgentConfigurationException {
+        if (protocol.equalsIgnoreCase(DataEndpointConfiguration.Protocol.TCP.toString())) {
+            AgentConfiguration agentConfiguration = AgentHolder.getInstance().getDataEndpointAgent(
+                    DataEndpointConstants.ASYNC_THRIFT_DATA_AGENT_TYPE).getAgentConfiguration();
+            try {
+                return new AsyncThriftConnection(hostName, port, agentConfiguration.getMaxInFlightBatches(),
+                        agentConfiguration.getSocketTimeoutMS(), getClientManager(agentConfiguration));
+            } catch (IOException e) {
+                throw new DataEndpointException("Error while opening socket to " + hostName + ":" + port + ". " +
+                        e.getMessage(), e);
+            }
+        }
+        throw new DataEndpointException("Unsupported protocol :" + protocol
+                + " used to authenticate the client, only " + DataEndpointConfiguration.Protocol.TCP.toString()
+                + " is supported");
+    }
+
+    private synchronized TAsyncClientManager getClientManager(AgentConfiguration agentConfiguration)
+            throws IOException {
+        if (clientManagers == null) {
+            List<TAsyncClientManager> newClientManagers = new ArrayList<>();
+            try {
+                for (int i = 0; i < agentConfiguration.getSelectorThreads(); i++) {
+                    newClientManagers.add(new TAsyncClientManager());
+                }
+            } catch (IOException e) {
+                for (TAsyncClientManager clientManager : newClientManagers) {
+                    clientManager.stop();
+                }
+                throw e;
+            }
+            clientManagers = newClientManagers;
+        }
+        nextClientManager = (nextClientManager + 1) % clientManagers.size();
+        return clientManagers.get(nextClientManager);
+    }
+
+    @Override
+    public boolean validateClient(Object client) {
+        return ((AsyncThriftConnection) client).isValid();
+    }
+
+    @Override
+    public void terminateClient(Object client) {
+        ((AsyncThriftConnection) client).closeGracefully();
+    }
+
+    @Override
+    public synchronized void shutdown() {
+        if (clientManagers != null) {
+            log.info("Shutting down the client managers of the asynchronous Thrift transport.");
+            for (TAsyncClientManager clientManager : clientManagers) {
+                clientManager.stop();
+            }
+            clientManagers = null;
+        }
+    }
+}
@@ -0,0 +1,285 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.endpoint.thrift;
+
+import org.apache.thrift.TApplicationException;
+import org.apache.thrift.TException;
+import org.apache.thrift.async.AsyncMethodCallback;
+import org.apache.thrift.async.TAsyncClientManager;
+import org.apache.thrift.protocol.TBinaryProtocol;
+import org.apache.thrift.transport.TNonblockingSocket;
+import org.wso2.carbon.databridge.agent.exception.DataEndpointException;
+import org.wso2.carbon.databridge.commons.Event;
+import org.wso2.carbon.databridge.commons.ReceiverLoad;
+import org.wso2.carbon.databridge.commons.exception.SessionTimeoutException;
+import org.wso2.carbon.databridge.commons.exception.UndefinedEventTypeException;
+import org.wso2.carbon.databridge.commons.thrift.data.ThriftEventBundle;
+import org.wso2.carbon.databridge.commons.thrift.exception.ThriftSessionExpiredException;
+import org.wso2.carbon.databridge.commons.thrift.exception.ThriftUndefinedEventTypeException;
+import org.wso2.carbon.databridge.commons.thrift.service.general.ThriftEventTransmissionService;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Asynchronous Thrift connection to a receiver. A Thrift asynchronous client can have only one call in flight,
+ * hence the connection holds up to the maximum in flight batches of clients, each on its own non-blocking socket,
+ * and the calls of all of them are served by the selector thread of the client manager. The publisher is
+ * released as soon as a batch is written to a client, and the endpoint is notified when the batch is completed.
+ */
+public class AsyncThriftConnection {
+
+    private final String hostName;
+
+    private final int port;
+
+    private final int maxInFlightBatches;
+
+    private final int timeoutMS;
+
+    private final TAsyncClientManager clientManager;
+
+    private final Deque<PublishClient> idleClients = new ArrayDeque<>();
+
+    private final List<PublishClient> clients = new ArrayList<>();
+
+    private int inFlightBatches = 0;
+
+    private volatile boolean isClosed = false;
+
+    private volatile boolean isClosing = false;
+
+    AsyncThriftConnection(String hostName, int port, int maxInFlightBatches, int timeoutMS,
+                          TAsyncClientManager clientManager) throws IOException {
+        this.hostName = hostName;
+        this.port = port;
+        this.maxInFlightBatches = maxInFlightBatches;
+        this.timeoutMS = timeoutMS;
+        this.clientManager = clientManager;
+        //Connect the first client eagerly, so that an unavailable receiver is detected when the connection is made.
+        idleClients.add(createClient());
+    }
+
+    /**
+     * Publish the event bundle on an idle client. This waits only if the maximum number of batches are already
+     * in flight on the connection.
+     *
+     * @param eventBundle The event bundle.
+     * @param events      The events of the bundle.
+     * @param endpoint    The endpoint to be notified, when the batch is completed or failed.
+     * @throws DataEndpointException If the connection is closed, a client cannot be connected, or the in flight
+     *                               batches are not completed within the timeout.
+     */
+    void send(ThriftEventBundle eventBundle, List<Event> events, AsyncThriftDataEndpoint endpoint)
+            throws DataEndpointException {
+        PublishClient client;
+        synchronized (this) {
+            long stopTime = System.currentTimeMillis() + timeoutMS;
+            while (!isClosed && idleClients.isEmpty() && inFlightBatches >= maxInFlightBatches) {
+                long waitTime = stopTime - System.currentTimeMillis();
+                if (waitTime <= 0) {
+                    throw new DataEndpointException("No response received from " + this + " within " +
+                            timeoutMS + " ms, for " + inFlightBatches + " batches in flight.");
+                }
+                try {
+                    wait(waitTime);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new DataEndpointException("Interrupted while waiting to send events to " + this, e);
+                }
+            }
+            if (isClosed) {
+                throw new DataEndpointException("Connection to " + this + " is closed.");
+            }
+            client = idleClients.poll();
+            inFlightBatches++;
+        }
+        try {
+            if (client == null) {
+                client = createClient();
+            }
+            client.asyncClient.publish(eventBundle, new PublishCallback(client, events, endpoint));
+        } catch (IOException | TException | RuntimeException e) {
+            release(client, false);
+            throw new DataEndpointException("Error while trying to publish events to " + this + ". " +
+                    e.getMessage(), e);
+        }
+    }
+
+    private PublishClient createClient() throws IOException {
+        SocketChannel channel = SocketChannel.open();
+        try {
+            channel.socket().connect(new InetSocketAddress(hostName, port), timeoutMS);
+            channel.socket().setTcpNoDelay(true);
+            channel.configureBlocking(false);
+            TNonblockingSocket socket = new TNonblockingSocket(channel);
+            ThriftEventTransmissionService.AsyncClient asyncClient = new ThriftEventTransmissionService.AsyncClient(
+                    new TBinaryProtocol.Factory(), clientManager, socket);
+            asyncClient.setTimeout(timeoutMS);
+            PublishClient client = new PublishClient(asyncClient, socket);
+            synchronized (this) {
+                clients.add(client);
+            }
+            return client;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Return the client of a completed batch to the idle clients, or close it if the client is broken.
+     */
+    private void release(PublishClient client, boolean isReusable) {
+        boolean isDrained;
+        synchronized (this) {
+            inFlightBatches--;
+            if (client != null) {
+                if (isReusable && !isClosed && !client.asyncClient.hasError()) {
+                    idleClients.push(client);
+                } else {
+                    clients.remove(client);
+                    client.socket.close();
+                }
+            }
+            notifyAll();
+            isDrained = isClosing && inFlightBatches == 0;
+        }
+        if (isDrained) {
+            close();
+        }
+    }
+
+    /**
+     * Close the connection once the batches in flight are completed.
+     */
+    void closeGracefully() {
+        boolean isDrained;
+        synchronized (this) {
+            isClosing = true;
+            isDrained = inFlightBatches == 0;
+        }
+        if (isDrained) {
+            close();
+        }
+    }
+
+    private void close() {
+        List<PublishClient> openClients;
+        synchronized (this) {
+            if (isClosed) {
+                return;
+            }
+            isClosed = true;
+            openClients = new ArrayList<>(clients);
+            clients.clear();
+            idleClients.clear();
+            notifyAll();
+        }
+        for (PublishClient client : openClients) {
+            client.socket.close();
+        }
+    }
+
+    boolean isValid() {
+        return !isClosed && !isClosing;
+    }
+
+    long getTimeoutMS() {
+        return timeoutMS;
+    }
+
+    @Override
+    public String toString() {
+        return hostName + ":" + port;
+    }
+
+    /**
+     * Asynchronous client and its socket.
+     */
+    private static class PublishClient {
+
+        private final ThriftEventTransmissionService.AsyncClient asyncClient;
+
+        private final TNonblockingSocket socket;
+
+        PublishClient(ThriftEventTransmissionService.AsyncClient asyncClient, TNonblockingSocket socket) {
+            this.asyncClient = asyncClient;
+            this.socket = socket;
+        }
+    }
+
+    /**
+     * Completes a published batch, when the receiver responded or the call is failed.
+     */
+    private class PublishCallback
+            implements AsyncMethodCallback<ThriftEventTransmissionService.AsyncClient.publish_call> {
+
+        private final PublishClient client;
+
+        private final List<Event> events;
+
+        private final AsyncThriftDataEndpoint endpoint;
+
+        private final long startTime = System.nanoTime();
+
+        PublishCallback(PublishClient client, List<Event> events,
+                        AsyncThriftDataEndpoint endpoint) {
+            this.client = client;
+            this.events = events;
+            this.endpoint = endpoint;
+        }
+
+        @Override
+        public void onComplete(ThriftEventTransmissionService.AsyncClient.publish_call response) {
+            ReceiverLoad receiverLoad = null;
+            Exception error = null;
+            boolean isReusable = true;
+            try {
+                receiverLoad = ThriftEventConverter.toReceiverLoad(response.getResult());
+            } catch (TApplicationException e) {
+                // Receivers prior to the load feedback acknowledge the publish calls without a result.
+                if (e.getType() != TApplicationException.MISSING_RESULT) {
+                    error = new DataEndpointException("Cannot send Events", e);
+                    isReusable = false;
+                }
+            } catch (ThriftUndefinedEventTypeException e) {
+                error = new UndefinedEventTypeException("Thrift Undefined Event Type Exception ", e);
+            } catch (ThriftSessionExpiredException e) {
+                error = new SessionTimeoutException("Thrift Session Expired Exception ", e);
+            } catch (TException e) {
+                error = new DataEndpointException("Cannot send Events", e);
+                isReusable = false;
+            }
+            release(client, isReusable);
+            endpoint.onBatchCompleted(events, System.nanoTime() - startTime, receiverLoad, error);
+        }
+
+        @Override
+        public void onError(Exception e) {
+            release(client, false);
+            endpoint.onBatchCompleted(events, System.nanoTime() - startTime, null, new DataEndpointException(
+                    "Error while publishing events to " + AsyncThriftConnection.this + ". " + e.getMessage(), e));
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.endpoint.thrift;
+
+import org.apache.log4j.Logger;
+import org.wso2.carbon.databridge.agent.exception.DataEndpointException;
+import org.wso2.carbon.databridge.commons.Event;
+import org.wso2.carbon.databridge.commons.ReceiverLoad;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class is the asynchronous Thrift transport implementation for the Data Endpoint. The batches are published
+ * with the Thrift asynchronous clients on non-blocking sockets, and the publisher thread is released as soon as
+ * the batch is written, hence multiple batches are in flight on a connection without a thread for each.
+ * <p>
+ * Login and logout are done over the blocking SSL connections same as the Thrift transport.
+ */
+public class AsyncThriftDataEndpoint extends ThriftDataEndpoint {
+    private static final Logger log = Logger.getLogger(AsyncThriftDataEndpoint.class);
+
+    private final AtomicInteger inFlightBatches = new AtomicInteger();
+
+    private volatile long responseTimeoutMS;
+
+    @Override
+    protected void send(Object client, List<Event> events) throws DataEndpointException {
+        send(client, events, null);
+    }
+
+    @Override
+    protected void send(Object client, List<Event> events, Object encodedEvents) throws DataEndpointException {
+        AsyncThriftConnection connection = (AsyncThriftConnection) client;
+        responseTimeoutMS = connection.getTimeoutMS();
+        inFlightBatches.incrementAndGet();
+        try {
+            connection.send(getEventBundle(events, encodedEvents), events, this);
+        } catch (DataEndpointException e) {
+            inFlightBatches.decrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Invoked by the selector thread of the client manager when the receiver responded to the batch, or the
+     * batch is failed.
+     *
+     * @param events       The events of the batch.
+     * @param latencyNanos Time from publishing the batch until it is completed.
+     * @param receiverLoad The load reported by the receiver with the response, or null if not reported.
+     * @param e            The cause of the failure, or null if the batch is published successfully.
+     */
+    void onBatchCompleted(List<Event> events, long latencyNanos, ReceiverLoad receiverLoad, Exception e) {
+        updateReceiverLoad(receiverLoad);
+        synchronized (inFlightBatches) {
+            inFlightBatches.decrementAndGet();
+            inFlightBatches.notifyAll();
+        }
+        onAsyncBatchCompleted(events, latencyNanos, e);
+    }
+
+    @Override
+    protected boolean isAcknowledgedAsynchronously() {
+        return true;
+    }
+
+    /**
+     * Waits until the batches in flight are completed, before shutting down the endpoint.
+     */
+    @Override
+    public void shutdown() {
+        super.shutdown();
+        long stopTime = System.currentTimeMillis() + responseTimeoutMS;
+        synchronized (inFlightBatches) {
+            while (inFlightBatches.get() > 0) {
+                long waitTime = stopTime - System.currentTimeMillis();
+                if (waitTime <= 0) {
+                    log.warn(inFlightBatches.get() + " batches are not completed by " +
+                            getDataEndpointConfiguration().getReceiverURL() + " before the shutdown.");
+                    break;
+                }
+                try {
+                    inFlightBatches.wait(waitTime);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+    }
+
+    @Override
+    public String getClientPoolFactoryClass() {
+        return AsyncThriftClientPoolFactory.class.getCanonicalName();
+    }
+
+    @Override
+    public String getSecureClientPoolFactoryClass() {
+        return AsyncThriftSecureClientPoolFactory.class.getCanonicalName();
+    }
+}
@@ -0,0 +1,36 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.endpoint.thrift;
+
+import org.wso2.carbon.databridge.agent.util.DataEndpointConstants;
+
+/**
+ * Secure client pool factory of the asynchronous Thrift transport. The secure connections are used only to login
+ * and logout, hence they are blocking SSL sockets same as the Thrift transport.
+ */
+public class AsyncThriftSecureClientPoolFactory extends ThriftSecureClientPoolFactory {
+
+    public AsyncThriftSecureClientPoolFactory(String trustStore, String trustStorePassword) {
+        super(trustStore, trustStorePassword);
+    }
+
+    @Override
+    protected String getAgentType() {
+        return DataEndpointConstants.ASYNC_THRIFT_DATA_AGENT_TYPE;
+    }
+}
@@ -17,6 +17,7 @@
 */
 package org.wso2.carbon.databridge.agent.endpoint.thrift;
 
+import org.apache.thrift.TApplicationException;
 import org.apache.thrift.TException;
 import org.wso2.carbon.databridge.agent.endpoint.DataEndpoint;
 import org.wso2.carbon.databridge.agent.exception.DataEndpointAuthenticationException;
@@ -25,6 +26,7 @@ import org.wso2.carbon.databridge.commons.Event;
 import org.wso2.carbon.databridge.commons.exception.SessionTimeoutException;
 import org.wso2.carbon.databridge.commons.exception.UndefinedEventTypeException;
 import org.wso2.carbon.databridge.commons.thrift.data.ThriftEventBundle;
+import org.wso2.carbon.databridge.commons.thrift.data.ThriftReceiverLoad;
 import org.wso2.carbon.databridge.commons.thrift.exception.ThriftAuthenticationException;
 import org.wso2.carbon.databridge.commons.thrift.exception.ThriftSessionExpiredException;
 import org.wso2.carbon.databridge.commons.thrift.exception.ThriftUndefinedEventTypeException;
@@ -63,16 +65,34 @@ public class ThriftDataEndpoint extends DataEndpoint {
     @Override
     protected synchronized void send(Object client, List<Event> events) throws DataEndpointException,
             SessionTimeoutException, UndefinedEventTypeException {
+        send(client, events, null);
+    }
+
+    @Override
+    protected Object encode(List<Event> events) {
         ThriftEventBundle thriftEventBundle = null;
         for (Event event : events) {
-            thriftEventBundle = ThriftEventConverter.toThriftEventBundle(event, thriftEventBundle,
-                    getDataEndpointConfiguration().getSessionId());
+            thriftEventBundle = ThriftEventConverter.toThriftEventBundle(event, thriftEventBundle, null);
         }
+        return thriftEventBundle;
+    }
+
+    @Override
+    protected synchronized void send(Object client, List<Event> events, Object encodedEvents)
+            throws DataEndpointException, SessionTimeoutException, UndefinedEventTypeException {
+        ThriftEventBundle thriftEventBundle = getEventBundle(events, encodedEvents);
         try {
+            ThriftReceiverLoad receiverLoad;
             if (client instanceof ThriftSecureEventTransmissionService.Client) {
-                ((ThriftSecureEventTransmissionService.Client) client).publish(thriftEventBundle);
+                receiverLoad = ((ThriftSecureEventTransmissionService.Client) client).publish(thriftEventBundle);
             } else {
-                ((ThriftEventTransmissionService.Client) client).publish(thriftEventBundle);
+                receiverLoad = ((ThriftEventTransmissionService.Client) client).publish(thriftEventBundle);
+            }
+            updateReceiverLoad(ThriftEventConverter.toReceiverLoad(receiverLoad));
+        } catch (TApplicationException e) {
+            // Receivers prior to the load feedback acknowledge the publish calls without a result.
+            if (e.getType() != TApplicationException.MISSING_RESULT) {
+                throw new DataEndpointException("Cannot send Events", e);
             }
         } catch (ThriftUndefinedEventTypeException e) {
             throw new UndefinedEventTypeException("Thrift Undefined Event Type Exception ", e);
@@ -83,6 +103,24 @@ public class ThriftDataEndpoint extends DataEndpoint {
         }
     }
 
+    /**
+     * Returns the event bundle of the events with the current session, reusing the encoded bundle if available.
+     */
+    protected ThriftEventBundle getEventBundle(List<Event> events, Object encodedEvents) {
+        ThriftEventBundle thriftEventBundle;
+        if (encodedEvents != null) {
+            thriftEventBundle = (ThriftEventBundle) encodedEvents;
+            thriftEventBundle.setSessionId(getDataEndpointConfiguration().getSessionId());
+        } else {
+            thriftEventBundle = null;
+            for (Event event : events) {
+                thriftEventBundle = ThriftEventConverter.toThriftEventBundle(event, thriftEventBundle,
+                        getDataEndpointConfiguration().getSessionId());
+            }
+        }
+        return thriftEventBundle;
+    }
+
     @Override
     public String getClientPoolFactoryClass() {
         return ThriftClientPoolFactory.class.getCanonicalName();
@@ -20,7 +20,9 @@ package org.wso2.carbon.databridge.agent.endpoint.thrift;
 
 import org.apache.log4j.Logger;
 import org.wso2.carbon.databridge.commons.Event;
+import org.wso2.carbon.databridge.commons.ReceiverLoad;
 import org.wso2.carbon.databridge.commons.thrift.data.ThriftEventBundle;
+import org.wso2.carbon.databridge.commons.thrift.data.ThriftReceiverLoad;
 import org.wso2.carbon.databridge.commons.utils.EventDefinitionConverterUtils;
 
 import java.util.ArrayList;
@@ -109,6 +111,17 @@ public final class ThriftEventConverter {
         return thriftEventBundle;
     }
 
+    /**
+     * Returns the receiver load of the publish result, or null if the receiver did not report its load.
+     */
+    public static ReceiverLoad toReceiverLoad(ThriftReceiverLoad thriftReceiverLoad) {
+        if (thriftReceiverLoad == null) {
+            return null;
+        }
+        return new ReceiverLoad(thriftReceiverLoad.getQueueFillPercentage(),
+                thriftReceiverLoad.getDispatchLatencyMS());
+    }
+
     private static ThriftEventBundle assignMap(ThriftEventBundle thriftEventBundle,
                                                Map<String, String> arbitraryDataMap) {
         if (null != arbitraryDataMap) {
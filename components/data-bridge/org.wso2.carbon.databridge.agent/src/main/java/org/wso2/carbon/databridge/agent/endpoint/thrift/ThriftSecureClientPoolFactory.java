@@ -19,18 +19,19 @@ package org.wso2.carbon.databridge.agent.endpoint.thrift;
 
 import org.apache.thrift.protocol.TBinaryProtocol;
 import org.apache.thrift.protocol.TProtocol;
-import org.apache.thrift.transport.TSSLTransportFactory;
 import org.apache.thrift.transport.TSocket;
 import org.apache.thrift.transport.TTransport;
 import org.apache.thrift.transport.TTransportException;
 import org.wso2.carbon.databridge.agent.AgentHolder;
 import org.wso2.carbon.databridge.agent.client.AbstractSecureClientPoolFactory;
+import org.wso2.carbon.databridge.agent.conf.AgentConfiguration;
 import org.wso2.carbon.databridge.agent.conf.DataEndpointConfiguration;
 import org.wso2.carbon.databridge.agent.exception.DataEndpointAgentConfigurationException;
 import org.wso2.carbon.databridge.agent.exception.DataEndpointSecurityException;
 import org.wso2.carbon.databridge.agent.util.DataEndpointConstants;
 import org.wso2.carbon.databridge.commons.thrift.service.secure.ThriftSecureEventTransmissionService;
 
+import java.io.IOException;
 import javax.net.ssl.SSLSocket;
 
 
@@ -40,33 +41,23 @@ import javax.net.ssl.SSLSocket;
  */
 public class ThriftSecureClientPoolFactory extends AbstractSecureClientPoolFactory {
 
-    private TSSLTransportFactory.TSSLTransportParameters params;
-
     public ThriftSecureClientPoolFactory(String trustStore, String trustStorePassword) {
         super(trustStore, trustStorePassword);
-        params = new TSSLTransportFactory.TSSLTransportParameters();
-        params.setTrustStore(getTrustStore(), getTrustStorePassword());
     }
 
     @Override
     public Object createClient(String protocol, String hostName, int port) throws
             DataEndpointSecurityException, DataEndpointAgentConfigurationException {
         if (protocol.equalsIgnoreCase(DataEndpointConfiguration.Protocol.SSL.toString())) {
-            int timeout = AgentHolder.getInstance().
-                    getDataEndpointAgent(DataEndpointConstants.THRIFT_DATA_AGENT_TYPE).
-                    getAgentConfiguration().getSocketTimeoutMS();
-            String sslProtocols = AgentHolder.getInstance().
-                    getDataEndpointAgent(DataEndpointConstants.THRIFT_DATA_AGENT_TYPE).
-                    getAgentConfiguration().getSslEnabledProtocols();
-            String ciphers = AgentHolder.getInstance().
-                    getDataEndpointAgent(DataEndpointConstants.THRIFT_DATA_AGENT_TYPE).
-                    getAgentConfiguration().getCiphers();
+            AgentConfiguration agentConfiguration = AgentHolder.getInstance().
+                    getDataEndpointAgent(getAgentType()).getAgentConfiguration();
+            int timeout = agentConfiguration.getSocketTimeoutMS();
+            String sslProtocols = agentConfiguration.getSslEnabledProtocols();
+            String ciphers = agentConfiguration.getCiphers();
             try {
-                TTransport receiverTransport = TSSLTransportFactory.
-                        getClientSocket(hostName, port, timeout, params);
-
-                TSocket tSocket = (TSocket) receiverTransport;
-                SSLSocket sslSocket = (SSLSocket) tSocket.getSocket();
+                SSLSocket sslSocket = (SSLSocket) getSSLContext(agentConfiguration).getSocketFactory().
+                        createSocket(hostName, port);
+                sslSocket.setSoTimeout(timeout);
                 if (sslProtocols != null && sslProtocols.length() != 0) {
                     String [] sslProtocolsArray = sslProtocols.split(",");
                     sslSocket.setEnabledProtocols(sslProtocolsArray);
@@ -77,9 +68,10 @@ public class ThriftSecureClientPoolFactory extends AbstractSecureClientPoolFacto
                     sslSocket.setEnabledCipherSuites(ciphersArray);
                 }
 
+                TTransport receiverTransport = new TSocket(sslSocket);
                 TProtocol tProtocol = new TBinaryProtocol(receiverTransport);
                 return new ThriftSecureEventTransmissionService.Client(tProtocol);
-            } catch (TTransportException e) {
+            } catch (IOException | TTransportException e) {
                 throw new DataEndpointSecurityException("Error while trying to connect to " +
                         protocol + "://" + hostName + ":" + port, e);
             }
@@ -89,6 +81,13 @@ public class ThriftSecureClientPoolFactory extends AbstractSecureClientPoolFacto
                 + " is supported");
     }
 
+    /**
+     * Returns the type of the agent, which provides the configuration of the secure connections.
+     */
+    protected String getAgentType() {
+        return DataEndpointConstants.THRIFT_DATA_AGENT_TYPE;
+    }
+
     @Override
     public boolean validateClient(Object client) {
         ThriftSecureEventTransmissionService.Client thriftClient = (ThriftSecureEventTransmissionService.Client) client;
@@ -0,0 +1,185 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.ratelimit;
+
+import org.apache.log4j.Logger;
+import org.wso2.carbon.databridge.agent.conf.AgentConfiguration;
+import org.wso2.carbon.databridge.agent.exception.DataEndpointConfigurationException;
+import org.wso2.carbon.databridge.agent.util.DataEndpointConstants;
+import org.wso2.carbon.databridge.agent.util.DataPublisherUtil;
+import org.wso2.carbon.databridge.commons.Event;
+import org.wso2.carbon.databridge.commons.utils.DataBridgeCommonsUtils;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits the rate of the events published through a data publisher, before the events are inserted to the
+ * queues of the endpoint groups. An event should be within the rate limit of its stream, if there is one, and
+ * the rate limit of the data publisher. The events exceeding the limits are either blocked until the tokens
+ * are available or dropped, based on the configured rate limit policy.
+ */
+public class EventRateLimiter {
+
+    private static final Logger log = Logger.getLogger(EventRateLimiter.class);
+
+    private static final int DROPPED_EVENT_LOG_INTERVAL = 10000;
+
+    private final RateLimit publisherRateLimit;
+
+    private final Map<String, RateLimit> streamRateLimits;
+
+    private final boolean isBlocking;
+
+    private final boolean isByteLimited;
+
+    private final AtomicLong rateLimitedEventCount = new AtomicLong();
+
+    private final AtomicLong droppedEventCount = new AtomicLong();
+
+    private volatile long lastDroppedEventLogTime;
+
+    public EventRateLimiter(RateLimit publisherRateLimit, Map<String, RateLimit> streamRateLimits,
+                            boolean isBlocking) {
+        this.publisherRateLimit = publisherRateLimit != null && publisherRateLimit.isLimited() ?
+                publisherRateLimit : null;
+        this.streamRateLimits = streamRateLimits;
+        this.isBlocking = isBlocking;
+        boolean isByteLimited = this.publisherRateLimit != null && this.publisherRateLimit.isByteLimited();
+        for (RateLimit streamRateLimit : streamRateLimits.values()) {
+            isByteLimited |= streamRateLimit.isByteLimited();
+        }
+        this.isByteLimited = isByteLimited;
+    }
+
+    /**
+     * Creates the rate limiter for a data publisher of the agent.
+     *
+     * @param agentConfiguration Configuration of the agent.
+     * @return EventRateLimiter, or null if there are no rate limits configured.
+     * @throws DataEndpointConfigurationException If the rate limits are invalid.
+     */
+    public static EventRateLimiter create(AgentConfiguration agentConfiguration)
+            throws DataEndpointConfigurationException {
+        String policy = agentConfiguration.getRateLimitPolicy();
+        boolean isBlocking;
+        if (policy == null || DataEndpointConstants.BLOCK_RATE_LIMIT_POLICY.equalsIgnoreCase(policy.trim())) {
+            isBlocking = true;
+        } else if (DataEndpointConstants.DROP_RATE_LIMIT_POLICY.equalsIgnoreCase(policy.trim())) {
+            isBlocking = false;
+        } else {
+            throw new DataEndpointConfigurationException("Invalid rate limit policy : " + policy +
+                    ", supported policies are " + DataEndpointConstants.BLOCK_RATE_LIMIT_POLICY + " and " +
+                    DataEndpointConstants.DROP_RATE_LIMIT_POLICY);
+        }
+        RateLimit publisherRateLimit = new RateLimit(agentConfiguration.getMaxEventsPerSecond(),
+                agentConfiguration.getMaxBytesPerSecond());
+        Map<String, RateLimit> streamRateLimits = DataPublisherUtil.getStreamRateLimits(
+                agentConfiguration.getStreamRateLimits());
+        if (!publisherRateLimit.isLimited() && streamRateLimits.isEmpty()) {
+            return null;
+        }
+        return new EventRateLimiter(publisherRateLimit, streamRateLimits, isBlocking);
+    }
+
+    /**
+     * Take the tokens for the event from the rate limit of the stream and the data publisher.
+     *
+     * @param event     The event to be published.
+     * @param timeoutMS Maximum time to wait for the tokens if the policy is to block, where 0 means the event
+     *                  is not waited for, and a negative value means waiting until the tokens are available.
+     * @return true if the event can be published, false if the event is dropped.
+     */
+    public boolean acquire(Event event, long timeoutMS) {
+        RateLimit streamRateLimit = streamRateLimits.get(event.getStreamId());
+        if (streamRateLimit == null && publisherRateLimit == null) {
+            return true;
+        }
+        int eventSize = isByteLimited ? DataBridgeCommonsUtils.getSize(event) : 0;
+        long waitTime = tryAcquire(streamRateLimit, eventSize);
+        if (waitTime == 0) {
+            return true;
+        }
+        rateLimitedEventCount.incrementAndGet();
+        if (isBlocking && timeoutMS != 0) {
+            long stopTime = timeoutMS > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMS) : 0;
+            while (waitTime > 0) {
+                if (timeoutMS > 0 && System.nanoTime() + waitTime > stopTime) {
+                    break;
+                }
+                try {
+                    TimeUnit.NANOSECONDS.sleep(waitTime);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                waitTime = tryAcquire(streamRateLimit, eventSize);
+            }
+            if (waitTime == 0) {
+                return true;
+            }
+        }
+        onEventDropped(event);
+        return false;
+    }
+
+    private long tryAcquire(RateLimit streamRateLimit, int eventSize) {
+        long waitTime = 0;
+        if (streamRateLimit != null) {
+            waitTime = streamRateLimit.tryAcquire(eventSize);
+            if (waitTime > 0) {
+                return waitTime;
+            }
+        }
+        if (publisherRateLimit != null) {
+            waitTime = publisherRateLimit.tryAcquire(eventSize);
+            if (waitTime > 0 && streamRateLimit != null) {
+                streamRateLimit.release(eventSize);
+            }
+        }
+        return waitTime;
+    }
+
+    private void onEventDropped(Event event) {
+        long droppedEvents = droppedEventCount.incrementAndGet();
+        long currentTime = System.currentTimeMillis();
+        if (currentTime - lastDroppedEventLogTime > DROPPED_EVENT_LOG_INTERVAL) {
+            log.warn("Rate limit exceeded for the stream " + event.getStreamId() + ", " + droppedEvents +
+                    " events dropped so far.");
+            lastDroppedEventLogTime = currentTime;
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Dropped Event: " + event.toString() + " as the rate limit is exceeded.");
+        }
+    }
+
+    /**
+     * Returns the number of events which exceeded a rate limit at the first attempt.
+     */
+    public long getRateLimitedEventCount() {
+        return rateLimitedEventCount.get();
+    }
+
+    /**
+     * Returns the number of events dropped as they exceeded a rate limit.
+     */
+    public long getDroppedEventCount() {
+        return droppedEventCount.get();
+    }
+}
@@ -0,0 +1,106 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.ratelimit;
+
+/**
+ * Rate limit in events per second and bytes per second, which is enforced with a token bucket for each
+ * dimension. A limit of zero or less means the dimension is not limited.
+ */
+public class RateLimit {
+
+    private final long eventsPerSecond;
+
+    private final long bytesPerSecond;
+
+    private final TokenBucket eventBucket;
+
+    private final TokenBucket byteBucket;
+
+    public RateLimit(long eventsPerSecond, long bytesPerSecond) {
+        this.eventsPerSecond = eventsPerSecond;
+        this.bytesPerSecond = bytesPerSecond;
+        this.eventBucket = eventsPerSecond > 0 ? new TokenBucket(eventsPerSecond) : null;
+        this.byteBucket = bytesPerSecond > 0 ? new TokenBucket(bytesPerSecond) : null;
+    }
+
+    /**
+     * Take the tokens for an event if both the event and byte tokens are available.
+     *
+     * @param eventSize Size of the event in bytes.
+     * @return 0 if the tokens are taken, otherwise the nanoseconds to wait until the tokens become available.
+     */
+    public synchronized long tryAcquire(int eventSize) {
+        long currentTime = System.nanoTime();
+        long waitTime = 0;
+        if (eventBucket != null) {
+            eventBucket.refill(currentTime);
+            waitTime = eventBucket.getWaitTimeNanos(1);
+        }
+        if (byteBucket != null) {
+            byteBucket.refill(currentTime);
+            waitTime = Math.max(waitTime, byteBucket.getWaitTimeNanos(eventSize));
+        }
+        if (waitTime == 0) {
+            if (eventBucket != null) {
+                eventBucket.take(1);
+            }
+            if (byteBucket != null) {
+                byteBucket.take(eventSize);
+            }
+        }
+        return waitTime;
+    }
+
+    /**
+     * Return the tokens taken for an event which is not published at the end.
+     *
+     * @param eventSize Size of the event in bytes.
+     */
+    public synchronized void release(int eventSize) {
+        if (eventBucket != null) {
+            eventBucket.give(1);
+        }
+        if (byteBucket != null) {
+            byteBucket.give(eventSize);
+        }
+    }
+
+    public boolean isByteLimited() {
+        return byteBucket != null;
+    }
+
+    public boolean isLimited() {
+        return eventBucket != null || byteBucket != null;
+    }
+
+    public long getEventsPerSecond() {
+        return eventsPerSecond;
+    }
+
+    public long getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+    @Override
+    public String toString() {
+        return "RateLimit{" +
+                "eventsPerSecond=" + eventsPerSecond +
+                ", bytesPerSecond=" + bytesPerSecond +
+                "}";
+    }
+}
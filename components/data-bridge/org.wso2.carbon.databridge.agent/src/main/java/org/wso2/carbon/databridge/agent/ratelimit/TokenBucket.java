@@ -0,0 +1,67 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.ratelimit;
+
+/**
+ * Token bucket which is refilled at a constant rate, and can hold the tokens of one second at most.
+ * This is not thread safe, and the access should be guarded by the owner.
+ */
+class TokenBucket {
+
+    private static final double NANOS_PER_SECOND = 1000000000d;
+
+    private final double capacity;
+
+    private final double tokensPerNano;
+
+    private double tokens;
+
+    private long lastRefillTime;
+
+    TokenBucket(long tokensPerSecond) {
+        this.capacity = tokensPerSecond;
+        this.tokensPerNano = tokensPerSecond / NANOS_PER_SECOND;
+        this.tokens = capacity;
+        this.lastRefillTime = System.nanoTime();
+    }
+
+    void refill(long currentTime) {
+        tokens = Math.min(capacity, tokens + (currentTime - lastRefillTime) * tokensPerNano);
+        lastRefillTime = currentTime;
+    }
+
+    /**
+     * Returns the time to wait until the given tokens are available. A request larger than the capacity
+     * is allowed once the bucket is full, and the bucket goes in to debt, so that it is not blocked forever.
+     */
+    long getWaitTimeNanos(long requiredTokens) {
+        double missingTokens = Math.min(requiredTokens, capacity) - tokens;
+        if (missingTokens <= 0) {
+            return 0;
+        }
+        return Math.max(1, (long) Math.ceil(missingTokens / tokensPerNano));
+    }
+
+    void take(long requiredTokens) {
+        tokens -= requiredTokens;
+    }
+
+    void give(long returnedTokens) {
+        tokens = Math.min(capacity, tokens + returnedTokens);
+    }
+}
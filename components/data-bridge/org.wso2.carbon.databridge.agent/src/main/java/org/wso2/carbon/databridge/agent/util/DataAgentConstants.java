@@ -50,6 +50,45 @@ public class DataAgentConstants {
     public static final String SECURE_MIN_IDLE_TIME_IN_POOL = "secureMinIdleTimeInPool";
     public static final String SSL_ENABLED_PROTOCOLS = "sslEnabledProtocols";
     public static final String CIPHERS = "ciphers";
+    public static final String LOAD_BALANCING_STRATEGY = "loadBalancingStrategy";
+    public static final String PARTITION_KEY_ATTRIBUTE = "partitionKeyAttribute";
+    public static final String PRIORITY_LANES = "priorityLanes";
+    public static final String STREAM_PRIORITIES = "streamPriorities";
+    public static final String MAX_EVENTS_PER_SECOND = "maxEventsPerSecond";
+    public static final String MAX_BYTES_PER_SECOND = "maxBytesPerSecond";
+    public static final String STREAM_RATE_LIMITS = "streamRateLimits";
+    public static final String RATE_LIMIT_POLICY = "rateLimitPolicy";
+    public static final String STREAM_AGGREGATIONS = "streamAggregations";
+    public static final String SELECTOR_THREADS = "selectorThreads";
+    public static final String MAX_IN_FLIGHT_BATCHES = "maxInFlightBatches";
+    public static final String SSL_SESSION_CACHE_SIZE = "sslSessionCacheSize";
+    public static final String SSL_SESSION_TIMEOUT_SECONDS = "sslSessionTimeoutSeconds";
+    public static final String CIRCUIT_BREAKER_FAILURE_RATE_THRESHOLD = "circuitBreakerFailureRateThreshold";
+    public static final String CIRCUIT_BREAKER_SLOW_CALL_THRESHOLD_MS = "circuitBreakerSlowCallThresholdMS";
+    public static final String CIRCUIT_BREAKER_SLIDING_WINDOW_SIZE = "circuitBreakerSlidingWindowSize";
+    public static final String CIRCUIT_BREAKER_MINIMUM_CALLS = "circuitBreakerMinimumCalls";
+    public static final String CIRCUIT_BREAKER_OPEN_DURATION_MS = "circuitBreakerOpenDurationMS";
+    public static final String CIRCUIT_BREAKER_HALF_OPEN_PROBES = "circuitBreakerHalfOpenProbes";
+    public static final String SESSION_RENEWAL_INTERVAL_SECONDS = "sessionRenewalIntervalSeconds";
+    public static final String FAIR_QUEUE_QUANTUM = "fairQueueQuantum";
+    public static final String STREAM_SHARES = "streamShares";
+    public static final String OVERFLOW_POLICY = "overflowPolicy";
+    public static final String OVERFLOW_BLOCK_TIMEOUT_MS = "overflowBlockTimeoutMS";
+    public static final String EVENT_TTL_MS = "eventTTLMS";
+    public static final String SHARE_ENDPOINT_GROUPS = "shareEndpointGroups";
+    public static final String SYNC_GROUP_COMMIT_CONCURRENCY = "syncGroupCommitConcurrency";
+    public static final String SERIALIZATION_THREADS = "serializationThreads";
+    public static final String SHARED_MEMORY_RING_SIZE = "sharedMemoryRingSize";
+    public static final String QUEUE_BYTE_BUDGET = "queueByteBudget";
+    public static final String OFF_HEAP_QUEUE_SIZE = "offHeapQueueSize";
+    public static final String RECEIVER_LOAD_THRESHOLD = "receiverLoadThreshold";
+    public static final String RECEIVER_LOAD_MAX_BACKOFF_MS = "receiverLoadMaxBackoffMS";
+    public static final String ADAPTIVE_BATCH_MAX_SIZE = "adaptiveBatchMaxSize";
+    public static final String ADAPTIVE_BATCH_MIN_SIZE = "adaptiveBatchMinSize";
+    public static final String ADAPTIVE_BATCH_LATENCY_TARGET_MS = "adaptiveBatchLatencyTargetMS";
+    public static final String LAZY_CONNECT = "lazyConnect";
+    public static final String COMPACT_BINARY_ENCODING = "compactBinaryEncoding";
+    public static final String COLUMNAR_BINARY_ENCODING = "columnarBinaryEncoding";
 
 
 
@@ -39,10 +39,39 @@ public class DataEndpointConstants {
 
     public static final String THRIFT_DATA_AGENT_TYPE = "THRIFT";
     public static final String BINARY_DATA_AGENT_TYPE = "BINARY";
+    public static final String NIO_BINARY_DATA_AGENT_TYPE = "NIOBINARY";
+    public static final String LOCAL_DATA_AGENT_TYPE = "LOCAL";
+    public static final String SHARED_MEMORY_DATA_AGENT_TYPE = "SHAREDMEMORY";
+    public static final String ASYNC_THRIFT_DATA_AGENT_TYPE = "ASYNCTHRIFT";
 
     public static final String SYNC_STRATEGY = "sync";
     public static final String ASYNC_STRATEGY = "async";
 
+    public static final String ROUND_ROBIN_LB_STRATEGY = "roundRobin";
+    public static final String KEY_AFFINITY_LB_STRATEGY = "keyAffinity";
+    public static final int VIRTUAL_NODES_PER_ENDPOINT = 160;
+    public static final int MAX_DATA_ENDPOINT_WEIGHT = 100;
+    /**
+     * Interval to check whether a removed endpoint has submitted its buffered events. The first check is done
+     * after this interval, hence an event being dispatched when the endpoint is drained reaches the endpoint
+     * before the endpoint is checked.
+     */
+    public static final long DATA_ENDPOINT_DRAIN_CHECK_INTERVAL_MS = 100;
+    public static final long DATA_ENDPOINT_DRAIN_TIMEOUT_MS = 30000;
+    public static final long EVENT_QUEUE_IDLE_WAIT_MS = 10;
+    public static final String DEFAULT_PRIORITY_LANE = "default";
+    /**
+     * Time after which the load reported by a receiver is no longer used, so that a receiver which was loaded
+     * gets the load balanced events again even if it has not acknowledged a batch since then.
+     */
+    public static final long RECEIVER_LOAD_EXPIRY_MS = 1000;
+    public static final String BLOCK_RATE_LIMIT_POLICY = "block";
+    public static final String DROP_RATE_LIMIT_POLICY = "drop";
+    public static final String STREAM_AGGREGATION_SEPARATOR = ";";
+    public static final String STREAM_AGGREGATION_ELEMENT_SEPARATOR = "\\|";
+    public static final long SELECTOR_TIMEOUT_MS = 100;
+    public static final long SESSION_RENEWAL_RETRY_INTERVAL_MS = 30000;
+
     public static final String DATA_AGENT_CONFIG_NAMESPACE = "data.agent.config";
     public static final String TRANSPORTS_NAMESPACE = "transports";
     public static final String DATABRIDGE_CONFIG_NAMESPACE = "databridge";
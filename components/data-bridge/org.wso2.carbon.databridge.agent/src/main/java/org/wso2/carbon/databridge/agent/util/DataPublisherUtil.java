@@ -17,10 +17,19 @@
 */
 package org.wso2.carbon.databridge.agent.util;
 
+import org.wso2.carbon.databridge.agent.aggregation.AttributeAggregation;
+import org.wso2.carbon.databridge.agent.aggregation.StreamAggregation;
 import org.wso2.carbon.databridge.agent.conf.DataEndpointConfiguration;
+import org.wso2.carbon.databridge.agent.endpoint.OverflowPolicy;
+import org.wso2.carbon.databridge.agent.endpoint.PartitionKeyExtractor;
+import org.wso2.carbon.databridge.agent.endpoint.PriorityLane;
 import org.wso2.carbon.databridge.agent.exception.DataEndpointConfigurationException;
+import org.wso2.carbon.databridge.agent.ratelimit.RateLimit;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -182,19 +191,43 @@ public class DataPublisherUtil {
     }
 
     /**
-     * Deduce the default authentication URL based on the receiver URL passed in.
+     * Deduce the default authentication URL based on the receiver URL passed in. Local, Unix domain socket
+     * and shared memory receivers authenticate through the receiver URL itself.
      *
      * @param receiverURL receiver URL for which it's required to get the authentication URL.
      * @return default authentication URL.
      */
     public static String getDefaultAuthUrl(String receiverURL) throws DataEndpointConfigurationException {
         String[] urlElements = getProtocolHostPort(receiverURL);
+        if (urlElements[0].equalsIgnoreCase(DataEndpointConfiguration.Protocol.LOCAL.toString())
+                || urlElements[0].equalsIgnoreCase(DataEndpointConfiguration.Protocol.UNIX.toString())
+                || urlElements[0].equalsIgnoreCase(DataEndpointConfiguration.Protocol.SHM.toString())) {
+            return receiverURL;
+        }
         int port = Integer.parseInt(urlElements[2]);
         String host = urlElements[1];
         return DataEndpointConfiguration.Protocol.SSL.toString() + "://" + host + ":" +
                 (port + DataEndpointConstants.DEFAULT_AUTH_PORT_OFFSET);
     }
 
+    /**
+     * Checks whether all the receivers of the URL set are local receivers in the same JVM.
+     *
+     * @param receiverURLSet receiver URL set to be checked.
+     * @return true if all the receiver URLs use the local protocol.
+     */
+    public static boolean isLocalURLSet(String receiverURLSet) throws DataEndpointConfigurationException {
+        for (Object[] receiverURLGroup : getEndpointGroups(receiverURLSet)) {
+            for (int i = 1; i < receiverURLGroup.length; i++) {
+                String protocol = getProtocolHostPort((String) receiverURLGroup[i])[0];
+                if (!protocol.equalsIgnoreCase(DataEndpointConfiguration.Protocol.LOCAL.toString())) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
     /**
      * Deduce the default authentication URL set based on the receiver URL set passed in.
      *
@@ -225,4 +258,190 @@ public class DataPublisherUtil {
         }
         return authURLSet.toString();
     }
+
+    /**
+     * Process and extracts the priority lanes of the event queue. The lanes are separated by commas, and each
+     * lane takes the format name:weight:size:overflowPolicy, for example high:8:4096:block,low:1:8192:dropOldest.
+     *
+     * @param priorityLanes priority lanes configuration
+     * @return List of priority lanes in the configured order
+     * @throws DataEndpointConfigurationException
+     */
+    public static List<PriorityLane> getPriorityLanes(String priorityLanes)
+            throws DataEndpointConfigurationException {
+        List<PriorityLane> lanes = new ArrayList<>();
+        for (String lane : priorityLanes.split(DataEndpointConstants.LB_URL_GROUP_SEPARATOR)) {
+            String[] laneElements = lane.trim().split(":");
+            if (laneElements.length != 4) {
+                throw new DataEndpointConfigurationException("Invalid priority lane : " + lane +
+                        ", priority lane should take the format : name:weight:size:overflowPolicy");
+            }
+            String name = laneElements[0].trim();
+            for (PriorityLane existingLane : lanes) {
+                if (existingLane.getName().equals(name)) {
+                    throw new DataEndpointConfigurationException("Priority lane : " + name + " is duplicated.");
+                }
+            }
+            int weight;
+            int size;
+            try {
+                weight = Integer.parseInt(laneElements[1].trim());
+                size = Integer.parseInt(laneElements[2].trim());
+            } catch (NumberFormatException e) {
+                throw new DataEndpointConfigurationException("Invalid weight or size for priority lane : " + lane, e);
+            }
+            if (weight <= 0 || size <= 0) {
+                throw new DataEndpointConfigurationException("Weight and size of the priority lane : " + lane +
+                        " should be positive.");
+            }
+            lanes.add(new PriorityLane(name, weight, size, OverflowPolicy.fromName(laneElements[3])));
+        }
+        return lanes;
+    }
+
+    /**
+     * Process and extracts the priority lanes assigned for the streams. The mappings are separated by commas,
+     * and each mapping takes the format streamId=laneName, for example alerts:1.0.0=high,debug:1.0.0=low.
+     *
+     * @param streamPriorities stream priorities configuration
+     * @return Map of stream id to priority lane name
+     * @throws DataEndpointConfigurationException
+     */
+    public static Map<String, String> getStreamPriorities(String streamPriorities)
+            throws DataEndpointConfigurationException {
+        Map<String, String> priorities = new HashMap<>();
+        if (streamPriorities == null || streamPriorities.trim().isEmpty()) {
+            return priorities;
+        }
+        for (String streamPriority : streamPriorities.split(DataEndpointConstants.LB_URL_GROUP_SEPARATOR)) {
+            String[] elements = streamPriority.trim().split("=");
+            if (elements.length != 2 || elements[0].trim().isEmpty() || elements[1].trim().isEmpty()) {
+                throw new DataEndpointConfigurationException("Invalid stream priority : " + streamPriority +
+                        ", stream priority should take the format : streamId=laneName");
+            }
+            priorities.put(elements[0].trim(), elements[1].trim());
+        }
+        return priorities;
+    }
+
+    /**
+     * Process and extracts the shares of the streams in the fair queue. The shares are separated by commas, and
+     * each share takes the format streamId=share, for example alerts:1.0.0=4,logs:1.0.0=1.
+     *
+     * @param streamShares stream shares configuration
+     * @return Map of stream id to share
+     * @throws DataEndpointConfigurationException
+     */
+    public static Map<String, Integer> getStreamShares(String streamShares)
+            throws DataEndpointConfigurationException {
+        Map<String, Integer> shares = new HashMap<>();
+        if (streamShares == null || streamShares.trim().isEmpty()) {
+            return shares;
+        }
+        for (String streamShare : streamShares.split(DataEndpointConstants.LB_URL_GROUP_SEPARATOR)) {
+            int separatorIndex = streamShare.lastIndexOf('=');
+            if (separatorIndex <= 0) {
+                throw new DataEndpointConfigurationException("Invalid stream share : " + streamShare +
+                        ", stream share should take the format : streamId=share");
+            }
+            int share;
+            try {
+                share = Integer.parseInt(streamShare.substring(separatorIndex + 1).trim());
+            } catch (NumberFormatException e) {
+                throw new DataEndpointConfigurationException("Invalid share in stream share : " + streamShare, e);
+            }
+            if (share <= 0) {
+                throw new DataEndpointConfigurationException("Share should be positive in stream share : " +
+                        streamShare);
+            }
+            shares.put(streamShare.substring(0, separatorIndex).trim(), share);
+        }
+        return shares;
+    }
+
+    /**
+     * Process and extracts the rate limits of the streams. The rate limits are separated by commas, and each
+     * rate limit takes the format streamId=eventsPerSecond:bytesPerSecond, where a value of 0 means that
+     * dimension is not limited, for example alerts:1.0.0=1000:0,logs:1.0.0=5000:1048576.
+     *
+     * @param streamRateLimits stream rate limits configuration
+     * @return Map of stream id to rate limit
+     * @throws DataEndpointConfigurationException
+     */
+    public static Map<String, RateLimit> getStreamRateLimits(String streamRateLimits)
+            throws DataEndpointConfigurationException {
+        Map<String, RateLimit> rateLimits = new HashMap<>();
+        if (streamRateLimits == null || streamRateLimits.trim().isEmpty()) {
+            return rateLimits;
+        }
+        for (String streamRateLimit : streamRateLimits.split(DataEndpointConstants.LB_URL_GROUP_SEPARATOR)) {
+            int separatorIndex = streamRateLimit.lastIndexOf('=');
+            String[] limits = separatorIndex > 0 ? streamRateLimit.substring(separatorIndex + 1).split(":") : null;
+            if (limits == null || limits.length != 2) {
+                throw new DataEndpointConfigurationException("Invalid stream rate limit : " + streamRateLimit +
+                        ", stream rate limit should take the format : streamId=eventsPerSecond:bytesPerSecond");
+            }
+            try {
+                rateLimits.put(streamRateLimit.substring(0, separatorIndex).trim(),
+                        new RateLimit(Long.parseLong(limits[0].trim()), Long.parseLong(limits[1].trim())));
+            } catch (NumberFormatException e) {
+                throw new DataEndpointConfigurationException("Invalid stream rate limit : " + streamRateLimit, e);
+            }
+        }
+        return rateLimits;
+    }
+
+    /**
+     * Process and extracts the pre-aggregations of the streams. The aggregations are separated by semicolons,
+     * and each aggregation takes the format streamId|windowMS|keyAttributes|attributeAggregations, where the
+     * key attributes and attribute aggregations are separated by commas, for example
+     * cpu:1.0.0|1000|meta:0|payload:0=sum,payload:1=max;requests:1.0.0|5000||payload:0=count.
+     *
+     * @param streamAggregations stream aggregations configuration
+     * @return List of stream aggregations
+     * @throws DataEndpointConfigurationException
+     */
+    public static List<StreamAggregation> getStreamAggregations(String streamAggregations)
+            throws DataEndpointConfigurationException {
+        List<StreamAggregation> aggregations = new ArrayList<>();
+        if (streamAggregations == null || streamAggregations.trim().isEmpty()) {
+            return aggregations;
+        }
+        for (String streamAggregation : streamAggregations.split(DataEndpointConstants.STREAM_AGGREGATION_SEPARATOR)) {
+            if (streamAggregation.trim().isEmpty()) {
+                continue;
+            }
+            String[] elements = streamAggregation.trim().split(
+                    DataEndpointConstants.STREAM_AGGREGATION_ELEMENT_SEPARATOR, -1);
+            if (elements.length != 4 || elements[0].trim().isEmpty() || elements[3].trim().isEmpty()) {
+                throw new DataEndpointConfigurationException("Invalid stream aggregation : " + streamAggregation +
+                        ", stream aggregation should take the format : " +
+                        "streamId|windowMS|keyAttributes|attributeAggregations");
+            }
+            long windowMS;
+            try {
+                windowMS = Long.parseLong(elements[1].trim());
+            } catch (NumberFormatException e) {
+                throw new DataEndpointConfigurationException("Invalid window for stream aggregation : " +
+                        streamAggregation, e);
+            }
+            if (windowMS <= 0) {
+                throw new DataEndpointConfigurationException("Window of the stream aggregation : " +
+                        streamAggregation + " should be positive.");
+            }
+            List<PartitionKeyExtractor> keyAttributes = new ArrayList<>();
+            if (!elements[2].trim().isEmpty()) {
+                for (String keyAttribute : elements[2].split(DataEndpointConstants.LB_URL_GROUP_SEPARATOR)) {
+                    keyAttributes.add(new PartitionKeyExtractor(keyAttribute.trim()));
+                }
+            }
+            List<AttributeAggregation> attributeAggregations = new ArrayList<>();
+            for (String attributeAggregation : elements[3].split(DataEndpointConstants.LB_URL_GROUP_SEPARATOR)) {
+                attributeAggregations.add(new AttributeAggregation(attributeAggregation));
+            }
+            aggregations.add(new StreamAggregation(elements[0].trim(), windowMS, keyAttributes,
+                    attributeAggregations));
+        }
+        return aggregations;
+    }
 }
@@ -0,0 +1,101 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.test;
+
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+import org.wso2.carbon.databridge.agent.conf.AgentConfiguration;
+import org.wso2.carbon.databridge.agent.endpoint.BatchSizeController;
+import org.wso2.carbon.databridge.agent.exception.DataEndpointConfigurationException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batch Size Controller Testcase.
+ */
+public class BatchSizeControllerTest {
+
+    private static final long FAST_BATCH_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final long SLOW_BATCH_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+
+    private BatchSizeController createController() throws DataEndpointConfigurationException {
+        return new BatchSizeController(200, 10, 1000, 100);
+    }
+
+    private void completeWindow(BatchSizeController controller, long latencyNanos, int failures) {
+        for (int i = 0; i < 10; i++) {
+            controller.onBatchCompleted(controller.getBatchSize(), latencyNanos, i >= failures);
+        }
+    }
+
+    @Test
+    public void testAdditiveIncrease() throws DataEndpointConfigurationException {
+        BatchSizeController controller = createController();
+        controller.onBatchCompleted(200, FAST_BATCH_NANOS, true);
+        AssertJUnit.assertEquals("Batch size should change only at the end of a window", 200,
+                controller.getBatchSize());
+        completeWindow(controller, FAST_BATCH_NANOS, 0);
+        AssertJUnit.assertEquals(BatchSizeController.Decision.INCREASE, controller.getLastDecision());
+        AssertJUnit.assertEquals(200 + (1000 - 10) / 32, controller.getBatchSize());
+        AssertJUnit.assertTrue(controller.getThroughput() > 0);
+    }
+
+    @Test
+    public void testMultiplicativeDecreaseOnFailure() throws DataEndpointConfigurationException {
+        BatchSizeController controller = createController();
+        completeWindow(controller, FAST_BATCH_NANOS, 1);
+        AssertJUnit.assertEquals(BatchSizeController.Decision.DECREASE_ON_FAILURE, controller.getLastDecision());
+        AssertJUnit.assertEquals(100, controller.getBatchSize());
+    }
+
+    @Test
+    public void testDecreaseOnLatency() throws DataEndpointConfigurationException {
+        BatchSizeController controller = createController();
+        completeWindow(controller, SLOW_BATCH_NANOS, 0);
+        AssertJUnit.assertEquals(BatchSizeController.Decision.DECREASE_ON_LATENCY, controller.getLastDecision());
+        AssertJUnit.assertEquals(150, controller.getBatchSize());
+        AssertJUnit.assertEquals(200.0, controller.getAverageLatencyMS(), 0.001);
+    }
+
+    @Test
+    public void testBounds() throws DataEndpointConfigurationException {
+        BatchSizeController controller = createController();
+        for (int i = 0; i < 10; i++) {
+            completeWindow(controller, FAST_BATCH_NANOS, 10);
+        }
+        AssertJUnit.assertEquals(10, controller.getBatchSize());
+        AssertJUnit.assertEquals(1000, new BatchSizeController(5000, 10, 1000, 100).getBatchSize());
+    }
+
+    @Test
+    public void testCreate() throws DataEndpointConfigurationException {
+        AgentConfiguration agentConfiguration = new AgentConfiguration();
+        AssertJUnit.assertNull("Batch size should not be tuned by default",
+                BatchSizeController.create(agentConfiguration));
+        agentConfiguration.setAdaptiveBatchMaxSize(2000);
+        BatchSizeController controller = BatchSizeController.create(agentConfiguration);
+        AssertJUnit.assertEquals(agentConfiguration.getBatchSize(), controller.getBatchSize());
+        AssertJUnit.assertEquals(2000, controller.getMaxBatchSize());
+    }
+
+    @Test(expectedExceptions = DataEndpointConfigurationException.class)
+    public void testInvalidBounds() throws DataEndpointConfigurationException {
+        new BatchSizeController(200, 100, 50, 100);
+    }
+}
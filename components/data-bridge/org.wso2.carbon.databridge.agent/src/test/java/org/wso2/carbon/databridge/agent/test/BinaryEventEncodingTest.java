@@ -0,0 +1,291 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.test;
+
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+import org.wso2.carbon.databridge.agent.endpoint.binary.BinaryEventSender;
+import org.wso2.carbon.databridge.agent.endpoint.binary.BinaryLoginResponse;
+import org.wso2.carbon.databridge.commons.AttributeType;
+import org.wso2.carbon.databridge.commons.Event;
+import org.wso2.carbon.databridge.commons.ReceiverLoad;
+import org.wso2.carbon.databridge.commons.StreamDefinition;
+import org.wso2.carbon.databridge.commons.binary.BinaryMessageConstants;
+import org.wso2.carbon.databridge.commons.binary.BinaryMessageConverterUtil;
+import org.wso2.carbon.databridge.core.StreamTypeHolder;
+import org.wso2.carbon.databridge.receiver.binary.ColumnarBinaryEventConverter;
+import org.wso2.carbon.databridge.receiver.binary.CompactBinaryEventConverter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Binary Event Encoding Testcase.
+ */
+public class BinaryEventEncodingTest {
+
+    private List<Event> createEvents() {
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            events.add(new Event("test:1.0.0", System.currentTimeMillis(), new Object[]{"127.0.0.1"}, null,
+                    new Object[]{i, "event" + i, 1.5 * i, true}, Collections.singletonMap("key", "value")));
+        }
+        return events;
+    }
+
+    @Test
+    public void testPublishMessageOfEncodedEvents() throws IOException {
+        List<Event> events = createEvents();
+        ByteBuffer message = BinaryEventSender.createBinaryPublishMessage(events, "session-1");
+        ByteBuffer encodedEvents = BinaryEventSender.encodeEvents(events);
+        AssertJUnit.assertEquals(message, BinaryEventSender.createBinaryPublishMessage(encodedEvents, "session-1"));
+
+        ByteBuffer renewedMessage = BinaryEventSender.createBinaryPublishMessage(encodedEvents, "session-22");
+        AssertJUnit.assertEquals("Encoded events should not be consumed by a message", 0, encodedEvents.position());
+        AssertJUnit.assertEquals(2, renewedMessage.get());
+        AssertJUnit.assertEquals(renewedMessage.capacity() - 5, renewedMessage.getInt());
+        AssertJUnit.assertEquals("session-22".length(), renewedMessage.getInt());
+        renewedMessage.position(renewedMessage.position() + "session-22".length());
+        AssertJUnit.assertEquals(encodedEvents, renewedMessage.slice());
+        AssertJUnit.assertEquals(events.size(), renewedMessage.getInt());
+    }
+
+    @Test
+    public void testCachedEventSize() throws IOException {
+        List<Event> events = createEvents();
+        ByteBuffer encodedEvents = BinaryEventSender.encodeEvents(events);
+        int encodedEventsSize = 4;
+        for (Event event : events) {
+            encodedEventsSize += BinaryEventSender.cacheEventSize(event) + 4;
+            AssertJUnit.assertTrue(event.getSerializedSize() > 0);
+        }
+        AssertJUnit.assertEquals(encodedEventsSize, encodedEvents.remaining());
+        AssertJUnit.assertEquals(encodedEvents, BinaryEventSender.encodeEvents(events));
+        AssertJUnit.assertEquals("Cached size should be cleared once the event is encoded", -1,
+                events.get(0).getSerializedSize());
+
+        events.get(0).setPayloadData(new Object[]{0, "a longer event than the cached size", 0.0, true});
+        AssertJUnit.assertEquals(encodedEventsSize + 29, BinaryEventSender.encodeEvents(events).remaining());
+    }
+
+    @Test
+    public void testPublishResponseWithReceiverLoad() throws Exception {
+        AssertJUnit.assertNull(BinaryEventSender.processPublishResponse(new ByteArrayInputStream(new byte[]{0})));
+
+        ByteBuffer response = ByteBuffer.allocate(BinaryMessageConstants.LOAD_ACK_RESPONSE_SIZE);
+        response.put(BinaryMessageConstants.LOAD_ACK_RESPONSE);
+        response.put((byte) 85);
+        response.putInt(120);
+        ReceiverLoad receiverLoad = BinaryEventSender.processPublishResponse(
+                new ByteArrayInputStream(response.array()));
+        AssertJUnit.assertEquals(85, receiverLoad.getQueueFillPercentage());
+        AssertJUnit.assertEquals(120, receiverLoad.getDispatchLatencyMS());
+    }
+
+    @Test
+    public void testCompactEncoding() throws Exception {
+        StreamDefinition streamDefinition = new StreamDefinition("test", "1.0.0");
+        streamDefinition.addMetaData("host", AttributeType.STRING);
+        streamDefinition.addPayloadData("count", AttributeType.INT);
+        streamDefinition.addPayloadData("offset", AttributeType.LONG);
+        streamDefinition.addPayloadData("status", AttributeType.STRING);
+        streamDefinition.addPayloadData("value", AttributeType.DOUBLE);
+        streamDefinition.addPayloadData("valid", AttributeType.BOOL);
+        StreamTypeHolder streamTypeHolder = new StreamTypeHolder();
+        streamTypeHolder.putStreamDefinition(streamDefinition);
+
+        long timeStamp = System.currentTimeMillis();
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            events.add(new Event("test:1.0.0", timeStamp + i, new Object[]{"host-" + (i % 2)}, null,
+                    new Object[]{i - 100, -1000L * i, i % 10 == 0 ? null : "OK", 1.5 * i, i % 3 == 0},
+                    Collections.singletonMap("region", "eu-west")));
+        }
+        ByteBuffer encodedEvents = BinaryEventSender.encodeCompactEvents(events);
+        AssertJUnit.assertTrue("Repeated strings and small numbers should take less than half of the bytes",
+                encodedEvents.remaining() * 2 < BinaryEventSender.encodeEvents(events).remaining());
+
+        ByteBuffer message = BinaryEventSender.createBinaryPublishMessage(encodedEvents, "session-1",
+                BinaryMessageConstants.COMPACT_PUBLISH_MESSAGE);
+        AssertJUnit.assertEquals(BinaryMessageConstants.COMPACT_PUBLISH_MESSAGE, message.get());
+        byte[] eventBundle = new byte[message.getInt()];
+        message.get(eventBundle);
+
+        CompactBinaryEventConverter converter = CompactBinaryEventConverter.getConverter();
+        AssertJUnit.assertEquals(events.size(), converter.getNumberOfEvents(eventBundle));
+        List<Event> decodedEvents = converter.toEventList(eventBundle, streamTypeHolder);
+        AssertJUnit.assertEquals(events.size(), decodedEvents.size());
+        for (int i = 0; i < events.size(); i++) {
+            Event event = events.get(i);
+            Event decodedEvent = decodedEvents.get(i);
+            AssertJUnit.assertEquals(event.getStreamId(), decodedEvent.getStreamId());
+            AssertJUnit.assertEquals(event.getTimeStamp(), decodedEvent.getTimeStamp());
+            AssertJUnit.assertTrue(Arrays.equals(event.getMetaData(), decodedEvent.getMetaData()));
+            AssertJUnit.assertTrue(Arrays.equals(event.getPayloadData(), decodedEvent.getPayloadData()));
+            AssertJUnit.assertEquals(new HashMap<>(event.getArbitraryDataMap()), decodedEvent.getArbitraryDataMap());
+        }
+        AssertJUnit.assertSame("Repeated strings should be decoded into the same instance",
+                decodedEvents.get(0).getMetaData()[0], decodedEvents.get(2).getMetaData()[0]);
+    }
+
+    @Test
+    public void testCompactEncodingOfNullAttributes() throws Exception {
+        StreamDefinition streamDefinition = new StreamDefinition("test", "1.0.0");
+        streamDefinition.addMetaData("host", AttributeType.STRING);
+        streamDefinition.addPayloadData("count", AttributeType.INT);
+        streamDefinition.addPayloadData("offset", AttributeType.LONG);
+        streamDefinition.addPayloadData("ratio", AttributeType.FLOAT);
+        streamDefinition.addPayloadData("value", AttributeType.DOUBLE);
+        streamDefinition.addPayloadData("valid", AttributeType.BOOL);
+        StreamTypeHolder streamTypeHolder = new StreamTypeHolder();
+        streamTypeHolder.putStreamDefinition(streamDefinition);
+
+        long timeStamp = System.currentTimeMillis();
+        List<Event> events = new ArrayList<>();
+        events.add(new Event("test:1.0.0", timeStamp, new Object[]{"host-1"}, null,
+                new Object[]{1, null, null, null, true}, null));
+        events.add(new Event("test:1.0.0", timeStamp - 5, new Object[]{null}, null,
+                new Object[]{null, 2L, 0.5f, 2.5, null}, null));
+        events.add(new Event("test:1.0.0", timeStamp + 5, new Object[]{"host-1"}, null,
+                new Object[]{3, -3L, 1.5f, null, false}, null));
+        events.add(new Event("test:1.0.0", timeStamp + 10, new Object[]{"host-2"}, null,
+                new Object[]{4, 4L, 2.5f, 4.5, true}, null));
+        ByteBuffer encodedEvents = BinaryEventSender.encodeCompactEvents(events);
+        ByteBuffer message = BinaryEventSender.createBinaryPublishMessage(encodedEvents, "session-1",
+                BinaryMessageConstants.COMPACT_PUBLISH_MESSAGE);
+        message.get();
+        byte[] eventBundle = new byte[message.getInt()];
+        message.get(eventBundle);
+
+        List<Event> decodedEvents = CompactBinaryEventConverter.getConverter().toEventList(eventBundle,
+                streamTypeHolder);
+        AssertJUnit.assertEquals(events.size(), decodedEvents.size());
+        for (int i = 0; i < events.size(); i++) {
+            Event event = events.get(i);
+            Event decodedEvent = decodedEvents.get(i);
+            AssertJUnit.assertEquals(event.getTimeStamp(), decodedEvent.getTimeStamp());
+            AssertJUnit.assertTrue(Arrays.equals(event.getMetaData(), decodedEvent.getMetaData()));
+            AssertJUnit.assertTrue("Null attributes should not shift the attributes after them",
+                    Arrays.equals(event.getPayloadData(), decodedEvent.getPayloadData()));
+        }
+    }
+
+    @Test
+    public void testLoginResponseWithProtocolFeatures() throws Exception {
+        ByteBuffer response = ByteBuffer.allocate(9 + "session-1".length());
+        response.put(BinaryMessageConstants.LOGIN_FEATURES_RESPONSE);
+        response.putInt("session-1".length());
+        response.put("session-1".getBytes(BinaryMessageConstants.DEFAULT_CHARSET));
+        response.putInt(BinaryMessageConstants.COMPACT_ENCODING_FEATURE);
+        BinaryLoginResponse loginResponse = BinaryEventSender.processLoginResponse(
+                new ByteArrayInputStream(response.array()));
+        AssertJUnit.assertEquals("session-1", loginResponse.getSessionId());
+        AssertJUnit.assertTrue(loginResponse.isFeatureAccepted(BinaryMessageConstants.COMPACT_ENCODING_FEATURE));
+        AssertJUnit.assertFalse(loginResponse.isFeatureAccepted(BinaryMessageConstants.RECEIVER_LOAD_FEATURE));
+        AssertJUnit.assertEquals("session-1", BinaryEventSender.processResponse(
+                new ByteArrayInputStream(response.array())));
+    }
+
+    @Test
+    public void testVariableLengthNumbers() {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        int[] ints = {0, 1, -1, 63, -64, 64, Integer.MAX_VALUE, Integer.MIN_VALUE};
+        for (int value : ints) {
+            buffer.clear();
+            BinaryMessageConverterUtil.putVarInt(BinaryMessageConverterUtil.zigZagEncode(value), buffer);
+            AssertJUnit.assertEquals(BinaryMessageConverterUtil.getVarIntSize(
+                    BinaryMessageConverterUtil.zigZagEncode(value)), buffer.position());
+            buffer.flip();
+            AssertJUnit.assertEquals(value, BinaryMessageConverterUtil.zigZagDecode(
+                    BinaryMessageConverterUtil.getVarInt(buffer)));
+        }
+        long[] longs = {0L, -1L, 1L << 40, -(1L << 40), Long.MAX_VALUE, Long.MIN_VALUE};
+        for (long value : longs) {
+            buffer.clear();
+            BinaryMessageConverterUtil.putVarLong(BinaryMessageConverterUtil.zigZagEncode(value), buffer);
+            buffer.flip();
+            AssertJUnit.assertEquals(value, BinaryMessageConverterUtil.zigZagDecode(
+                    BinaryMessageConverterUtil.getVarLong(buffer)));
+        }
+        buffer.clear();
+        BinaryMessageConverterUtil.putVarInt(BinaryMessageConverterUtil.zigZagEncode(-1), buffer);
+        AssertJUnit.assertEquals("Small negative numbers should take a single byte", 1, buffer.position());
+    }
+
+    @Test
+    public void testColumnarEncoding() throws Exception {
+        StreamDefinition orders = new StreamDefinition("orders", "1.0.0");
+        orders.addMetaData("host", AttributeType.STRING);
+        orders.addPayloadData("quantity", AttributeType.INT);
+        orders.addPayloadData("price", AttributeType.DOUBLE);
+        orders.addPayloadData("discount", AttributeType.FLOAT);
+        StreamDefinition clicks = new StreamDefinition("clicks", "1.0.0");
+        clicks.addCorrelationData("session", AttributeType.LONG);
+        clicks.addPayloadData("page", AttributeType.STRING);
+        clicks.addPayloadData("firstVisit", AttributeType.BOOL);
+        StreamTypeHolder streamTypeHolder = new StreamTypeHolder();
+        streamTypeHolder.putStreamDefinition(orders);
+        streamTypeHolder.putStreamDefinition(clicks);
+
+        long timeStamp = System.currentTimeMillis();
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            events.add(new Event("orders:1.0.0", timeStamp + i, new Object[]{"host-" + (i % 3)}, null,
+                    new Object[]{i, 10.25 * i, i % 4 == 0 ? null : 0.5f},
+                    i % 5 == 0 ? Collections.singletonMap("region", "eu-west") : null));
+            events.add(new Event("clicks:1.0.0", timeStamp - i, null, new Object[]{-7L * i},
+                    new Object[]{i % 7 == 0 ? null : "/page/" + (i % 2), i % 2 == 0}, null));
+        }
+        ByteBuffer encodedEvents = BinaryEventSender.encodeColumnarEvents(events);
+        ByteBuffer message = BinaryEventSender.createBinaryPublishMessage(encodedEvents, "session-1",
+                BinaryMessageConstants.COLUMNAR_PUBLISH_MESSAGE);
+        AssertJUnit.assertEquals(BinaryMessageConstants.COLUMNAR_PUBLISH_MESSAGE, message.get());
+        byte[] eventBundle = new byte[message.getInt()];
+        message.get(eventBundle);
+
+        ColumnarBinaryEventConverter converter = ColumnarBinaryEventConverter.getConverter();
+        AssertJUnit.assertEquals(events.size(), converter.getNumberOfEvents(eventBundle));
+        List<Event> decodedEvents = converter.toEventList(eventBundle, streamTypeHolder);
+        AssertJUnit.assertEquals(events.size(), decodedEvents.size());
+        //The events are grouped by stream, in the order the streams first appear in the batch.
+        List<Event> groupedEvents = new ArrayList<>();
+        for (int i = 0; i < events.size(); i += 2) {
+            groupedEvents.add(events.get(i));
+        }
+        for (int i = 1; i < events.size(); i += 2) {
+            groupedEvents.add(events.get(i));
+        }
+        for (int i = 0; i < groupedEvents.size(); i++) {
+            Event event = groupedEvents.get(i);
+            Event decodedEvent = decodedEvents.get(i);
+            AssertJUnit.assertEquals(event.getStreamId(), decodedEvent.getStreamId());
+            AssertJUnit.assertEquals(event.getTimeStamp(), decodedEvent.getTimeStamp());
+            AssertJUnit.assertTrue(Arrays.equals(event.getMetaData(), decodedEvent.getMetaData()));
+            AssertJUnit.assertTrue(Arrays.equals(event.getCorrelationData(), decodedEvent.getCorrelationData()));
+            AssertJUnit.assertTrue(Arrays.equals(event.getPayloadData(), decodedEvent.getPayloadData()));
+            AssertJUnit.assertEquals(event.getArbitraryDataMap() != null ? event.getArbitraryDataMap() :
+                    Collections.emptyMap(), decodedEvent.getArbitraryDataMap());
+        }
+    }
+}
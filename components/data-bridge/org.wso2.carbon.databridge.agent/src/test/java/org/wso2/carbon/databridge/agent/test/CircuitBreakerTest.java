@@ -0,0 +1,321 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.test;
+
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+import org.wso2.carbon.databridge.agent.DataEndpointAgent;
+import org.wso2.carbon.databridge.agent.conf.AgentConfiguration;
+import org.wso2.carbon.databridge.agent.conf.DataEndpointConfiguration;
+import org.wso2.carbon.databridge.agent.endpoint.CircuitBreaker;
+import org.wso2.carbon.databridge.agent.endpoint.DataEndpoint;
+import org.wso2.carbon.databridge.agent.endpoint.DataEndpointGroup;
+import org.wso2.carbon.databridge.agent.endpoint.local.LocalDataEndpoint;
+import org.wso2.carbon.databridge.agent.exception.DataEndpointConfigurationException;
+import org.wso2.carbon.databridge.agent.exception.DataEndpointException;
+import org.wso2.carbon.databridge.commons.Event;
+import org.wso2.carbon.databridge.commons.LocalEventReceiver;
+import org.wso2.carbon.databridge.commons.exception.SessionTimeoutException;
+import org.wso2.carbon.databridge.commons.utils.LocalEventReceiverRegistry;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Circuit Breaker Testcase.
+ */
+public class CircuitBreakerTest {
+
+    private static final long OPEN_DURATION_MS = 200;
+
+    private CircuitBreaker createCircuitBreaker() throws DataEndpointConfigurationException {
+        return new CircuitBreaker(50, 100, 10, 4, OPEN_DURATION_MS, 2);
+    }
+
+    @Test
+    public void testOpenOnFailureRate() throws DataEndpointConfigurationException {
+        CircuitBreaker circuitBreaker = createCircuitBreaker();
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        AssertJUnit.assertEquals("Circuit should not open before the minimum calls",
+                CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        circuitBreaker.onSuccess(0);
+        AssertJUnit.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.onFailure());
+        AssertJUnit.assertFalse(circuitBreaker.tryAcquirePermission());
+        AssertJUnit.assertEquals(1, circuitBreaker.getOpenedCount());
+        AssertJUnit.assertEquals(1, circuitBreaker.getRejectedCount());
+    }
+
+    @Test
+    public void testFailureRateOfSlidingWindow() throws DataEndpointConfigurationException {
+        CircuitBreaker circuitBreaker = createCircuitBreaker();
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.onSuccess(0);
+            circuitBreaker.onSuccess(0);
+            circuitBreaker.onSuccess(0);
+            circuitBreaker.onFailure();
+        }
+        AssertJUnit.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        for (int i = 0; i < 10; i++) {
+            circuitBreaker.onSuccess(0);
+        }
+        for (int i = 0; i < 4; i++) {
+            AssertJUnit.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.onFailure());
+        }
+        AssertJUnit.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.onFailure());
+    }
+
+    @Test
+    public void testSlowCallsCountedAsFailures() throws DataEndpointConfigurationException {
+        CircuitBreaker circuitBreaker = createCircuitBreaker();
+        long slowCall = TimeUnit.MILLISECONDS.toNanos(150);
+        circuitBreaker.onSuccess(slowCall);
+        circuitBreaker.onSuccess(0);
+        AssertJUnit.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.onSuccess(slowCall));
+        AssertJUnit.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.onSuccess(slowCall));
+    }
+
+    @Test
+    public void testHalfOpenProbes() throws Exception {
+        CircuitBreaker circuitBreaker = createCircuitBreaker();
+        openCircuit(circuitBreaker);
+        Thread.sleep(OPEN_DURATION_MS + 50);
+        AssertJUnit.assertTrue(circuitBreaker.isCallPermitted());
+        AssertJUnit.assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        AssertJUnit.assertTrue(circuitBreaker.tryAcquirePermission());
+        AssertJUnit.assertTrue(circuitBreaker.tryAcquirePermission());
+        AssertJUnit.assertFalse("Only the probe batches should be let through", circuitBreaker.tryAcquirePermission());
+        AssertJUnit.assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.onSuccess(0));
+        AssertJUnit.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.onSuccess(0));
+        AssertJUnit.assertTrue(circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    public void testFailedProbeReopensCircuit() throws Exception {
+        CircuitBreaker circuitBreaker = createCircuitBreaker();
+        openCircuit(circuitBreaker);
+        Thread.sleep(OPEN_DURATION_MS + 50);
+        AssertJUnit.assertTrue(circuitBreaker.tryAcquirePermission());
+        AssertJUnit.assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.onSuccess(0));
+        AssertJUnit.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.onFailure());
+        AssertJUnit.assertFalse(circuitBreaker.isCallPermitted());
+        AssertJUnit.assertEquals(2, circuitBreaker.getOpenedCount());
+    }
+
+    @Test
+    public void testDisabledByDefault() throws DataEndpointConfigurationException {
+        AgentConfiguration agentConfiguration = new AgentConfiguration();
+        AssertJUnit.assertNull(CircuitBreaker.create(agentConfiguration));
+        agentConfiguration.setCircuitBreakerSlowCallThresholdMS(1000);
+        AssertJUnit.assertNotNull(CircuitBreaker.create(agentConfiguration));
+    }
+
+    @Test(expectedExceptions = DataEndpointConfigurationException.class)
+    public void testInvalidFailureRate() throws DataEndpointConfigurationException {
+        new CircuitBreaker(150, 0, 10, 5, 1000, 1);
+    }
+
+    @Test
+    public void testFailedAcknowledgementsOpenCircuit() throws Exception {
+        CountingLocalEventReceiver unacknowledgedReceiver = new CountingLocalEventReceiver();
+        CountingLocalEventReceiver receiver = new CountingLocalEventReceiver();
+        LocalEventReceiverRegistry.register("unacknowledged", unacknowledgedReceiver);
+        LocalEventReceiverRegistry.register("acknowledged", receiver);
+        AgentConfiguration agentConfiguration = new AgentConfiguration("Local",
+                UnacknowledgedDataEndpoint.class.getName());
+        DataEndpointAgent agent = new DataEndpointAgent(agentConfiguration);
+        DataEndpointGroup endpointGroup = new DataEndpointGroup(DataEndpointGroup.HAType.LOADBALANCE, agent);
+        try {
+            DataEndpointConfiguration endpointConfiguration = createEndpointConfiguration(agent,
+                    "local://unacknowledged:0");
+            // If the writes were counted as well, the failure rate could not exceed 50%, as each batch is failed
+            // only after it is written, and the window is larger than the batches of the test.
+            endpointConfiguration.setCircuitBreaker(new CircuitBreaker(60, 0, 100, 4, 60000, 1));
+            DataEndpoint unacknowledgedEndpoint = agent.getNewDataEndpoint();
+            unacknowledgedEndpoint.initialize(endpointConfiguration);
+            endpointGroup.addDataEndpoint(unacknowledgedEndpoint);
+            DataEndpoint dataEndpoint = new LocalDataEndpoint();
+            dataEndpoint.initialize(createEndpointConfiguration(agent, "local://acknowledged:0"));
+            endpointGroup.addDataEndpoint(dataEndpoint);
+            // Both endpoints should be connected, otherwise all the batches could go to the acknowledged one.
+            long stopTime = System.currentTimeMillis() + 5000;
+            while ((unacknowledgedEndpoint.getState() != DataEndpoint.State.ACTIVE
+                    || dataEndpoint.getState() != DataEndpoint.State.ACTIVE)
+                    && System.currentTimeMillis() < stopTime) {
+                Thread.sleep(10);
+            }
+
+            int numberOfEvents = 400;
+            for (int i = 0; i < numberOfEvents; i++) {
+                endpointGroup.publish(new Event("org.wso2.test:1.0.0", System.currentTimeMillis(), null, null,
+                        new Object[]{"WSO2", 123.4}));
+            }
+            stopTime = System.currentTimeMillis() + 10000;
+            while (receiver.events.get() < numberOfEvents && System.currentTimeMillis() < stopTime) {
+                Thread.sleep(10);
+            }
+            AssertJUnit.assertTrue("Failed batches should be resent to the other endpoint",
+                    receiver.events.get() >= numberOfEvents);
+            AssertJUnit.assertEquals(CircuitBreaker.State.OPEN, unacknowledgedEndpoint.getCircuitBreaker().getState());
+        } finally {
+            endpointGroup.shutdown();
+            agent.shutDown();
+            LocalEventReceiverRegistry.unregister("unacknowledged", unacknowledgedReceiver);
+            LocalEventReceiverRegistry.unregister("acknowledged", receiver);
+        }
+    }
+
+    @Test
+    public void testExpiredBatchRetriedOnlyIfCircuitPermits() throws Exception {
+        CountingLocalEventReceiver expiringReceiver = new CountingLocalEventReceiver();
+        CountingLocalEventReceiver receiver = new CountingLocalEventReceiver();
+        LocalEventReceiverRegistry.register("expiring", expiringReceiver);
+        LocalEventReceiverRegistry.register("failover", receiver);
+        AgentConfiguration agentConfiguration = new AgentConfiguration("Local",
+                SessionExpiringDataEndpoint.class.getName());
+        DataEndpointAgent agent = new DataEndpointAgent(agentConfiguration);
+        DataEndpointGroup endpointGroup = new DataEndpointGroup(DataEndpointGroup.HAType.FAILOVER, agent);
+        try {
+            DataEndpointConfiguration endpointConfiguration = createEndpointConfiguration(agent,
+                    "local://expiring:0");
+            endpointConfiguration.setCircuitBreaker(new CircuitBreaker(50, 0, 10, 4, 60000, 1));
+            SessionExpiringDataEndpoint expiringEndpoint = (SessionExpiringDataEndpoint) agent.getNewDataEndpoint();
+            expiringEndpoint.initialize(endpointConfiguration);
+            endpointGroup.addDataEndpoint(expiringEndpoint);
+            DataEndpoint dataEndpoint = new LocalDataEndpoint();
+            dataEndpoint.initialize(createEndpointConfiguration(agent, "local://failover:0"));
+            endpointGroup.addDataEndpoint(dataEndpoint);
+            long stopTime = System.currentTimeMillis() + 5000;
+            while ((expiringEndpoint.getState() != DataEndpoint.State.ACTIVE
+                    || dataEndpoint.getState() != DataEndpoint.State.ACTIVE)
+                    && System.currentTimeMillis() < stopTime) {
+                Thread.sleep(10);
+            }
+
+            endpointGroup.publish(new Event("org.wso2.test:1.0.0", System.currentTimeMillis(), null, null,
+                    new Object[]{"WSO2", 123.4}));
+            stopTime = System.currentTimeMillis() + 10000;
+            while (receiver.events.get() < 1 && System.currentTimeMillis() < stopTime) {
+                Thread.sleep(10);
+            }
+            AssertJUnit.assertEquals("Expired batch should be resent to the other endpoint as the circuit is open",
+                    1, receiver.events.get());
+            AssertJUnit.assertEquals("Expired batch should not be retried while the circuit is open",
+                    1, expiringEndpoint.sentBatches.get());
+            AssertJUnit.assertEquals(CircuitBreaker.State.OPEN, expiringEndpoint.getCircuitBreaker().getState());
+        } finally {
+            endpointGroup.shutdown();
+            agent.shutDown();
+            LocalEventReceiverRegistry.unregister("expiring", expiringReceiver);
+            LocalEventReceiverRegistry.unregister("failover", receiver);
+        }
+    }
+
+    private DataEndpointConfiguration createEndpointConfiguration(DataEndpointAgent agent, String receiverURL)
+            throws Exception {
+        AgentConfiguration agentConfiguration = agent.getAgentConfiguration();
+        return new DataEndpointConfiguration(receiverURL, receiverURL, "admin", "admin", agent.getTransportPool(),
+                agent.getSecuredTransportPool(), 10, agentConfiguration.getCorePoolSize(),
+                agentConfiguration.getMaxPoolSize(), agentConfiguration.getKeepAliveTimeInPool());
+    }
+
+    private void openCircuit(CircuitBreaker circuitBreaker) {
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.onFailure();
+        }
+        AssertJUnit.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    /**
+     * Endpoint which writes the batches, but the batches are failed by the receiver afterwards.
+     */
+    public static class UnacknowledgedDataEndpoint extends LocalDataEndpoint {
+
+        @Override
+        protected void send(Object client, final List<Event> events) {
+            final long sentTime = System.nanoTime();
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        Thread.sleep(50);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    onAsyncBatchCompleted(events, System.nanoTime() - sentTime,
+                            new DataEndpointException("Batch is not acknowledged by the receiver."));
+                }
+            }).start();
+        }
+
+        @Override
+        protected boolean isAcknowledgedAsynchronously() {
+            return true;
+        }
+    }
+
+    /**
+     * Endpoint of which the session is expired once a batch is written, while the circuit is opened by the
+     * failures of the other batches.
+     */
+    public static class SessionExpiringDataEndpoint extends LocalDataEndpoint {
+
+        private final AtomicInteger sentBatches = new AtomicInteger();
+
+        @Override
+        protected void send(Object client, final List<Event> events) {
+            sentBatches.incrementAndGet();
+            for (int i = 0; i < 4; i++) {
+                getCircuitBreaker().onFailure();
+            }
+            final long sentTime = System.nanoTime();
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    onAsyncBatchCompleted(events, System.nanoTime() - sentTime,
+                            new SessionTimeoutException("Session of the batch is expired."));
+                }
+            }).start();
+        }
+
+        @Override
+        protected boolean isAcknowledgedAsynchronously() {
+            return true;
+        }
+    }
+
+    private static class CountingLocalEventReceiver implements LocalEventReceiver {
+
+        private final AtomicInteger events = new AtomicInteger();
+
+        @Override
+        public String login(String username, String password) {
+            return "session-" + username;
+        }
+
+        @Override
+        public void logout(String sessionId) {
+        }
+
+        @Override
+        public void publish(List<Event> events, String sessionId) {
+            this.events.addAndGet(events.size());
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.test;
+
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+import org.wso2.carbon.databridge.agent.endpoint.ConsistentHashRing;
+import org.wso2.carbon.databridge.agent.endpoint.PartitionKeyExtractor;
+import org.wso2.carbon.databridge.agent.exception.DataEndpointConfigurationException;
+import org.wso2.carbon.databridge.commons.Event;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Consistent Hash Ring Testcase.
+ */
+public class ConsistentHashRingTest {
+
+    private static final int KEY_COUNT = 10000;
+
+    private ConsistentHashRing<String> createRing() {
+        ConsistentHashRing<String> ring = new ConsistentHashRing<>(160);
+        ring.addNode("receiver-1", "tcp://10.100.0.1:9611");
+        ring.addNode("receiver-2", "tcp://10.100.0.2:9611");
+        ring.addNode("receiver-3", "tcp://10.100.0.3:9611");
+        return ring;
+    }
+
+    @Test
+    public void testKeyDistribution() {
+        ConsistentHashRing<String> ring = createRing();
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < KEY_COUNT; i++) {
+            String owner = ring.getPreferenceList("device-" + i).get(0);
+            Integer count = counts.get(owner);
+            counts.put(owner, count == null ? 1 : count + 1);
+        }
+        AssertJUnit.assertEquals(3, counts.size());
+        for (Integer count : counts.values()) {
+            AssertJUnit.assertTrue("Keys are not evenly distributed: " + counts,
+                    count > KEY_COUNT / 5 && count < KEY_COUNT / 2);
+        }
+    }
+
+    @Test
+    public void testPreferenceListHasAllNodes() {
+        ConsistentHashRing<String> ring = createRing();
+        List<String> preferenceList = ring.getPreferenceList("device-1");
+        AssertJUnit.assertEquals(3, preferenceList.size());
+        AssertJUnit.assertTrue(preferenceList.contains("receiver-1"));
+        AssertJUnit.assertTrue(preferenceList.contains("receiver-2"));
+        AssertJUnit.assertTrue(preferenceList.contains("receiver-3"));
+    }
+
+    @Test
+    public void testMinimalRemapping() {
+        ConsistentHashRing<String> ring = createRing();
+        Map<String, List<String>> before = new HashMap<>();
+        for (int i = 0; i < KEY_COUNT; i++) {
+            before.put("device-" + i, ring.getPreferenceList("device-" + i));
+        }
+        ring.removeNode("receiver-2");
+        for (Map.Entry<String, List<String>> entry : before.entrySet()) {
+            String owner = ring.getPreferenceList(entry.getKey()).get(0);
+            String previousOwner = entry.getValue().get(0);
+            if (!previousOwner.equals("receiver-2")) {
+                AssertJUnit.assertEquals("Key owned by an available node has been remapped", previousOwner, owner);
+            } else {
+                AssertJUnit.assertEquals("Key should be moved to the successor", entry.getValue().get(1), owner);
+            }
+        }
+        ring.addNode("receiver-2", "tcp://10.100.0.2:9611");
+        for (Map.Entry<String, List<String>> entry : before.entrySet()) {
+            AssertJUnit.assertEquals(entry.getValue().get(0), ring.getPreferenceList(entry.getKey()).get(0));
+        }
+    }
+
+    @Test
+    public void testWeightedKeyDistribution() {
+        ConsistentHashRing<String> ring = createRing();
+        Map<String, List<String>> before = new HashMap<>();
+        for (int i = 0; i < KEY_COUNT; i++) {
+            before.put("device-" + i, ring.getPreferenceList("device-" + i));
+        }
+        AssertJUnit.assertTrue(ring.setWeight("receiver-3", 4));
+        AssertJUnit.assertFalse(ring.setWeight("receiver-4", 4));
+        Map<String, Integer> counts = new HashMap<>();
+        for (Map.Entry<String, List<String>> entry : before.entrySet()) {
+            String owner = ring.getPreferenceList(entry.getKey()).get(0);
+            Integer count = counts.get(owner);
+            counts.put(owner, count == null ? 1 : count + 1);
+            if (!owner.equals("receiver-3")) {
+                AssertJUnit.assertEquals("Only the keys gained by the reweighted node should be remapped",
+                        entry.getValue().get(0), owner);
+            }
+        }
+        AssertJUnit.assertTrue("Keys are not distributed by the weights: " + counts,
+                counts.get("receiver-3") > KEY_COUNT / 2);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidWeight() {
+        createRing().addNode("receiver-4", "tcp://10.100.0.4:9611", 0);
+    }
+
+    @Test
+    public void testEmptyRing() {
+        ConsistentHashRing<String> ring = new ConsistentHashRing<>(10);
+        AssertJUnit.assertTrue(ring.getPreferenceList("device-1").isEmpty());
+    }
+
+    @Test
+    public void testPartitionKeyExtractor() throws DataEndpointConfigurationException {
+        Map<String, String> arbitraryData = new HashMap<>();
+        arbitraryData.put("tenant", "carbon.super");
+        Event event = new Event("stream:1.0.0", 0, new Object[]{"host-1", 12}, null,
+                new Object[]{"device-7", 1.5}, arbitraryData);
+        AssertJUnit.assertEquals("host-1", new PartitionKeyExtractor("meta:0").extract(event));
+        AssertJUnit.assertEquals("device-7", new PartitionKeyExtractor("payload:0").extract(event));
+        AssertJUnit.assertEquals("carbon.super", new PartitionKeyExtractor("arbitrary:tenant").extract(event));
+        AssertJUnit.assertNull(new PartitionKeyExtractor("correlation:0").extract(event));
+        AssertJUnit.assertNull(new PartitionKeyExtractor("payload:5").extract(event));
+    }
+
+    @Test(expectedExceptions = DataEndpointConfigurationException.class)
+    public void testInvalidPartitionKeyAttribute() throws DataEndpointConfigurationException {
+        new PartitionKeyExtractor("body:0");
+    }
+}
@@ -0,0 +1,130 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.test;
+
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+import org.wso2.carbon.databridge.agent.AgentHolder;
+import org.wso2.carbon.databridge.agent.DataEndpointAgent;
+import org.wso2.carbon.databridge.agent.DataPublisher;
+import org.wso2.carbon.databridge.agent.aggregation.AggregatedEventCallback;
+import org.wso2.carbon.databridge.agent.aggregation.AggregationFunction;
+import org.wso2.carbon.databridge.agent.aggregation.EventAggregator;
+import org.wso2.carbon.databridge.agent.aggregation.StreamAggregation;
+import org.wso2.carbon.databridge.agent.conf.AgentConfiguration;
+import org.wso2.carbon.databridge.agent.exception.DataEndpointConfigurationException;
+import org.wso2.carbon.databridge.agent.util.DataPublisherUtil;
+import org.wso2.carbon.databridge.commons.Event;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Event Aggregator Testcase.
+ */
+public class EventAggregatorTest {
+
+    private static final String STREAM_ID = "org.wso2.cpu:1.0.0";
+
+    @Test
+    public void testStreamAggregations() throws DataEndpointConfigurationException {
+        List<StreamAggregation> aggregations = DataPublisherUtil.getStreamAggregations(
+                "org.wso2.cpu:1.0.0|1000|meta:0|payload:0=sum,payload:1=max;" +
+                        "org.wso2.requests:1.0.0|5000||payload:0=count");
+        AssertJUnit.assertEquals(2, aggregations.size());
+        AssertJUnit.assertEquals(STREAM_ID, aggregations.get(0).getStreamId());
+        AssertJUnit.assertEquals(1000, aggregations.get(0).getWindowMS());
+        AssertJUnit.assertEquals(1, aggregations.get(0).getKeyAttributes().size());
+        AssertJUnit.assertEquals(AggregationFunction.MAX,
+                aggregations.get(0).getAttributeAggregations().get(1).getFunction());
+        AssertJUnit.assertTrue(aggregations.get(1).getKeyAttributes().isEmpty());
+    }
+
+    @Test(expectedExceptions = DataEndpointConfigurationException.class)
+    public void testInvalidAggregationFunction() throws DataEndpointConfigurationException {
+        DataPublisherUtil.getStreamAggregations("org.wso2.cpu:1.0.0|1000|meta:0|payload:0=avg");
+    }
+
+    @Test
+    public void testAggregation() throws DataEndpointConfigurationException {
+        final List<Event> aggregatedEvents = Collections.synchronizedList(new ArrayList<Event>());
+        EventAggregator eventAggregator = new EventAggregator(DataPublisherUtil.getStreamAggregations(
+                STREAM_ID + "|60000|meta:0|payload:0=sum,payload:1=min,payload:2=max,payload:3=count"),
+                new AggregatedEventCallback() {
+                    @Override
+                    public void publishAggregatedEvent(Event event) {
+                        aggregatedEvents.add(event);
+                    }
+                });
+        for (int i = 1; i <= 100; i++) {
+            String host = i % 2 == 0 ? "host-1" : "host-2";
+            AssertJUnit.assertTrue(eventAggregator.aggregate(new Event(STREAM_ID, System.currentTimeMillis(),
+                    new Object[]{host}, null, new Object[]{i, (double) i, (float) i, 0, "last-" + i})));
+        }
+        AssertJUnit.assertFalse(eventAggregator.aggregate(new Event("org.wso2.other:1.0.0",
+                System.currentTimeMillis(), null, null, new Object[]{1})));
+        eventAggregator.shutdown();
+
+        AssertJUnit.assertEquals(2, aggregatedEvents.size());
+        Map<Object, Object[]> payloads = new HashMap<>();
+        for (Event event : aggregatedEvents) {
+            payloads.put(event.getMetaData()[0], event.getPayloadData());
+        }
+        Object[] evenPayload = payloads.get("host-1");
+        AssertJUnit.assertEquals(2550, evenPayload[0]);
+        AssertJUnit.assertEquals(2.0, evenPayload[1]);
+        AssertJUnit.assertEquals(100.0f, evenPayload[2]);
+        AssertJUnit.assertEquals(50, evenPayload[3]);
+        AssertJUnit.assertEquals("last-100", evenPayload[4]);
+        Object[] oddPayload = payloads.get("host-2");
+        AssertJUnit.assertEquals(2500, oddPayload[0]);
+        AssertJUnit.assertEquals(1.0, oddPayload[1]);
+        AssertJUnit.assertEquals("last-99", oddPayload[4]);
+    }
+
+    @Test
+    public void testInvalidAggregationCreatesNoEndpointGroup() throws Exception {
+        DataPublisherTestUtil.setTrustStoreParams();
+        AgentHolder.setConfigPath(DataPublisherTestUtil.getDataAgentConfigPath("data.agent.config.yaml"));
+        DataEndpointAgent agent = AgentHolder.getInstance().getDataEndpointAgent("Thrift");
+        AgentConfiguration agentConfiguration = agent.getAgentConfiguration();
+        String receiverURLSet = "tcp://localhost:7631";
+        String authURLSet = "ssl://localhost:7731";
+        agentConfiguration.setShareEndpointGroups(true);
+        agentConfiguration.setStreamAggregations(STREAM_ID + "|1000|meta:0|payload:0=avg");
+        try {
+            new DataPublisher("Thrift", receiverURLSet, authURLSet, "admin", "admin");
+            AssertJUnit.fail("Data publisher should not be created with an invalid stream aggregation");
+        } catch (DataEndpointConfigurationException expected) {
+            // The aggregation function is not supported.
+        } finally {
+            agentConfiguration.setShareEndpointGroups(false);
+            agentConfiguration.setStreamAggregations("");
+        }
+        Object[] receiverGroup = DataPublisherUtil.getEndpointGroups(receiverURLSet).get(0);
+        Object[] authGroup = DataPublisherUtil.getEndpointGroups(authURLSet).get(0);
+        AssertJUnit.assertNull("Endpoint group should not be registered for a failed data publisher",
+                agent.acquireSharedDataEndpointGroup(Arrays.asList(receiverGroup[0], Arrays.asList(receiverGroup),
+                        Arrays.asList(authGroup), "admin", "admin")));
+        AgentHolder.shutdown();
+    }
+}
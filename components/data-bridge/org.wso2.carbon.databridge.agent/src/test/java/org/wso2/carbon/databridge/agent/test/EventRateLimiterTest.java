@@ -0,0 +1,106 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.test;
+
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+import org.wso2.carbon.databridge.agent.exception.DataEndpointConfigurationException;
+import org.wso2.carbon.databridge.agent.ratelimit.EventRateLimiter;
+import org.wso2.carbon.databridge.agent.ratelimit.RateLimit;
+import org.wso2.carbon.databridge.agent.util.DataPublisherUtil;
+import org.wso2.carbon.databridge.commons.Event;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Event Rate Limiter Testcase.
+ */
+public class EventRateLimiterTest {
+
+    private static final String STREAM_ID = "org.wso2.test:1.0.0";
+
+    private static final String LIMITED_STREAM_ID = "org.wso2.limited:1.0.0";
+
+    private Event createEvent(String streamId) {
+        return new Event(streamId, System.currentTimeMillis(), null, null, new Object[]{"device-1", 12.5});
+    }
+
+    @Test
+    public void testPublisherRateLimitWithDropPolicy() {
+        EventRateLimiter rateLimiter = new EventRateLimiter(new RateLimit(100, 0),
+                new HashMap<String, RateLimit>(), false);
+        int acceptedEvents = 0;
+        for (int i = 0; i < 200; i++) {
+            if (rateLimiter.acquire(createEvent(STREAM_ID), -1)) {
+                acceptedEvents++;
+            }
+        }
+        AssertJUnit.assertTrue("Accepted events : " + acceptedEvents, acceptedEvents >= 100 && acceptedEvents < 120);
+        AssertJUnit.assertEquals(200 - acceptedEvents, rateLimiter.getDroppedEventCount());
+        AssertJUnit.assertEquals(200 - acceptedEvents, rateLimiter.getRateLimitedEventCount());
+    }
+
+    @Test
+    public void testStreamRateLimitWithBlockPolicy() {
+        Map<String, RateLimit> streamRateLimits = new HashMap<>();
+        streamRateLimits.put(LIMITED_STREAM_ID, new RateLimit(50, 0));
+        EventRateLimiter rateLimiter = new EventRateLimiter(null, streamRateLimits, true);
+        for (int i = 0; i < 1000; i++) {
+            AssertJUnit.assertTrue(rateLimiter.acquire(createEvent(STREAM_ID), 0));
+        }
+        for (int i = 0; i < 50; i++) {
+            AssertJUnit.assertTrue(rateLimiter.acquire(createEvent(LIMITED_STREAM_ID), 0));
+        }
+        AssertJUnit.assertFalse(rateLimiter.acquire(createEvent(LIMITED_STREAM_ID), 0));
+        long startTime = System.currentTimeMillis();
+        AssertJUnit.assertTrue(rateLimiter.acquire(createEvent(LIMITED_STREAM_ID), 1000));
+        AssertJUnit.assertTrue(System.currentTimeMillis() - startTime < 1000);
+        AssertJUnit.assertEquals(2, rateLimiter.getRateLimitedEventCount());
+        AssertJUnit.assertEquals(1, rateLimiter.getDroppedEventCount());
+    }
+
+    @Test
+    public void testByteRateLimit() {
+        Event event = createEvent(STREAM_ID);
+        EventRateLimiter rateLimiter = new EventRateLimiter(new RateLimit(0, 1000),
+                new HashMap<String, RateLimit>(), false);
+        int acceptedEvents = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (rateLimiter.acquire(event, 0)) {
+                acceptedEvents++;
+            }
+        }
+        AssertJUnit.assertTrue("Accepted events : " + acceptedEvents, acceptedEvents > 0 && acceptedEvents < 1000);
+    }
+
+    @Test
+    public void testStreamRateLimits() throws DataEndpointConfigurationException {
+        Map<String, RateLimit> rateLimits = DataPublisherUtil.getStreamRateLimits(
+                "org.wso2.alerts:1.0.0=1000:0, org.wso2.logs:1.0.0=5000:1048576");
+        AssertJUnit.assertEquals(2, rateLimits.size());
+        AssertJUnit.assertEquals(1000, rateLimits.get("org.wso2.alerts:1.0.0").getEventsPerSecond());
+        AssertJUnit.assertFalse(rateLimits.get("org.wso2.alerts:1.0.0").isByteLimited());
+        AssertJUnit.assertEquals(1048576, rateLimits.get("org.wso2.logs:1.0.0").getBytesPerSecond());
+    }
+
+    @Test(expectedExceptions = DataEndpointConfigurationException.class)
+    public void testInvalidStreamRateLimit() throws DataEndpointConfigurationException {
+        DataPublisherUtil.getStreamRateLimits("org.wso2.alerts:1.0.0=1000");
+    }
+}
@@ -0,0 +1,202 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.test;
+
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+import org.wso2.carbon.databridge.agent.DataEndpointAgent;
+import org.wso2.carbon.databridge.agent.conf.AgentConfiguration;
+import org.wso2.carbon.databridge.agent.conf.DataEndpointConfiguration;
+import org.wso2.carbon.databridge.agent.endpoint.DataEndpoint;
+import org.wso2.carbon.databridge.agent.endpoint.DataEndpointGroup;
+import org.wso2.carbon.databridge.agent.endpoint.DropReason;
+import org.wso2.carbon.databridge.agent.endpoint.StreamQueue;
+import org.wso2.carbon.databridge.agent.endpoint.local.LocalDataEndpoint;
+import org.wso2.carbon.databridge.agent.exception.EventQueueFullException;
+import org.wso2.carbon.databridge.commons.Event;
+import org.wso2.carbon.databridge.commons.LocalEventReceiver;
+import org.wso2.carbon.databridge.commons.utils.LocalEventReceiverRegistry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Fair Event Queue Testcase.
+ */
+public class FairEventQueueTest {
+
+    private static final String BLOCKING_STREAM_ID = "org.wso2.blocking:1.0.0";
+
+    private static final String HEAVY_STREAM_ID = "org.wso2.heavy:1.0.0";
+
+    private static final String LIGHT_STREAM_ID = "org.wso2.light:1.0.0";
+
+    @Test
+    public void testDeficitRoundRobin() throws Exception {
+        OrderedLocalEventReceiver receiver = new OrderedLocalEventReceiver();
+        LocalEventReceiverRegistry.register("fair", receiver);
+        AgentConfiguration agentConfiguration = new AgentConfiguration("Local", LocalDataEndpoint.class.getName());
+        agentConfiguration.setFairQueueQuantum(1);
+        agentConfiguration.setStreamShares(HEAVY_STREAM_ID + "=2");
+        // A single publisher thread sends the events in the order they are dispatched.
+        agentConfiguration.setCorePoolSize(1);
+        agentConfiguration.setMaxPoolSize(1);
+        DataEndpointAgent agent = new DataEndpointAgent(agentConfiguration);
+        DataEndpointGroup endpointGroup = new DataEndpointGroup(DataEndpointGroup.HAType.FAILOVER, agent);
+        try {
+            blockConsumer(endpointGroup);
+            for (int i = 0; i < 20; i++) {
+                endpointGroup.publish(createEvent(HEAVY_STREAM_ID));
+            }
+            for (int i = 0; i < 10; i++) {
+                endpointGroup.publish(createEvent(LIGHT_STREAM_ID));
+            }
+            AssertJUnit.assertEquals(20, getStreamQueue(endpointGroup, HEAVY_STREAM_ID).size());
+            AssertJUnit.assertEquals(10, getStreamQueue(endpointGroup, LIGHT_STREAM_ID).size());
+
+            endpointGroup.addDataEndpoint(createDataEndpoint(agent, "local://fair:0"));
+            long stopTime = System.currentTimeMillis() + 10000;
+            while (receiver.getStreamIds().size() < 31 && System.currentTimeMillis() < stopTime) {
+                Thread.sleep(10);
+            }
+            List<String> streamIds = receiver.getStreamIds();
+            AssertJUnit.assertEquals(31, streamIds.size());
+            AssertJUnit.assertEquals(BLOCKING_STREAM_ID, streamIds.get(0));
+            for (int i = 1; i < streamIds.size(); i += 3) {
+                // The heavy stream gets two slots of each round for its share, while the light stream gets one.
+                AssertJUnit.assertEquals(HEAVY_STREAM_ID, streamIds.get(i));
+                AssertJUnit.assertEquals(HEAVY_STREAM_ID, streamIds.get(i + 1));
+                AssertJUnit.assertEquals(LIGHT_STREAM_ID, streamIds.get(i + 2));
+            }
+
+            stopTime = System.currentTimeMillis() + 5000;
+            while (!endpointGroup.getStreamQueues().isEmpty() && System.currentTimeMillis() < stopTime) {
+                Thread.sleep(10);
+            }
+            AssertJUnit.assertTrue("Queues of the drained streams should be removed",
+                    endpointGroup.getStreamQueues().isEmpty());
+        } finally {
+            endpointGroup.shutdown();
+            agent.shutDown();
+            LocalEventReceiverRegistry.unregister("fair", receiver);
+        }
+    }
+
+    @Test
+    public void testQueueCapacity() throws Exception {
+        AgentConfiguration agentConfiguration = new AgentConfiguration("Local", LocalDataEndpoint.class.getName());
+        agentConfiguration.setFairQueueQuantum(2);
+        agentConfiguration.setQueueSize(10);
+        DataEndpointAgent agent = new DataEndpointAgent(agentConfiguration);
+        DataEndpointGroup endpointGroup = new DataEndpointGroup(DataEndpointGroup.HAType.FAILOVER, agent);
+        try {
+            blockConsumer(endpointGroup);
+            int rejectedEvents = 0;
+            for (int i = 0; i < 20; i++) {
+                try {
+                    endpointGroup.tryPublish(createEvent(HEAVY_STREAM_ID));
+                } catch (EventQueueFullException e) {
+                    rejectedEvents++;
+                }
+            }
+            AssertJUnit.assertEquals(10, rejectedEvents);
+            AssertJUnit.assertEquals(10, getStreamQueue(endpointGroup, HEAVY_STREAM_ID).size());
+
+            // The light stream within its quantum takes the slots of the heavy stream, but never exceeds the capacity.
+            endpointGroup.tryPublish(createEvent(LIGHT_STREAM_ID));
+            endpointGroup.tryPublish(createEvent(LIGHT_STREAM_ID));
+            try {
+                endpointGroup.tryPublish(createEvent(LIGHT_STREAM_ID));
+                AssertJUnit.fail("Stream exceeding its quantum should not be admitted to the full queue");
+            } catch (EventQueueFullException expected) {
+                // The light stream has used its quantum.
+            }
+            AssertJUnit.assertEquals(8, getStreamQueue(endpointGroup, HEAVY_STREAM_ID).size());
+            AssertJUnit.assertEquals(2, getStreamQueue(endpointGroup, LIGHT_STREAM_ID).size());
+            AssertJUnit.assertEquals(2, endpointGroup.getDroppedEventCount(DropReason.OLDEST_EVICTED));
+            AssertJUnit.assertEquals(11, endpointGroup.getDroppedEventCount(DropReason.QUEUE_FULL));
+        } finally {
+            endpointGroup.shutdown();
+            agent.shutDown();
+        }
+    }
+
+    /**
+     * Publish an event, which is taken by the queue consumer and held until an endpoint is added to the group.
+     * Hence the events published afterwards stay in the queue.
+     */
+    private void blockConsumer(DataEndpointGroup endpointGroup) throws InterruptedException {
+        endpointGroup.publish(createEvent(BLOCKING_STREAM_ID));
+        long stopTime = System.currentTimeMillis() + 5000;
+        while (getStreamQueue(endpointGroup, BLOCKING_STREAM_ID).size() > 0 &&
+                System.currentTimeMillis() < stopTime) {
+            Thread.sleep(10);
+        }
+        AssertJUnit.assertEquals(0, getStreamQueue(endpointGroup, BLOCKING_STREAM_ID).size());
+    }
+
+    private StreamQueue getStreamQueue(DataEndpointGroup endpointGroup, String streamId) {
+        for (StreamQueue streamQueue : endpointGroup.getStreamQueues()) {
+            if (streamQueue.getStreamId().equals(streamId)) {
+                return streamQueue;
+            }
+        }
+        throw new AssertionError("No stream queue for the stream : " + streamId);
+    }
+
+    private DataEndpoint createDataEndpoint(DataEndpointAgent agent, String receiverURL) throws Exception {
+        AgentConfiguration agentConfiguration = agent.getAgentConfiguration();
+        DataEndpointConfiguration endpointConfiguration = new DataEndpointConfiguration(receiverURL, receiverURL,
+                "admin", "admin", agent.getTransportPool(), agent.getSecuredTransportPool(),
+                agentConfiguration.getBatchSize(), agentConfiguration.getCorePoolSize(),
+                agentConfiguration.getMaxPoolSize(), agentConfiguration.getKeepAliveTimeInPool());
+        DataEndpoint dataEndpoint = agent.getNewDataEndpoint();
+        dataEndpoint.initialize(endpointConfiguration);
+        return dataEndpoint;
+    }
+
+    private Event createEvent(String streamId) {
+        return new Event(streamId, System.currentTimeMillis(), null, null, new Object[]{"WSO2", 123.4});
+    }
+
+    private static class OrderedLocalEventReceiver implements LocalEventReceiver {
+
+        private final List<String> streamIds = Collections.synchronizedList(new ArrayList<String>());
+
+        @Override
+        public String login(String username, String password) {
+            return "session-" + username;
+        }
+
+        @Override
+        public void logout(String sessionId) {
+        }
+
+        @Override
+        public void publish(List<Event> events, String sessionId) {
+            for (Event event : events) {
+                streamIds.add(event.getStreamId());
+            }
+        }
+
+        private List<String> getStreamIds() {
+            return new ArrayList<>(streamIds);
+        }
+    }
+}
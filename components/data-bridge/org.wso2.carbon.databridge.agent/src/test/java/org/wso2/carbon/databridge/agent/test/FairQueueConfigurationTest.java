@@ -0,0 +1,55 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.test;
+
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+import org.wso2.carbon.databridge.agent.exception.DataEndpointConfigurationException;
+import org.wso2.carbon.databridge.agent.util.DataPublisherUtil;
+
+import java.util.Map;
+
+/**
+ * Per stream Fair Queue Configuration Testcase.
+ */
+public class FairQueueConfigurationTest {
+
+    @Test
+    public void testStreamShares() throws DataEndpointConfigurationException {
+        Map<String, Integer> shares = DataPublisherUtil.getStreamShares("control:1.0.0=4, metrics:1.0.0=1");
+        AssertJUnit.assertEquals(2, shares.size());
+        AssertJUnit.assertEquals(Integer.valueOf(4), shares.get("control:1.0.0"));
+        AssertJUnit.assertEquals(Integer.valueOf(1), shares.get("metrics:1.0.0"));
+        AssertJUnit.assertTrue(DataPublisherUtil.getStreamShares("").isEmpty());
+    }
+
+    @Test(expectedExceptions = DataEndpointConfigurationException.class)
+    public void testInvalidShare() throws DataEndpointConfigurationException {
+        DataPublisherUtil.getStreamShares("control:1.0.0=high");
+    }
+
+    @Test(expectedExceptions = DataEndpointConfigurationException.class)
+    public void testNonPositiveShare() throws DataEndpointConfigurationException {
+        DataPublisherUtil.getStreamShares("control:1.0.0=0");
+    }
+
+    @Test(expectedExceptions = DataEndpointConfigurationException.class)
+    public void testMissingShare() throws DataEndpointConfigurationException {
+        DataPublisherUtil.getStreamShares("control:1.0.0");
+    }
+}
@@ -0,0 +1,621 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.test;
+
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+import org.wso2.carbon.databridge.agent.DataEndpointAgent;
+import org.wso2.carbon.databridge.agent.conf.AgentConfiguration;
+import org.wso2.carbon.databridge.agent.conf.DataEndpointConfiguration;
+import org.wso2.carbon.databridge.agent.endpoint.DataEndpoint;
+import org.wso2.carbon.databridge.agent.endpoint.DataEndpointGroup;
+import org.wso2.carbon.databridge.agent.endpoint.local.LocalDataEndpoint;
+import org.wso2.carbon.databridge.agent.util.DataEndpointConstants;
+import org.wso2.carbon.databridge.agent.util.DataPublisherUtil;
+import org.wso2.carbon.databridge.commons.Event;
+import org.wso2.carbon.databridge.commons.LocalEventReceiver;
+import org.wso2.carbon.databridge.commons.exception.AuthenticationException;
+import org.wso2.carbon.databridge.commons.exception.SessionTimeoutException;
+import org.wso2.carbon.databridge.commons.utils.LocalEventReceiverRegistry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local Data Endpoint Testcase.
+ */
+public class LocalDataEndpointTest {
+
+    @Test
+    public void testLocalURLSet() throws Exception {
+        AssertJUnit.assertTrue(DataPublisherUtil.isLocalURLSet("{local://default:0}"));
+        AssertJUnit.assertFalse(DataPublisherUtil.isLocalURLSet("local://default:0,tcp://localhost:7611"));
+        AssertJUnit.assertEquals("local://default:0", DataPublisherUtil.getDefaultAuthUrl("local://default:0"));
+    }
+
+    @Test
+    public void testPublishToLocalReceiver() throws Exception {
+        TestLocalEventReceiver receiver = new TestLocalEventReceiver();
+        LocalEventReceiverRegistry.register("test", receiver);
+        AgentConfiguration agentConfiguration = new AgentConfiguration("Local", LocalDataEndpoint.class.getName());
+        agentConfiguration.setPublishingStrategy("sync");
+        DataEndpointAgent agent = new DataEndpointAgent(agentConfiguration);
+        DataEndpointGroup endpointGroup = new DataEndpointGroup(DataEndpointGroup.HAType.FAILOVER, agent);
+        try {
+            DataEndpointConfiguration endpointConfiguration = new DataEndpointConfiguration("local://test:0",
+                    "local://test:0", "admin", "admin", agent.getTransportPool(), agent.getSecuredTransportPool(),
+                    agentConfiguration.getBatchSize(), agentConfiguration.getCorePoolSize(),
+                    agentConfiguration.getMaxPoolSize(), agentConfiguration.getKeepAliveTimeInPool());
+            DataEndpoint dataEndpoint = agent.getNewDataEndpoint();
+            dataEndpoint.initialize(endpointConfiguration);
+            endpointGroup.addDataEndpoint(dataEndpoint);
+
+            Event event = new Event("org.wso2.test:1.0.0", System.currentTimeMillis(), null, null,
+                    new Object[]{"WSO2", 123.4});
+            endpointGroup.publish(event);
+            AssertJUnit.assertEquals(1, receiver.events.size());
+            AssertJUnit.assertSame("Events should be handed over without copying", event, receiver.events.get(0));
+            AssertJUnit.assertEquals("session-admin", receiver.sessionId);
+        } finally {
+            endpointGroup.shutdown();
+            agent.shutDown();
+            LocalEventReceiverRegistry.unregister("test", receiver);
+        }
+    }
+
+    @Test
+    public void testRuntimeEndpointChanges() throws Exception {
+        TestLocalEventReceiver receiver1 = new TestLocalEventReceiver();
+        TestLocalEventReceiver receiver2 = new TestLocalEventReceiver();
+        TestLocalEventReceiver receiver3 = new TestLocalEventReceiver();
+        LocalEventReceiverRegistry.register("receiver1", receiver1);
+        LocalEventReceiverRegistry.register("receiver2", receiver2);
+        LocalEventReceiverRegistry.register("receiver3", receiver3);
+        AgentConfiguration agentConfiguration = new AgentConfiguration("Local", LocalDataEndpoint.class.getName());
+        agentConfiguration.setPublishingStrategy("sync");
+        DataEndpointAgent agent = new DataEndpointAgent(agentConfiguration);
+        DataEndpointGroup endpointGroup = new DataEndpointGroup(DataEndpointGroup.HAType.LOADBALANCE, agent);
+        try {
+            endpointGroup.addDataEndpoint(createDataEndpoint(agent, "local://receiver1:0"), 1);
+            endpointGroup.addDataEndpoint(createDataEndpoint(agent, "local://receiver2:0"), 3);
+            publish(endpointGroup, 400);
+            AssertJUnit.assertEquals(400, receiver1.events.size() + receiver2.events.size());
+            AssertJUnit.assertTrue("Events are not load balanced by the weights",
+                    receiver2.events.size() > 2 * receiver1.events.size());
+
+            endpointGroup.drainDataEndpoint("local://receiver2:0");
+            int receiver2Events = receiver2.events.size();
+            publish(endpointGroup, 100);
+            AssertJUnit.assertEquals("Draining endpoint should not get new events", receiver2Events,
+                    receiver2.events.size());
+            AssertJUnit.assertEquals(Collections.singletonList("local://receiver2:0"),
+                    endpointGroup.getDrainingReceiverURLs());
+
+            endpointGroup.removeDataEndpoint("local://receiver2:0");
+            endpointGroup.addDataEndpoint(createDataEndpoint(agent, "local://receiver3:0"), 1);
+            long stopTime = System.currentTimeMillis() + 5000;
+            while (endpointGroup.hasDataEndpoint("local://receiver2:0") && System.currentTimeMillis() < stopTime) {
+                Thread.sleep(10);
+            }
+            AssertJUnit.assertFalse(endpointGroup.hasDataEndpoint("local://receiver2:0"));
+            publish(endpointGroup, 100);
+            AssertJUnit.assertTrue("Added endpoint should get the events", receiver3.events.size() > 0);
+
+            endpointGroup.setDataEndpointWeight("local://receiver3:0", 2);
+            AssertJUnit.assertEquals(Integer.valueOf(2),
+                    endpointGroup.getDataEndpointWeights().get("local://receiver3:0"));
+        } finally {
+            endpointGroup.shutdown();
+            agent.shutDown();
+            LocalEventReceiverRegistry.unregister("receiver1", receiver1);
+            LocalEventReceiverRegistry.unregister("receiver2", receiver2);
+            LocalEventReceiverRegistry.unregister("receiver3", receiver3);
+        }
+    }
+
+    @Test
+    public void testLazyConnection() throws Exception {
+        TestLocalEventReceiver receiver = new TestLocalEventReceiver();
+        LocalEventReceiverRegistry.register("lazy", receiver);
+        AgentConfiguration agentConfiguration = new AgentConfiguration("Local", LocalDataEndpoint.class.getName());
+        agentConfiguration.setPublishingStrategy("sync");
+        DataEndpointAgent agent = new DataEndpointAgent(agentConfiguration);
+        DataEndpointGroup endpointGroup = new DataEndpointGroup(DataEndpointGroup.HAType.FAILOVER, agent);
+        try {
+            DataEndpointConfiguration endpointConfiguration = new DataEndpointConfiguration("local://lazy:0",
+                    "local://lazy:0", "admin", "admin", null, null, agentConfiguration.getBatchSize(),
+                    agentConfiguration.getCorePoolSize(), agentConfiguration.getMaxPoolSize(),
+                    agentConfiguration.getKeepAliveTimeInPool());
+            endpointConfiguration.setDataEndpointAgent(agent);
+            endpointConfiguration.setLazyConnect(true);
+            DataEndpoint dataEndpoint = agent.getNewDataEndpoint();
+            dataEndpoint.initialize(endpointConfiguration);
+            endpointGroup.addDataEndpoint(dataEndpoint);
+            Thread.sleep(100);
+            AssertJUnit.assertEquals("Endpoint should not be connected before an event is published",
+                    DataEndpoint.State.INITIALIZING, dataEndpoint.getState());
+            AssertJUnit.assertNull(receiver.sessionId);
+
+            publish(endpointGroup, 10);
+            AssertJUnit.assertEquals(10, receiver.events.size());
+            AssertJUnit.assertEquals(DataEndpoint.State.ACTIVE, dataEndpoint.getState());
+        } finally {
+            endpointGroup.shutdown();
+            agent.shutDown();
+            LocalEventReceiverRegistry.unregister("lazy", receiver);
+        }
+    }
+
+    @Test
+    public void testResendKeepsPartitionAffinity() throws Exception {
+        TestLocalEventReceiver receiver1 = new TestLocalEventReceiver();
+        TestLocalEventReceiver receiver2 = new TestLocalEventReceiver();
+        TestLocalEventReceiver receiver3 = new TestLocalEventReceiver();
+        receiver1.isFailing = true;
+        LocalEventReceiverRegistry.register("affinity1", receiver1);
+        LocalEventReceiverRegistry.register("affinity2", receiver2);
+        LocalEventReceiverRegistry.register("affinity3", receiver3);
+        AgentConfiguration agentConfiguration = new AgentConfiguration("Local", LocalDataEndpoint.class.getName());
+        agentConfiguration.setLoadBalancingStrategy(DataEndpointConstants.KEY_AFFINITY_LB_STRATEGY);
+        DataEndpointAgent agent = new DataEndpointAgent(agentConfiguration);
+        DataEndpointGroup endpointGroup = new DataEndpointGroup(DataEndpointGroup.HAType.LOADBALANCE, agent);
+        try {
+            endpointGroup.addDataEndpoint(createDataEndpoint(agent, "local://affinity1:0"), 1);
+            endpointGroup.addDataEndpoint(createDataEndpoint(agent, "local://affinity2:0"), 1);
+            endpointGroup.addDataEndpoint(createDataEndpoint(agent, "local://affinity3:0"), 1);
+            for (int i = 0; i < 300; i++) {
+                String key = "key-" + (i % 30);
+                endpointGroup.publish(new Event("org.wso2.test:1.0.0", System.currentTimeMillis(), null, null,
+                        new Object[]{key, (double) i}), key);
+            }
+            long stopTime = System.currentTimeMillis() + 5000;
+            while (receiver2.events.size() + receiver3.events.size() < 300 && System.currentTimeMillis() < stopTime) {
+                Thread.sleep(10);
+            }
+            AssertJUnit.assertEquals(300, receiver2.events.size() + receiver3.events.size());
+            AssertJUnit.assertTrue("Failing receiver should have owned some of the keys", receiver1.failedEvents > 0);
+            for (Event event : receiver2.getEvents()) {
+                for (Event otherEvent : receiver3.getEvents()) {
+                    AssertJUnit.assertFalse("Events of the key " + event.getPayloadData()[0] + " are resent to " +
+                            "different endpoints", event.getPayloadData()[0].equals(otherEvent.getPayloadData()[0]));
+                }
+            }
+        } finally {
+            endpointGroup.shutdown();
+            agent.shutDown();
+            LocalEventReceiverRegistry.unregister("affinity1", receiver1);
+            LocalEventReceiverRegistry.unregister("affinity2", receiver2);
+            LocalEventReceiverRegistry.unregister("affinity3", receiver3);
+        }
+    }
+
+    @Test
+    public void testSessionRenewal() throws Exception {
+        TestLocalEventReceiver receiver = new TestLocalEventReceiver();
+        LocalEventReceiverRegistry.register("renewal", receiver);
+        AgentConfiguration agentConfiguration = new AgentConfiguration("Local", LocalDataEndpoint.class.getName());
+        agentConfiguration.setPublishingStrategy("sync");
+        DataEndpointAgent agent = new DataEndpointAgent(agentConfiguration);
+        DataEndpointGroup endpointGroup = new DataEndpointGroup(DataEndpointGroup.HAType.FAILOVER, agent);
+        try {
+            DataEndpointConfiguration endpointConfiguration = new DataEndpointConfiguration("local://renewal:0",
+                    "local://renewal:0", "admin", "admin", agent.getTransportPool(), agent.getSecuredTransportPool(),
+                    agentConfiguration.getBatchSize(), agentConfiguration.getCorePoolSize(),
+                    agentConfiguration.getMaxPoolSize(), agentConfiguration.getKeepAliveTimeInPool());
+            endpointConfiguration.setSessionRenewalIntervalMS(100);
+            DataEndpoint dataEndpoint = agent.getNewDataEndpoint();
+            dataEndpoint.initialize(endpointConfiguration);
+            endpointGroup.addDataEndpoint(dataEndpoint);
+            long stopTime = System.currentTimeMillis() + 5000;
+            while (receiver.logins.get() < 3 && System.currentTimeMillis() < stopTime) {
+                Thread.sleep(10);
+            }
+            AssertJUnit.assertTrue("Session should be renewed in the background", receiver.logins.get() >= 3);
+
+            publish(endpointGroup, 10);
+            AssertJUnit.assertEquals(10, receiver.events.size());
+            AssertJUnit.assertFalse("Events should be published with a renewed session",
+                    "session-admin".equals(receiver.sessionId));
+            AssertJUnit.assertEquals("Sessions should not be logged out when they are renewed", 0,
+                    receiver.logouts.get());
+            AssertJUnit.assertEquals(DataEndpoint.State.ACTIVE, dataEndpoint.getState());
+        } finally {
+            endpointGroup.shutdown();
+            agent.shutDown();
+            LocalEventReceiverRegistry.unregister("renewal", receiver);
+        }
+    }
+
+    @Test
+    public void testSessionRenewalSerializedWithReconnection() throws Exception {
+        final ExpiringLocalEventReceiver receiver = new ExpiringLocalEventReceiver();
+        LocalEventReceiverRegistry.register("expiring", receiver);
+        AgentConfiguration agentConfiguration = new AgentConfiguration("Local", LocalDataEndpoint.class.getName());
+        agentConfiguration.setPublishingStrategy("sync");
+        DataEndpointAgent agent = new DataEndpointAgent(agentConfiguration);
+        final DataEndpointGroup endpointGroup = new DataEndpointGroup(DataEndpointGroup.HAType.FAILOVER, agent);
+        try {
+            DataEndpointConfiguration endpointConfiguration = new DataEndpointConfiguration("local://expiring:0",
+                    "local://expiring:0", "admin", "admin", agent.getTransportPool(),
+                    agent.getSecuredTransportPool(), agentConfiguration.getBatchSize(),
+                    agentConfiguration.getCorePoolSize(), agentConfiguration.getMaxPoolSize(),
+                    agentConfiguration.getKeepAliveTimeInPool());
+            endpointConfiguration.setSessionRenewalIntervalMS(20);
+            DataEndpoint dataEndpoint = agent.getNewDataEndpoint();
+            dataEndpoint.initialize(endpointConfiguration);
+            endpointGroup.addDataEndpoint(dataEndpoint);
+
+            // Each login expires the previous session, so the publishers reconnect while the session is renewed.
+            Thread[] publishers = new Thread[4];
+            for (int i = 0; i < publishers.length; i++) {
+                publishers[i] = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        for (int i = 0; i < 200; i++) {
+                            publish(endpointGroup, 1);
+                            try {
+                                Thread.sleep(1);
+                            } catch (InterruptedException e) {
+                                return;
+                            }
+                        }
+                    }
+                });
+                publishers[i].start();
+            }
+            for (Thread publisher : publishers) {
+                publisher.join();
+            }
+            AssertJUnit.assertEquals(800, receiver.events.get());
+            AssertJUnit.assertTrue("Session should be renewed in the background", receiver.logins.get() > 1);
+            AssertJUnit.assertEquals("Logins of the endpoint should not overlap", 1,
+                    receiver.maxConcurrentLogins.get());
+        } finally {
+            endpointGroup.shutdown();
+            agent.shutDown();
+            LocalEventReceiverRegistry.unregister("expiring", receiver);
+        }
+    }
+
+    @Test
+    public void testReconnectionKeepsConnectedEndpoint() throws Exception {
+        TestLocalEventReceiver receiver = new TestLocalEventReceiver();
+        LocalEventReceiverRegistry.register("reconnection", receiver);
+        AgentConfiguration agentConfiguration = new AgentConfiguration("Local", LocalDataEndpoint.class.getName());
+        agentConfiguration.setPublishingStrategy("sync");
+        agentConfiguration.setReconnectionInterval(1);
+        DataEndpointAgent agent = new DataEndpointAgent(agentConfiguration);
+        DataEndpointGroup endpointGroup = new DataEndpointGroup(DataEndpointGroup.HAType.FAILOVER, agent);
+        try {
+            DataEndpoint dataEndpoint = createDataEndpoint(agent, "local://reconnection:0");
+            endpointGroup.addDataEndpoint(dataEndpoint);
+            publish(endpointGroup, 10);
+            // The reconnection task checks the connected endpoints at every interval.
+            long checkStopTime = System.currentTimeMillis() + 2500;
+            while (System.currentTimeMillis() < checkStopTime) {
+                AssertJUnit.assertEquals("Connected local endpoint should not be deactivated by the reconnection " +
+                        "task", DataEndpoint.State.ACTIVE, dataEndpoint.getState());
+                Thread.sleep(5);
+            }
+            publish(endpointGroup, 10);
+            AssertJUnit.assertEquals(20, receiver.events.size());
+
+            LocalEventReceiverRegistry.unregister("reconnection", receiver);
+            long stopTime = System.currentTimeMillis() + 5000;
+            while (dataEndpoint.getState() == DataEndpoint.State.ACTIVE && System.currentTimeMillis() < stopTime) {
+                Thread.sleep(10);
+            }
+            AssertJUnit.assertEquals("Endpoint should be deactivated once the receiver is unregistered",
+                    DataEndpoint.State.UNAVAILABLE, dataEndpoint.getState());
+        } finally {
+            endpointGroup.shutdown();
+            agent.shutDown();
+            LocalEventReceiverRegistry.unregister("reconnection", receiver);
+        }
+    }
+
+    @Test
+    public void testGroupCommitBatchFailure() throws Exception {
+        final GroupCommitLocalEventReceiver receiver1 = new GroupCommitLocalEventReceiver(true);
+        final GroupCommitLocalEventReceiver receiver2 = new GroupCommitLocalEventReceiver(false);
+        LocalEventReceiverRegistry.register("commit1", receiver1);
+        LocalEventReceiverRegistry.register("commit2", receiver2);
+        AgentConfiguration agentConfiguration = new AgentConfiguration("Local", LocalDataEndpoint.class.getName());
+        agentConfiguration.setPublishingStrategy("sync");
+        // The endpoint sending a batch is not busy for the other callers, as a batch is sent at a time.
+        agentConfiguration.setMaxPoolSize(4);
+        DataEndpointAgent agent = new DataEndpointAgent(agentConfiguration);
+        final DataEndpointGroup endpointGroup = new DataEndpointGroup(DataEndpointGroup.HAType.FAILOVER, agent);
+        try {
+            endpointGroup.addDataEndpoint(createDataEndpoint(agent, "local://commit1:0", 1));
+            endpointGroup.addDataEndpoint(createDataEndpoint(agent, "local://commit2:0", 1));
+            // The first batch is held by the receiver while the other callers wait, hence the second batch is
+            // shared by them, and the second batch fails.
+            int numberOfCallers = 16;
+            final boolean[] isSentOnReturn = new boolean[numberOfCallers];
+            List<Thread> callers = new ArrayList<>();
+            for (int i = 0; i < numberOfCallers; i++) {
+                final int id = i;
+                Thread caller = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        endpointGroup.publish(new Event("org.wso2.test:1.0.0", System.currentTimeMillis(), null,
+                                null, new Object[]{"WSO2", (double) id}));
+                        isSentOnReturn[id] = receiver1.isAttempted(id);
+                    }
+                });
+                callers.add(caller);
+                caller.start();
+                if (i == 0) {
+                    long stopTime = System.currentTimeMillis() + 5000;
+                    while (receiver1.getBatchCount() == 0 && System.currentTimeMillis() < stopTime) {
+                        Thread.sleep(1);
+                    }
+                }
+            }
+            for (Thread caller : callers) {
+                caller.join(10000);
+                AssertJUnit.assertFalse("Caller waiting for a failed batch should return", caller.isAlive());
+            }
+            AssertJUnit.assertTrue("Failed batch should be shared by the callers", receiver1.failedEvents.size() > 1);
+            for (int i = 0; i < numberOfCallers; i++) {
+                AssertJUnit.assertTrue("Caller " + i + " returned before its batch is sent", isSentOnReturn[i]);
+            }
+            long stopTime = System.currentTimeMillis() + 5000;
+            while (receiver1.events.size() + receiver2.events.size() < numberOfCallers &&
+                    System.currentTimeMillis() < stopTime) {
+                Thread.sleep(10);
+            }
+            AssertJUnit.assertEquals(receiver1.failedEvents, receiver2.events);
+            AssertJUnit.assertEquals(numberOfCallers, receiver1.events.size() + receiver2.events.size());
+        } finally {
+            endpointGroup.shutdown();
+            agent.shutDown();
+            LocalEventReceiverRegistry.unregister("commit1", receiver1);
+            LocalEventReceiverRegistry.unregister("commit2", receiver2);
+        }
+    }
+
+    @Test
+    public void testGroupCommitInterrupt() throws Exception {
+        GroupCommitLocalEventReceiver receiver = new GroupCommitLocalEventReceiver(false);
+        LocalEventReceiverRegistry.register("commit3", receiver);
+        AgentConfiguration agentConfiguration = new AgentConfiguration("Local", LocalDataEndpoint.class.getName());
+        agentConfiguration.setPublishingStrategy("sync");
+        agentConfiguration.setMaxPoolSize(4);
+        DataEndpointAgent agent = new DataEndpointAgent(agentConfiguration);
+        final DataEndpointGroup endpointGroup = new DataEndpointGroup(DataEndpointGroup.HAType.FAILOVER, agent);
+        try {
+            endpointGroup.addDataEndpoint(createDataEndpoint(agent, "local://commit3:0", 1));
+            Thread sender = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    endpointGroup.publish(new Event("org.wso2.test:1.0.0", System.currentTimeMillis(), null,
+                            null, new Object[]{"WSO2", 0.0}));
+                }
+            });
+            sender.start();
+            long stopTime = System.currentTimeMillis() + 5000;
+            while (receiver.getBatchCount() == 0 && System.currentTimeMillis() < stopTime) {
+                Thread.sleep(1);
+            }
+            final AtomicBoolean isInterruptedOnReturn = new AtomicBoolean();
+            Thread waiter = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    endpointGroup.publish(new Event("org.wso2.test:1.0.0", System.currentTimeMillis(), null,
+                            null, new Object[]{"WSO2", 1.0}));
+                    isInterruptedOnReturn.set(Thread.currentThread().isInterrupted());
+                }
+            });
+            waiter.start();
+            Thread.sleep(50);
+            waiter.interrupt();
+            // The first batch is held by the receiver for longer than this.
+            waiter.join(200);
+            AssertJUnit.assertFalse("Interrupted caller should not wait for its batch", waiter.isAlive());
+            AssertJUnit.assertTrue("Interrupt flag of the caller should be kept", isInterruptedOnReturn.get());
+            sender.join(5000);
+            AssertJUnit.assertEquals(1, receiver.getBatchCount());
+            AssertJUnit.assertEquals(1, receiver.events.size());
+        } finally {
+            endpointGroup.shutdown();
+            agent.shutDown();
+            LocalEventReceiverRegistry.unregister("commit3", receiver);
+        }
+    }
+
+    private DataEndpoint createDataEndpoint(DataEndpointAgent agent, String receiverURL) throws Exception {
+        return createDataEndpoint(agent, receiverURL, 0);
+    }
+
+    private DataEndpoint createDataEndpoint(DataEndpointAgent agent, String receiverURL,
+                                            int syncGroupCommitConcurrency) throws Exception {
+        AgentConfiguration agentConfiguration = agent.getAgentConfiguration();
+        DataEndpointConfiguration endpointConfiguration = new DataEndpointConfiguration(receiverURL, receiverURL,
+                "admin", "admin", agent.getTransportPool(), agent.getSecuredTransportPool(),
+                agentConfiguration.getBatchSize(), agentConfiguration.getCorePoolSize(),
+                agentConfiguration.getMaxPoolSize(), agentConfiguration.getKeepAliveTimeInPool());
+        endpointConfiguration.setSyncGroupCommitConcurrency(syncGroupCommitConcurrency);
+        DataEndpoint dataEndpoint = agent.getNewDataEndpoint();
+        dataEndpoint.initialize(endpointConfiguration);
+        long stopTime = System.currentTimeMillis() + 5000;
+        while (dataEndpoint.getState() != DataEndpoint.State.ACTIVE && System.currentTimeMillis() < stopTime) {
+            Thread.sleep(10);
+        }
+        return dataEndpoint;
+    }
+
+    private void publish(DataEndpointGroup endpointGroup, int count) {
+        for (int i = 0; i < count; i++) {
+            endpointGroup.publish(new Event("org.wso2.test:1.0.0", System.currentTimeMillis(), null, null,
+                    new Object[]{"WSO2", (double) i}));
+        }
+    }
+
+    private static class TestLocalEventReceiver implements LocalEventReceiver {
+
+        private final List<Event> events = new ArrayList<>();
+
+        private volatile String sessionId;
+
+        private volatile boolean isFailing = false;
+
+        private volatile int failedEvents = 0;
+
+        private final AtomicInteger logins = new AtomicInteger();
+
+        private final AtomicInteger logouts = new AtomicInteger();
+
+        @Override
+        public String login(String username, String password) throws AuthenticationException {
+            int login = logins.incrementAndGet();
+            return login == 1 ? "session-" + username : "session-" + username + "-" + login;
+        }
+
+        @Override
+        public void logout(String sessionId) {
+            logouts.incrementAndGet();
+        }
+
+        @Override
+        public synchronized void publish(List<Event> events, String sessionId) throws SessionTimeoutException {
+            if (isFailing) {
+                failedEvents += events.size();
+                throw new IllegalStateException("Receiver is failing");
+            }
+            this.sessionId = sessionId;
+            this.events.addAll(events);
+        }
+
+        private synchronized List<Event> getEvents() {
+            return new ArrayList<>(events);
+        }
+    }
+
+    /**
+     * Receiver which holds the first batch for a while, and fails the second batch if it is failing.
+     */
+    private static class GroupCommitLocalEventReceiver implements LocalEventReceiver {
+
+        private final boolean isFailing;
+
+        private final List<Event> events = Collections.synchronizedList(new ArrayList<Event>());
+
+        private final List<Event> failedEvents = Collections.synchronizedList(new ArrayList<Event>());
+
+        private volatile int batchCount = 0;
+
+        GroupCommitLocalEventReceiver(boolean isFailing) {
+            this.isFailing = isFailing;
+        }
+
+        @Override
+        public String login(String username, String password) throws AuthenticationException {
+            return "session-" + username;
+        }
+
+        @Override
+        public void logout(String sessionId) {
+        }
+
+        @Override
+        public synchronized void publish(List<Event> events, String sessionId) throws SessionTimeoutException {
+            batchCount++;
+            if (batchCount == 1) {
+                try {
+                    Thread.sleep(500);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            } else if (batchCount == 2 && isFailing) {
+                failedEvents.addAll(events);
+                throw new IllegalStateException("Receiver is failing");
+            }
+            this.events.addAll(events);
+        }
+
+        private int getBatchCount() {
+            return batchCount;
+        }
+
+        private boolean isAttempted(int id) {
+            for (Event event : new ArrayList<>(events)) {
+                if (event.getPayloadData()[1].equals((double) id)) {
+                    return true;
+                }
+            }
+            for (Event event : new ArrayList<>(failedEvents)) {
+                if (event.getPayloadData()[1].equals((double) id)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Receiver which takes a while to login, and expires the previous session as soon as a login starts.
+     */
+    private static class ExpiringLocalEventReceiver implements LocalEventReceiver {
+
+        private final AtomicInteger events = new AtomicInteger();
+
+        private final AtomicInteger logins = new AtomicInteger();
+
+        private final AtomicInteger concurrentLogins = new AtomicInteger();
+
+        private final AtomicInteger maxConcurrentLogins = new AtomicInteger();
+
+        private volatile String sessionId;
+
+        @Override
+        public String login(String username, String password) throws AuthenticationException {
+            int current = concurrentLogins.incrementAndGet();
+            try {
+                if (current > maxConcurrentLogins.get()) {
+                    maxConcurrentLogins.set(current);
+                }
+                String newSessionId = "session-" + username + "-" + logins.incrementAndGet();
+                sessionId = newSessionId;
+                Thread.sleep(5);
+                return newSessionId;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AuthenticationException("Login is interrupted");
+            } finally {
+                concurrentLogins.decrementAndGet();
+            }
+        }
+
+        @Override
+        public void logout(String sessionId) {
+        }
+
+        @Override
+        public void publish(List<Event> events, String sessionId) throws SessionTimeoutException {
+            if (!sessionId.equals(this.sessionId)) {
+                throw new SessionTimeoutException("Session " + sessionId + " is expired");
+            }
+            this.events.addAndGet(events.size());
+        }
+    }
+}
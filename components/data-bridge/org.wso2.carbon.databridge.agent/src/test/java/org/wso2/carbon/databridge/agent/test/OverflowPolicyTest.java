@@ -0,0 +1,265 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.test;
+
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+import org.wso2.carbon.databridge.agent.DataEndpointAgent;
+import org.wso2.carbon.databridge.agent.conf.AgentConfiguration;
+import org.wso2.carbon.databridge.agent.conf.DataEndpointConfiguration;
+import org.wso2.carbon.databridge.agent.endpoint.DataEndpoint;
+import org.wso2.carbon.databridge.agent.endpoint.DataEndpointGroup;
+import org.wso2.carbon.databridge.agent.endpoint.DropReason;
+import org.wso2.carbon.databridge.agent.endpoint.OverflowPolicy;
+import org.wso2.carbon.databridge.agent.endpoint.PriorityLane;
+import org.wso2.carbon.databridge.agent.endpoint.local.LocalDataEndpoint;
+import org.wso2.carbon.databridge.agent.exception.DataEndpointConfigurationException;
+import org.wso2.carbon.databridge.agent.exception.EventQueueFullException;
+import org.wso2.carbon.databridge.commons.Event;
+import org.wso2.carbon.databridge.commons.LocalEventReceiver;
+import org.wso2.carbon.databridge.commons.utils.LocalEventReceiverRegistry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Event Queue Overflow Policy Testcase.
+ */
+public class OverflowPolicyTest {
+
+    private static final String STREAM_ID = "org.wso2.test:1.0.0";
+
+    private static final String HIGH_STREAM_ID = "org.wso2.high:1.0.0";
+
+    @Test
+    public void testOverflowPolicies() throws DataEndpointConfigurationException {
+        AssertJUnit.assertEquals(OverflowPolicy.BLOCK, OverflowPolicy.fromName("block"));
+        AssertJUnit.assertEquals(OverflowPolicy.DROP_NEWEST, OverflowPolicy.fromName("dropNewest"));
+        AssertJUnit.assertEquals(OverflowPolicy.DROP_OLDEST, OverflowPolicy.fromName(" dropoldest "));
+    }
+
+    @Test
+    public void testDefaultOverflowPolicy() throws DataEndpointConfigurationException {
+        AgentConfiguration agentConfiguration = new AgentConfiguration();
+        AssertJUnit.assertEquals(OverflowPolicy.DROP_NEWEST,
+                OverflowPolicy.fromName(agentConfiguration.getOverflowPolicy()));
+        AssertJUnit.assertEquals(0, agentConfiguration.getEventTTLMS());
+    }
+
+    @Test(expectedExceptions = DataEndpointConfigurationException.class)
+    public void testInvalidOverflowPolicy() throws DataEndpointConfigurationException {
+        OverflowPolicy.fromName("dropAll");
+    }
+
+    @Test
+    public void testDropOldest() throws Exception {
+        AgentConfiguration agentConfiguration = new AgentConfiguration("Local", LocalDataEndpoint.class.getName());
+        agentConfiguration.setPriorityLanes("default:1:4:dropOldest");
+        DataEndpointAgent agent = new DataEndpointAgent(agentConfiguration);
+        DataEndpointGroup endpointGroup = new DataEndpointGroup(DataEndpointGroup.HAType.FAILOVER, agent);
+        try {
+            PriorityLane lane = endpointGroup.getPriorityLanes().get(0);
+            blockConsumer(endpointGroup, lane, STREAM_ID);
+            for (int i = 0; i < 6; i++) {
+                endpointGroup.publish(createEvent(STREAM_ID, System.currentTimeMillis()));
+            }
+            AssertJUnit.assertEquals(4, lane.size());
+            AssertJUnit.assertEquals(2, endpointGroup.getDroppedEventCount(DropReason.OLDEST_EVICTED));
+            AssertJUnit.assertEquals(0, endpointGroup.getDroppedEventCount(DropReason.QUEUE_FULL));
+        } finally {
+            endpointGroup.shutdown();
+            agent.shutDown();
+        }
+    }
+
+    @Test
+    public void testDropNewest() throws Exception {
+        AgentConfiguration agentConfiguration = new AgentConfiguration("Local", LocalDataEndpoint.class.getName());
+        agentConfiguration.setPriorityLanes("default:1:4:dropNewest");
+        DataEndpointAgent agent = new DataEndpointAgent(agentConfiguration);
+        DataEndpointGroup endpointGroup = new DataEndpointGroup(DataEndpointGroup.HAType.FAILOVER, agent);
+        try {
+            PriorityLane lane = endpointGroup.getPriorityLanes().get(0);
+            blockConsumer(endpointGroup, lane, STREAM_ID);
+            for (int i = 0; i < 6; i++) {
+                endpointGroup.publish(createEvent(STREAM_ID, System.currentTimeMillis()));
+            }
+            AssertJUnit.assertEquals(4, lane.size());
+            AssertJUnit.assertEquals(2, endpointGroup.getDroppedEventCount(DropReason.QUEUE_FULL));
+            AssertJUnit.assertEquals(0, endpointGroup.getDroppedEventCount(DropReason.OLDEST_EVICTED));
+        } finally {
+            endpointGroup.shutdown();
+            agent.shutDown();
+        }
+    }
+
+    @Test
+    public void testDropOldestWithoutQueuedEvents() throws Exception {
+        AgentConfiguration agentConfiguration = new AgentConfiguration("Local", LocalDataEndpoint.class.getName());
+        agentConfiguration.setPriorityLanes("high:1:100:dropNewest, default:1:100:dropOldest");
+        agentConfiguration.setStreamPriorities(HIGH_STREAM_ID + "=high");
+        // The first queued event takes the whole byte budget.
+        agentConfiguration.setQueueByteBudget(1);
+        DataEndpointAgent agent = new DataEndpointAgent(agentConfiguration);
+        DataEndpointGroup endpointGroup = new DataEndpointGroup(DataEndpointGroup.HAType.FAILOVER, agent);
+        try {
+            PriorityLane highLane = endpointGroup.getPriorityLanes().get(0);
+            PriorityLane lane = endpointGroup.getPriorityLanes().get(1);
+            blockConsumer(endpointGroup, highLane, HIGH_STREAM_ID);
+            endpointGroup.publish(createEvent(HIGH_STREAM_ID, System.currentTimeMillis()));
+            AssertJUnit.assertEquals(1, highLane.size());
+
+            // The lane has no events of its own to evict, hence the new event is dropped.
+            endpointGroup.publish(createEvent(STREAM_ID, System.currentTimeMillis()));
+            AssertJUnit.assertEquals(0, lane.size());
+            AssertJUnit.assertEquals(1, lane.getDroppedEventCount());
+            AssertJUnit.assertEquals(0, lane.getEvictedEventCount());
+            AssertJUnit.assertEquals(1, endpointGroup.getDroppedEventCount(DropReason.QUEUE_FULL));
+            AssertJUnit.assertEquals(0, endpointGroup.getDroppedEventCount(DropReason.OLDEST_EVICTED));
+        } finally {
+            endpointGroup.shutdown();
+            agent.shutDown();
+        }
+    }
+
+    @Test
+    public void testBlock() throws Exception {
+        AgentConfiguration agentConfiguration = new AgentConfiguration("Local", LocalDataEndpoint.class.getName());
+        agentConfiguration.setPriorityLanes("default:1:2:block");
+        DataEndpointAgent agent = new DataEndpointAgent(agentConfiguration);
+        DataEndpointGroup endpointGroup = new DataEndpointGroup(DataEndpointGroup.HAType.FAILOVER, agent);
+        try {
+            PriorityLane lane = endpointGroup.getPriorityLanes().get(0);
+            blockConsumer(endpointGroup, lane, STREAM_ID);
+            endpointGroup.tryPublish(createEvent(STREAM_ID, System.currentTimeMillis()), 100);
+            endpointGroup.tryPublish(createEvent(STREAM_ID, System.currentTimeMillis()), 100);
+            long startTime = System.currentTimeMillis();
+            try {
+                endpointGroup.tryPublish(createEvent(STREAM_ID, System.currentTimeMillis()), 100);
+                AssertJUnit.fail("Publisher should not be let through a full lane which blocks");
+            } catch (EventQueueFullException expected) {
+                AssertJUnit.assertTrue("Publisher should wait for the timeout",
+                        System.currentTimeMillis() - startTime >= 100);
+            }
+            AssertJUnit.assertEquals(2, lane.size());
+            AssertJUnit.assertEquals(1, endpointGroup.getDroppedEventCount(DropReason.BLOCK_TIMEOUT));
+            AssertJUnit.assertEquals(0, endpointGroup.getDroppedEventCount(DropReason.QUEUE_FULL));
+        } finally {
+            endpointGroup.shutdown();
+            agent.shutDown();
+        }
+    }
+
+    @Test
+    public void testEventTTL() throws Exception {
+        CollectingLocalEventReceiver receiver = new CollectingLocalEventReceiver();
+        LocalEventReceiverRegistry.register("ttl", receiver);
+        AgentConfiguration agentConfiguration = new AgentConfiguration("Local", LocalDataEndpoint.class.getName());
+        agentConfiguration.setEventTTLMS(1000);
+        DataEndpointAgent agent = new DataEndpointAgent(agentConfiguration);
+        DataEndpointGroup endpointGroup = new DataEndpointGroup(DataEndpointGroup.HAType.FAILOVER, agent);
+        try {
+            DataEndpointConfiguration endpointConfiguration = new DataEndpointConfiguration("local://ttl:0",
+                    "local://ttl:0", "admin", "admin", agent.getTransportPool(), agent.getSecuredTransportPool(),
+                    agentConfiguration.getBatchSize(), agentConfiguration.getCorePoolSize(),
+                    agentConfiguration.getMaxPoolSize(), agentConfiguration.getKeepAliveTimeInPool());
+            DataEndpoint dataEndpoint = agent.getNewDataEndpoint();
+            dataEndpoint.initialize(endpointConfiguration);
+            endpointGroup.addDataEndpoint(dataEndpoint);
+
+            long now = System.currentTimeMillis();
+            endpointGroup.publish(createEvent(STREAM_ID, now - 5000));
+            endpointGroup.publish(createEvent(STREAM_ID, now));
+            long stopTime = System.currentTimeMillis() + 5000;
+            while (receiver.getEvents().isEmpty() && System.currentTimeMillis() < stopTime) {
+                Thread.sleep(10);
+            }
+            Thread.sleep(100);
+            List<Event> events = receiver.getEvents();
+            AssertJUnit.assertEquals(1, events.size());
+            AssertJUnit.assertEquals(now, events.get(0).getTimeStamp());
+            AssertJUnit.assertEquals(1, endpointGroup.getDroppedEventCount(DropReason.EXPIRED));
+        } finally {
+            endpointGroup.shutdown();
+            agent.shutDown();
+            LocalEventReceiverRegistry.unregister("ttl", receiver);
+        }
+    }
+
+    @Test
+    public void testOversizedEventOfOffHeapQueue() throws Exception {
+        AgentConfiguration agentConfiguration = new AgentConfiguration("Local", LocalDataEndpoint.class.getName());
+        agentConfiguration.setOffHeapQueueSize(256);
+        DataEndpointAgent agent = new DataEndpointAgent(agentConfiguration);
+        DataEndpointGroup endpointGroup = new DataEndpointGroup(DataEndpointGroup.HAType.FAILOVER, agent);
+        try {
+            char[] symbol = new char[1024];
+            Arrays.fill(symbol, 'W');
+            endpointGroup.publish(new Event(STREAM_ID, System.currentTimeMillis(), null, null,
+                    new Object[]{new String(symbol), 123.4}));
+            AssertJUnit.assertEquals(1, endpointGroup.getDroppedEventCount(DropReason.SERIALIZATION_FAILED));
+            AssertJUnit.assertEquals(0, endpointGroup.getDroppedEventCount(DropReason.QUEUE_FULL));
+        } finally {
+            endpointGroup.shutdown();
+            agent.shutDown();
+        }
+    }
+
+    /**
+     * Publish an event, which is taken by the queue consumer and held until the group is shut down, as the
+     * group has no endpoints. Hence the events published afterwards stay in the lanes.
+     */
+    private void blockConsumer(DataEndpointGroup endpointGroup, PriorityLane lane, String streamId)
+            throws InterruptedException {
+        endpointGroup.publish(createEvent(streamId, System.currentTimeMillis()));
+        long stopTime = System.currentTimeMillis() + 5000;
+        while (lane.size() > 0 && System.currentTimeMillis() < stopTime) {
+            Thread.sleep(10);
+        }
+        AssertJUnit.assertEquals(0, lane.size());
+    }
+
+    private Event createEvent(String streamId, long timestamp) {
+        return new Event(streamId, timestamp, null, null, new Object[]{"WSO2", 123.4});
+    }
+
+    private static class CollectingLocalEventReceiver implements LocalEventReceiver {
+
+        private final List<Event> events = Collections.synchronizedList(new ArrayList<Event>());
+
+        @Override
+        public String login(String username, String password) {
+            return "session-" + username;
+        }
+
+        @Override
+        public void logout(String sessionId) {
+        }
+
+        @Override
+        public void publish(List<Event> events, String sessionId) {
+            this.events.addAll(events);
+        }
+
+        private List<Event> getEvents() {
+            return new ArrayList<>(events);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.test;
+
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+import org.wso2.carbon.databridge.agent.endpoint.OverflowPolicy;
+import org.wso2.carbon.databridge.agent.endpoint.PriorityLane;
+import org.wso2.carbon.databridge.agent.exception.DataEndpointConfigurationException;
+import org.wso2.carbon.databridge.agent.util.DataPublisherUtil;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Priority Lane Configuration Testcase.
+ */
+public class PriorityLaneConfigurationTest {
+
+    @Test
+    public void testPriorityLanes() throws DataEndpointConfigurationException {
+        List<PriorityLane> lanes = DataPublisherUtil.getPriorityLanes(
+                "high:8:4096:block, default:4:16384:dropNewest, low:1:8192:dropOldest");
+        AssertJUnit.assertEquals(3, lanes.size());
+        AssertJUnit.assertEquals("high", lanes.get(0).getName());
+        AssertJUnit.assertEquals(8, lanes.get(0).getWeight());
+        AssertJUnit.assertEquals(4096, lanes.get(0).getCapacity());
+        AssertJUnit.assertEquals(OverflowPolicy.BLOCK, lanes.get(0).getOverflowPolicy());
+        AssertJUnit.assertEquals(OverflowPolicy.DROP_NEWEST, lanes.get(1).getOverflowPolicy());
+        AssertJUnit.assertEquals("low", lanes.get(2).getName());
+        AssertJUnit.assertEquals(OverflowPolicy.DROP_OLDEST, lanes.get(2).getOverflowPolicy());
+    }
+
+    @Test
+    public void testStreamPriorities() throws DataEndpointConfigurationException {
+        Map<String, String> priorities = DataPublisherUtil.getStreamPriorities(
+                "alerts:1.0.0=high, debug:1.0.0=low");
+        AssertJUnit.assertEquals(2, priorities.size());
+        AssertJUnit.assertEquals("high", priorities.get("alerts:1.0.0"));
+        AssertJUnit.assertEquals("low", priorities.get("debug:1.0.0"));
+        AssertJUnit.assertTrue(DataPublisherUtil.getStreamPriorities("").isEmpty());
+    }
+
+    @Test(expectedExceptions = DataEndpointConfigurationException.class)
+    public void testInvalidOverflowPolicy() throws DataEndpointConfigurationException {
+        DataPublisherUtil.getPriorityLanes("high:8:4096:discard");
+    }
+
+    @Test(expectedExceptions = DataEndpointConfigurationException.class)
+    public void testInvalidLaneWeight() throws DataEndpointConfigurationException {
+        DataPublisherUtil.getPriorityLanes("high:0:4096:block");
+    }
+
+    @Test(expectedExceptions = DataEndpointConfigurationException.class)
+    public void testDuplicateLane() throws DataEndpointConfigurationException {
+        DataPublisherUtil.getPriorityLanes("high:8:4096:block,high:1:10:dropNewest");
+    }
+}
@@ -0,0 +1,202 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.test;
+
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+import org.wso2.carbon.databridge.agent.DataEndpointAgent;
+import org.wso2.carbon.databridge.agent.conf.AgentConfiguration;
+import org.wso2.carbon.databridge.agent.conf.DataEndpointConfiguration;
+import org.wso2.carbon.databridge.agent.endpoint.DataEndpoint;
+import org.wso2.carbon.databridge.agent.endpoint.DataEndpointGroup;
+import org.wso2.carbon.databridge.agent.endpoint.DropReason;
+import org.wso2.carbon.databridge.agent.endpoint.PriorityLane;
+import org.wso2.carbon.databridge.agent.endpoint.local.LocalDataEndpoint;
+import org.wso2.carbon.databridge.agent.exception.EventQueueFullException;
+import org.wso2.carbon.databridge.commons.Event;
+import org.wso2.carbon.databridge.commons.LocalEventReceiver;
+import org.wso2.carbon.databridge.commons.utils.LocalEventReceiverRegistry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Priority Lane Event Queue Testcase.
+ */
+public class PriorityLaneEventQueueTest {
+
+    private static final String HIGH_STREAM_ID = "org.wso2.high:1.0.0";
+
+    private static final String LOW_STREAM_ID = "org.wso2.low:1.0.0";
+
+    @Test
+    public void testWeightedDrainOrder() throws Exception {
+        OrderedLocalEventReceiver receiver = new OrderedLocalEventReceiver();
+        LocalEventReceiverRegistry.register("lanes", receiver);
+        AgentConfiguration agentConfiguration = new AgentConfiguration("Local", LocalDataEndpoint.class.getName());
+        agentConfiguration.setPriorityLanes("high:3:100:dropNewest, low:1:100:dropNewest");
+        agentConfiguration.setStreamPriorities(HIGH_STREAM_ID + "=high");
+        // A single publisher thread sends the events in the order they are dispatched.
+        agentConfiguration.setCorePoolSize(1);
+        agentConfiguration.setMaxPoolSize(1);
+        DataEndpointAgent agent = new DataEndpointAgent(agentConfiguration);
+        DataEndpointGroup endpointGroup = new DataEndpointGroup(DataEndpointGroup.HAType.FAILOVER, agent);
+        try {
+            PriorityLane highLane = endpointGroup.getPriorityLanes().get(0);
+            PriorityLane lowLane = endpointGroup.getPriorityLanes().get(1);
+            blockConsumer(endpointGroup, lowLane, LOW_STREAM_ID);
+            for (int i = 0; i < 6; i++) {
+                endpointGroup.publish(createEvent(LOW_STREAM_ID));
+            }
+            for (int i = 0; i < 9; i++) {
+                endpointGroup.publish(createEvent(HIGH_STREAM_ID));
+            }
+            AssertJUnit.assertEquals(9, highLane.size());
+            AssertJUnit.assertEquals(6, lowLane.size());
+
+            endpointGroup.addDataEndpoint(createDataEndpoint(agent, "local://lanes:0"));
+            List<String> streamIds = waitForEvents(receiver, 16);
+            AssertJUnit.assertEquals(16, streamIds.size());
+            AssertJUnit.assertEquals(LOW_STREAM_ID, streamIds.get(0));
+            for (int i = 1; i < 13; i += 4) {
+                // Each round drains three events of the high lane for an event of the low lane by the weights.
+                AssertJUnit.assertEquals(HIGH_STREAM_ID, streamIds.get(i));
+                AssertJUnit.assertEquals(HIGH_STREAM_ID, streamIds.get(i + 1));
+                AssertJUnit.assertEquals(HIGH_STREAM_ID, streamIds.get(i + 2));
+                AssertJUnit.assertEquals(LOW_STREAM_ID, streamIds.get(i + 3));
+            }
+            for (int i = 13; i < 16; i++) {
+                AssertJUnit.assertEquals(LOW_STREAM_ID, streamIds.get(i));
+            }
+        } finally {
+            endpointGroup.shutdown();
+            agent.shutDown();
+            LocalEventReceiverRegistry.unregister("lanes", receiver);
+        }
+    }
+
+    @Test
+    public void testLaneOverflowIsolation() throws Exception {
+        OrderedLocalEventReceiver receiver = new OrderedLocalEventReceiver();
+        LocalEventReceiverRegistry.register("isolated", receiver);
+        AgentConfiguration agentConfiguration = new AgentConfiguration("Local", LocalDataEndpoint.class.getName());
+        agentConfiguration.setPriorityLanes("high:1:10:dropNewest, low:1:2:block");
+        agentConfiguration.setStreamPriorities(HIGH_STREAM_ID + "=high");
+        DataEndpointAgent agent = new DataEndpointAgent(agentConfiguration);
+        DataEndpointGroup endpointGroup = new DataEndpointGroup(DataEndpointGroup.HAType.FAILOVER, agent);
+        try {
+            PriorityLane highLane = endpointGroup.getPriorityLanes().get(0);
+            PriorityLane lowLane = endpointGroup.getPriorityLanes().get(1);
+            blockConsumer(endpointGroup, lowLane, LOW_STREAM_ID);
+            endpointGroup.tryPublish(createEvent(LOW_STREAM_ID), 100);
+            endpointGroup.tryPublish(createEvent(LOW_STREAM_ID), 100);
+            try {
+                endpointGroup.tryPublish(createEvent(LOW_STREAM_ID), 100);
+                AssertJUnit.fail("Publisher should not be let through a full lane which blocks");
+            } catch (EventQueueFullException expected) {
+                // The low lane is full.
+            }
+
+            // The full low lane neither blocks nor drops the events of the high lane.
+            long startTime = System.currentTimeMillis();
+            for (int i = 0; i < 5; i++) {
+                endpointGroup.tryPublish(createEvent(HIGH_STREAM_ID), 1000);
+            }
+            AssertJUnit.assertTrue("Publishers of the high lane should not wait for the low lane",
+                    System.currentTimeMillis() - startTime < 1000);
+            AssertJUnit.assertEquals(5, highLane.size());
+            AssertJUnit.assertEquals(0, highLane.getDroppedEventCount());
+            AssertJUnit.assertEquals(2, lowLane.size());
+            AssertJUnit.assertEquals(1, endpointGroup.getDroppedEventCount(DropReason.BLOCK_TIMEOUT));
+            AssertJUnit.assertEquals(0, endpointGroup.getDroppedEventCount(DropReason.QUEUE_FULL));
+
+            endpointGroup.addDataEndpoint(createDataEndpoint(agent, "local://isolated:0"));
+            List<String> streamIds = waitForEvents(receiver, 8);
+            AssertJUnit.assertEquals(8, streamIds.size());
+            AssertJUnit.assertEquals(5, Collections.frequency(streamIds, HIGH_STREAM_ID));
+        } finally {
+            endpointGroup.shutdown();
+            agent.shutDown();
+            LocalEventReceiverRegistry.unregister("isolated", receiver);
+        }
+    }
+
+    /**
+     * Publish an event, which is taken by the queue consumer and held until an endpoint is added to the group.
+     * Hence the events published afterwards stay in the lanes.
+     */
+    private void blockConsumer(DataEndpointGroup endpointGroup, PriorityLane lane, String streamId)
+            throws InterruptedException {
+        endpointGroup.publish(createEvent(streamId));
+        long stopTime = System.currentTimeMillis() + 5000;
+        while (lane.size() > 0 && System.currentTimeMillis() < stopTime) {
+            Thread.sleep(10);
+        }
+        AssertJUnit.assertEquals(0, lane.size());
+    }
+
+    private List<String> waitForEvents(OrderedLocalEventReceiver receiver, int numberOfEvents)
+            throws InterruptedException {
+        long stopTime = System.currentTimeMillis() + 10000;
+        while (receiver.getStreamIds().size() < numberOfEvents && System.currentTimeMillis() < stopTime) {
+            Thread.sleep(10);
+        }
+        return receiver.getStreamIds();
+    }
+
+    private DataEndpoint createDataEndpoint(DataEndpointAgent agent, String receiverURL) throws Exception {
+        AgentConfiguration agentConfiguration = agent.getAgentConfiguration();
+        DataEndpointConfiguration endpointConfiguration = new DataEndpointConfiguration(receiverURL, receiverURL,
+                "admin", "admin", agent.getTransportPool(), agent.getSecuredTransportPool(),
+                agentConfiguration.getBatchSize(), agentConfiguration.getCorePoolSize(),
+                agentConfiguration.getMaxPoolSize(), agentConfiguration.getKeepAliveTimeInPool());
+        DataEndpoint dataEndpoint = agent.getNewDataEndpoint();
+        dataEndpoint.initialize(endpointConfiguration);
+        return dataEndpoint;
+    }
+
+    private Event createEvent(String streamId) {
+        return new Event(streamId, System.currentTimeMillis(), null, null, new Object[]{"WSO2", 123.4});
+    }
+
+    private static class OrderedLocalEventReceiver implements LocalEventReceiver {
+
+        private final List<String> streamIds = Collections.synchronizedList(new ArrayList<String>());
+
+        @Override
+        public String login(String username, String password) {
+            return "session-" + username;
+        }
+
+        @Override
+        public void logout(String sessionId) {
+        }
+
+        @Override
+        public void publish(List<Event> events, String sessionId) {
+            for (Event event : events) {
+                streamIds.add(event.getStreamId());
+            }
+        }
+
+        private List<String> getStreamIds() {
+            return new ArrayList<>(streamIds);
+        }
+    }
+}
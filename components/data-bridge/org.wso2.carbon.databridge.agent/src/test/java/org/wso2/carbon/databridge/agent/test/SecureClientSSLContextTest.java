@@ -0,0 +1,138 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.test;
+
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+import org.wso2.carbon.databridge.agent.client.AbstractSecureClientPoolFactory;
+import org.wso2.carbon.databridge.agent.conf.AgentConfiguration;
+import org.wso2.carbon.databridge.agent.exception.DataEndpointSecurityException;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.security.KeyStore;
+import java.util.Arrays;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLServerSocket;
+import javax.net.ssl.SSLSocket;
+
+/**
+ * SSL context caching and TLS session resumption of the secure client pool factories Testcase.
+ */
+public class SecureClientSSLContextTest {
+
+    private static final String PASSWORD = "wso2carbon";
+
+    /**
+     * Secure client pool factory which exposes the SSL context.
+     */
+    private static class TestSecureClientPoolFactory extends AbstractSecureClientPoolFactory {
+
+        TestSecureClientPoolFactory(String trustStore, String trustStorePassword) {
+            super(trustStore, trustStorePassword);
+        }
+
+        SSLContext getContext(AgentConfiguration agentConfiguration) throws DataEndpointSecurityException {
+            return getSSLContext(agentConfiguration);
+        }
+
+        @Override
+        public Object createClient(String protocol, String hostName, int port) {
+            return null;
+        }
+
+        @Override
+        public boolean validateClient(Object client) {
+            return true;
+        }
+
+        @Override
+        public void terminateClient(Object client) {
+        }
+    }
+
+    @Test
+    public void testSSLContextIsCached() throws DataEndpointSecurityException {
+        AgentConfiguration agentConfiguration = new AgentConfiguration();
+        agentConfiguration.setSslSessionCacheSize(10);
+        agentConfiguration.setSslSessionTimeoutSeconds(60);
+        TestSecureClientPoolFactory factory = new TestSecureClientPoolFactory(
+                DataPublisherTestUtil.getDataAgentConfigPath("client-truststore.jks"), PASSWORD);
+        SSLContext sslContext = factory.getContext(agentConfiguration);
+        AssertJUnit.assertSame(sslContext, factory.getContext(agentConfiguration));
+        AssertJUnit.assertEquals(10, sslContext.getClientSessionContext().getSessionCacheSize());
+        AssertJUnit.assertEquals(60, sslContext.getClientSessionContext().getSessionTimeout());
+    }
+
+    @Test(expectedExceptions = DataEndpointSecurityException.class)
+    public void testInvalidTrustStore() throws DataEndpointSecurityException {
+        new TestSecureClientPoolFactory(DataPublisherTestUtil.getDataAgentConfigPath("client-truststore.jks"),
+                "invalid").getContext(new AgentConfiguration());
+    }
+
+    @Test
+    public void testSessionResumption() throws Exception {
+        KeyStore keyStore = KeyStore.getInstance("JKS");
+        try (InputStream keyStoreStream = new FileInputStream(
+                DataPublisherTestUtil.getDataAgentConfigPath("wso2carbon.jks"))) {
+            keyStore.load(keyStoreStream, PASSWORD.toCharArray());
+        }
+        KeyManagerFactory keyManagerFactory = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        keyManagerFactory.init(keyStore, PASSWORD.toCharArray());
+        SSLContext serverContext = SSLContext.getInstance("TLS");
+        serverContext.init(keyManagerFactory.getKeyManagers(), null, null);
+        final SSLServerSocket serverSocket = (SSLServerSocket) serverContext.getServerSocketFactory()
+                .createServerSocket(0);
+        serverSocket.setEnabledProtocols(new String[]{"TLSv1.2"});
+        Thread server = new Thread() {
+            @Override
+            public void run() {
+                for (int i = 0; i < 2; i++) {
+                    try (SSLSocket socket = (SSLSocket) serverSocket.accept()) {
+                        socket.getOutputStream().write(i);
+                        socket.getOutputStream().flush();
+                        socket.getInputStream().read();
+                    } catch (Exception ignored) {
+                    }
+                }
+            }
+        };
+        server.start();
+        try {
+            TestSecureClientPoolFactory factory = new TestSecureClientPoolFactory(
+                    DataPublisherTestUtil.getDataAgentConfigPath("client-truststore.jks"), PASSWORD);
+            byte[][] sessionIds = new byte[2][];
+            for (int i = 0; i < 2; i++) {
+                SSLContext sslContext = factory.getContext(new AgentConfiguration());
+                try (SSLSocket socket = (SSLSocket) sslContext.getSocketFactory().createSocket("localhost",
+                        serverSocket.getLocalPort())) {
+                    socket.setEnabledProtocols(new String[]{"TLSv1.2"});
+                    AssertJUnit.assertEquals(i, socket.getInputStream().read());
+                    sessionIds[i] = socket.getSession().getId();
+                    socket.getOutputStream().write(0);
+                    socket.getOutputStream().flush();
+                }
+            }
+            AssertJUnit.assertTrue("TLS session is not resumed", Arrays.equals(sessionIds[0], sessionIds[1]));
+        } finally {
+            server.join(10000);
+            serverSocket.close();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.test;
+
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+import org.wso2.carbon.databridge.agent.endpoint.SerializedEventRing;
+import org.wso2.carbon.databridge.agent.endpoint.WrappedEventFactory;
+import org.wso2.carbon.databridge.agent.endpoint.binary.BinaryEventSender;
+import org.wso2.carbon.databridge.commons.Event;
+
+import java.io.IOException;
+import java.util.Collections;
+
+/**
+ * Off-heap Serialized Event Ring Testcase.
+ */
+public class SerializedEventRingTest {
+
+    private Event createEvent(int i) {
+        return new Event("test:1.0.0", 1000L + i, new Object[]{"127.0.0.1", null}, null,
+                new Object[]{i, (long) i, 1.5f * i, 2.5 * i, i % 2 == 0, "event" + i},
+                Collections.singletonMap("key", "value" + i));
+    }
+
+    @Test
+    public void testSerializedEvents() throws IOException {
+        SerializedEventRing ring = new SerializedEventRing(4096);
+        WrappedEventFactory.WrappedEvent wrappedEvent = new WrappedEventFactory.WrappedEvent();
+        AssertJUnit.assertFalse(ring.poll(wrappedEvent));
+
+        AssertJUnit.assertTrue(ring.offer(createEvent(1), "partition-1"));
+        AssertJUnit.assertTrue(ring.offer(createEvent(2), null));
+        AssertJUnit.assertTrue(ring.getUsedBytes() > 0);
+
+        AssertJUnit.assertTrue(ring.poll(wrappedEvent));
+        AssertJUnit.assertEquals(createEvent(1), wrappedEvent.getEvent());
+        AssertJUnit.assertEquals("partition-1", wrappedEvent.getPartitionKey());
+        AssertJUnit.assertEquals(BinaryEventSender.cacheEventSize(createEvent(1)),
+                wrappedEvent.getEvent().getSerializedSize());
+        AssertJUnit.assertTrue(ring.poll(wrappedEvent));
+        AssertJUnit.assertEquals(createEvent(2), wrappedEvent.getEvent());
+        AssertJUnit.assertNull(wrappedEvent.getPartitionKey());
+        AssertJUnit.assertTrue(ring.isEmpty());
+        AssertJUnit.assertEquals(0, ring.getUsedBytes());
+    }
+
+    @Test
+    public void testWrappedAroundRing() throws IOException {
+        SerializedEventRing ring = new SerializedEventRing(512);
+        WrappedEventFactory.WrappedEvent wrappedEvent = new WrappedEventFactory.WrappedEvent();
+        int offered = 0;
+        int polled = 0;
+        while (polled < 100) {
+            while (offered < 100 && ring.offer(createEvent(offered), null)) {
+                offered++;
+            }
+            AssertJUnit.assertTrue(ring.poll(wrappedEvent));
+            AssertJUnit.assertEquals(createEvent(polled), wrappedEvent.getEvent());
+            polled++;
+        }
+        AssertJUnit.assertTrue(ring.isEmpty());
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testEventLargerThanRing() throws IOException {
+        SerializedEventRing ring = new SerializedEventRing(64);
+        ring.offer(createEvent(1), null);
+    }
+}
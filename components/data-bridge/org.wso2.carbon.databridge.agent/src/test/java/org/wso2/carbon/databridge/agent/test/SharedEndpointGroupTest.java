@@ -0,0 +1,186 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.test;
+
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+import org.wso2.carbon.databridge.agent.AgentHolder;
+import org.wso2.carbon.databridge.agent.DataEndpointAgent;
+import org.wso2.carbon.databridge.agent.DataPublisher;
+import org.wso2.carbon.databridge.agent.conf.AgentConfiguration;
+import org.wso2.carbon.databridge.agent.endpoint.DataEndpointGroup;
+import org.wso2.carbon.databridge.agent.endpoint.thrift.ThriftDataEndpoint;
+import org.wso2.carbon.databridge.agent.exception.DataEndpointConfigurationException;
+import org.wso2.carbon.databridge.agent.exception.DataEndpointException;
+import org.wso2.carbon.databridge.agent.util.DataPublisherUtil;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared Endpoint Group Testcase.
+ */
+public class SharedEndpointGroupTest {
+
+    @Test
+    public void testSharedEndpointGroupReferences() throws Exception {
+        AgentConfiguration agentConfiguration = new AgentConfiguration("Thrift", ThriftDataEndpoint.class.getName());
+        agentConfiguration.setPublishingStrategy("sync");
+        DataEndpointAgent agent = new DataEndpointAgent(agentConfiguration);
+        List<Object> key = Arrays.<Object>asList(false, "tcp://localhost:7611", "ssl://localhost:7711", "admin",
+                "admin");
+        AssertJUnit.assertNull(agent.acquireSharedDataEndpointGroup(key));
+
+        DataEndpointGroup endpointGroup = new DataEndpointGroup(DataEndpointGroup.HAType.LOADBALANCE, agent);
+        agent.addSharedDataEndpointGroup(key, endpointGroup);
+        AssertJUnit.assertSame(endpointGroup, agent.acquireSharedDataEndpointGroup(Arrays.<Object>asList(false,
+                "tcp://localhost:7611", "ssl://localhost:7711", "admin", "admin")));
+        AssertJUnit.assertNull(agent.acquireSharedDataEndpointGroup(Arrays.<Object>asList(false,
+                "tcp://localhost:7611", "ssl://localhost:7711", "other", "admin")));
+
+        AssertJUnit.assertFalse("Endpoint group should be kept while another publisher uses it",
+                agent.releaseDataEndpointGroup(endpointGroup));
+        AssertJUnit.assertTrue(agent.releaseDataEndpointGroup(endpointGroup));
+        AssertJUnit.assertNull(agent.acquireSharedDataEndpointGroup(key));
+        endpointGroup.shutdown();
+        agent.shutDown();
+    }
+
+    @Test
+    public void testDetachSharedEndpointGroup() throws Exception {
+        AgentConfiguration agentConfiguration = new AgentConfiguration("Thrift", ThriftDataEndpoint.class.getName());
+        agentConfiguration.setPublishingStrategy("sync");
+        DataEndpointAgent agent = new DataEndpointAgent(agentConfiguration);
+        List<Object> key = Arrays.<Object>asList(false, "tcp://localhost:7611", "ssl://localhost:7711", "admin",
+                "admin");
+        DataEndpointGroup endpointGroup = new DataEndpointGroup(DataEndpointGroup.HAType.LOADBALANCE, agent);
+        agent.addSharedDataEndpointGroup(key, endpointGroup);
+        AssertJUnit.assertSame(endpointGroup, agent.acquireSharedDataEndpointGroup(key));
+        try {
+            agent.detachSharedDataEndpointGroup(endpointGroup);
+            AssertJUnit.fail("Receivers of an endpoint group used by other publishers should not be changed");
+        } catch (DataEndpointConfigurationException expected) {
+            // The endpoint group is shared by two publishers.
+        }
+
+        // Once the other publisher is shut down, the changed group is no longer given to new publishers of the key.
+        AssertJUnit.assertFalse(agent.releaseDataEndpointGroup(endpointGroup));
+        agent.detachSharedDataEndpointGroup(endpointGroup);
+        AssertJUnit.assertNull(agent.acquireSharedDataEndpointGroup(key));
+        AssertJUnit.assertTrue(agent.releaseDataEndpointGroup(endpointGroup));
+        endpointGroup.shutdown();
+        agent.shutDown();
+    }
+
+    @Test
+    public void testSharedEndpointGroupCreationDoesNotLockAgent() throws Exception {
+        AgentConfiguration agentConfiguration = new AgentConfiguration("Thrift", ThriftDataEndpoint.class.getName());
+        agentConfiguration.setPublishingStrategy("sync");
+        final DataEndpointAgent agent = new DataEndpointAgent(agentConfiguration);
+        List<Object> key = Arrays.<Object>asList(false, "tcp://localhost:7611", "ssl://localhost:7711", "admin",
+                "admin");
+        final List<Object> otherKey = Arrays.<Object>asList(false, "tcp://localhost:7612", "ssl://localhost:7712",
+                "admin", "admin");
+        Object lock = agent.acquireSharedDataEndpointGroupLock(key);
+        AssertJUnit.assertSame(lock, agent.acquireSharedDataEndpointGroupLock(
+                Arrays.<Object>asList(false, "tcp://localhost:7611", "ssl://localhost:7711", "admin", "admin")));
+        agent.releaseSharedDataEndpointGroupLock(key);
+        AssertJUnit.assertNotSame(lock, agent.acquireSharedDataEndpointGroupLock(otherKey));
+        agent.releaseSharedDataEndpointGroupLock(otherKey);
+
+        final CountDownLatch otherGroupLookedUp = new CountDownLatch(1);
+        synchronized (lock) {
+            // While the group of a key is being created, the publishers of the other keys use the agent.
+            Thread publisher = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    synchronized (agent.acquireSharedDataEndpointGroupLock(otherKey)) {
+                        agent.acquireSharedDataEndpointGroup(otherKey);
+                    }
+                    agent.releaseSharedDataEndpointGroupLock(otherKey);
+                    otherGroupLookedUp.countDown();
+                }
+            });
+            publisher.start();
+            AssertJUnit.assertTrue("Creating the endpoint group of a key should not block the other keys",
+                    otherGroupLookedUp.await(5, TimeUnit.SECONDS));
+        }
+        agent.releaseSharedDataEndpointGroupLock(key);
+        agent.shutDown();
+    }
+
+    @Test
+    public void testSharedEndpointGroupLockRemoved() throws Exception {
+        AgentConfiguration agentConfiguration = new AgentConfiguration("Thrift", ThriftDataEndpoint.class.getName());
+        agentConfiguration.setPublishingStrategy("sync");
+        DataEndpointAgent agent = new DataEndpointAgent(agentConfiguration);
+        List<Object> key = Arrays.<Object>asList(false, "tcp://localhost:7611", "ssl://localhost:7711", "admin",
+                "admin");
+        Object lock = agent.acquireSharedDataEndpointGroupLock(key);
+        DataEndpointGroup endpointGroup = new DataEndpointGroup(DataEndpointGroup.HAType.LOADBALANCE, agent);
+        agent.addSharedDataEndpointGroup(key, endpointGroup);
+        agent.releaseSharedDataEndpointGroupLock(key);
+        AssertJUnit.assertSame("Lock should be kept while the key has an endpoint group", lock,
+                agent.acquireSharedDataEndpointGroupLock(key));
+        agent.releaseSharedDataEndpointGroupLock(key);
+
+        AssertJUnit.assertTrue(agent.releaseDataEndpointGroup(endpointGroup));
+        AssertJUnit.assertNotSame("Lock should be removed with the last reference of the endpoint group", lock,
+                agent.acquireSharedDataEndpointGroupLock(key));
+        agent.releaseSharedDataEndpointGroupLock(key);
+        endpointGroup.shutdown();
+        agent.shutDown();
+    }
+
+    @Test
+    public void testFailedDataPublisherReleasesSharedEndpointGroups() throws Exception {
+        DataPublisherTestUtil.setTrustStoreParams();
+        AgentHolder.setConfigPath(DataPublisherTestUtil.getDataAgentConfigPath("data.agent.config.yaml"));
+        DataEndpointAgent agent = AgentHolder.getInstance().getDataEndpointAgent("Thrift");
+        AgentConfiguration agentConfiguration = agent.getAgentConfiguration();
+        String dataEndpointClass = agentConfiguration.getDataEndpointClass();
+        String receiverURLSet = "tcp://localhost:7641";
+        String authURLSet = "ssl://localhost:7741";
+        agentConfiguration.setShareEndpointGroups(true);
+        try {
+            DataPublisher dataPublisher = new DataPublisher("Thrift", receiverURLSet, authURLSet, "admin", "admin");
+            // The endpoints of the second group cannot be created, once the first group is shared.
+            agentConfiguration.setDataEndpointClass("org.wso2.carbon.databridge.agent.test.UndefinedDataEndpoint");
+            try {
+                new DataPublisher("Thrift", "{" + receiverURLSet + "},{tcp://localhost:7642}",
+                        "{" + authURLSet + "},{ssl://localhost:7742}", "admin", "admin");
+                AssertJUnit.fail("Data publisher should not be created without the endpoints of its groups");
+            } catch (DataEndpointException expected) {
+                // The endpoint class is not found.
+            } finally {
+                agentConfiguration.setDataEndpointClass(dataEndpointClass);
+            }
+            dataPublisher.shutdown();
+        } finally {
+            agentConfiguration.setShareEndpointGroups(false);
+        }
+        Object[] receiverGroup = DataPublisherUtil.getEndpointGroups(receiverURLSet).get(0);
+        Object[] authGroup = DataPublisherUtil.getEndpointGroups(authURLSet).get(0);
+        AssertJUnit.assertNull("Shared endpoint group should be removed with the data publisher using it",
+                agent.acquireSharedDataEndpointGroup(Arrays.asList(receiverGroup[0], Arrays.asList(receiverGroup),
+                        Arrays.asList(authGroup), "admin", "admin")));
+        AgentHolder.shutdown();
+    }
+}
@@ -0,0 +1,111 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.test;
+
+import org.testng.AssertJUnit;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+import org.wso2.carbon.databridge.agent.endpoint.binary.BinaryEventSender;
+import org.wso2.carbon.databridge.agent.endpoint.binary.UnixDomainSocketConnection;
+import org.wso2.carbon.databridge.agent.util.DataPublisherUtil;
+import org.wso2.carbon.databridge.commons.binary.BinaryMessageConstants;
+import org.wso2.carbon.databridge.commons.binary.UnixDomainSocketUtil;
+
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.wso2.carbon.databridge.commons.binary.BinaryMessageConverterUtil.loadData;
+
+/**
+ * Unix Domain Socket Transport Testcase.
+ */
+public class UnixDomainSocketTransportTest {
+
+    @Test
+    public void testDefaultAuthURL() throws Exception {
+        AssertJUnit.assertEquals("unix:///tmp/receiver.sock:0",
+                DataPublisherUtil.getDefaultAuthUrl("unix:///tmp/receiver.sock:0"));
+        AssertJUnit.assertEquals("/tmp/receiver.sock",
+                DataPublisherUtil.getProtocolHostPort("unix:///tmp/receiver.sock:0")[1]);
+    }
+
+    @Test
+    public void testLoginOverUnixDomainSocket() throws Exception {
+        if (!UnixDomainSocketUtil.isSupported()) {
+            throw new SkipException("Unix domain sockets are not supported by the JVM");
+        }
+        File directory = Files.createTempDirectory("databridge").toFile();
+        File socketFile = new File(directory, "receiver.sock");
+        final ServerSocketChannel serverSocketChannel = UnixDomainSocketUtil.openServerSocketChannel(
+                socketFile.getAbsolutePath());
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> credentials = executorService.submit(new Callable<String>() {
+                @Override
+                public String call() throws Exception {
+                    try (SocketChannel channel = serverSocketChannel.accept()) {
+                        InputStream inputStream = Channels.newInputStream(channel);
+                        AssertJUnit.assertEquals(0, inputStream.read());
+                        int messageSize = ByteBuffer.wrap(loadData(inputStream, new byte[4])).getInt();
+                        ByteBuffer message = ByteBuffer.wrap(loadData(inputStream, new byte[messageSize]));
+                        int userNameLength = message.getInt();
+                        int passwordLength = message.getInt();
+                        String userName = new String(message.array(), 8, userNameLength);
+                        String password = new String(message.array(), 8 + userNameLength, passwordLength);
+
+                        String sessionId = "session";
+                        ByteBuffer response = ByteBuffer.allocate(5 + sessionId.length());
+                        response.put((byte) 2);
+                        response.putInt(sessionId.length());
+                        response.put(sessionId.getBytes(BinaryMessageConstants.DEFAULT_CHARSET));
+                        OutputStream outputStream = Channels.newOutputStream(channel);
+                        outputStream.write(response.array());
+                        outputStream.flush();
+                        return userName + ":" + password;
+                    }
+                }
+            });
+
+            UnixDomainSocketConnection connection = new UnixDomainSocketConnection(socketFile.getAbsolutePath());
+            try {
+                AssertJUnit.assertTrue(connection.isConnected());
+                BinaryEventSender.sendBinaryLoginMessage(connection.getOutputStream(), "admin", "password");
+                AssertJUnit.assertEquals("session", BinaryEventSender.processResponse(connection.getInputStream()));
+                AssertJUnit.assertEquals("admin:password", credentials.get(10, TimeUnit.SECONDS));
+            } finally {
+                connection.close();
+            }
+        } finally {
+            executorService.shutdownNow();
+            serverSocketChannel.close();
+            socketFile.delete();
+            directory.delete();
+        }
+    }
+}
@@ -0,0 +1,257 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.test.binary;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.databridge.agent.AgentHolder;
+import org.wso2.carbon.databridge.agent.DataPublisher;
+import org.wso2.carbon.databridge.agent.test.DataPublisherTestUtil;
+import org.wso2.carbon.databridge.commons.Event;
+import org.wso2.carbon.databridge.commons.utils.DataBridgeCommonsUtils;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests of the non-blocking binary transport, where the batches are written by the selector threads and
+ * acknowledged asynchronously by the receiver.
+ */
+public class NioBinaryTransportTest {
+    private static final String STREAM_NAME = "org.wso2.esb.MediatorStatistics";
+    private static final String VERSION = "1.0.0";
+    private static final String AGENT_TYPE = "NioBinary";
+    private static final long WAIT_TIME_MS = 20000;
+    private String agentConfigFileName = "async.data.agent.config.yaml";
+
+    private static final String STREAM_DEFN = "{" +
+            "  'name':'" + STREAM_NAME + "'," +
+            "  'version':'" + VERSION + "'," +
+            "  'nickName': 'Stock Quote Information'," +
+            "  'description': 'Some Desc'," +
+            "  'tags':['foo', 'bar']," +
+            "  'metaData':[" +
+            "          {'name':'ipAdd','type':'STRING'}" +
+            "  ]," +
+            "  'payloadData':[" +
+            "          {'name':'symbol','type':'STRING'}," +
+            "          {'name':'price','type':'DOUBLE'}," +
+            "          {'name':'volume','type':'INT'}," +
+            "          {'name':'max','type':'DOUBLE'}," +
+            "          {'name':'min','type':'Double'}" +
+            "  ]" +
+            "}";
+
+    @BeforeClass
+    public void init() {
+        DataPublisherTestUtil.setKeyStoreParams();
+        DataPublisherTestUtil.setTrustStoreParams();
+        AgentHolder.setConfigPath(DataPublisherTestUtil.getDataAgentConfigPath(agentConfigFileName));
+    }
+
+    @AfterClass
+    public void stop() throws Exception {
+        AgentHolder.shutdown();
+    }
+
+    private BinaryTestServer startServer(int port, int securePort) throws Exception {
+        BinaryTestServer testServer = new BinaryTestServer();
+        testServer.start(port, securePort);
+        testServer.addStreamDefinition(STREAM_DEFN);
+        return testServer;
+    }
+
+    private Event createEvent(String symbol) {
+        Event event = new Event();
+        event.setStreamId(DataBridgeCommonsUtils.generateStreamId(STREAM_NAME, VERSION));
+        event.setMetaData(new Object[]{"127.0.0.1"});
+        event.setPayloadData(new Object[]{symbol, 123.4, 2, 12.4, 1.3});
+        return event;
+    }
+
+    private void waitForEvents(BinaryTestServer testServer, int numberOfEvents) throws InterruptedException {
+        long stopTime = System.currentTimeMillis() + WAIT_TIME_MS;
+        while (testServer.getNumberOfEventsReceived() < numberOfEvents && System.currentTimeMillis() < stopTime) {
+            Thread.sleep(100);
+        }
+    }
+
+    @Test
+    public void testPublishAndAcknowledge() throws Exception {
+        BinaryTestServer testServer = startServer(9651, 9751);
+        String hostName = DataPublisherTestUtil.LOCAL_HOST;
+        DataPublisher dataPublisher = new DataPublisher(AGENT_TYPE, "tcp://" + hostName + ":9651",
+                "ssl://" + hostName + ":9751", "admin", "admin");
+        int numberOfEventsSent = 1000;
+        for (int i = 0; i < numberOfEventsSent; i++) {
+            dataPublisher.publish(createEvent("WSO2"));
+        }
+        waitForEvents(testServer, numberOfEventsSent);
+        dataPublisher.shutdown();
+        Assert.assertEquals(testServer.getNumberOfEventsReceived(), numberOfEventsSent);
+        testServer.stop();
+    }
+
+    @Test
+    public void testPartialWrites() throws Exception {
+        BinaryTestServer testServer = startServer(9652, 9752);
+        String hostName = DataPublisherTestUtil.LOCAL_HOST;
+        DataPublisher dataPublisher = new DataPublisher(AGENT_TYPE, "tcp://" + hostName + ":9652",
+                "ssl://" + hostName + ":9752", "admin", "admin");
+        // Each batch is a few mega bytes, which is much larger than the socket send buffer, hence the selector
+        // thread has to write a batch over several writes as the receiver reads it.
+        char[] symbol = new char[16 * 1024];
+        Arrays.fill(symbol, 'W');
+        int numberOfEventsSent = 1000;
+        for (int i = 0; i < numberOfEventsSent; i++) {
+            dataPublisher.publish(createEvent(new String(symbol)));
+        }
+        waitForEvents(testServer, numberOfEventsSent);
+        dataPublisher.shutdown();
+        Assert.assertEquals(testServer.getNumberOfEventsReceived(), numberOfEventsSent);
+        testServer.stop();
+    }
+
+    @Test
+    public void testConnectionLossResendsBatchesInFlight() throws Exception {
+        BinaryTestServer testServer = startServer(9653, 9753);
+        SilentReceiver silentReceiver = new SilentReceiver(9654, true);
+        silentReceiver.start();
+        String hostName = DataPublisherTestUtil.LOCAL_HOST;
+        DataPublisher dataPublisher = new DataPublisher(AGENT_TYPE, "tcp://" + hostName + ":9653, tcp://"
+                + hostName + ":9654", "ssl://" + hostName + ":9753, ssl://" + hostName + ":9753",
+                "admin", "admin");
+        int numberOfEventsSent = 2000;
+        for (int i = 0; i < numberOfEventsSent; i++) {
+            dataPublisher.publish(createEvent("WSO2"));
+        }
+        waitForEvents(testServer, numberOfEventsSent);
+        dataPublisher.shutdown();
+        silentReceiver.stop();
+        Assert.assertTrue(silentReceiver.getNumberOfMessagesReceived() > 0,
+                "No batch was in flight on the lost connection.");
+        Assert.assertEquals(testServer.getNumberOfEventsReceived(), numberOfEventsSent);
+        testServer.stop();
+    }
+
+    @Test
+    public void testAcknowledgementTimeout() throws Exception {
+        BinaryTestServer testServer = startServer(9655, 9755);
+        SilentReceiver silentReceiver = new SilentReceiver(9656, false);
+        silentReceiver.start();
+        String hostName = DataPublisherTestUtil.LOCAL_HOST;
+        DataPublisher dataPublisher = new DataPublisher(AGENT_TYPE, "tcp://" + hostName + ":9655, tcp://"
+                + hostName + ":9656", "ssl://" + hostName + ":9755, ssl://" + hostName + ":9755",
+                "admin", "admin");
+        int numberOfEventsSent = 2000;
+        for (int i = 0; i < numberOfEventsSent; i++) {
+            dataPublisher.publish(createEvent("WSO2"));
+        }
+        // The batches sent to the silent receiver are resent to the other receiver only once they are timed out.
+        waitForEvents(testServer, numberOfEventsSent);
+        dataPublisher.shutdown();
+        silentReceiver.stop();
+        Assert.assertTrue(silentReceiver.getNumberOfMessagesReceived() > 0,
+                "No batch was sent to the receiver, which does not acknowledge.");
+        Assert.assertEquals(testServer.getNumberOfEventsReceived(), numberOfEventsSent);
+        testServer.stop();
+    }
+
+    /**
+     * Receiver which reads the publish messages but never acknowledges them. It either keeps the connection open,
+     * or closes the connection once a message is read.
+     */
+    private static class SilentReceiver implements Runnable {
+        private final ServerSocket serverSocket;
+        private final boolean isClosingAfterMessage;
+        private final AtomicInteger numberOfMessagesReceived = new AtomicInteger();
+        private final List<Socket> sockets = new ArrayList<Socket>();
+
+        SilentReceiver(int port, boolean isClosingAfterMessage) throws IOException {
+            this.serverSocket = new ServerSocket(port);
+            this.isClosingAfterMessage = isClosingAfterMessage;
+        }
+
+        void start() {
+            Thread thread = new Thread(this, "SilentReceiver");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        @Override
+        public void run() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    final Socket socket = serverSocket.accept();
+                    synchronized (sockets) {
+                        sockets.add(socket);
+                    }
+                    Thread reader = new Thread(new Runnable() {
+                        @Override
+                        public void run() {
+                            read(socket);
+                        }
+                    }, "SilentReceiverReader");
+                    reader.setDaemon(true);
+                    reader.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void read(Socket socket) {
+            try {
+                DataInputStream inputStream = new DataInputStream(socket.getInputStream());
+                while (true) {
+                    inputStream.readByte();
+                    byte[] message = new byte[inputStream.readInt()];
+                    inputStream.readFully(message);
+                    numberOfMessagesReceived.incrementAndGet();
+                    if (isClosingAfterMessage) {
+                        socket.close();
+                        return;
+                    }
+                }
+            } catch (IOException ignored) {
+                // Connection is closed.
+            }
+        }
+
+        int getNumberOfMessagesReceived() {
+            return numberOfMessagesReceived.get();
+        }
+
+        void stop() throws IOException {
+            serverSocket.close();
+            synchronized (sockets) {
+                for (Socket socket : sockets) {
+                    socket.close();
+                }
+            }
+        }
+    }
+}
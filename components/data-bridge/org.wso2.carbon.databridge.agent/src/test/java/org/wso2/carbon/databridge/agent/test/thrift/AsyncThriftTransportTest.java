@@ -0,0 +1,167 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.agent.test.thrift;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.databridge.agent.AgentHolder;
+import org.wso2.carbon.databridge.agent.DataPublisher;
+import org.wso2.carbon.databridge.agent.test.DataPublisherTestUtil;
+import org.wso2.carbon.databridge.commons.Event;
+import org.wso2.carbon.databridge.commons.utils.DataBridgeCommonsUtils;
+
+/**
+ * Tests of the asynchronous Thrift transport, where the batches are acknowledged by the callbacks of the
+ * non-blocking Thrift client.
+ */
+public class AsyncThriftTransportTest {
+    private static final String STREAM_NAME = "org.wso2.esb.MediatorStatistics";
+    private static final String VERSION = "1.0.0";
+    private static final String AGENT_TYPE = "AsyncThrift";
+    private static final long WAIT_TIME_MS = 20000;
+    private String agentConfigFileName = "async.data.agent.config.yaml";
+
+    private static final String STREAM_DEFN = "{" +
+            "  'name':'" + STREAM_NAME + "'," +
+            "  'version':'" + VERSION + "'," +
+            "  'nickName': 'Stock Quote Information'," +
+            "  'description': 'Some Desc'," +
+            "  'tags':['foo', 'bar']," +
+            "  'metaData':[" +
+            "          {'name':'ipAdd','type':'STRING'}" +
+            "  ]," +
+            "  'payloadData':[" +
+            "          {'name':'symbol','type':'STRING'}," +
+            "          {'name':'price','type':'DOUBLE'}," +
+            "          {'name':'volume','type':'INT'}," +
+            "          {'name':'max','type':'DOUBLE'}," +
+            "          {'name':'min','type':'Double'}" +
+            "  ]" +
+            "}";
+
+    @BeforeClass
+    public void init() {
+        DataPublisherTestUtil.setKeyStoreParams();
+        DataPublisherTestUtil.setTrustStoreParams();
+        AgentHolder.setConfigPath(DataPublisherTestUtil.getDataAgentConfigPath(agentConfigFileName));
+    }
+
+    @AfterClass
+    public void stop() throws Exception {
+        AgentHolder.shutdown();
+    }
+
+    private ThriftTestServer startServer(int port, int framedPort) throws Exception {
+        ThriftTestServer testServer = new ThriftTestServer();
+        testServer.start(port, framedPort);
+        testServer.addStreamDefinition(STREAM_DEFN);
+        return testServer;
+    }
+
+    private Event createEvent() {
+        Event event = new Event();
+        event.setStreamId(DataBridgeCommonsUtils.generateStreamId(STREAM_NAME, VERSION));
+        event.setMetaData(new Object[]{"127.0.0.1"});
+        event.setPayloadData(new Object[]{"WSO2", 123.4, 2, 12.4, 1.3});
+        return event;
+    }
+
+    private void publish(DataPublisher dataPublisher, int numberOfEvents) {
+        for (int i = 0; i < numberOfEvents; i++) {
+            dataPublisher.publish(createEvent());
+        }
+    }
+
+    private void waitForEvents(ThriftTestServer testServer, int numberOfEvents) throws InterruptedException {
+        long stopTime = System.currentTimeMillis() + WAIT_TIME_MS;
+        while (testServer.getNumberOfEventsReceived() < numberOfEvents && System.currentTimeMillis() < stopTime) {
+            Thread.sleep(100);
+        }
+    }
+
+    @Test
+    public void testPublishAndAcknowledge() throws Exception {
+        ThriftTestServer testServer = startServer(7681, 7691);
+        String hostName = DataPublisherTestUtil.LOCAL_HOST;
+        // The asynchronous clients publish to the framed port of the receiver, and log in on its secure port.
+        DataPublisher dataPublisher = new DataPublisher(AGENT_TYPE, "tcp://" + hostName + ":7691",
+                "ssl://" + hostName + ":7781", "admin", "admin");
+        int numberOfEventsSent = 1000;
+        publish(dataPublisher, numberOfEventsSent);
+        waitForEvents(testServer, numberOfEventsSent);
+        dataPublisher.shutdown();
+        Assert.assertEquals(testServer.getNumberOfEventsReceived(), numberOfEventsSent);
+        testServer.stop();
+    }
+
+    @Test
+    public void testFailedBatchesAreResent() throws Exception {
+        ThriftTestServer testServer = startServer(7682, 7692);
+        ThriftTestServer failingServer = startServer(7683, 7693);
+        String hostName = DataPublisherTestUtil.LOCAL_HOST;
+        DataPublisher dataPublisher = new DataPublisher(AGENT_TYPE, "tcp://" + hostName + ":7692, tcp://"
+                + hostName + ":7693", "ssl://" + hostName + ":7782, ssl://" + hostName + ":7783",
+                "admin", "admin");
+        int numberOfEventsSent = 2000;
+        publish(dataPublisher, numberOfEventsSent);
+        long stopTime = System.currentTimeMillis() + WAIT_TIME_MS;
+        while (testServer.getNumberOfEventsReceived() + failingServer.getNumberOfEventsReceived() <
+                numberOfEventsSent && System.currentTimeMillis() < stopTime) {
+            Thread.sleep(100);
+        }
+        int numberOfEventsReceivedByFailingServer = failingServer.getNumberOfEventsReceived();
+        Assert.assertTrue(numberOfEventsReceivedByFailingServer > 0, "No batch was sent to the failing server.");
+
+        // The endpoint of the stopped server is still active with its connections open, hence the batches sent on
+        // those connections fail in the callbacks, which have to hand the batches back to the group.
+        failingServer.stop();
+        // The server is stopped asynchronously, hence wait for it to stop serving the open connections.
+        Thread.sleep(1000);
+        publish(dataPublisher, numberOfEventsSent);
+        waitForEvents(testServer, 2 * numberOfEventsSent - numberOfEventsReceivedByFailingServer);
+        dataPublisher.shutdown();
+        Assert.assertEquals(failingServer.getNumberOfEventsReceived(), numberOfEventsReceivedByFailingServer);
+        Assert.assertEquals(testServer.getNumberOfEventsReceived(),
+                2 * numberOfEventsSent - numberOfEventsReceivedByFailingServer);
+        testServer.stop();
+    }
+
+    @Test
+    public void testExpiredSessionIsRenewed() throws Exception {
+        ThriftTestServer testServer = startServer(7684, 7694);
+        String hostName = DataPublisherTestUtil.LOCAL_HOST;
+        DataPublisher dataPublisher = new DataPublisher(AGENT_TYPE, "tcp://" + hostName + ":7694",
+                "ssl://" + hostName + ":7784", "admin", "admin");
+        int numberOfEventsSent = 1000;
+        publish(dataPublisher, numberOfEventsSent);
+        waitForEvents(testServer, numberOfEventsSent);
+        Assert.assertEquals(testServer.getNumberOfEventsReceived(), numberOfEventsSent);
+
+        // The batches rejected with the expired session are republished once the endpoint has logged in again.
+        int numberOfLogins = testServer.getNumberOfLogins();
+        testServer.expireSessions();
+        publish(dataPublisher, numberOfEventsSent);
+        waitForEvents(testServer, 2 * numberOfEventsSent);
+        dataPublisher.shutdown();
+        Assert.assertTrue(testServer.getNumberOfLogins() > numberOfLogins, "The expired session was not renewed.");
+        Assert.assertEquals(testServer.getNumberOfEventsReceived(), 2 * numberOfEventsSent);
+        testServer.stop();
+    }
+}
@@ -155,6 +155,48 @@ public class OneEndPointDPSyncThriftTest {
         thriftTestServer.stop();
     }
 
+    @Test
+    public void testGroupCommit() throws Exception {
+        startServer(7663);
+        AgentHolder.setConfigPath(DataPublisherTestUtil.getDataAgentConfigPath(agentConfigFileName));
+        String hostName = DataPublisherTestUtil.LOCAL_HOST;
+        final DataPublisher dataPublisher = new DataPublisher("GroupCommitThrift", "tcp://" + hostName + ":7663",
+                "ssl://" + hostName + ":7763", "admin", "admin");
+        final Event event = new Event();
+        event.setStreamId(DataBridgeCommonsUtils.generateStreamId(STREAM_NAME, VERSION));
+        event.setMetaData(new Object[]{"127.0.0.1"});
+        event.setCorrelationData(null);
+        event.setPayloadData(new Object[]{"WSO2", 123.4, 2, 12.4, 1.3});
+
+        final int numberOfEventsPerThread = 100;
+        Thread[] publishers = new Thread[8];
+        for (int i = 0; i < publishers.length; i++) {
+            publishers[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < numberOfEventsPerThread; j++) {
+                        dataPublisher.publish(event);
+                    }
+                }
+            });
+            publishers[i].start();
+        }
+        for (Thread publisher : publishers) {
+            publisher.join();
+        }
+
+        int numberOfEventsSent = numberOfEventsPerThread * publishers.length;
+        long stopTime = System.currentTimeMillis() + 10000;
+        while (thriftTestServer.getNumberOfEventsReceived() < numberOfEventsSent
+                && System.currentTimeMillis() < stopTime) {
+            Thread.sleep(100);
+        }
+        dataPublisher.shutdown();
+        Assert.assertEquals(thriftTestServer.getNumberOfEventsReceived(), numberOfEventsSent);
+        thriftTestServer.resetReceivedEvents();
+        thriftTestServer.stop();
+    }
+
     @Test
     public void testInvalidAuthenticationURLs() throws DataEndpointAuthenticationException,
             DataEndpointAgentConfigurationException, TransportException, DataEndpointException,
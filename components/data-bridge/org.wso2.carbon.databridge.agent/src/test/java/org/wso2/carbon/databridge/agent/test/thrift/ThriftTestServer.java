@@ -24,6 +24,7 @@ import org.wso2.carbon.databridge.commons.Credentials;
 import org.wso2.carbon.databridge.commons.Event;
 import org.wso2.carbon.databridge.commons.StreamDefinition;
 import org.wso2.carbon.databridge.commons.exception.MalformedStreamDefinitionException;
+import org.wso2.carbon.databridge.commons.thrift.utils.CommonThriftConstants;
 import org.wso2.carbon.databridge.commons.utils.EventDefinitionConverterUtils;
 import org.wso2.carbon.databridge.core.AgentCallback;
 import org.wso2.carbon.databridge.core.DataBridge;
@@ -33,9 +34,13 @@ import org.wso2.carbon.databridge.core.exception.StreamDefinitionStoreException;
 import org.wso2.carbon.databridge.core.internal.authentication.AuthenticationHandler;
 import org.wso2.carbon.databridge.core.utils.AgentSession;
 import org.wso2.carbon.databridge.receiver.thrift.ThriftDataReceiver;
+import org.wso2.carbon.databridge.receiver.thrift.conf.ThriftDataReceiverConfiguration;
 
 import java.net.SocketException;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -47,6 +52,9 @@ public class ThriftTestServer {
     InMemoryStreamDefinitionStore streamDefinitionStore;
     AtomicInteger numberOfEventsReceived;
     RestarterThread restarterThread;
+    DataBridge databridge;
+    AtomicInteger numberOfLogins = new AtomicInteger(0);
+    Set<String> sessionIds = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
 
     public void startTestServer() throws DataBridgeException, InterruptedException {
         ThriftTestServer thriftTestServer = new ThriftTestServer();
@@ -75,20 +83,36 @@ public class ThriftTestServer {
     }
 
     public void start(int receiverPort) throws DataBridgeException {
+        start(new ThriftDataReceiverConfiguration(receiverPort +
+                CommonThriftConstants.SECURE_EVENT_RECEIVER_PORT_OFFSET, receiverPort));
+    }
+
+    /**
+     * Start the server, which also serves the framed transport used by the asynchronous Thrift clients.
+     */
+    public void start(int receiverPort, int framedReceiverPort) throws DataBridgeException {
+        ThriftDataReceiverConfiguration configuration = new ThriftDataReceiverConfiguration(receiverPort +
+                CommonThriftConstants.SECURE_EVENT_RECEIVER_PORT_OFFSET, receiverPort);
+        configuration.setFramedDataReceiverPort(framedReceiverPort);
+        start(configuration);
+    }
+
+    private void start(ThriftDataReceiverConfiguration configuration) throws DataBridgeException {
         DataPublisherTestUtil.setKeyStoreParams();
         streamDefinitionStore = getStreamDefinitionStore();
         numberOfEventsReceived = new AtomicInteger(0);
-        DataBridge databridge = new DataBridge(new AuthenticationHandler() {
+        databridge = new DataBridge(new AuthenticationHandler() {
             @Override
             public boolean authenticate(String userName,
                                         String password) {
+                numberOfLogins.incrementAndGet();
                 return true; // allays authenticate to true
 
             }
 
             @Override
             public void initContext(AgentSession agentSession) {
-                //To change body of implemented methods use File | Settings | File Templates.
+                sessionIds.add(agentSession.getSessionId());
             }
 
             @Override
@@ -97,7 +121,7 @@ public class ThriftTestServer {
             }
         }, streamDefinitionStore, DataPublisherTestUtil.getDataBridgeConfigPath("databridge.config.yaml"));
 
-        thriftDataReceiver = new ThriftDataReceiver(receiverPort, databridge);
+        thriftDataReceiver = new ThriftDataReceiver(configuration, databridge);
 
         databridge.subscribe(new AgentCallback() {
             int totalSize = 0;
@@ -133,10 +157,24 @@ public class ThriftTestServer {
         }
     }
 
+    public int getNumberOfLogins() {
+        return numberOfLogins.get();
+    }
+
     public void resetReceivedEvents() {
         numberOfEventsReceived.set(0);
     }
 
+    /**
+     * Expire the sessions of the publishers, which have published events to this server.
+     */
+    public void expireSessions() throws Exception {
+        for (String sessionId : sessionIds) {
+            databridge.logout(sessionId);
+        }
+        sessionIds.clear();
+    }
+
     public void stop() {
         thriftDataReceiver.stop();
         log.info("Test Server Stopped");
@@ -23,4 +23,64 @@ package org.wso2.carbon.databridge.commons.binary;
 public class BinaryMessageConstants {
     public static final String DEFAULT_CHARSET = "UTF-8";
 
+    /**
+     * Protocol feature requested by the agent at login, to have the load of the receiver piggybacked on the
+     * publish acknowledgements. The features are sent as a bitmask after the password of the login message,
+     * which the receivers not supporting them ignore.
+     */
+    public static final int RECEIVER_LOAD_FEATURE = 1;
+
+    /**
+     * Response to a publish message carrying the load of the receiver, that is the percentage of the event
+     * queue in use as a byte followed by the dispatch latency in milliseconds as an int.
+     */
+    public static final byte LOAD_ACK_RESPONSE = 3;
+
+    public static final int LOAD_ACK_RESPONSE_SIZE = 6;
+
+    /**
+     * Protocol feature requested by the agent at login, to publish the events in the compact encoding, where the
+     * numbers are variable length and the strings repeated within a batch are sent once. The receiver supporting
+     * it responds to the login with {@link #LOGIN_FEATURES_RESPONSE}, and the agent publishes the batches with
+     * {@link #COMPACT_PUBLISH_MESSAGE} only if the feature is accepted.
+     */
+    public static final int COMPACT_ENCODING_FEATURE = 2;
+
+    /**
+     * Protocol feature requested by the agent at login, to publish the events in the columnar encoding, where the
+     * events of a batch are grouped by stream and each attribute of a stream is sent as a column. Same as the
+     * compact encoding, the receiver supporting it responds to the login with {@link #LOGIN_FEATURES_RESPONSE},
+     * and the agent publishes the batches with {@link #COLUMNAR_PUBLISH_MESSAGE} only if the feature is accepted.
+     */
+    public static final int COLUMNAR_ENCODING_FEATURE = 4;
+
+    /**
+     * Protocol features supported by the receiver.
+     */
+    public static final int SUPPORTED_PROTOCOL_FEATURES = RECEIVER_LOAD_FEATURE | COMPACT_ENCODING_FEATURE |
+            COLUMNAR_ENCODING_FEATURE;
+
+    /**
+     * Protocol features, of which the receiver responds to the login with the accepted features.
+     */
+    public static final int ENCODING_FEATURES = COMPACT_ENCODING_FEATURE | COLUMNAR_ENCODING_FEATURE;
+
+    /**
+     * Publish message of the events in the compact encoding, which has the same session header as the publish
+     * message.
+     */
+    public static final byte COMPACT_PUBLISH_MESSAGE = 3;
+
+    /**
+     * Publish message of the events in the columnar encoding, which has the same session header as the publish
+     * message.
+     */
+    public static final byte COLUMNAR_PUBLISH_MESSAGE = 5;
+
+    /**
+     * Response to a login message requesting the compact or the columnar encoding, that is the session id as in
+     * the login response followed by the bitmask of the protocol features accepted by the receiver as an int.
+     */
+    public static final byte LOGIN_FEATURES_RESPONSE = 4;
+
 }
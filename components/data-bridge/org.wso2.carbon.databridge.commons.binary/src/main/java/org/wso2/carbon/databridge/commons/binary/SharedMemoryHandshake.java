@@ -0,0 +1,113 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.commons.binary;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * File based handshake of the shared memory transport, through which the agents log in and out of a receiver on
+ * the same host. Both sides share a directory, where an agent writes a request file named by a unique request id,
+ * and the receiver replies with a response file of the same id. The rings of the agents are created in the same
+ * directory, hence the permissions of the directory control the users allowed to publish.
+ * <p>
+ * The files hold a value per line, encoded in Base64. A file is written under a temporary name and then renamed,
+ * so that the other side never reads a partially written file. The files are readable only by their owner and
+ * group.
+ */
+public class SharedMemoryHandshake {
+
+    public static final String RING_FILE_SUFFIX = ".ring";
+    public static final String LOGIN_REQUEST_FILE_SUFFIX = ".login";
+    public static final String LOGOUT_REQUEST_FILE_SUFFIX = ".logout";
+    public static final String RESPONSE_FILE_SUFFIX = ".response";
+    public static final String OK_RESPONSE = "OK";
+    public static final String ERROR_RESPONSE = "ERROR";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+    private static final String FILE_PERMISSIONS = "rw-rw----";
+    private static final Charset CHARSET = Charset.forName(BinaryMessageConstants.DEFAULT_CHARSET);
+
+    private SharedMemoryHandshake() {
+    }
+
+    /**
+     * Writes a handshake file atomically.
+     *
+     * @param file   The file to be written.
+     * @param values The values of the file.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void writeFile(File file, String... values) throws IOException {
+        Path tempFile = new File(file.getPath() + TEMP_FILE_SUFFIX).toPath();
+        Files.deleteIfExists(tempFile);
+        try {
+            Files.createFile(tempFile, PosixFilePermissions.asFileAttribute(
+                    PosixFilePermissions.fromString(FILE_PERMISSIONS)));
+        } catch (UnsupportedOperationException e) {
+            Files.createFile(tempFile);
+        } catch (FileAlreadyExistsException e) {
+            throw new IOException("Handshake file " + tempFile + " is being written by another process", e);
+        }
+        List<String> lines = new ArrayList<>(values.length);
+        for (String value : values) {
+            lines.add(Base64.getEncoder().encodeToString(value.getBytes(CHARSET)));
+        }
+        Files.write(tempFile, lines, CHARSET);
+        Files.move(tempFile, file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads the values of a handshake file.
+     *
+     * @param file The file to be read.
+     * @return The values of the file.
+     * @throws IOException If the file cannot be read.
+     */
+    public static String[] readFile(File file) throws IOException {
+        List<String> lines = Files.readAllLines(file.toPath(), CHARSET);
+        String[] values = new String[lines.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = new String(Base64.getDecoder().decode(lines.get(i)), CHARSET);
+        }
+        return values;
+    }
+
+    /**
+     * Returns the request id of a handshake or ring file, if the file name ends with the given suffix.
+     *
+     * @param file   The file.
+     * @param suffix The suffix of the file type.
+     * @return The id, or null if the file is not of the given type.
+     */
+    public static String getId(File file, String suffix) {
+        String name = file.getName();
+        if (name.endsWith(suffix)) {
+            return name.substring(0, name.length() - suffix.length());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,326 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.commons.binary;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Single producer, single consumer ring of records in a memory mapped file, which carries the binary publish
+ * messages from an agent to a receiver on the same host without a system call per batch.
+ * <p>
+ * The file starts with a header holding the capacity, the closed flag and the write and read cursors, each cursor
+ * on its own cache line, followed by the data region. The cursors are the total number of bytes written and read,
+ * hence they only grow. A record is an int length followed by the record bytes, padded to 8 bytes. A record which
+ * does not fit before the end of the data region is preceded by a padding marker and written from the beginning.
+ * <p>
+ * The producer writes a record and then advances the write cursor, and the consumer advances the read cursor only
+ * after the record is processed. Both cursors live in the file, hence when either side crashes, a half written
+ * record is never seen by the consumer and a record being processed is read again after the restart.
+ * <p>
+ * The magic, the closed flag and the cursors are shared with the other process, hence they are accessed with the
+ * aligned absolute accessors of the mapped buffer, which are single loads and stores of the mapped memory, in the
+ * native byte order of the host. A write of a cursor is preceded by a volatile write, and a read of a cursor is
+ * followed by a volatile read, which act as the release and acquire fences. Hence a write of a cursor is not
+ * reordered with the prior accesses of the record, and a read of a cursor is not reordered with the following
+ * accesses of the record.
+ */
+public class SharedMemoryRingBuffer {
+
+    private static final int MAGIC = 0x44425247;
+    private static final int VERSION = 2;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int CAPACITY_OFFSET = 8;
+    private static final int CLOSED_OFFSET = 12;
+    private static final int WRITE_CURSOR_OFFSET = 64;
+    private static final int READ_CURSOR_OFFSET = 128;
+    private static final int HEADER_SIZE = 192;
+    private static final int RECORD_HEADER_SIZE = 4;
+    private static final int RECORD_ALIGNMENT = 8;
+    private static final int PADDING = -1;
+
+    /**
+     * Written before a shared value is written and read after a shared value is read, only to order the accesses
+     * of the mapped memory around it.
+     */
+    private static volatile int fence;
+
+    private final File file;
+
+    private final RandomAccessFile randomAccessFile;
+
+    private final MappedByteBuffer buffer;
+
+    private final ByteBuffer headerView;
+
+    private final ByteBuffer dataView;
+
+    private final int capacity;
+
+    /**
+     * Cursors cached by the owning side, as each side is the only writer of its cursor.
+     */
+    private long writeCursor;
+
+    private long readCursor;
+
+    private long pendingReadCursor;
+
+    private SharedMemoryRingBuffer(File file, RandomAccessFile randomAccessFile, MappedByteBuffer buffer,
+                                   int capacity) {
+        this.file = file;
+        this.randomAccessFile = randomAccessFile;
+        this.buffer = buffer;
+        this.headerView = getHeaderView(buffer);
+        this.capacity = capacity;
+        buffer.position(HEADER_SIZE);
+        this.dataView = buffer.slice();
+        this.writeCursor = getVolatileLong(headerView, WRITE_CURSOR_OFFSET);
+        this.readCursor = getVolatileLong(headerView, READ_CURSOR_OFFSET);
+        this.pendingReadCursor = readCursor;
+    }
+
+    /**
+     * Creates a new ring file, which is used by the producer.
+     *
+     * @param file     The ring file, which must not exist.
+     * @param capacity Size of the data region in bytes, which is rounded up to a multiple of 8.
+     * @return The ring.
+     * @throws IOException If the file cannot be created or mapped.
+     */
+    public static SharedMemoryRingBuffer create(File file, int capacity) throws IOException {
+        int alignedCapacity = align(capacity);
+        if (!file.createNewFile()) {
+            throw new IOException("Shared memory ring file " + file + " already exists");
+        }
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            MappedByteBuffer buffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0,
+                    HEADER_SIZE + (long) alignedCapacity);
+            buffer.putInt(VERSION_OFFSET, VERSION);
+            buffer.putInt(CAPACITY_OFFSET, alignedCapacity);
+            ByteBuffer headerView = getHeaderView(buffer);
+            headerView.putLong(WRITE_CURSOR_OFFSET, 0);
+            headerView.putLong(READ_CURSOR_OFFSET, 0);
+            // The magic is written last, so that a consumer never opens a partially initialized ring.
+            putOrderedInt(headerView, MAGIC_OFFSET, MAGIC);
+            return new SharedMemoryRingBuffer(file, randomAccessFile, buffer, alignedCapacity);
+        } catch (IOException | RuntimeException e) {
+            randomAccessFile.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens an existing ring file, which is used by the consumer.
+     *
+     * @param file The ring file.
+     * @return The ring, or null if the producer has not initialized the ring yet.
+     * @throws IOException If the file cannot be mapped, or is not a ring file of a supported version.
+     */
+    public static SharedMemoryRingBuffer open(File file) throws IOException {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            if (randomAccessFile.length() < HEADER_SIZE) {
+                randomAccessFile.close();
+                return null;
+            }
+            MappedByteBuffer buffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0,
+                    randomAccessFile.length());
+            if (getVolatileInt(getHeaderView(buffer), MAGIC_OFFSET) != MAGIC) {
+                randomAccessFile.close();
+                return null;
+            }
+            if (buffer.getInt(VERSION_OFFSET) != VERSION) {
+                throw new IOException("Unsupported shared memory ring version " + buffer.getInt(VERSION_OFFSET)
+                        + " of " + file);
+            }
+            return new SharedMemoryRingBuffer(file, randomAccessFile, buffer, buffer.getInt(CAPACITY_OFFSET));
+        } catch (IOException | RuntimeException e) {
+            randomAccessFile.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes a record made of the given parts, if the ring has space for it. Used only by the producer.
+     *
+     * @param parts The parts of the record, which are written from their positions without modifying them.
+     * @return true if the record is written, or false if the ring does not have space for it at the moment.
+     * @throws IOException If the record can never fit in the ring.
+     */
+    public boolean offer(ByteBuffer... parts) throws IOException {
+        int length = 0;
+        for (ByteBuffer part : parts) {
+            length += part.remaining();
+        }
+        int recordSize = align(RECORD_HEADER_SIZE + length);
+        if (recordSize > capacity) {
+            throw new IOException("Record of " + length + " bytes does not fit in the shared memory ring of "
+                    + capacity + " bytes");
+        }
+        int offset = (int) (writeCursor % capacity);
+        int contiguousSize = capacity - offset;
+        long requiredSize = recordSize > contiguousSize ? contiguousSize + recordSize : recordSize;
+        long currentReadCursor = getVolatileLong(headerView, READ_CURSOR_OFFSET);
+        if (writeCursor + requiredSize - currentReadCursor > capacity) {
+            return false;
+        }
+        long newWriteCursor = writeCursor;
+        if (recordSize > contiguousSize) {
+            dataView.putInt(offset, PADDING);
+            newWriteCursor += contiguousSize;
+            offset = 0;
+        }
+        dataView.putInt(offset, length);
+        dataView.position(offset + RECORD_HEADER_SIZE);
+        for (ByteBuffer part : parts) {
+            dataView.put(part.duplicate());
+        }
+        newWriteCursor += recordSize;
+        putOrderedLong(headerView, WRITE_CURSOR_OFFSET, newWriteCursor);
+        writeCursor = newWriteCursor;
+        return true;
+    }
+
+    /**
+     * Reads the next record, which is read again until {@link #commitRead()} is called. Used only by the consumer.
+     *
+     * @return The record, or null if the ring is empty.
+     */
+    public byte[] read() {
+        long currentWriteCursor = getVolatileLong(headerView, WRITE_CURSOR_OFFSET);
+        if (readCursor == currentWriteCursor) {
+            return null;
+        }
+        long cursor = readCursor;
+        int offset = (int) (cursor % capacity);
+        int length = dataView.getInt(offset);
+        if (length == PADDING) {
+            cursor += capacity - offset;
+            offset = 0;
+            length = dataView.getInt(offset);
+        }
+        byte[] record = new byte[length];
+        dataView.position(offset + RECORD_HEADER_SIZE);
+        dataView.get(record);
+        pendingReadCursor = cursor + align(RECORD_HEADER_SIZE + length);
+        return record;
+    }
+
+    /**
+     * Releases the space of the records read so far to the producer. Used only by the consumer.
+     */
+    public void commitRead() {
+        putOrderedLong(headerView, READ_CURSOR_OFFSET, pendingReadCursor);
+        readCursor = pendingReadCursor;
+    }
+
+    /**
+     * Returns whether all the records written are read and committed.
+     */
+    public boolean isEmpty() {
+        return getVolatileLong(headerView, READ_CURSOR_OFFSET) == getVolatileLong(headerView, WRITE_CURSOR_OFFSET);
+    }
+
+    /**
+     * Marks that the producer will not write to the ring anymore, so that the consumer can remove it once it is
+     * drained.
+     */
+    public void markClosed() {
+        putOrderedInt(headerView, CLOSED_OFFSET, 1);
+    }
+
+    public boolean isClosed() {
+        return getVolatileInt(headerView, CLOSED_OFFSET) != 0;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Closes the file of the ring. The mapping is released when the ring is garbage collected.
+     */
+    public void close() throws IOException {
+        randomAccessFile.close();
+    }
+
+    /**
+     * Returns the view of the header in the native byte order, through which the values shared with the other
+     * process are accessed.
+     */
+    private static ByteBuffer getHeaderView(MappedByteBuffer buffer) {
+        return buffer.duplicate().order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Writes a shared value of the header after all the prior accesses of the mapped memory.
+     */
+    private static void putOrderedLong(ByteBuffer headerView, int offset, long value) {
+        fence = 0;
+        headerView.putLong(offset, value);
+    }
+
+    private static void putOrderedInt(ByteBuffer headerView, int offset, int value) {
+        fence = 0;
+        headerView.putInt(offset, value);
+    }
+
+    /**
+     * Reads a shared value of the header before all the following accesses of the mapped memory.
+     */
+    private static long getVolatileLong(ByteBuffer headerView, int offset) {
+        long value = headerView.getLong(offset);
+        loadFence();
+        return value;
+    }
+
+    private static int getVolatileInt(ByteBuffer headerView, int offset) {
+        int value = headerView.getInt(offset);
+        loadFence();
+        return value;
+    }
+
+    @SuppressWarnings("unused")
+    private static void loadFence() {
+        int ignored = fence;
+    }
+
+    private static int align(int size) {
+        return (size + RECORD_ALIGNMENT - 1) & -RECORD_ALIGNMENT;
+    }
+
+    @Override
+    public String toString() {
+        return "SharedMemoryRingBuffer{" +
+                "file=" + file +
+                ", capacity=" + capacity +
+                "}";
+    }
+}
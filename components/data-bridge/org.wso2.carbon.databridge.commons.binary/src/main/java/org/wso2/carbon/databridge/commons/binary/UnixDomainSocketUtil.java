@@ -0,0 +1,128 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.commons.binary;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.ProtocolFamily;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Util class to open Unix domain socket channels, which are used by the binary transport between the agents and
+ * the receivers on the same host. Unix domain socket channels are available from Java 16 onwards, hence they are
+ * looked up reflectively so that the transport is still built for and runs on older JVMs, where it is reported as
+ * not supported.
+ */
+public class UnixDomainSocketUtil {
+
+    private static final ProtocolFamily UNIX_PROTOCOL_FAMILY;
+    private static final Method CREATE_ADDRESS_METHOD;
+    private static final Method OPEN_SOCKET_CHANNEL_METHOD;
+    private static final Method OPEN_SERVER_SOCKET_CHANNEL_METHOD;
+
+    static {
+        ProtocolFamily protocolFamily = null;
+        Method createAddressMethod = null;
+        Method openSocketChannelMethod = null;
+        Method openServerSocketChannelMethod = null;
+        try {
+            protocolFamily = StandardProtocolFamily.valueOf("UNIX");
+            createAddressMethod = Class.forName("java.net.UnixDomainSocketAddress").getMethod("of", String.class);
+            openSocketChannelMethod = SocketChannel.class.getMethod("open", ProtocolFamily.class);
+            openServerSocketChannelMethod = ServerSocketChannel.class.getMethod("open", ProtocolFamily.class);
+        } catch (IllegalArgumentException | ReflectiveOperationException e) {
+            protocolFamily = null;
+        }
+        UNIX_PROTOCOL_FAMILY = protocolFamily;
+        CREATE_ADDRESS_METHOD = createAddressMethod;
+        OPEN_SOCKET_CHANNEL_METHOD = openSocketChannelMethod;
+        OPEN_SERVER_SOCKET_CHANNEL_METHOD = openServerSocketChannelMethod;
+    }
+
+    private UnixDomainSocketUtil() {
+    }
+
+    /**
+     * Returns whether the JVM supports Unix domain socket channels.
+     */
+    public static boolean isSupported() {
+        return UNIX_PROTOCOL_FAMILY != null;
+    }
+
+    /**
+     * Opens a blocking channel connected to the Unix domain socket of the given path.
+     *
+     * @param path Path of the socket file.
+     * @return The connected channel.
+     * @throws IOException If the JVM does not support Unix domain sockets, or the channel cannot be connected.
+     */
+    public static SocketChannel openSocketChannel(String path) throws IOException {
+        SocketChannel channel = (SocketChannel) invoke(OPEN_SOCKET_CHANNEL_METHOD, UNIX_PROTOCOL_FAMILY);
+        try {
+            channel.connect(createAddress(path));
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return channel;
+    }
+
+    /**
+     * Opens a server channel bound to the Unix domain socket of the given path. The socket file must not exist.
+     *
+     * @param path Path of the socket file.
+     * @return The bound server channel.
+     * @throws IOException If the JVM does not support Unix domain sockets, or the channel cannot be bound.
+     */
+    public static ServerSocketChannel openServerSocketChannel(String path) throws IOException {
+        ServerSocketChannel channel = (ServerSocketChannel) invoke(OPEN_SERVER_SOCKET_CHANNEL_METHOD,
+                UNIX_PROTOCOL_FAMILY);
+        try {
+            channel.bind(createAddress(path));
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return channel;
+    }
+
+    private static SocketAddress createAddress(String path) throws IOException {
+        return (SocketAddress) invoke(CREATE_ADDRESS_METHOD, path);
+    }
+
+    private static Object invoke(Method method, Object argument) throws IOException {
+        if (!isSupported()) {
+            throw new IOException("Unix domain sockets are not supported by the JVM " +
+                    System.getProperty("java.version") + ", Java 16 or later is required");
+        }
+        try {
+            return method.invoke(null, argument);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IOException(e);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.commons.binary.test;
+
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+import org.wso2.carbon.databridge.commons.binary.SharedMemoryRingBuffer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+
+/**
+ * Shared Memory Ring Buffer Testcase.
+ */
+public class SharedMemoryRingBufferTest {
+
+    @Test
+    public void testWriteAndReadAcrossWrapAround() throws IOException {
+        File file = new File(Files.createTempDirectory("databridge").toFile(), "test.ring");
+        SharedMemoryRingBuffer producer = SharedMemoryRingBuffer.create(file, 64);
+        SharedMemoryRingBuffer consumer = SharedMemoryRingBuffer.open(file);
+        try {
+            for (int i = 0; i < 20; i++) {
+                AssertJUnit.assertTrue(producer.offer(ByteBuffer.wrap(new byte[]{(byte) i}),
+                        ByteBuffer.wrap(new byte[i % 13])));
+                byte[] record = consumer.read();
+                AssertJUnit.assertNotNull(record);
+                AssertJUnit.assertEquals(1 + i % 13, record.length);
+                AssertJUnit.assertEquals((byte) i, record[0]);
+                consumer.commitRead();
+                AssertJUnit.assertNull(consumer.read());
+            }
+            AssertJUnit.assertTrue(consumer.isEmpty());
+        } finally {
+            producer.close();
+            consumer.close();
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testFullRingAndResumeAfterRestart() throws IOException {
+        File file = new File(Files.createTempDirectory("databridge").toFile(), "test.ring");
+        SharedMemoryRingBuffer producer = SharedMemoryRingBuffer.create(file, 64);
+        SharedMemoryRingBuffer consumer = SharedMemoryRingBuffer.open(file);
+        try {
+            AssertJUnit.assertTrue(producer.offer(ByteBuffer.wrap(new byte[20])));
+            AssertJUnit.assertTrue(producer.offer(ByteBuffer.wrap(new byte[20])));
+            AssertJUnit.assertFalse("Ring should be full", producer.offer(ByteBuffer.wrap(new byte[20])));
+
+            AssertJUnit.assertNotNull(consumer.read());
+            consumer.commitRead();
+            AssertJUnit.assertNotNull(consumer.read());
+            consumer.close();
+
+            // The second record is not committed, hence it is read again after the consumer restarts.
+            consumer = SharedMemoryRingBuffer.open(file);
+            AssertJUnit.assertEquals(20, consumer.read().length);
+            consumer.commitRead();
+            AssertJUnit.assertTrue(producer.offer(ByteBuffer.wrap(new byte[20])));
+
+            producer.markClosed();
+            AssertJUnit.assertTrue(consumer.isClosed());
+            AssertJUnit.assertFalse(consumer.isEmpty());
+        } finally {
+            producer.close();
+            consumer.close();
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testConcurrentProducerAndConsumer() throws Exception {
+        File file = new File(Files.createTempDirectory("databridge").toFile(), "test.ring");
+        final SharedMemoryRingBuffer producer = SharedMemoryRingBuffer.create(file, 256);
+        SharedMemoryRingBuffer consumer = SharedMemoryRingBuffer.open(file);
+        final int numberOfRecords = 200000;
+        final IOException[] producerError = new IOException[1];
+        Thread producerThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    for (int i = 0; i < numberOfRecords; i++) {
+                        // Each record repeats its sequence number, so that a partially visible record is detected.
+                        ByteBuffer record = ByteBuffer.allocate(4 * (1 + i % 7));
+                        while (record.hasRemaining()) {
+                            record.putInt(i);
+                        }
+                        record.flip();
+                        while (!producer.offer(record)) {
+                            Thread.yield();
+                        }
+                    }
+                } catch (IOException e) {
+                    producerError[0] = e;
+                }
+            }
+        });
+        producerThread.start();
+        try {
+            long stopTime = System.currentTimeMillis() + 30000;
+            int expected = 0;
+            while (expected < numberOfRecords && System.currentTimeMillis() < stopTime) {
+                byte[] record = consumer.read();
+                if (record == null) {
+                    Thread.yield();
+                    continue;
+                }
+                AssertJUnit.assertEquals(4 * (1 + expected % 7), record.length);
+                ByteBuffer recordBuffer = ByteBuffer.wrap(record);
+                while (recordBuffer.hasRemaining()) {
+                    AssertJUnit.assertEquals(expected, recordBuffer.getInt());
+                }
+                consumer.commitRead();
+                expected++;
+            }
+            producerThread.join(5000);
+            AssertJUnit.assertNull(producerError[0]);
+            AssertJUnit.assertEquals(numberOfRecords, expected);
+            AssertJUnit.assertTrue(consumer.isEmpty());
+        } finally {
+            producer.close();
+            consumer.close();
+            file.delete();
+        }
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testRecordLargerThanRing() throws IOException {
+        File file = new File(Files.createTempDirectory("databridge").toFile(), "test.ring");
+        SharedMemoryRingBuffer producer = SharedMemoryRingBuffer.create(file, 64);
+        try {
+            producer.offer(ByteBuffer.wrap(new byte[64]));
+        } finally {
+            producer.close();
+            file.delete();
+        }
+    }
+}
@@ -37,7 +37,7 @@ public class ThriftSecureEventTransmissionService {
 
     public String findStreamId(String sessionId, String streamName, String streamVersion) throws org.wso2.carbon.databridge.commons.thrift.exception.ThriftNoStreamDefinitionExistException, org.wso2.carbon.databridge.commons.thrift.exception.ThriftSessionExpiredException, TException;
 
-    public void publish(org.wso2.carbon.databridge.commons.thrift.data.ThriftEventBundle eventBundle) throws org.wso2.carbon.databridge.commons.thrift.exception.ThriftUndefinedEventTypeException, org.wso2.carbon.databridge.commons.thrift.exception.ThriftSessionExpiredException, TException;
+    public org.wso2.carbon.databridge.commons.thrift.data.ThriftReceiverLoad publish(org.wso2.carbon.databridge.commons.thrift.data.ThriftEventBundle eventBundle) throws org.wso2.carbon.databridge.commons.thrift.exception.ThriftUndefinedEventTypeException, org.wso2.carbon.databridge.commons.thrift.exception.ThriftSessionExpiredException, TException;
 
     public boolean deleteStreamById(String sessionId, String streamId) throws org.wso2.carbon.databridge.commons.thrift.exception.ThriftSessionExpiredException, TException;
 
@@ -197,10 +197,10 @@ public class ThriftSecureEventTransmissionService {
       throw new org.apache.thrift.TApplicationException(org.apache.thrift.TApplicationException.MISSING_RESULT, "findStreamId failed: unknown result");
     }
 
-    public void publish(org.wso2.carbon.databridge.commons.thrift.data.ThriftEventBundle eventBundle) throws org.wso2.carbon.databridge.commons.thrift.exception.ThriftUndefinedEventTypeException, org.wso2.carbon.databridge.commons.thrift.exception.ThriftSessionExpiredException, TException
+    public org.wso2.carbon.databridge.commons.thrift.data.ThriftReceiverLoad publish(org.wso2.carbon.databridge.commons.thrift.data.ThriftEventBundle eventBundle) throws org.wso2.carbon.databridge.commons.thrift.exception.ThriftUndefinedEventTypeException, org.wso2.carbon.databridge.commons.thrift.exception.ThriftSessionExpiredException, TException
     {
       send_publish(eventBundle);
-      recv_publish();
+      return recv_publish();
     }
 
     public void send_publish(org.wso2.carbon.databridge.commons.thrift.data.ThriftEventBundle eventBundle) throws TException
@@ -210,17 +210,20 @@ public class ThriftSecureEventTransmissionService {
       sendBase("publish", args);
     }
 
-    public void recv_publish() throws org.wso2.carbon.databridge.commons.thrift.exception.ThriftUndefinedEventTypeException, org.wso2.carbon.databridge.commons.thrift.exception.ThriftSessionExpiredException, TException
+    public org.wso2.carbon.databridge.commons.thrift.data.ThriftReceiverLoad recv_publish() throws org.wso2.carbon.databridge.commons.thrift.exception.ThriftUndefinedEventTypeException, org.wso2.carbon.databridge.commons.thrift.exception.ThriftSessionExpiredException, TException
     {
       publish_result result = new publish_result();
       receiveBase(result, "publish");
+      if (result.isSetSuccess()) {
+        return result.success;
+      }
       if (result.ue != null) {
         throw result.ue;
       }
       if (result.se != null) {
         throw result.se;
       }
-      return;
+      throw new org.apache.thrift.TApplicationException(org.apache.thrift.TApplicationException.MISSING_RESULT, "publish failed: unknown result");
     }
 
     public boolean deleteStreamById(String sessionId, String streamId) throws org.wso2.carbon.databridge.commons.thrift.exception.ThriftSessionExpiredException, TException
@@ -458,13 +461,13 @@ public class ThriftSecureEventTransmissionService {
         prot.writeMessageEnd();
       }
 
-      public void getResult() throws org.wso2.carbon.databridge.commons.thrift.exception.ThriftUndefinedEventTypeException, org.wso2.carbon.databridge.commons.thrift.exception.ThriftSessionExpiredException, TException {
+      public org.wso2.carbon.databridge.commons.thrift.data.ThriftReceiverLoad getResult() throws org.wso2.carbon.databridge.commons.thrift.exception.ThriftUndefinedEventTypeException, org.wso2.carbon.databridge.commons.thrift.exception.ThriftSessionExpiredException, TException {
         if (getState() != State.RESPONSE_READ) {
           throw new IllegalStateException("Method call not finished!");
         }
         org.apache.thrift.transport.TMemoryInputTransport memoryTransport = new org.apache.thrift.transport.TMemoryInputTransport(getFrameBuffer().array());
         org.apache.thrift.protocol.TProtocol prot = client.getProtocolFactory().getProtocol(memoryTransport);
-        (new Client(prot)).recv_publish();
+        return (new Client(prot)).recv_publish();
       }
     }
 
@@ -680,7 +683,7 @@ public class ThriftSecureEventTransmissionService {
       public publish_result getResult(I iface, publish_args args) throws TException {
         publish_result result = new publish_result();
         try {
-          iface.publish(args.eventBundle);
+          result.success = iface.publish(args.eventBundle);
         } catch (org.wso2.carbon.databridge.commons.thrift.exception.ThriftUndefinedEventTypeException ue) {
           result.ue = ue;
         } catch (org.wso2.carbon.databridge.commons.thrift.exception.ThriftSessionExpiredException se) {
@@ -1004,7 +1007,7 @@ public class ThriftSecureEventTransmissionService {
       }
     }
 
-    public static class publish<I extends AsyncIface> extends org.apache.thrift.AsyncProcessFunction<I, publish_args, Void> {
+    public static class publish<I extends AsyncIface> extends org.apache.thrift.AsyncProcessFunction<I, publish_args, org.wso2.carbon.databridge.commons.thrift.data.ThriftReceiverLoad> {
       public publish() {
         super("publish");
       }
@@ -1013,11 +1016,12 @@ public class ThriftSecureEventTransmissionService {
         return new publish_args();
       }
 
-      public AsyncMethodCallback<Void> getResultHandler(final AsyncFrameBuffer fb, final int seqid) {
+      public AsyncMethodCallback<org.wso2.carbon.databridge.commons.thrift.data.ThriftReceiverLoad> getResultHandler(final AsyncFrameBuffer fb, final int seqid) {
         final org.apache.thrift.AsyncProcessFunction fcall = this;
-        return new AsyncMethodCallback<Void>() { 
-          public void onComplete(Void o) {
+        return new AsyncMethodCallback<org.wso2.carbon.databridge.commons.thrift.data.ThriftReceiverLoad>() { 
+          public void onComplete(org.wso2.carbon.databridge.commons.thrift.data.ThriftReceiverLoad o) {
             publish_result result = new publish_result();
+            result.success = o;
             try {
               fcall.sendResponse(fb,result, org.apache.thrift.protocol.TMessageType.REPLY,seqid);
               return;
@@ -1060,7 +1064,7 @@ public class ThriftSecureEventTransmissionService {
         return false;
       }
 
-      public void start(I iface, publish_args args, AsyncMethodCallback<Void> resultHandler) throws TException {
+      public void start(I iface, publish_args args, AsyncMethodCallback<org.wso2.carbon.databridge.commons.thrift.data.ThriftReceiverLoad> resultHandler) throws TException {
         iface.publish(args.eventBundle,resultHandler);
       }
     }
@@ -5383,6 +5387,7 @@ public class ThriftSecureEventTransmissionService {
   public static class publish_result implements org.apache.thrift.TBase<publish_result, publish_result._Fields>, java.io.Serializable, Cloneable, Comparable<publish_result>   {
     private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("publish_result");
 
+    private static final org.apache.thrift.protocol.TField SUCCESS_FIELD_DESC = new org.apache.thrift.protocol.TField("success", org.apache.thrift.protocol.TType.STRUCT, (short)0);
     private static final org.apache.thrift.protocol.TField UE_FIELD_DESC = new org.apache.thrift.protocol.TField("ue", org.apache.thrift.protocol.TType.STRUCT, (short)1);
     private static final org.apache.thrift.protocol.TField SE_FIELD_DESC = new org.apache.thrift.protocol.TField("se", org.apache.thrift.protocol.TType.STRUCT, (short)2);
 
@@ -5392,11 +5397,13 @@ public class ThriftSecureEventTransmissionService {
       schemes.put(TupleScheme.class, new publish_resultTupleSchemeFactory());
     }
 
+    public org.wso2.carbon.databridge.commons.thrift.data.ThriftReceiverLoad success; // required
     public org.wso2.carbon.databridge.commons.thrift.exception.ThriftUndefinedEventTypeException ue; // required
     public org.wso2.carbon.databridge.commons.thrift.exception.ThriftSessionExpiredException se; // required
 
     /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
     public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+      SUCCESS((short)0, "success"),
       UE((short)1, "ue"),
       SE((short)2, "se");
 
@@ -5413,6 +5420,8 @@ public class ThriftSecureEventTransmissionService {
        */
       public static _Fields findByThriftId(int fieldId) {
         switch(fieldId) {
+          case 0: // SUCCESS
+            return SUCCESS;
           case 1: // UE
             return UE;
           case 2: // SE
@@ -5460,6 +5469,8 @@ public class ThriftSecureEventTransmissionService {
     public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
     static {
       Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.SUCCESS, new org.apache.thrift.meta_data.FieldMetaData("success", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, org.wso2.carbon.databridge.commons.thrift.data.ThriftReceiverLoad.class)));
       tmpMap.put(_Fields.UE, new org.apache.thrift.meta_data.FieldMetaData("ue", org.apache.thrift.TFieldRequirementType.DEFAULT, 
           new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRUCT)));
       tmpMap.put(_Fields.SE, new org.apache.thrift.meta_data.FieldMetaData("se", org.apache.thrift.TFieldRequirementType.DEFAULT, 
@@ -5472,10 +5483,12 @@ public class ThriftSecureEventTransmissionService {
     }
 
     public publish_result(
+      org.wso2.carbon.databridge.commons.thrift.data.ThriftReceiverLoad success,
       org.wso2.carbon.databridge.commons.thrift.exception.ThriftUndefinedEventTypeException ue,
       org.wso2.carbon.databridge.commons.thrift.exception.ThriftSessionExpiredException se)
     {
       this();
+      this.success = success;
       this.ue = ue;
       this.se = se;
     }
@@ -5484,6 +5497,9 @@ public class ThriftSecureEventTransmissionService {
      * Performs a deep copy on <i>other</i>.
      */
     public publish_result(publish_result other) {
+      if (other.isSetSuccess()) {
+        this.success = new org.wso2.carbon.databridge.commons.thrift.data.ThriftReceiverLoad(other.success);
+      }
       if (other.isSetUe()) {
         this.ue = new org.wso2.carbon.databridge.commons.thrift.exception.ThriftUndefinedEventTypeException(other.ue);
       }
@@ -5498,10 +5514,35 @@ public class ThriftSecureEventTransmissionService {
 
     @Override
     public void clear() {
+      this.success = null;
       this.ue = null;
       this.se = null;
     }
 
+    public org.wso2.carbon.databridge.commons.thrift.data.ThriftReceiverLoad getSuccess() {
+      return this.success;
+    }
+
+    public publish_result setSuccess(org.wso2.carbon.databridge.commons.thrift.data.ThriftReceiverLoad success) {
+      this.success = success;
+      return this;
+    }
+
+    public void unsetSuccess() {
+      this.success = null;
+    }
+
+    /** Returns true if field success is set (has been assigned a value) and false otherwise */
+    public boolean isSetSuccess() {
+      return this.success != null;
+    }
+
+    public void setSuccessIsSet(boolean value) {
+      if (!value) {
+        this.success = null;
+      }
+    }
+
     public org.wso2.carbon.databridge.commons.thrift.exception.ThriftUndefinedEventTypeException getUe() {
       return this.ue;
     }
@@ -5552,6 +5593,14 @@ public class ThriftSecureEventTransmissionService {
 
     public void setFieldValue(_Fields field, Object value) {
       switch (field) {
+      case SUCCESS:
+        if (value == null) {
+          unsetSuccess();
+        } else {
+          setSuccess((org.wso2.carbon.databridge.commons.thrift.data.ThriftReceiverLoad)value);
+        }
+        break;
+
       case UE:
         if (value == null) {
           unsetUe();
@@ -5573,6 +5622,9 @@ public class ThriftSecureEventTransmissionService {
 
     public Object getFieldValue(_Fields field) {
       switch (field) {
+      case SUCCESS:
+        return getSuccess();
+
       case UE:
         return getUe();
 
@@ -5590,6 +5642,8 @@ public class ThriftSecureEventTransmissionService {
       }
 
       switch (field) {
+      case SUCCESS:
+        return isSetSuccess();
       case UE:
         return isSetUe();
       case SE:
@@ -5611,6 +5665,15 @@ public class ThriftSecureEventTransmissionService {
       if (that == null)
         return false;
 
+      boolean this_present_success = true && this.isSetSuccess();
+      boolean that_present_success = true && that.isSetSuccess();
+      if (this_present_success || that_present_success) {
+        if (!(this_present_success && that_present_success))
+          return false;
+        if (!this.success.equals(that.success))
+          return false;
+      }
+
       boolean this_present_ue = true && this.isSetUe();
       boolean that_present_ue = true && that.isSetUe();
       if (this_present_ue || that_present_ue) {
@@ -5645,6 +5708,16 @@ public class ThriftSecureEventTransmissionService {
 
       int lastComparison = 0;
 
+      lastComparison = Boolean.valueOf(isSetSuccess()).compareTo(other.isSetSuccess());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetSuccess()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.success, other.success);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
       lastComparison = Boolean.valueOf(isSetUe()).compareTo(other.isSetUe());
       if (lastComparison != 0) {
         return lastComparison;
@@ -5685,6 +5758,14 @@ public class ThriftSecureEventTransmissionService {
       StringBuilder sb = new StringBuilder("publish_result(");
       boolean first = true;
 
+      sb.append("success:");
+      if (this.success == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.success);
+      }
+      first = false;
+      if (!first) sb.append(", ");
       sb.append("ue:");
       if (this.ue == null) {
         sb.append("null");
@@ -5707,6 +5788,9 @@ public class ThriftSecureEventTransmissionService {
     public void validate() throws TException {
       // check for required fields
       // check for sub-struct validity
+      if (success != null) {
+        success.validate();
+      }
     }
 
     private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
@@ -5743,6 +5827,15 @@ public class ThriftSecureEventTransmissionService {
             break;
           }
           switch (schemeField.id) {
+            case 0: // SUCCESS
+              if (schemeField.type == org.apache.thrift.protocol.TType.STRUCT) {
+                struct.success = new org.wso2.carbon.databridge.commons.thrift.data.ThriftReceiverLoad();
+                struct.success.read(iprot);
+                struct.setSuccessIsSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
             case 1: // UE
               if (schemeField.type == org.apache.thrift.protocol.TType.STRUCT) {
                 struct.ue = new org.wso2.carbon.databridge.commons.thrift.exception.ThriftUndefinedEventTypeException();
@@ -5776,6 +5869,11 @@ public class ThriftSecureEventTransmissionService {
         struct.validate();
 
         oprot.writeStructBegin(STRUCT_DESC);
+        if (struct.success != null) {
+          oprot.writeFieldBegin(SUCCESS_FIELD_DESC);
+          struct.success.write(oprot);
+          oprot.writeFieldEnd();
+        }
         if (struct.ue != null) {
           oprot.writeFieldBegin(UE_FIELD_DESC);
           struct.ue.write(oprot);
@@ -5804,13 +5902,19 @@ public class ThriftSecureEventTransmissionService {
       public void write(org.apache.thrift.protocol.TProtocol prot, publish_result struct) throws TException {
         TTupleProtocol oprot = (TTupleProtocol) prot;
         BitSet optionals = new BitSet();
-        if (struct.isSetUe()) {
+        if (struct.isSetSuccess()) {
           optionals.set(0);
         }
-        if (struct.isSetSe()) {
+        if (struct.isSetUe()) {
           optionals.set(1);
         }
-        oprot.writeBitSet(optionals, 2);
+        if (struct.isSetSe()) {
+          optionals.set(2);
+        }
+        oprot.writeBitSet(optionals, 3);
+        if (struct.isSetSuccess()) {
+          struct.success.write(oprot);
+        }
         if (struct.isSetUe()) {
           struct.ue.write(oprot);
         }
@@ -5822,13 +5926,18 @@ public class ThriftSecureEventTransmissionService {
       @Override
       public void read(org.apache.thrift.protocol.TProtocol prot, publish_result struct) throws TException {
         TTupleProtocol iprot = (TTupleProtocol) prot;
-        BitSet incoming = iprot.readBitSet(2);
+        BitSet incoming = iprot.readBitSet(3);
         if (incoming.get(0)) {
+          struct.success = new org.wso2.carbon.databridge.commons.thrift.data.ThriftReceiverLoad();
+          struct.success.read(iprot);
+          struct.setSuccessIsSet(true);
+        }
+        if (incoming.get(1)) {
           struct.ue = new org.wso2.carbon.databridge.commons.thrift.exception.ThriftUndefinedEventTypeException();
           struct.ue.read(iprot);
           struct.setUeIsSet(true);
         }
-        if (incoming.get(1)) {
+        if (incoming.get(2)) {
           struct.se = new org.wso2.carbon.databridge.commons.thrift.exception.ThriftSessionExpiredException();
           struct.se.read(iprot);
           struct.setSeIsSet(true);
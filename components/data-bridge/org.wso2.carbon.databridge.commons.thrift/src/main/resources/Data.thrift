@@ -25,5 +25,7 @@ struct ThriftEventBundle {
     8: optional map<i32,map<string,string>>  arbitraryDataMapMap;
 }
 
-
-
+struct ThriftReceiverLoad {
+    1: optional i32 queueFillPercentage;
+    2: optional i32 dispatchLatencyMS;
+}
@@ -33,6 +33,12 @@ public class Event {
     private Object[] payloadData;
     private Map<String, String> arbitraryDataMap = null;
 
+    /**
+     * Size of the event in the binary message format, cached by the agent when the event is queued so that it is
+     * not measured again when the event is encoded. This is not a part of the event.
+     */
+    private transient int serializedSize = -1;
+
 
     public Event() {
 
@@ -109,6 +115,17 @@ public class Event {
         this.arbitraryDataMap = arbitraryDataMap;
     }
 
+    /**
+     * Returns the cached size of the event in the binary message format, or -1 if the size is not cached.
+     */
+    public int getSerializedSize() {
+        return serializedSize;
+    }
+
+    public void setSerializedSize(int serializedSize) {
+        this.serializedSize = serializedSize;
+    }
+
     public void setData(String key, Object[] dataObjArray) {
         if (key.equals("metaData")) {
             metaData = dataObjArray;
@@ -0,0 +1,43 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.commons;
+
+import org.wso2.carbon.databridge.commons.exception.AuthenticationException;
+import org.wso2.carbon.databridge.commons.exception.SessionTimeoutException;
+import org.wso2.carbon.databridge.commons.exception.UndefinedEventTypeException;
+
+import java.util.List;
+
+/**
+ * Receiver of events published from within the same JVM. A data bridge registers its local receiver in the
+ * {@link org.wso2.carbon.databridge.commons.utils.LocalEventReceiverRegistry}, so that co-located agents can
+ * hand over event batches without encoding them and sending them over a socket.
+ */
+public interface LocalEventReceiver {
+
+    String login(String username, String password) throws AuthenticationException;
+
+    void logout(String sessionId) throws Exception;
+
+    /**
+     * Publish a batch of events in the given session. The events are handed over as they are, hence they must
+     * not be modified by the publisher afterwards.
+     */
+    void publish(List<Event> events, String sessionId) throws UndefinedEventTypeException, SessionTimeoutException;
+
+}
@@ -0,0 +1,53 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.commons;
+
+/**
+ * Load of a data receiver, which the receiver piggybacks on the acknowledgement of a published batch so that
+ * the agents can balance the events by the capacity of the receivers and slow down before a receiver blocks.
+ */
+public class ReceiverLoad {
+    private final int queueFillPercentage;
+    private final int dispatchLatencyMS;
+
+    /**
+     * @param queueFillPercentage Percentage of the event queue of the receiver in use, in the range 0 to 100.
+     * @param dispatchLatencyMS   Recent time the events have been waiting in the queue of the receiver before
+     *                            they are dispatched to the subscribers.
+     */
+    public ReceiverLoad(int queueFillPercentage, int dispatchLatencyMS) {
+        this.queueFillPercentage = Math.max(0, Math.min(100, queueFillPercentage));
+        this.dispatchLatencyMS = Math.max(0, dispatchLatencyMS);
+    }
+
+    public int getQueueFillPercentage() {
+        return queueFillPercentage;
+    }
+
+    public int getDispatchLatencyMS() {
+        return dispatchLatencyMS;
+    }
+
+    @Override
+    public String toString() {
+        return "ReceiverLoad{" +
+                "queueFillPercentage=" + queueFillPercentage +
+                ", dispatchLatencyMS=" + dispatchLatencyMS +
+                "}";
+    }
+}
@@ -0,0 +1,49 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.commons.utils;
+
+import org.wso2.carbon.databridge.commons.LocalEventReceiver;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the local event receivers of the JVM, by the name agents refer to them in local:// URLs.
+ */
+public class LocalEventReceiverRegistry {
+
+    public static final String DEFAULT_RECEIVER_NAME = "default";
+
+    private static final Map<String, LocalEventReceiver> receivers = new ConcurrentHashMap<>();
+
+    private LocalEventReceiverRegistry() {
+    }
+
+    public static void register(String name, LocalEventReceiver receiver) {
+        receivers.put(name, receiver);
+    }
+
+    public static void unregister(String name, LocalEventReceiver receiver) {
+        receivers.remove(name, receiver);
+    }
+
+    public static LocalEventReceiver getReceiver(String name) {
+        return receivers.get(name);
+    }
+
+}
@@ -24,6 +24,7 @@ import org.apache.log4j.Logger;
 import org.wso2.carbon.config.ConfigProviderFactory;
 import org.wso2.carbon.config.ConfigurationException;
 import org.wso2.carbon.config.provider.ConfigProvider;
+import org.wso2.carbon.databridge.commons.ReceiverLoad;
 import org.wso2.carbon.databridge.commons.StreamDefinition;
 import org.wso2.carbon.databridge.commons.exception.AuthenticationException;
 import org.wso2.carbon.databridge.commons.exception.DifferentStreamDefinitionAlreadyDefinedException;
@@ -277,6 +278,10 @@ public class DataBridge implements DataBridgeSubscriberService, DataBridgeReceiv
         return eventDispatcher.isQueueEmpty();
     }
 
+    public ReceiverLoad getReceiverLoad() {
+        return eventDispatcher.getReceiverLoad();
+    }
+
     private void endTimeMeasurement(int eventsNum) {
         if (isProfileReceiver) {
             eventsReceived.addAndGet(eventsNum);
@@ -335,6 +340,20 @@ public class DataBridge implements DataBridgeSubscriberService, DataBridgeReceiv
         return authenticator.authenticate(username, password);
     }
 
+    public String login(String username, String password, int protocolFeatures) throws AuthenticationException {
+        String sessionId = login(username, password);
+        authenticator.getSession(sessionId).setProtocolFeatures(protocolFeatures);
+        return sessionId;
+    }
+
+    public int getProtocolFeatures(String sessionId) throws SessionTimeoutException {
+        AgentSession agentSession = authenticator.getSession(sessionId);
+        if (agentSession.getCredentials() == null) {
+            throw new SessionTimeoutException(sessionId + " expired");
+        }
+        return agentSession.getProtocolFeatures();
+    }
+
     public void logout(String sessionId) throws Exception {
         AgentSession agentSession = authenticator.getSession(sessionId);
         authenticator.logout(sessionId);
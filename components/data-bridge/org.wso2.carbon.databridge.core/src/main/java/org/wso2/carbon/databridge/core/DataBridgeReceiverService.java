@@ -16,6 +16,7 @@
 
 package org.wso2.carbon.databridge.core;
 
+import org.wso2.carbon.databridge.commons.ReceiverLoad;
 import org.wso2.carbon.databridge.commons.StreamDefinition;
 import org.wso2.carbon.databridge.commons.exception.AuthenticationException;
 import org.wso2.carbon.databridge.commons.exception.DifferentStreamDefinitionAlreadyDefinedException;
@@ -71,6 +72,13 @@ public interface DataBridgeReceiverService {
 
     public String login(String username, String password) throws AuthenticationException;
 
+    /**
+     * Login requesting optional protocol features of the transport, which are kept with the session.
+     */
+    public String login(String username, String password, int protocolFeatures) throws AuthenticationException;
+
+    public int getProtocolFeatures(String sessionId) throws SessionTimeoutException;
+
     public void logout(String sessionId) throws Exception;
 
     public DataBridgeConfiguration getInitialConfig();
@@ -80,6 +88,11 @@ public interface DataBridgeReceiverService {
     public void unsubscribe(StreamAddRemoveListener streamAddRemoveListener);
 
     public Boolean isQueueEmpty();
+
+    /**
+     * Returns the current load of the receiver, which is piggybacked on the publish acknowledgements.
+     */
+    public ReceiverLoad getReceiverLoad();
 }
 
 
@@ -0,0 +1,56 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.core;
+
+import org.wso2.carbon.databridge.commons.Event;
+import org.wso2.carbon.databridge.commons.LocalEventReceiver;
+import org.wso2.carbon.databridge.commons.exception.AuthenticationException;
+import org.wso2.carbon.databridge.commons.exception.SessionTimeoutException;
+import org.wso2.carbon.databridge.commons.exception.UndefinedEventTypeException;
+
+import java.util.List;
+
+/**
+ * Local event receiver of a data bridge, which passes the events published from within the JVM to the data
+ * bridge as they are, with the same session and authentication semantics as the network receivers.
+ */
+public class LocalDataReceiver implements LocalEventReceiver {
+
+    private final DataBridgeReceiverService dataBridgeReceiverService;
+
+    public LocalDataReceiver(DataBridgeReceiverService dataBridgeReceiverService) {
+        this.dataBridgeReceiverService = dataBridgeReceiverService;
+    }
+
+    @Override
+    public String login(String username, String password) throws AuthenticationException {
+        return dataBridgeReceiverService.login(username, password);
+    }
+
+    @Override
+    public void logout(String sessionId) throws Exception {
+        dataBridgeReceiverService.logout(sessionId);
+    }
+
+    @Override
+    public void publish(List<Event> events, String sessionId)
+            throws UndefinedEventTypeException, SessionTimeoutException {
+        dataBridgeReceiverService.publish(events, sessionId, LocalEventConverter.getConverter());
+    }
+
+}
@@ -0,0 +1,98 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.core;
+
+import org.wso2.carbon.databridge.commons.Event;
+import org.wso2.carbon.databridge.core.exception.EventConversionException;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Event converter of the batches received through the local receiver, which are already lists of events. The
+ * events are passed through once their streams are verified to be defined.
+ */
+public class LocalEventConverter implements EventConverter {
+
+    private static final LocalEventConverter instance = new LocalEventConverter();
+
+    private static final int EVENT_OVERHEAD_SIZE = 64;
+
+    private static final int ATTRIBUTE_SIZE = 8;
+
+    private LocalEventConverter() {
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Event> toEventList(Object eventBundle, StreamTypeHolder streamTypeHolder) {
+        List<Event> events = (List<Event>) eventBundle;
+        for (Event event : events) {
+            if (streamTypeHolder.getDataType(event.getStreamId()) == null) {
+                streamTypeHolder.reloadStreamTypeHolder();
+                if (streamTypeHolder.getDataType(event.getStreamId()) == null) {
+                    throw new EventConversionException("No StreamDefinition for streamId " + event.getStreamId()
+                            + " present in cache ");
+                }
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Returns an estimate of the size of the events, as they are not serialized.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public int getSize(Object eventBundle) {
+        int size = 0;
+        for (Event event : (List<Event>) eventBundle) {
+            size += EVENT_OVERHEAD_SIZE + event.getStreamId().length();
+            size += getSize(event.getMetaData()) + getSize(event.getCorrelationData())
+                    + getSize(event.getPayloadData());
+            Map<String, String> arbitraryDataMap = event.getArbitraryDataMap();
+            if (arbitraryDataMap != null) {
+                for (Map.Entry<String, String> entry : arbitraryDataMap.entrySet()) {
+                    size += entry.getKey().length() + (entry.getValue() == null ? 0 : entry.getValue().length());
+                }
+            }
+        }
+        return size;
+    }
+
+    private int getSize(Object[] data) {
+        if (data == null) {
+            return 0;
+        }
+        int size = 0;
+        for (Object attribute : data) {
+            size += attribute instanceof String ? ((String) attribute).length() : ATTRIBUTE_SIZE;
+        }
+        return size;
+    }
+
+    @Override
+    public int getNumberOfEvents(Object eventBundle) {
+        return ((List) eventBundle).size();
+    }
+
+    public static LocalEventConverter getConverter() {
+        return instance;
+    }
+
+}
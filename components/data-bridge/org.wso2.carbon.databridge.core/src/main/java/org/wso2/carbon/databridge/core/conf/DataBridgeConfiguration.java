@@ -41,6 +41,9 @@ public class DataBridgeConfiguration {
     @Element(description = "Session timeout value in mins", required = true)
     private int clientTimeoutMin = 30;
 
+    @Element(description = "Extend the session timeout whenever the session is used", required = false)
+    private boolean slidingSessionExpiry = false;
+
     @Element(description = "Keystore file path", required = true)
     private String keyStoreLocation = null;
 
@@ -78,6 +81,10 @@ public class DataBridgeConfiguration {
         return clientTimeoutMin;
     }
 
+    public boolean isSlidingSessionExpiry() {
+        return slidingSessionExpiry;
+    }
+
     public String getKeyStoreLocation() {
         return keyStoreLocation;
     }
@@ -106,6 +113,10 @@ public class DataBridgeConfiguration {
         this.clientTimeoutMin = clientTimeoutMin;
     }
 
+    public void setSlidingSessionExpiry(boolean slidingSessionExpiry) {
+        this.slidingSessionExpiry = slidingSessionExpiry;
+    }
+
     public void setKeyStoreLocation(String keyStoreLocation) {
         this.keyStoreLocation = keyStoreLocation;
     }
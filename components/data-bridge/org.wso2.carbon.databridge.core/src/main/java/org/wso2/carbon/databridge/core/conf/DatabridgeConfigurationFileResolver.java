@@ -69,6 +69,12 @@ public class DatabridgeConfigurationFileResolver {
                 dataBridgeConfiguration.setClientTimeoutMin(Integer.parseInt(clientTimeoutMinObject.toString().trim()));
             }
 
+            Object slidingSessionExpiryObject = databridgeConfigHashMap.get("slidingSessionExpiry");
+            if (slidingSessionExpiryObject != null && !slidingSessionExpiryObject.toString().trim().isEmpty()) {
+                dataBridgeConfiguration.setSlidingSessionExpiry(Boolean.parseBoolean(slidingSessionExpiryObject.
+                        toString().trim()));
+            }
+
             Object keyStoreLocationObject = databridgeConfigHashMap.get("keyStoreLocation");
             if (keyStoreLocationObject != null) {
                 String keyStoreLocation = keyStoreLocationObject.toString().trim();
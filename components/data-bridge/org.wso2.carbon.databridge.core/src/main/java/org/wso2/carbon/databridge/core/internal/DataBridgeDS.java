@@ -27,11 +27,13 @@ import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.osgi.service.component.annotations.ReferencePolicy;
 import org.wso2.carbon.analytics.idp.client.core.api.IdPClient;
 import org.wso2.carbon.config.provider.ConfigProvider;
+import org.wso2.carbon.databridge.commons.utils.LocalEventReceiverRegistry;
 import org.wso2.carbon.databridge.core.DataBridge;
 import org.wso2.carbon.databridge.core.DataBridgeReceiverService;
 import org.wso2.carbon.databridge.core.DataBridgeServiceValueHolder;
 import org.wso2.carbon.databridge.core.DataBridgeStreamStore;
 import org.wso2.carbon.databridge.core.DataBridgeSubscriberService;
+import org.wso2.carbon.databridge.core.LocalDataReceiver;
 import org.wso2.carbon.databridge.core.conf.DatabridgeConfigurationFileResolver;
 import org.wso2.carbon.databridge.core.definitionstore.InMemoryStreamDefinitionStore;
 import org.wso2.carbon.databridge.core.internal.authentication.CarbonAuthenticationHandler;
@@ -55,6 +57,7 @@ public class DataBridgeDS {
     private ServiceRegistration subscriberServiceRegistration;
     private ServiceRegistration dataBridgeEventStreamServiceRegistration;
     private DataBridge databridge;
+    private LocalDataReceiver localDataReceiver;
 
     /**
      * This is the activation method of DataBridge declarative service. This will be called when its references are
@@ -82,6 +85,9 @@ public class DataBridgeDS {
                 dataBridgeEventStreamServiceRegistration = bundleContext.
                         registerService(DataBridgeStreamStore.class.getName(),
                                 new DataBridgeStreamStore(), null);
+                localDataReceiver = new LocalDataReceiver(databridge);
+                LocalEventReceiverRegistry.register(LocalEventReceiverRegistry.DEFAULT_RECEIVER_NAME,
+                        localDataReceiver);
             }
         } catch (RuntimeException e) {
             log.error("Error in starting Agent Server ", e);
@@ -96,6 +102,10 @@ public class DataBridgeDS {
      */
     @Deactivate
     protected void stop() throws Exception {
+        if (localDataReceiver != null) {
+            LocalEventReceiverRegistry.unregister(LocalEventReceiverRegistry.DEFAULT_RECEIVER_NAME,
+                    localDataReceiver);
+        }
         receiverServiceRegistration.unregister();
         subscriberServiceRegistration.unregister();
         dataBridgeEventStreamServiceRegistration.unregister();
@@ -21,6 +21,7 @@ package org.wso2.carbon.databridge.core.internal;
 
 import org.apache.log4j.Logger;
 import org.wso2.carbon.databridge.commons.Attribute;
+import org.wso2.carbon.databridge.commons.ReceiverLoad;
 import org.wso2.carbon.databridge.commons.StreamDefinition;
 import org.wso2.carbon.databridge.commons.exception.DifferentStreamDefinitionAlreadyDefinedException;
 import org.wso2.carbon.databridge.commons.exception.MalformedStreamDefinitionException;
@@ -215,6 +216,10 @@ public class EventDispatcher {
         return eventQueue.isQueueEmpty();
     }
 
+    public ReceiverLoad getReceiverLoad() {
+        return eventQueue.getReceiverLoad();
+    }
+
     private StreamTypeHolder getStreamDefinitionHolder() {
         if (streamTypeHolder != null) {
             if (log.isDebugEnabled()) {
@@ -41,7 +41,8 @@ public final class Authenticator {
     public Authenticator(AuthenticationHandler authenticationHandler,
                          DataBridgeConfiguration dataBridgeConfiguration) {
         this.authenticationHandler = authenticationHandler;
-        sessionCache = new SessionCache(dataBridgeConfiguration.getClientTimeoutMin());
+        sessionCache = new SessionCache(dataBridgeConfiguration.getClientTimeoutMin(),
+                dataBridgeConfiguration.isSlidingSessionExpiry());
     }
 
     public String authenticate(String userName, String password) throws AuthenticationException {
@@ -19,6 +19,7 @@
 package org.wso2.carbon.databridge.core.internal.authentication.session;
 
 import com.google.common.base.Function;
+import com.google.common.base.Ticker;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
@@ -35,9 +36,36 @@ public class SessionCache {
     private LoadingCache<SessionBean, AgentSession> cache;
 
     public SessionCache(int expirationTimeInMinutes) {
-        cache = CacheBuilder.newBuilder()
-                .expireAfterWrite(expirationTimeInMinutes, TimeUnit.MINUTES)
-                .build(CacheLoader.from(new SessionFunction()));
+        this(expirationTimeInMinutes, false);
+    }
+
+    /**
+     * Creates the session cache.
+     *
+     * @param expirationTimeInMinutes Lifetime of a session.
+     * @param isSlidingExpiry         If true the lifetime is extended whenever the session is used, hence only
+     *                                the sessions idle for the lifetime are expired. Otherwise sessions are
+     *                                expired once the lifetime has elapsed from the login.
+     */
+    public SessionCache(int expirationTimeInMinutes, boolean isSlidingExpiry) {
+        this(expirationTimeInMinutes, isSlidingExpiry, Ticker.systemTicker());
+    }
+
+    /**
+     * Creates the session cache, which reads the time from the given ticker.
+     *
+     * @param expirationTimeInMinutes Lifetime of a session.
+     * @param isSlidingExpiry         Whether the lifetime is extended whenever the session is used.
+     * @param ticker                  Source of the time to expire the sessions.
+     */
+    public SessionCache(int expirationTimeInMinutes, boolean isSlidingExpiry, Ticker ticker) {
+        CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder().ticker(ticker);
+        if (isSlidingExpiry) {
+            cacheBuilder.expireAfterAccess(expirationTimeInMinutes, TimeUnit.MINUTES);
+        } else {
+            cacheBuilder.expireAfterWrite(expirationTimeInMinutes, TimeUnit.MINUTES);
+        }
+        cache = cacheBuilder.build(CacheLoader.from(new SessionFunction()));
     }
 
     static class SessionFunction implements Function<SessionBean, AgentSession> {
@@ -23,7 +23,9 @@ import org.wso2.carbon.databridge.core.utils.EventComposite;
 
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * This class provides the blocking implementation based on the size of event composite in the queue. Also it make sure
@@ -35,10 +37,16 @@ public class EventBlockingQueue extends ArrayBlockingQueue<EventComposite> {
     private AtomicInteger currentSize;
     private int currentEventCompositeSize;
     private int maxSize;
+    private final int capacity;
     private Semaphore semaphore;
+    /**
+     * Moving average of the time the event composites wait in the queue, weighing each new sample by 1/8.
+     */
+    private final AtomicLong averageWaitTimeNanos = new AtomicLong();
 
     public EventBlockingQueue(int maxQueueSize, int maxSizeCapacity) {
         super(maxQueueSize);
+        this.capacity = maxQueueSize;
         this.currentSize = new AtomicInteger(0);
         this.maxSize = maxSizeCapacity;
         this.semaphore = new Semaphore(1);
@@ -67,6 +75,7 @@ public class EventBlockingQueue extends ArrayBlockingQueue<EventComposite> {
             }
         }
         try {
+            eventComposite.setEnqueueTime(System.nanoTime());
             super.put(eventComposite);
             if (currentSize.addAndGet(eventComposite.getSize()) >= maxSize) {
                 try {
@@ -87,6 +96,7 @@ public class EventBlockingQueue extends ArrayBlockingQueue<EventComposite> {
         EventComposite eventComposite = super.poll();
         if (eventComposite != null) {
             currentSize.addAndGet(-eventComposite.getSize());
+            recordWaitTime(System.nanoTime() - eventComposite.getEnqueueTime());
             if (semaphore.availablePermits() == 0 &&
                     (((currentEventCompositeSize + currentSize.get()) < maxSize) || isEmpty())) {
                 synchronized (lock) {
@@ -100,4 +110,32 @@ public class EventBlockingQueue extends ArrayBlockingQueue<EventComposite> {
         }
         return null;
     }
+
+    private void recordWaitTime(long waitTimeNanos) {
+        long average = averageWaitTimeNanos.get();
+        while (!averageWaitTimeNanos.compareAndSet(average, average + ((waitTimeNanos - average) >> 3))) {
+            average = averageWaitTimeNanos.get();
+        }
+    }
+
+    /**
+     * Returns the percentage of the queue in use, by the number of event composites or by their size in bytes,
+     * whichever is higher.
+     */
+    public int getFillPercentage() {
+        int sizePercentage = (int) (100L * Math.max(0, currentSize.get()) / maxSize);
+        int countPercentage = 100 * size() / capacity;
+        return Math.min(100, Math.max(sizePercentage, countPercentage));
+    }
+
+    /**
+     * Returns the recent time the event composites have been waiting in the queue before being dispatched. This
+     * is 0 if the queue is empty, as the event composites published next will be dispatched right away.
+     */
+    public int getDispatchLatencyMS() {
+        if (isEmpty()) {
+            return 0;
+        }
+        return (int) TimeUnit.NANOSECONDS.toMillis(averageWaitTimeNanos.get());
+    }
 }
@@ -18,6 +18,7 @@
 package org.wso2.carbon.databridge.core.internal.queue;
 
 import org.apache.log4j.Logger;
+import org.wso2.carbon.databridge.commons.ReceiverLoad;
 import org.wso2.carbon.databridge.commons.utils.DataBridgeThreadFactory;
 import org.wso2.carbon.databridge.core.AgentCallback;
 import org.wso2.carbon.databridge.core.RawDataAgentCallback;
@@ -68,6 +69,11 @@ public class EventQueue {
         return eventQueue.peek() == null;
     }
 
+    public ReceiverLoad getReceiverLoad() {
+        EventBlockingQueue eventBlockingQueue = (EventBlockingQueue) eventQueue;
+        return new ReceiverLoad(eventBlockingQueue.getFillPercentage(), eventBlockingQueue.getDispatchLatencyMS());
+    }
+
     @Override
     protected void finalize() throws Throwable {
         executorService.shutdown();
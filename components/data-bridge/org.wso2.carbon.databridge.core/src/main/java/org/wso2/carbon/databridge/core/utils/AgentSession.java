@@ -27,6 +27,10 @@ public class AgentSession {
     private String sessionId;
     private Credentials credentials;
     private long createdAt;
+    /**
+     * Optional protocol features the agent has requested at login, which are defined by the transports.
+     */
+    private volatile int protocolFeatures;
 
     public AgentSession(String sessionId, Credentials credentials) {
         this.sessionId = sessionId;
@@ -77,4 +81,12 @@ public class AgentSession {
         return credentials;
     }
 
+    public int getProtocolFeatures() {
+        return protocolFeatures;
+    }
+
+    public void setProtocolFeatures(int protocolFeatures) {
+        this.protocolFeatures = protocolFeatures;
+    }
+
 }
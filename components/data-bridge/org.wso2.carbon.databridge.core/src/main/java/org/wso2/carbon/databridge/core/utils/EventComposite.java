@@ -30,6 +30,7 @@ public class EventComposite {
     private AgentSession agentSession;
     private EventConverter eventConverter;
     private int size;
+    private long enqueueTime;
 
     public EventComposite(Object eventBundle,
                           StreamTypeHolder streamTypeHolder, AgentSession agentSession,
@@ -63,4 +64,12 @@ public class EventComposite {
     public void setSize(int size) {
         this.size = size;
     }
+
+    public long getEnqueueTime() {
+        return enqueueTime;
+    }
+
+    public void setEnqueueTime(long enqueueTime) {
+        this.enqueueTime = enqueueTime;
+    }
 }
@@ -0,0 +1,128 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.core.test;
+
+import com.google.common.base.Ticker;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.carbon.databridge.commons.Credentials;
+import org.wso2.carbon.databridge.commons.exception.SessionTimeoutException;
+import org.wso2.carbon.databridge.core.DataBridge;
+import org.wso2.carbon.databridge.core.conf.DataBridgeConfiguration;
+import org.wso2.carbon.databridge.core.definitionstore.InMemoryStreamDefinitionStore;
+import org.wso2.carbon.databridge.core.internal.authentication.AuthenticationHandler;
+import org.wso2.carbon.databridge.core.internal.authentication.session.SessionBean;
+import org.wso2.carbon.databridge.core.internal.authentication.session.SessionCache;
+import org.wso2.carbon.databridge.core.utils.AgentSession;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests of the expiry of the agent sessions by the receiver.
+ */
+public class SessionCacheTest {
+
+    private static final int SESSION_TIMEOUT_MIN = 30;
+
+    @Test
+    public void testSlidingExpiryExtendedOnUse() {
+        ManualTicker ticker = new ManualTicker();
+        SessionCache sessionCache = new SessionCache(SESSION_TIMEOUT_MIN, true, ticker);
+        login(sessionCache, "session1");
+        for (int i = 0; i < 4; i++) {
+            ticker.advance(20, TimeUnit.MINUTES);
+            Assert.assertTrue(isValid(sessionCache, "session1"), "Session in use should not be expired after " +
+                    (i + 1) * 20 + " minutes.");
+        }
+    }
+
+    @Test
+    public void testIdleSessionExpires() {
+        ManualTicker ticker = new ManualTicker();
+        SessionCache sessionCache = new SessionCache(SESSION_TIMEOUT_MIN, true, ticker);
+        login(sessionCache, "session1");
+        ticker.advance(20, TimeUnit.MINUTES);
+        Assert.assertTrue(isValid(sessionCache, "session1"));
+        ticker.advance(SESSION_TIMEOUT_MIN + 1, TimeUnit.MINUTES);
+        Assert.assertFalse(isValid(sessionCache, "session1"), "Idle session should be expired.");
+    }
+
+    @Test
+    public void testFixedLifetimeByDefault() {
+        ManualTicker ticker = new ManualTicker();
+        SessionCache sessionCache = new SessionCache(SESSION_TIMEOUT_MIN, false, ticker);
+        login(sessionCache, "session1");
+        ticker.advance(20, TimeUnit.MINUTES);
+        Assert.assertTrue(isValid(sessionCache, "session1"));
+        ticker.advance(20, TimeUnit.MINUTES);
+        Assert.assertFalse(isValid(sessionCache, "session1"),
+                "Session should be expired once the lifetime has elapsed from the login, even if it is in use.");
+    }
+
+    @Test(expectedExceptions = SessionTimeoutException.class)
+    public void testExpiredSessionRejected() throws SessionTimeoutException {
+        ManualTicker ticker = new ManualTicker();
+        SessionCache sessionCache = new SessionCache(SESSION_TIMEOUT_MIN, true, ticker);
+        login(sessionCache, "session1");
+        ticker.advance(SESSION_TIMEOUT_MIN + 1, TimeUnit.MINUTES);
+        Assert.assertNull(sessionCache.getSession(new SessionBean("session1")).getCredentials(),
+                "Expired session should not have the credentials of the login.");
+
+        // The receiver rejects a session without credentials, which is how an expired session is served.
+        DataBridge dataBridge = new DataBridge(new AuthenticationHandler() {
+            @Override
+            public boolean authenticate(String userName, String password) {
+                return true;
+            }
+
+            @Override
+            public void initContext(AgentSession agentSession) {
+            }
+
+            @Override
+            public void destroyContext(AgentSession agentSession) {
+            }
+        }, new InMemoryStreamDefinitionStore(), new DataBridgeConfiguration());
+        dataBridge.findStreamId("session1", "org.wso2.test", "1.0.0");
+    }
+
+    private void login(SessionCache sessionCache, String sessionId) {
+        sessionCache.getSession(new SessionBean(sessionId, new Credentials("admin", "admin")));
+    }
+
+    private boolean isValid(SessionCache sessionCache, String sessionId) {
+        return sessionCache.getSession(new SessionBean(sessionId)).getCredentials() != null;
+    }
+
+    /**
+     * Ticker which is advanced by the test.
+     */
+    private static class ManualTicker extends Ticker {
+
+        private long nanos;
+
+        @Override
+        public synchronized long read() {
+            return nanos;
+        }
+
+        synchronized void advance(long time, TimeUnit unit) {
+            nanos += unit.toNanos(time);
+        }
+    }
+}
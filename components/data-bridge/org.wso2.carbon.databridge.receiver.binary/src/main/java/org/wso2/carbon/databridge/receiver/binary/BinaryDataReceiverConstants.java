@@ -38,6 +38,10 @@ public class BinaryDataReceiverConstants {
     public static final String TCP_RECEIVER_THREAD_POOL_SIZE = "tcpReceiverThreadPoolSize";
     public static final String SSL_RECEIVER_PROTOCOLS_CONFIG_NAME = "sslEnabledProtocols";
     public static final String SSL_RECEIVER_CIPHERS_CONFIG_NAME = "ciphers";
+    public static final String UNIX_SOCKET_PATH_CONFIG_NAME = "unixSocketPath";
+    public static final String UNIX_SOCKET_PERMISSIONS_CONFIG_NAME = "unixSocketPermissions";
+    public static final String DEFAULT_UNIX_SOCKET_PERMISSIONS = "rw-rw----";
+    public static final String SHARED_MEMORY_DIRECTORY_CONFIG_NAME = "sharedMemoryDirectory";
     public static final String META_DATA_FIELD = "Meta Data";
     public static final String PAYLOAD_DATA_FIELD = "Payload Data";
     public static final String CORRELATION_DATA_FIELD = "Correlation Data";
@@ -0,0 +1,206 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.receiver.binary;
+
+import org.wso2.carbon.databridge.commons.AttributeType;
+import org.wso2.carbon.databridge.commons.Event;
+import org.wso2.carbon.databridge.commons.exception.MalformedEventException;
+import org.wso2.carbon.databridge.core.EventConverter;
+import org.wso2.carbon.databridge.core.StreamTypeHolder;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.wso2.carbon.databridge.commons.binary.BinaryMessageConverterUtil.getVarInt;
+import static org.wso2.carbon.databridge.commons.binary.BinaryMessageConverterUtil.getVarLong;
+import static org.wso2.carbon.databridge.commons.binary.BinaryMessageConverterUtil.zigZagDecode;
+import static org.wso2.carbon.databridge.receiver.binary.CompactBinaryEventConverter.getAttributeTypes;
+import static org.wso2.carbon.databridge.receiver.binary.CompactBinaryEventConverter.getString;
+
+/**
+ * This class is a implementation EventConverter to create the events from the Binary publish messages in the
+ * columnar encoding, where the events are grouped by stream and each attribute is sent as a column. The attribute
+ * types of a stream are resolved once per message, and a column is decoded for all the events of the stream at
+ * once. The events are listed stream by stream in the order the streams appear in the message.
+ */
+public class ColumnarBinaryEventConverter implements EventConverter {
+    private static ColumnarBinaryEventConverter instance = new ColumnarBinaryEventConverter();
+
+    private ColumnarBinaryEventConverter() {
+    }
+
+    @Override
+    public List<Event> toEventList(Object eventBundle, StreamTypeHolder streamTypeHolder) {
+        ByteBuffer byteBuffer = ByteBuffer.wrap((byte[]) eventBundle);
+        int sessionIdSize = byteBuffer.getInt();
+        byteBuffer.position(byteBuffer.position() + sessionIdSize);
+        int events = getVarInt(byteBuffer);
+        int streams = getVarInt(byteBuffer);
+
+        List<Event> eventList = new ArrayList<>(events);
+        List<String> dictionary = new ArrayList<>();
+        for (int i = 0; i < streams; i++) {
+            String streamId = getString(byteBuffer, dictionary);
+            if (streamId == null) {
+                throw new MalformedEventException("Stream id is missing in the stream " + i + " of the message");
+            }
+            AttributeType[][] attributeTypeOrder = getAttributeTypes(streamId, streamTypeHolder);
+            Event[] streamEvents = new Event[getVarInt(byteBuffer)];
+            long timeStamp = 0;
+            for (int j = 0; j < streamEvents.length; j++) {
+                timeStamp += zigZagDecode(getVarLong(byteBuffer));
+                Event event = new Event();
+                event.setStreamId(streamId);
+                event.setTimeStamp(timeStamp);
+                streamEvents[j] = event;
+            }
+            Object[][] metaData = toColumns(byteBuffer, streamId, attributeTypeOrder[0], streamEvents.length,
+                    dictionary);
+            Object[][] correlationData = toColumns(byteBuffer, streamId, attributeTypeOrder[1], streamEvents.length,
+                    dictionary);
+            Object[][] payloadData = toColumns(byteBuffer, streamId, attributeTypeOrder[2], streamEvents.length,
+                    dictionary);
+            Map<String, String>[] arbitraryData = toStringMapColumn(byteBuffer, streamEvents.length, dictionary);
+            for (int j = 0; j < streamEvents.length; j++) {
+                Event event = streamEvents[j];
+                event.setMetaData(metaData != null ? metaData[j] : null);
+                event.setCorrelationData(correlationData != null ? correlationData[j] : null);
+                event.setPayloadData(payloadData != null ? payloadData[j] : null);
+                event.setArbitraryDataMap(arbitraryData[j]);
+                eventList.add(event);
+            }
+        }
+        if (eventList.size() != events) {
+            throw new MalformedEventException("The message has " + eventList.size() + " events of the " + events +
+                    " events stated");
+        }
+        return eventList;
+    }
+
+    @Override
+    public int getSize(Object eventBundle) {
+        return ((byte[]) eventBundle).length;
+    }
+
+    @Override
+    public int getNumberOfEvents(Object eventBundle) {
+        ByteBuffer byteBuffer = ByteBuffer.wrap((byte[]) eventBundle);
+        int sessionIdSize = byteBuffer.getInt();
+        byteBuffer.position(byteBuffer.position() + sessionIdSize);
+        return getVarInt(byteBuffer);
+    }
+
+    /**
+     * Read the columns of the meta, correlation or payload data of the events of a stream.
+     *
+     * @return The attributes of each event, or null if the stream has no attributes in the data.
+     */
+    private Object[][] toColumns(ByteBuffer byteBuffer, String streamId, AttributeType[] attributeTypeOrder,
+                                 int events, List<String> dictionary) {
+        int columns = getVarInt(byteBuffer);
+        int attributes = attributeTypeOrder != null ? attributeTypeOrder.length : 0;
+        if (columns > attributes) {
+            throw new MalformedEventException("The message has " + columns + " columns for the " + attributes +
+                    " attributes of the stream " + streamId);
+        }
+        if (attributeTypeOrder == null) {
+            return null;
+        }
+        Object[][] objects = new Object[events][attributes];
+        byte[] bitmap = new byte[(events + 7) >>> 3];
+        for (int column = 0; column < columns; column++) {
+            byteBuffer.get(bitmap);
+            switch (attributeTypeOrder[column]) {
+                case INT:
+                    for (int i = 0; i < events; i++) {
+                        if (isPresent(bitmap, i)) {
+                            objects[i][column] = zigZagDecode(getVarInt(byteBuffer));
+                        }
+                    }
+                    break;
+                case LONG:
+                    for (int i = 0; i < events; i++) {
+                        if (isPresent(bitmap, i)) {
+                            objects[i][column] = zigZagDecode(getVarLong(byteBuffer));
+                        }
+                    }
+                    break;
+                case STRING:
+                    for (int i = 0; i < events; i++) {
+                        if (isPresent(bitmap, i)) {
+                            objects[i][column] = getString(byteBuffer, dictionary);
+                        }
+                    }
+                    break;
+                case DOUBLE:
+                    for (int i = 0; i < events; i++) {
+                        if (isPresent(bitmap, i)) {
+                            objects[i][column] = byteBuffer.getDouble();
+                        }
+                    }
+                    break;
+                case FLOAT:
+                    for (int i = 0; i < events; i++) {
+                        if (isPresent(bitmap, i)) {
+                            objects[i][column] = byteBuffer.getFloat();
+                        }
+                    }
+                    break;
+                case BOOL:
+                    for (int i = 0; i < events; i++) {
+                        if (isPresent(bitmap, i)) {
+                            objects[i][column] = byteBuffer.get() == 1;
+                        }
+                    }
+                    break;
+            }
+        }
+        return objects;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, String>[] toStringMapColumn(ByteBuffer byteBuffer, int events, List<String> dictionary) {
+        byte[] bitmap = new byte[(events + 7) >>> 3];
+        byteBuffer.get(bitmap);
+        Map<String, String>[] eventProps = new Map[events];
+        for (int i = 0; i < events; i++) {
+            eventProps[i] = new HashMap<String, String>();
+            if (isPresent(bitmap, i)) {
+                int entries = getVarInt(byteBuffer);
+                for (int j = 0; j < entries; j++) {
+                    String key = getString(byteBuffer, dictionary);
+                    String value = getString(byteBuffer, dictionary);
+                    eventProps[i].put(key != null ? key : "", value != null ? value : "");
+                }
+            }
+        }
+        return eventProps;
+    }
+
+    private static boolean isPresent(byte[] bitmap, int index) {
+        return (bitmap[index >>> 3] & (1 << (index & 7))) != 0;
+    }
+
+    public static ColumnarBinaryEventConverter getConverter() {
+        return instance;
+    }
+
+}
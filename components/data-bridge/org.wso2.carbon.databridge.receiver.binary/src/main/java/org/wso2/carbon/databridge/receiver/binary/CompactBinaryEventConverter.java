@@ -0,0 +1,196 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.receiver.binary;
+
+import org.wso2.carbon.databridge.commons.AttributeType;
+import org.wso2.carbon.databridge.commons.Event;
+import org.wso2.carbon.databridge.commons.binary.BinaryMessageConverterUtil;
+import org.wso2.carbon.databridge.commons.exception.MalformedEventException;
+import org.wso2.carbon.databridge.core.EventConverter;
+import org.wso2.carbon.databridge.core.StreamTypeHolder;
+import org.wso2.carbon.databridge.core.exception.EventConversionException;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.wso2.carbon.databridge.commons.binary.BinaryMessageConverterUtil.getVarInt;
+import static org.wso2.carbon.databridge.commons.binary.BinaryMessageConverterUtil.getVarLong;
+import static org.wso2.carbon.databridge.commons.binary.BinaryMessageConverterUtil.zigZagDecode;
+
+/**
+ * This class is a implementation EventConverter to create the events from the Binary publish messages in the
+ * compact encoding, where the numbers are variable length and the strings repeated within a message are sent once.
+ * The strings of a message are decoded into the same instances, hence the repeated values are held once by the
+ * receiver as well.
+ */
+public class CompactBinaryEventConverter implements EventConverter {
+    private static CompactBinaryEventConverter instance = new CompactBinaryEventConverter();
+
+    private CompactBinaryEventConverter() {
+    }
+
+    @Override
+    public List<Event> toEventList(Object eventBundle, StreamTypeHolder streamTypeHolder) {
+        ByteBuffer byteBuffer = ByteBuffer.wrap((byte[]) eventBundle);
+        int sessionIdSize = byteBuffer.getInt();
+        byteBuffer.position(byteBuffer.position() + sessionIdSize);
+        int events = getVarInt(byteBuffer);
+
+        List<Event> eventList = new ArrayList<>(events);
+        List<String> dictionary = new ArrayList<>();
+        long timeStamp = 0;
+        String streamId = null;
+        AttributeType[][] attributeTypeOrder = null;
+        for (int i = 0; i < events; i++) {
+            String eventStreamId = getString(byteBuffer, dictionary);
+            if (eventStreamId == null) {
+                throw new MalformedEventException("Stream id is missing in the event " + i + " of the message");
+            }
+            long timeStampHeader = getVarLong(byteBuffer);
+            boolean hasNullAttributes = (timeStampHeader & 1) != 0;
+            timeStamp += zigZagDecode(timeStampHeader >>> 1);
+            if (!eventStreamId.equals(streamId)) {
+                streamId = eventStreamId;
+                attributeTypeOrder = getAttributeTypes(streamId, streamTypeHolder);
+            }
+
+            Event event = new Event();
+            event.setStreamId(streamId);
+            event.setTimeStamp(timeStamp);
+            event.setMetaData(toObjectArray(byteBuffer, attributeTypeOrder[0], hasNullAttributes, dictionary));
+            event.setCorrelationData(toObjectArray(byteBuffer, attributeTypeOrder[1], hasNullAttributes,
+                    dictionary));
+            event.setPayloadData(toObjectArray(byteBuffer, attributeTypeOrder[2], hasNullAttributes, dictionary));
+            event.setArbitraryDataMap(toStringMap(byteBuffer, dictionary));
+            eventList.add(event);
+        }
+        return eventList;
+    }
+
+    static AttributeType[][] getAttributeTypes(String streamId, StreamTypeHolder streamTypeHolder) {
+        AttributeType[][] attributeTypeOrder = streamTypeHolder.getDataType(streamId);
+        if (attributeTypeOrder == null) {
+            streamTypeHolder.reloadStreamTypeHolder();
+            attributeTypeOrder = streamTypeHolder.getDataType(streamId);
+            if (attributeTypeOrder == null) {
+                throw new EventConversionException("No StreamDefinition for streamId " + streamId
+                        + " present in cache ");
+            }
+        }
+        return attributeTypeOrder;
+    }
+
+    @Override
+    public int getSize(Object eventBundle) {
+        return ((byte[]) eventBundle).length;
+    }
+
+    @Override
+    public int getNumberOfEvents(Object eventBundle) {
+        ByteBuffer byteBuffer = ByteBuffer.wrap((byte[]) eventBundle);
+        int sessionIdSize = byteBuffer.getInt();
+        byteBuffer.position(byteBuffer.position() + sessionIdSize);
+        return getVarInt(byteBuffer);
+    }
+
+    /**
+     * Read the attributes, which are prefixed by the bitmap of the null attributes if the event has any.
+     */
+    private Object[] toObjectArray(ByteBuffer byteBuffer, AttributeType[] attributeTypeOrder,
+                                   boolean hasNullAttributes, List<String> dictionary) {
+        if (attributeTypeOrder == null) {
+            return null;
+        }
+        byte[] nullBitmap = null;
+        if (hasNullAttributes) {
+            nullBitmap = new byte[(attributeTypeOrder.length + 7) >>> 3];
+            byteBuffer.get(nullBitmap);
+        }
+        Object[] objects = new Object[attributeTypeOrder.length];
+        for (int i = 0; i < attributeTypeOrder.length; i++) {
+            if (nullBitmap != null && (nullBitmap[i >>> 3] & (1 << (i & 7))) != 0) {
+                continue;
+            }
+            switch (attributeTypeOrder[i]) {
+                case INT:
+                    objects[i] = zigZagDecode(getVarInt(byteBuffer));
+                    break;
+                case LONG:
+                    objects[i] = zigZagDecode(getVarLong(byteBuffer));
+                    break;
+                case STRING:
+                    objects[i] = getString(byteBuffer, dictionary);
+                    break;
+                case DOUBLE:
+                    objects[i] = byteBuffer.getDouble();
+                    break;
+                case FLOAT:
+                    objects[i] = byteBuffer.getFloat();
+                    break;
+                case BOOL:
+                    objects[i] = byteBuffer.get() == 1;
+                    break;
+            }
+        }
+        return objects;
+    }
+
+    private Map<String, String> toStringMap(ByteBuffer byteBuffer, List<String> dictionary) {
+        int entries = getVarInt(byteBuffer);
+        Map<String, String> eventProps = new HashMap<String, String>();
+        for (int i = 0; i < entries; i++) {
+            String key = getString(byteBuffer, dictionary);
+            String value = getString(byteBuffer, dictionary);
+            eventProps.put(key != null ? key : "", value != null ? value : "");
+        }
+        return eventProps;
+    }
+
+    /**
+     * Read a string literal and add it to the dictionary of the message, or resolve a reference to an earlier
+     * literal of the message.
+     *
+     * @return The string, or null if the string is empty.
+     */
+    static String getString(ByteBuffer byteBuffer, List<String> dictionary) {
+        int header = getVarInt(byteBuffer);
+        if ((header & 1) != 0) {
+            int index = header >>> 1;
+            if (index >= dictionary.size()) {
+                throw new MalformedEventException("Invalid string reference " + index + ", as the message has " +
+                        dictionary.size() + " strings before it");
+            }
+            return dictionary.get(index);
+        }
+        int size = header >>> 1;
+        if (size == 0) {
+            return null;
+        }
+        String value = BinaryMessageConverterUtil.getString(byteBuffer, size);
+        dictionary.add(value);
+        return value;
+    }
+
+    public static CompactBinaryEventConverter getConverter() {
+        return instance;
+    }
+
+}
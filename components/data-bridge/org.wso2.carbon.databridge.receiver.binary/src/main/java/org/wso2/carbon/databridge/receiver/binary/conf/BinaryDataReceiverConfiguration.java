@@ -32,6 +32,9 @@ public class BinaryDataReceiverConfiguration {
     private int sizeOfTCPThreadPool;
     private String sslProtocols;
     private String ciphers;
+    private String unixSocketPath;
+    private String unixSocketPermissions = BinaryDataReceiverConstants.DEFAULT_UNIX_SOCKET_PERMISSIONS;
+    private String sharedMemoryDirectory;
 
     public BinaryDataReceiverConfiguration(int sslPort, int tcpPort) {
         this.sslPort = sslPort;
@@ -56,6 +59,12 @@ public class BinaryDataReceiverConfiguration {
                 BinaryDataReceiverConstants.SSL_RECEIVER_PROTOCOLS_CONFIG_NAME);
         String ciphers = dataReceiverConfiguration.getProperties().get(
                 BinaryDataReceiverConstants.SSL_RECEIVER_CIPHERS_CONFIG_NAME);
+        String unixSocketPath = dataReceiverConfiguration.getProperties().get(
+                BinaryDataReceiverConstants.UNIX_SOCKET_PATH_CONFIG_NAME);
+        String unixSocketPermissions = dataReceiverConfiguration.getProperties().get(
+                BinaryDataReceiverConstants.UNIX_SOCKET_PERMISSIONS_CONFIG_NAME);
+        String sharedMemoryDirectory = dataReceiverConfiguration.getProperties().get(
+                BinaryDataReceiverConstants.SHARED_MEMORY_DIRECTORY_CONFIG_NAME);
 
 
         if (sslPortConfiguration != null && !sslPortConfiguration.trim().isEmpty()) {
@@ -90,6 +99,18 @@ public class BinaryDataReceiverConfiguration {
             this.ciphers = ciphers;
         }
 
+        if (unixSocketPath != null && !unixSocketPath.trim().isEmpty()) {
+            this.unixSocketPath = unixSocketPath.trim();
+        }
+
+        if (unixSocketPermissions != null && !unixSocketPermissions.trim().isEmpty()) {
+            this.unixSocketPermissions = unixSocketPermissions.trim();
+        }
+
+        if (sharedMemoryDirectory != null && !sharedMemoryDirectory.trim().isEmpty()) {
+            this.sharedMemoryDirectory = sharedMemoryDirectory.trim();
+        }
+
     }
 
     private static int getPortOffset() {
@@ -119,4 +140,39 @@ public class BinaryDataReceiverConfiguration {
     public String getCiphers() {
         return ciphers;
     }
+
+    /**
+     * Returns the path of the Unix domain socket the receiver listens on for the agents on the same host, or null
+     * if the Unix domain socket transport is disabled.
+     */
+    public String getUnixSocketPath() {
+        return unixSocketPath;
+    }
+
+    public void setUnixSocketPath(String unixSocketPath) {
+        this.unixSocketPath = unixSocketPath;
+    }
+
+    /**
+     * Returns the POSIX permissions of the socket file, which control the users allowed to connect in place of TLS.
+     */
+    public String getUnixSocketPermissions() {
+        return unixSocketPermissions;
+    }
+
+    public void setUnixSocketPermissions(String unixSocketPermissions) {
+        this.unixSocketPermissions = unixSocketPermissions;
+    }
+
+    /**
+     * Returns the directory shared with the agents on the same host for the shared memory transport, or null if
+     * the shared memory transport is disabled.
+     */
+    public String getSharedMemoryDirectory() {
+        return sharedMemoryDirectory;
+    }
+
+    public void setSharedMemoryDirectory(String sharedMemoryDirectory) {
+        this.sharedMemoryDirectory = sharedMemoryDirectory;
+    }
 }
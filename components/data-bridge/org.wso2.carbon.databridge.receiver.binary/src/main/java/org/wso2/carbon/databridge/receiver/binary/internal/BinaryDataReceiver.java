@@ -19,11 +19,16 @@
 package org.wso2.carbon.databridge.receiver.binary.internal;
 
 import org.apache.log4j.Logger;
+import org.wso2.carbon.databridge.commons.ReceiverLoad;
 import org.wso2.carbon.databridge.commons.ServerEventListener;
 import org.wso2.carbon.databridge.commons.binary.BinaryMessageConstants;
+import org.wso2.carbon.databridge.commons.binary.UnixDomainSocketUtil;
 import org.wso2.carbon.databridge.core.DataBridgeReceiverService;
+import org.wso2.carbon.databridge.core.EventConverter;
 import org.wso2.carbon.databridge.core.exception.DataBridgeException;
 import org.wso2.carbon.databridge.receiver.binary.BinaryEventConverter;
+import org.wso2.carbon.databridge.receiver.binary.ColumnarBinaryEventConverter;
+import org.wso2.carbon.databridge.receiver.binary.CompactBinaryEventConverter;
 import org.wso2.carbon.databridge.receiver.binary.conf.BinaryDataReceiverConfiguration;
 import org.wso2.carbon.utils.Utils;
 
@@ -38,9 +43,14 @@ import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketException;
 import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
 import java.security.KeyManagementException;
 import java.security.KeyStore;
 import java.security.KeyStoreException;
@@ -69,6 +79,8 @@ public class BinaryDataReceiver implements ServerEventListener {
     private boolean isStarted = false;
     private SSLServerSocket sslserversocket;
     private ServerSocket serversocket;
+    private ServerSocketChannel unixServerSocketChannel;
+    private SharedMemoryDataReceiver sharedMemoryDataReceiver;
 
     public BinaryDataReceiver(BinaryDataReceiverConfiguration binaryDataReceiverConfiguration,
                               DataBridgeReceiverService dataBridgeReceiverService) {
@@ -90,6 +102,14 @@ public class BinaryDataReceiver implements ServerEventListener {
         try {
             startSecureTransmission();
             startEventTransmission();
+            if (binaryDataReceiverConfiguration.getUnixSocketPath() != null) {
+                startUnixDomainSocketTransmission();
+            }
+            if (binaryDataReceiverConfiguration.getSharedMemoryDirectory() != null) {
+                sharedMemoryDataReceiver = new SharedMemoryDataReceiver(new File(binaryDataReceiverConfiguration.
+                        getSharedMemoryDirectory()), dataBridgeReceiverService);
+                sharedMemoryDataReceiver.start();
+            }
             isStarted = true;
         } catch (IOException e) {
             log.error("Error while starting binary data receiver ", e);
@@ -118,6 +138,17 @@ public class BinaryDataReceiver implements ServerEventListener {
                     log.error("Error occurs when closing the server socket ", e);
                 }
             }
+            if (unixServerSocketChannel != null) {
+                try {
+                    unixServerSocketChannel.close();
+                    Files.deleteIfExists(Paths.get(binaryDataReceiverConfiguration.getUnixSocketPath()));
+                } catch (IOException e) {
+                    log.error("Error occurs when closing the Unix domain server socket ", e);
+                }
+            }
+            if (sharedMemoryDataReceiver != null) {
+                sharedMemoryDataReceiver.stop();
+            }
             while (!dataBridgeReceiverService.isQueueEmpty()) {
                 try {
                     Thread.sleep(100);
@@ -222,6 +253,27 @@ public class BinaryDataReceiver implements ServerEventListener {
         log.info("Started Binary TCP Transport on port : " + binaryDataReceiverConfiguration.getTCPPort());
     }
 
+    /**
+     * Starts listening on the Unix domain socket for the agents on the same host. Such connections are not
+     * encrypted, as access to them is controlled by the permissions of the socket file.
+     */
+    private void startUnixDomainSocketTransmission() throws IOException {
+        Path socketPath = Paths.get(binaryDataReceiverConfiguration.getUnixSocketPath());
+        // Remove the socket file left behind by a previous run, since it cannot be bound again.
+        Files.deleteIfExists(socketPath);
+        unixServerSocketChannel = UnixDomainSocketUtil.openServerSocketChannel(socketPath.toString());
+        try {
+            Files.setPosixFilePermissions(socketPath, PosixFilePermissions.fromString(
+                    binaryDataReceiverConfiguration.getUnixSocketPermissions()));
+        } catch (UnsupportedOperationException e) {
+            log.warn("Cannot set the permissions of the Unix domain socket " + socketPath +
+                    " as the file system does not support POSIX permissions.");
+        }
+        Thread thread = new Thread(new BinaryUnixDomainSocketAcceptor(unixServerSocketChannel));
+        thread.start();
+        log.info("Started Binary Unix Domain Socket Transport on : " + socketPath);
+    }
+
     private String processMessage(int messageType, byte[] message, OutputStream outputStream) {
         ByteBuffer byteBuffer = ByteBuffer.wrap(message);
         int sessionIdLength;
@@ -235,13 +287,32 @@ public class BinaryDataReceiver implements ServerEventListener {
                 String userName = new String(message, 8, userNameLength);
                 String password = new String(message, 8 + userNameLength, passwordLength);
 
+                int protocolFeaturesIndex = 8 + userNameLength + passwordLength;
                 try {
-                    sessionId = dataBridgeReceiverService.login(userName, password);
+                    int requestedFeatures = 0;
+                    if (message.length >= protocolFeaturesIndex + 4) {
+                        requestedFeatures = byteBuffer.getInt(protocolFeaturesIndex);
+                        sessionId = dataBridgeReceiverService.login(userName, password,
+                                requestedFeatures & BinaryMessageConstants.SUPPORTED_PROTOCOL_FEATURES);
+                    } else {
+                        sessionId = dataBridgeReceiverService.login(userName, password);
+                    }
 
-                    ByteBuffer buffer = ByteBuffer.allocate(5 + sessionId.length());
-                    buffer.put((byte) 2);
+                    //Only the agents requesting an encoding expect the accepted features.
+                    boolean isFeaturesResponse = (requestedFeatures & BinaryMessageConstants.ENCODING_FEATURES) != 0;
+                    ByteBuffer buffer;
+                    if (isFeaturesResponse) {
+                        buffer = ByteBuffer.allocate(9 + sessionId.length());
+                        buffer.put(BinaryMessageConstants.LOGIN_FEATURES_RESPONSE);
+                    } else {
+                        buffer = ByteBuffer.allocate(5 + sessionId.length());
+                        buffer.put((byte) 2);
+                    }
                     buffer.putInt(sessionId.length());
                     buffer.put(sessionId.getBytes(BinaryMessageConstants.DEFAULT_CHARSET));
+                    if (isFeaturesResponse) {
+                        buffer.putInt(requestedFeatures & BinaryMessageConstants.SUPPORTED_PROTOCOL_FEATURES);
+                    }
 
                     outputStream.write(buffer.array());
                     outputStream.flush();
@@ -270,12 +341,19 @@ public class BinaryDataReceiver implements ServerEventListener {
                 }
                 break;
             case 2: //Publish
+            case BinaryMessageConstants.COMPACT_PUBLISH_MESSAGE:
+            case BinaryMessageConstants.COLUMNAR_PUBLISH_MESSAGE:
                 sessionIdLength = byteBuffer.getInt();
                 sessionId = new String(message, 4, sessionIdLength);
                 try {
-                    dataBridgeReceiverService.publish(message, sessionId, BinaryEventConverter.getConverter());
+                    dataBridgeReceiverService.publish(message, sessionId, getEventConverter(messageType));
 
-                    outputStream.write((byte) 0);
+                    if ((dataBridgeReceiverService.getProtocolFeatures(sessionId)
+                            & BinaryMessageConstants.RECEIVER_LOAD_FEATURE) != 0) {
+                        sendLoadAcknowledgement(outputStream);
+                    } else {
+                        outputStream.write((byte) 0);
+                    }
                     outputStream.flush();
                 } catch (Exception e) {
                     try {
@@ -291,6 +369,26 @@ public class BinaryDataReceiver implements ServerEventListener {
         return null;
     }
 
+    private static EventConverter getEventConverter(int messageType) {
+        switch (messageType) {
+            case BinaryMessageConstants.COMPACT_PUBLISH_MESSAGE:
+                return CompactBinaryEventConverter.getConverter();
+            case BinaryMessageConstants.COLUMNAR_PUBLISH_MESSAGE:
+                return ColumnarBinaryEventConverter.getConverter();
+            default:
+                return BinaryEventConverter.getConverter();
+        }
+    }
+
+    private void sendLoadAcknowledgement(OutputStream outputStream) throws IOException {
+        ReceiverLoad receiverLoad = dataBridgeReceiverService.getReceiverLoad();
+        ByteBuffer buffer = ByteBuffer.allocate(BinaryMessageConstants.LOAD_ACK_RESPONSE_SIZE);
+        buffer.put(BinaryMessageConstants.LOAD_ACK_RESPONSE);
+        buffer.put((byte) receiverLoad.getQueueFillPercentage());
+        buffer.putInt(receiverLoad.getDispatchLatencyMS());
+        outputStream.write(buffer.array());
+    }
+
     private void sendError(Exception e, OutputStream outputStream) throws IOException {
 
         int errorClassNameLength = e.getClass().getCanonicalName().length();
@@ -367,21 +465,60 @@ public class BinaryDataReceiver implements ServerEventListener {
         }
     }
 
+    /**
+     * Binary Unix Domain Socket Acceptor.
+     */
+    public class BinaryUnixDomainSocketAcceptor implements Runnable {
+        private ServerSocketChannel serverSocketChannel;
+
+        public BinaryUnixDomainSocketAcceptor(ServerSocketChannel serverSocketChannel) {
+            this.serverSocketChannel = serverSocketChannel;
+        }
+
+        @Override
+        public void run() {
+            while (this.serverSocketChannel.isOpen()) {
+                try {
+                    SocketChannel channel = this.serverSocketChannel.accept();
+                    tcpReceiverExecutorService.submit(new BinaryTransportReceiver(channel));
+                } catch (ClosedChannelException e) {
+                    if (log.isDebugEnabled()) {
+                        log.debug("Unix domain server socket of the binary transport receiver is closed.", e);
+                    }
+                } catch (IOException e) {
+                    log.error("Error while accepting the Unix domain socket connection. ", e);
+                }
+            }
+        }
+    }
+
     /**
      * Binary Transport Receiver.
      */
     public class BinaryTransportReceiver implements Runnable {
         private Socket socket;
+        private SocketChannel channel;
 
         public BinaryTransportReceiver(Socket socket) {
             this.socket = socket;
         }
 
+        public BinaryTransportReceiver(SocketChannel channel) {
+            this.channel = channel;
+        }
+
         @Override
         public void run() {
             try {
-                InputStream inputstream = new BufferedInputStream(socket.getInputStream());
-                OutputStream outputStream = new BufferedOutputStream((socket.getOutputStream()));
+                InputStream inputstream;
+                OutputStream outputStream;
+                if (channel != null) {
+                    inputstream = new BufferedInputStream(Channels.newInputStream(channel));
+                    outputStream = new BufferedOutputStream(Channels.newOutputStream(channel));
+                } else {
+                    inputstream = new BufferedInputStream(socket.getInputStream());
+                    outputStream = new BufferedOutputStream((socket.getOutputStream()));
+                }
                 int messageType = inputstream.read();
                 while (messageType != -1) {
                     int messageSize = ByteBuffer.wrap(loadData(inputstream, new byte[4])).getInt();
@@ -391,6 +528,14 @@ public class BinaryDataReceiver implements ServerEventListener {
                 }
             } catch (IOException ex) {
                 log.error("Error while reading from the socket. ", ex);
+            } finally {
+                if (channel != null) {
+                    try {
+                        channel.close();
+                    } catch (IOException e) {
+                        log.warn("Error while closing the Unix domain socket connection. " + e.getMessage());
+                    }
+                }
             }
         }
     }
@@ -0,0 +1,222 @@
+/*
+*  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.databridge.receiver.binary.internal;
+
+import org.apache.log4j.Logger;
+import org.wso2.carbon.databridge.commons.ServerEventListener;
+import org.wso2.carbon.databridge.commons.binary.SharedMemoryHandshake;
+import org.wso2.carbon.databridge.commons.binary.SharedMemoryRingBuffer;
+import org.wso2.carbon.databridge.commons.utils.DataBridgeThreadFactory;
+import org.wso2.carbon.databridge.core.DataBridgeReceiverService;
+import org.wso2.carbon.databridge.receiver.binary.BinaryEventConverter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Shared memory transport receiver, which polls the rings the agents on the same host create in the shared
+ * directory and publishes the binary messages read from them to the data bridge. The agents log in and out through
+ * the file based handshake in the same directory.
+ * <p>
+ * A single thread serves all the rings. The directory is scanned periodically for new rings and handshake
+ * requests, and a ring is removed once the agent closed it and all of its messages are published. The rings which
+ * exist when the receiver starts are resumed from their read cursors, hence the messages which were not published
+ * before a restart are not lost.
+ */
+public class SharedMemoryDataReceiver implements ServerEventListener {
+    private static final Logger log = Logger.getLogger(SharedMemoryDataReceiver.class);
+    private static final long DIRECTORY_SCAN_INTERVAL_MS = 100;
+    private static final long IDLE_WAIT_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final int MAX_MESSAGES_PER_RING = 64;
+
+    private final File directory;
+    private final DataBridgeReceiverService dataBridgeReceiverService;
+    private final Map<String, SharedMemoryRingBuffer> rings = new HashMap<>();
+    private volatile boolean running;
+    private Thread pollerThread;
+
+    public SharedMemoryDataReceiver(File directory, DataBridgeReceiverService dataBridgeReceiverService) {
+        this.directory = directory;
+        this.dataBridgeReceiverService = dataBridgeReceiverService;
+    }
+
+    @Override
+    public void start() {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            log.error("Cannot create the shared memory directory " + directory + " of binary data receiver");
+            return;
+        }
+        running = true;
+        pollerThread = new DataBridgeThreadFactory("Receiver-Binary-SharedMemory").newThread(new Runnable() {
+            @Override
+            public void run() {
+                poll();
+            }
+        });
+        pollerThread.start();
+        log.info("Started Binary Shared Memory Transport on : " + directory);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (pollerThread != null) {
+            try {
+                pollerThread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void poll() {
+        long nextScanTime = 0;
+        while (running) {
+            long currentTime = System.currentTimeMillis();
+            if (currentTime >= nextScanTime) {
+                scanDirectory();
+                nextScanTime = currentTime + DIRECTORY_SCAN_INTERVAL_MS;
+            }
+            boolean idle = true;
+            for (Iterator<SharedMemoryRingBuffer> iterator = rings.values().iterator(); iterator.hasNext(); ) {
+                SharedMemoryRingBuffer ring = iterator.next();
+                byte[] message;
+                for (int i = 0; i < MAX_MESSAGES_PER_RING && (message = ring.read()) != null; i++) {
+                    publish(message, ring);
+                    ring.commitRead();
+                    idle = false;
+                }
+                if (ring.isClosed() && ring.isEmpty()) {
+                    iterator.remove();
+                    removeRing(ring);
+                }
+            }
+            if (idle) {
+                LockSupport.parkNanos(IDLE_WAIT_NANOS);
+            }
+        }
+        for (SharedMemoryRingBuffer ring : rings.values()) {
+            try {
+                ring.close();
+            } catch (IOException e) {
+                log.warn("Cannot close the shared memory ring " + ring.getFile() + " successfully");
+            }
+        }
+        rings.clear();
+    }
+
+    private void publish(byte[] message, SharedMemoryRingBuffer ring) {
+        try {
+            int sessionIdLength = ByteBuffer.wrap(message).getInt();
+            String sessionId = new String(message, 4, sessionIdLength);
+            dataBridgeReceiverService.publish(message, sessionId, BinaryEventConverter.getConverter());
+        } catch (Exception e) {
+            log.error("Error while publishing the events read from shared memory ring " + ring.getFile() + ", " +
+                    "hence dropping them. " + e.getMessage(), e);
+        }
+    }
+
+    private void scanDirectory() {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        List<File> ringFiles = new ArrayList<>();
+        for (File file : files) {
+            String id;
+            if ((id = SharedMemoryHandshake.getId(file, SharedMemoryHandshake.LOGIN_REQUEST_FILE_SUFFIX)) != null) {
+                processLogin(file, id);
+            } else if ((id = SharedMemoryHandshake.getId(file,
+                    SharedMemoryHandshake.LOGOUT_REQUEST_FILE_SUFFIX)) != null) {
+                processLogout(file, id);
+            } else if (SharedMemoryHandshake.getId(file, SharedMemoryHandshake.RING_FILE_SUFFIX) != null) {
+                ringFiles.add(file);
+            }
+        }
+        for (File ringFile : ringFiles) {
+            if (!rings.containsKey(ringFile.getName())) {
+                try {
+                    SharedMemoryRingBuffer ring = SharedMemoryRingBuffer.open(ringFile);
+                    if (ring != null) {
+                        rings.put(ringFile.getName(), ring);
+                    }
+                } catch (IOException e) {
+                    log.error("Error while opening shared memory ring " + ringFile + ". " + e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    private void processLogin(File requestFile, String id) {
+        String[] response;
+        try {
+            String[] request = SharedMemoryHandshake.readFile(requestFile);
+            response = new String[]{SharedMemoryHandshake.OK_RESPONSE,
+                    dataBridgeReceiverService.login(request[0], request[1])};
+        } catch (Exception e) {
+            response = new String[]{SharedMemoryHandshake.ERROR_RESPONSE, e.getClass().getCanonicalName(),
+                    String.valueOf(e.getMessage())};
+        }
+        respond(requestFile, id, response);
+    }
+
+    private void processLogout(File requestFile, String id) {
+        String[] response;
+        try {
+            String[] request = SharedMemoryHandshake.readFile(requestFile);
+            dataBridgeReceiverService.logout(request[0]);
+            response = new String[]{SharedMemoryHandshake.OK_RESPONSE};
+        } catch (Exception e) {
+            response = new String[]{SharedMemoryHandshake.ERROR_RESPONSE, e.getClass().getCanonicalName(),
+                    String.valueOf(e.getMessage())};
+        }
+        respond(requestFile, id, response);
+    }
+
+    private void respond(File requestFile, String id, String[] response) {
+        if (!requestFile.delete()) {
+            log.warn("Cannot delete the shared memory handshake request " + requestFile);
+        }
+        try {
+            SharedMemoryHandshake.writeFile(new File(directory, id + SharedMemoryHandshake.RESPONSE_FILE_SUFFIX),
+                    response);
+        } catch (IOException e) {
+            log.error("Error while responding to shared memory handshake request " + requestFile + ". " +
+                    e.getMessage(), e);
+        }
+    }
+
+    private void removeRing(SharedMemoryRingBuffer ring) {
+        try {
+            ring.close();
+        } catch (IOException e) {
+            log.warn("Cannot close the shared memory ring " + ring.getFile() + " successfully");
+        }
+        if (!ring.getFile().delete()) {
+            log.warn("Cannot delete the shared memory ring " + ring.getFile());
+        }
+    }
+}
@@ -19,8 +19,10 @@
 package org.wso2.carbon.databridge.receiver.thrift;
 
 import org.apache.log4j.Logger;
+import org.apache.thrift.server.THsHaServer;
 import org.apache.thrift.server.TServer;
 import org.apache.thrift.server.TThreadPoolServer;
+import org.apache.thrift.transport.TNonblockingServerSocket;
 import org.apache.thrift.transport.TSSLTransportFactory;
 import org.apache.thrift.transport.TServerSocket;
 import org.apache.thrift.transport.TTransportException;
@@ -55,6 +57,7 @@ public class ThriftDataReceiver {
     private ThriftDataReceiverConfiguration thriftDataReceiverConfiguration;
     private TServer authenticationServer;
     private TServer dataReceiverServer;
+    private TServer framedDataReceiverServer;
 
     /**
      * Initialize Carbon Agent Server.
@@ -106,6 +109,10 @@ public class ThriftDataReceiver {
                 dataBridgeReceiverService);
         startEventTransmission(hostName, thriftDataReceiverConfiguration.getDataReceiverPort(),
                 dataBridgeReceiverService);
+        if (thriftDataReceiverConfiguration.getFramedDataReceiverPort() != ThriftDataReceiverConstants.UNDEFINED) {
+            startFramedEventTransmission(hostName, thriftDataReceiverConfiguration.getFramedDataReceiverPort(),
+                    dataBridgeReceiverService);
+        }
     }
 
 
@@ -226,12 +233,44 @@ public class ThriftDataReceiver {
         }
     }
 
+    /**
+     * Start the event transmission over the framed transport, which is used by the asynchronous Thrift clients.
+     * The connections are served by a selector thread, and the requests are processed by the worker threads,
+     * hence a connection does not hold a thread while the client is waiting for the response.
+     */
+    protected void startFramedEventTransmission(String hostName, int port,
+                                                DataBridgeReceiverService dataBridgeReceiverService)
+            throws DataBridgeException {
+        try {
+            TNonblockingServerSocket serverTransport = new TNonblockingServerSocket(
+                    new InetSocketAddress(hostName, port));
+            ThriftEventTransmissionService.Processor<ThriftEventTransmissionServiceImpl> processor =
+                    new ThriftEventTransmissionService.Processor<ThriftEventTransmissionServiceImpl>(
+                            new ThriftEventTransmissionServiceImpl(dataBridgeReceiverService));
+            THsHaServer.Args args = new THsHaServer.Args(serverTransport).processor(processor)
+                    .workerThreads(thriftDataReceiverConfiguration.getTcpMaxWorkerThreads());
+            if (thriftDataReceiverConfiguration.getTcpStopTimeoutVal() != ThriftDataReceiverConstants.UNDEFINED) {
+                args.stopTimeoutVal(thriftDataReceiverConfiguration.getTcpStopTimeoutVal());
+            }
+            framedDataReceiverServer = new THsHaServer(args);
+            Thread thread = new Thread(new ServerThread(framedDataReceiverServer));
+            log.info("Thrift framed port : " + port);
+            thread.start();
+        } catch (TTransportException e) {
+            throw new DataBridgeException("Cannot start Thrift framed server on port " + port +
+                    " on host " + hostName, e);
+        }
+    }
+
     /**
      * To stop the server.
      */
     public void stop() {
         authenticationServer.stop();
         dataReceiverServer.stop();
+        if (framedDataReceiverServer != null) {
+            framedDataReceiverServer.stop();
+        }
     }
 
     static class ServerThread implements Runnable {
@@ -30,6 +30,7 @@ import org.wso2.carbon.databridge.receiver.thrift.internal.utils.ThriftDataRecei
 public class ThriftDataReceiverConfiguration {
     private int secureDataReceiverPort;
     private int dataReceiverPort;
+    private int framedDataReceiverPort = ThriftDataReceiverConstants.UNDEFINED;
     private String sslProtocols;
     private String ciphers;
     private String receiverHostName;
@@ -74,6 +75,12 @@ public class ThriftDataReceiverConfiguration {
             this.dataReceiverPort = CommonThriftConstants.DEFAULT_RECEIVER_PORT + portOffset;
         }
 
+        String framedTcpPortConfiguration = dataReceiverConfiguration.getProperties().get(
+                ThriftDataReceiverConstants.FRAMED_PORT_ELEMENT);
+        if (framedTcpPortConfiguration != null && !framedTcpPortConfiguration.trim().isEmpty()) {
+            this.framedDataReceiverPort = Integer.parseInt(framedTcpPortConfiguration.trim()) + portOffset;
+        }
+
         if (receiverHostName != null && !receiverHostName.trim().isEmpty()) {
             this.receiverHostName = receiverHostName;
         } else {
@@ -152,6 +159,18 @@ public class ThriftDataReceiverConfiguration {
         this.dataReceiverPort = dataReceiverPort;
     }
 
+    /**
+     * Returns the port of the framed transport used by the asynchronous Thrift clients, or
+     * {@link ThriftDataReceiverConstants#UNDEFINED} if the framed transport is not enabled.
+     */
+    public int getFramedDataReceiverPort() {
+        return framedDataReceiverPort;
+    }
+
+    public void setFramedDataReceiverPort(int framedDataReceiverPort) {
+        this.framedDataReceiverPort = framedDataReceiverPort;
+    }
+
     public int getSecureDataReceiverPort() {
         return secureDataReceiverPort;
     }
@@ -21,7 +21,9 @@ package org.wso2.carbon.databridge.receiver.thrift.converter;
 
 import org.wso2.carbon.databridge.commons.AttributeType;
 import org.wso2.carbon.databridge.commons.Event;
+import org.wso2.carbon.databridge.commons.ReceiverLoad;
 import org.wso2.carbon.databridge.commons.thrift.data.ThriftEventBundle;
+import org.wso2.carbon.databridge.commons.thrift.data.ThriftReceiverLoad;
 import org.wso2.carbon.databridge.commons.utils.DataBridgeCommonsUtils;
 import org.wso2.carbon.databridge.commons.utils.EventDefinitionConverterUtils;
 import org.wso2.carbon.databridge.core.EventConverter;
@@ -148,6 +150,19 @@ public final class ThriftEventConverter implements EventConverter {
         }
     }
 
+    /**
+     * Convert the load of the receiver to be returned with the publish acknowledgement.
+     *
+     * @return ThriftReceiverLoad, or null if the load is not available.
+     */
+    public static ThriftReceiverLoad toThriftReceiverLoad(ReceiverLoad receiverLoad) {
+        if (receiverLoad == null) {
+            return null;
+        }
+        return new ThriftReceiverLoad().setQueueFillPercentage(receiverLoad.getQueueFillPercentage())
+                .setDispatchLatencyMS(receiverLoad.getDispatchLatencyMS());
+    }
+
     private List<Event> createEventList(ThriftEventBundle thriftEventBundle,
                                         StreamTypeHolder streamTypeHolder) {
 
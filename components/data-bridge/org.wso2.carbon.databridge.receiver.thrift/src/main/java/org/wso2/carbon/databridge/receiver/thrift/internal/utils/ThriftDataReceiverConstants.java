@@ -28,6 +28,7 @@ public final class ThriftDataReceiverConstants {
     }
     public static final String SECURE_PORT_ELEMENT = "sslPort";
     public static final String PORT_ELEMENT = "tcpPort";
+    public static final String FRAMED_PORT_ELEMENT = "framedTcpPort";
     public static final String PROTOCOLS_ELEMENT = "sslEnabledProtocols";
     public static final String CIPHERS_ELEMENT = "ciphers";
     public static final String RECEIVER_HOST_NAME = "hostName";
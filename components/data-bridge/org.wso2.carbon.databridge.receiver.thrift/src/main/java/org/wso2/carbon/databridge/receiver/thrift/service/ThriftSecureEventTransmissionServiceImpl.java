@@ -25,6 +25,7 @@ import org.wso2.carbon.databridge.commons.exception.MalformedStreamDefinitionExc
 import org.wso2.carbon.databridge.commons.exception.SessionTimeoutException;
 import org.wso2.carbon.databridge.commons.exception.UndefinedEventTypeException;
 import org.wso2.carbon.databridge.commons.thrift.data.ThriftEventBundle;
+import org.wso2.carbon.databridge.commons.thrift.data.ThriftReceiverLoad;
 import org.wso2.carbon.databridge.commons.thrift.exception.ThriftAuthenticationException;
 import org.wso2.carbon.databridge.commons.thrift.exception.ThriftDifferentStreamDefinitionAlreadyDefinedException;
 import org.wso2.carbon.databridge.commons.thrift.exception.ThriftMalformedStreamDefinitionException;
@@ -122,10 +123,11 @@ public class ThriftSecureEventTransmissionServiceImpl
         }
     }
 
-    public void publish(ThriftEventBundle eventBundle)
+    public ThriftReceiverLoad publish(ThriftEventBundle eventBundle)
             throws ThriftUndefinedEventTypeException, ThriftSessionExpiredException, TException {
         try {
             dataBridgeReceiverService.publish(eventBundle, eventBundle.getSessionId(), eventConverter);
+            return ThriftEventConverter.toThriftReceiverLoad(dataBridgeReceiverService.getReceiverLoad());
         } catch (UndefinedEventTypeException e) {
             throw new ThriftUndefinedEventTypeException(e.getErrorMessage());
         } catch (SessionTimeoutException e) {